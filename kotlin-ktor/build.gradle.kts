@@ -35,8 +35,11 @@ dependencies {
   implementation(libs.ktor.server.core)
   implementation(libs.ktor.serialization.json)
   implementation(libs.ktor.server.call.logging)
-  implementation(libs.ktor.simple.cache)
-  implementation(libs.ktor.simple.redis.cache)
+  implementation(libs.jedis)
+  implementation(libs.r2dbc.spi)
+  implementation(libs.r2dbc.pool)
+  implementation(libs.r2dbc.postgresql)
+  implementation(libs.kotlinx.coroutines.reactive)
   implementation(libs.ktor.server.openapi)
   implementation(libs.ktor.server.request.validation)
   implementation(libs.ktor.server.netty)
@@ -45,9 +48,13 @@ dependencies {
 
   implementation("org.postgresql:postgresql:42.7.5")
   implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310:$jacksonVersion")
+  implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor:$jacksonVersion")
 
   testImplementation(libs.ktor.server.test.host)
   testImplementation(libs.kotlin.test.junit)
+  testImplementation(libs.h2)
+  testImplementation(libs.r2dbc.h2)
+  testImplementation(libs.testcontainers.postgresql)
 }
 
 tasks.register("databaseInstance") {
@@ -9,3 +9,5 @@ CREATE TABLE IF NOT EXISTS meetings (
 insert into meetings(title, date, start, "end") values ('Lunch phone call', now(), '12:00', '12:45');
 insert into meetings(title, date, start, "end") values ('Extended team standup', now(), '09:10', '10:45');
 insert into meetings(title, date, start, "end") values ('Design review', now(), '15:00', '15:30');
+
+CREATE INDEX IF NOT EXISTS meetings_date_start_idx ON meetings (date, start);
@@ -1,12 +1,33 @@
 package se.callistaenterprise.scheduler
 
 import io.ktor.server.application.Application
+import io.ktor.server.application.ApplicationStopped
 import io.ktor.server.config.yaml.YamlConfig
+import io.r2dbc.spi.Closeable
+import io.r2dbc.spi.ConnectionFactories
+import io.r2dbc.spi.ConnectionFactory
+import io.r2dbc.spi.ConnectionFactoryOptions
+import io.r2dbc.spi.Option
+import kotlinx.coroutines.reactive.awaitFirstOrNull
+import kotlinx.coroutines.runBlocking
+import redis.clients.jedis.JedisPooled
+import se.callistaenterprise.scheduler.cache.InMemoryCacheBackend
+import se.callistaenterprise.scheduler.cache.RedisCacheBackend
+import se.callistaenterprise.scheduler.cache.ResponseCache
+import se.callistaenterprise.scheduler.db.ConnectionPool
 import se.callistaenterprise.scheduler.plugins.configureMonitoring
 import se.callistaenterprise.scheduler.plugins.configureRouting
 import se.callistaenterprise.scheduler.plugins.configureSerialization
-import java.sql.Connection
+import se.callistaenterprise.scheduler.service.JdbcMeetingRepository
+import se.callistaenterprise.scheduler.service.MeetingRepository
+import se.callistaenterprise.scheduler.service.R2dbcMeetingRepository
+import java.net.URI
 import java.sql.DriverManager
+import java.time.Duration
+
+private const val DEFAULT_POOL_SIZE = 10
+private const val DEFAULT_CACHE_ENTRIES = 10_000
+private const val DEFAULT_CACHE_TTL_SECONDS = 60L
 
 fun main(args: Array<String>) {
     io.ktor.server.netty.EngineMain.main(args)
@@ -15,20 +36,80 @@ fun main(args: Array<String>) {
 fun Application.module() {
     configureSerialization()
     configureMonitoring()
-    configureRouting(dbConnection = connectToPostgres(embedded = false))
+    configureRouting(repository = createMeetingRepository(), responseCache = createResponseCache())
 }
 
-private fun Application.connectToPostgres(embedded: Boolean): Connection {
-    Class.forName("org.postgresql.Driver")
-    if (embedded) {
-        return DriverManager.getConnection("jdbc:postgresql://localhost/test;DB_CLOSE_DELAY=-1", "root", "")
-    } else {
-        val configs = YamlConfig("postgres.yaml")
-        val url =
-            "jdbc:postgresql://localhost:5432/" +
-                configs?.property("services.postgres.environment.POSTGRES_DB")?.getString()
-        val user = configs?.property("services.postgres.environment.POSTGRES_USER")?.getString()
-        val password = configs?.property("services.postgres.environment.POSTGRES_PASSWORD")?.getString()
-        return DriverManager.getConnection(url, user, password)
+// database.driver selects blocking JDBC on a bounded dispatcher or the non-blocking R2DBC driver
+private fun Application.createMeetingRepository(): MeetingRepository =
+    when (val driver = environment.config.propertyOrNull("database.driver")?.getString() ?: "jdbc") {
+        "jdbc" -> JdbcMeetingRepository(connectToPostgres(embedded = false))
+        "r2dbc" -> R2dbcMeetingRepository(connectToPostgresReactive())
+        else -> throw IllegalArgumentException("Unknown database driver: $driver")
     }
+
+private fun Application.createResponseCache(): ResponseCache {
+    val config = environment.config
+    val ttl = Duration.ofSeconds(config.propertyOrNull("cache.ttl-seconds")?.getString()?.toLong() ?: DEFAULT_CACHE_TTL_SECONDS)
+    val backend =
+        when (val name = config.propertyOrNull("cache.backend")?.getString() ?: "memory") {
+            "memory" -> {
+                val maxEntries = config.propertyOrNull("cache.max-entries")?.getString()?.toInt() ?: DEFAULT_CACHE_ENTRIES
+                InMemoryCacheBackend(maxEntries)
+            }
+            "redis" -> {
+                val redis = RedisCacheBackend(JedisPooled(URI(config.property("cache.redis.url").getString())))
+                monitor.subscribe(ApplicationStopped) { redis.close() }
+                redis
+            }
+            else -> throw IllegalArgumentException("Unknown cache backend: $name")
+        }
+    return ResponseCache(backend, ttl)
+}
+
+private fun Application.connectToPostgresReactive(): ConnectionFactory {
+    val poolSize = environment.config.propertyOrNull("database.pool.size")?.getString()?.toInt() ?: DEFAULT_POOL_SIZE
+    val configs = YamlConfig("postgres.yaml")
+
+    // The R2DBC options reject nulls, so a missing setting fails here with its name
+    fun postgres(name: String): String =
+        configs?.propertyOrNull("services.postgres.environment.$name")?.getString()
+            ?: throw IllegalStateException("Missing $name in postgres.yaml")
+
+    val options =
+        ConnectionFactoryOptions.builder()
+            .option(ConnectionFactoryOptions.DRIVER, "pool")
+            .option(ConnectionFactoryOptions.PROTOCOL, "postgresql")
+            .option(ConnectionFactoryOptions.HOST, "localhost")
+            .option(ConnectionFactoryOptions.PORT, 5432)
+            .option(ConnectionFactoryOptions.DATABASE, postgres("POSTGRES_DB"))
+            .option(ConnectionFactoryOptions.USER, postgres("POSTGRES_USER"))
+            .option(ConnectionFactoryOptions.PASSWORD, postgres("POSTGRES_PASSWORD"))
+            .option(Option.valueOf<Int>("maxSize"), poolSize)
+            .build()
+    val connectionFactory = ConnectionFactories.get(options)
+    monitor.subscribe(ApplicationStopped) {
+        runBlocking { (connectionFactory as? Closeable)?.close()?.awaitFirstOrNull() }
+    }
+    return connectionFactory
+}
+
+private fun Application.connectToPostgres(embedded: Boolean): ConnectionPool {
+    Class.forName("org.postgresql.Driver")
+    val poolSize = environment.config.propertyOrNull("database.pool.size")?.getString()?.toInt() ?: DEFAULT_POOL_SIZE
+    val pool =
+        if (embedded) {
+            ConnectionPool(poolSize) {
+                DriverManager.getConnection("jdbc:postgresql://localhost/test;DB_CLOSE_DELAY=-1", "root", "")
+            }
+        } else {
+            val configs = YamlConfig("postgres.yaml")
+            val url =
+                "jdbc:postgresql://localhost:5432/" +
+                    configs?.property("services.postgres.environment.POSTGRES_DB")?.getString()
+            val user = configs?.property("services.postgres.environment.POSTGRES_USER")?.getString()
+            val password = configs?.property("services.postgres.environment.POSTGRES_PASSWORD")?.getString()
+            ConnectionPool(poolSize) { DriverManager.getConnection(url, user, password) }
+        }
+    monitor.subscribe(ApplicationStopped) { pool.close() }
+    return pool
 }
@@ -0,0 +1,28 @@
+package se.callistaenterprise.scheduler.cache
+
+import java.time.Duration
+
+/**
+ * Storage for cached responses. Every entry is stored under one or more tags, and invalidating
+ * a tag removes every entry stored under it.
+ *
+ * The backend also keeps a generation that every invalidation increments before it removes
+ * anything. It lives with the entries so that invalidations by other instances sharing the
+ * backend are seen too.
+ */
+interface CacheBackend {
+    suspend fun generation(): Long
+
+    suspend fun get(key: String): ByteArray?
+
+    suspend fun put(
+        key: String,
+        value: ByteArray,
+        tags: Set<String>,
+        ttl: Duration,
+    )
+
+    suspend fun remove(key: String)
+
+    suspend fun invalidate(tags: Set<String>)
+}
@@ -0,0 +1,68 @@
+package se.callistaenterprise.scheduler.cache
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * An in-process [CacheBackend] holding at most [maxEntries] entries. When full, expired entries
+ * are dropped first and then arbitrary ones, which is good enough for a cache in front of a
+ * database. Also used as a local stand-in for [RedisCacheBackend].
+ */
+class InMemoryCacheBackend(
+    private val maxEntries: Int,
+    private val clock: () -> Long = System::nanoTime,
+) : CacheBackend {
+    private class Entry(val value: ByteArray, val tags: Set<String>, val expiresAt: Long)
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+    private val keysByTag = ConcurrentHashMap<String, MutableSet<String>>()
+    private val generation = AtomicLong()
+
+    val size: Int
+        get() = entries.size
+
+    override suspend fun generation(): Long = generation.get()
+
+    override suspend fun get(key: String): ByteArray? {
+        val entry = entries[key] ?: return null
+        if (entry.expiresAt - clock() <= 0) {
+            removeEntry(key)
+            return null
+        }
+        return entry.value
+    }
+
+    override suspend fun put(
+        key: String,
+        value: ByteArray,
+        tags: Set<String>,
+        ttl: Duration,
+    ) {
+        if (entries.size >= maxEntries) {
+            evict()
+        }
+        entries[key] = Entry(value, tags, clock() + ttl.toNanos())
+        tags.forEach { tag -> keysByTag.computeIfAbsent(tag) { ConcurrentHashMap.newKeySet() }.add(key) }
+    }
+
+    override suspend fun remove(key: String) = removeEntry(key)
+
+    override suspend fun invalidate(tags: Set<String>) {
+        generation.incrementAndGet()
+        tags.forEach { tag -> keysByTag.remove(tag)?.forEach(::removeEntry) }
+    }
+
+    private fun removeEntry(key: String) {
+        entries.remove(key)?.tags?.forEach { tag -> keysByTag[tag]?.remove(key) }
+    }
+
+    private fun evict() {
+        val now = clock()
+        entries.filterValues { it.expiresAt - now <= 0 }.keys.forEach(::removeEntry)
+        val excess = entries.size - maxEntries + 1
+        if (excess > 0) {
+            entries.keys.take(excess).forEach(::removeEntry)
+        }
+    }
+}
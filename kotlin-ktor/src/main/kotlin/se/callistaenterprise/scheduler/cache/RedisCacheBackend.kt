@@ -0,0 +1,65 @@
+package se.callistaenterprise.scheduler.cache
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import redis.clients.jedis.JedisPooled
+import java.io.Closeable
+import java.time.Duration
+
+/**
+ * A [CacheBackend] shared by all instances through Redis. Each tag is a Redis set holding the
+ * keys stored under it, and it expires together with the longest lived of those entries. The
+ * generation is a Redis counter, so an instance notices invalidations made by the others.
+ */
+class RedisCacheBackend(
+    private val redis: JedisPooled,
+    private val prefix: String = "scheduler:",
+) : CacheBackend,
+    Closeable {
+    override suspend fun generation(): Long =
+        withContext(Dispatchers.IO) {
+            redis.get(generationKey())?.toLong() ?: 0L
+        }
+
+    override suspend fun get(key: String): ByteArray? =
+        withContext(Dispatchers.IO) {
+            redis.get(entryKey(key).toByteArray())
+        }
+
+    override suspend fun put(
+        key: String,
+        value: ByteArray,
+        tags: Set<String>,
+        ttl: Duration,
+    ) = withContext(Dispatchers.IO) {
+        val entryKey = entryKey(key)
+        redis.psetex(entryKey.toByteArray(), ttl.toMillis(), value)
+        tags.forEach { tag ->
+            redis.sadd(tagKey(tag), entryKey)
+            redis.pexpire(tagKey(tag), ttl.toMillis())
+        }
+    }
+
+    override suspend fun remove(key: String) {
+        withContext(Dispatchers.IO) {
+            redis.del(entryKey(key))
+        }
+    }
+
+    override suspend fun invalidate(tags: Set<String>) =
+        withContext(Dispatchers.IO) {
+            redis.incr(generationKey())
+            tags.forEach { tag ->
+                val keys = redis.smembers(tagKey(tag))
+                redis.del(*(keys + tagKey(tag)).toTypedArray())
+            }
+        }
+
+    override fun close() = redis.close()
+
+    private fun entryKey(key: String) = "${prefix}entry:$key"
+
+    private fun tagKey(tag: String) = "${prefix}tag:$tag"
+
+    private fun generationKey() = "${prefix}generation"
+}
@@ -0,0 +1,71 @@
+package se.callistaenterprise.scheduler.cache
+
+import java.time.Duration
+import java.time.LocalDate
+
+/**
+ * Caches serialized GET responses for meetings and invalidates them when meetings change.
+ *
+ * Entries are tagged with what they depend on: the list of all meetings, a single meeting id or
+ * a date. A write invalidates the tags of the meetings it touched. A response computed while an
+ * invalidation happened, on this or any other instance sharing the backend, is not stored since
+ * it may already be stale.
+ */
+class ResponseCache(
+    private val backend: CacheBackend,
+    private val ttl: Duration,
+) {
+    init {
+        require(ttl >= Duration.ofMillis(1)) { "Cache ttl must be at least 1 ms, was $ttl" }
+    }
+
+    object Tags {
+        const val ALL = "all"
+
+        fun id(id: Long) = "id:$id"
+
+        fun date(date: LocalDate) = "date:$date"
+    }
+
+    /**
+     * Returns the cached value for [key], or computes it with [producer] and caches it unless it
+     * is null.
+     */
+    suspend fun getOrPut(
+        key: String,
+        tags: Set<String>,
+        producer: suspend () -> ByteArray?,
+    ): ByteArray? {
+        backend.get(key)?.let { return it }
+        val generation = backend.generation()
+        val value = producer() ?: return null
+        put(key, value, tags, generation)
+        return value
+    }
+
+    suspend fun get(key: String): ByteArray? = backend.get(key)
+
+    suspend fun generation(): Long = backend.generation()
+
+    /**
+     * Stores a value computed after [generation] was read, unless something was invalidated since.
+     * An invalidation can also start between the check and the put, so the generation is checked
+     * again afterwards and the entry removed if it changed.
+     */
+    suspend fun put(
+        key: String,
+        value: ByteArray,
+        tags: Set<String>,
+        generation: Long,
+    ) {
+        if (backend.generation() != generation) {
+            return
+        }
+        backend.put(key, value, tags, ttl)
+        if (backend.generation() != generation) {
+            backend.remove(key)
+        }
+    }
+
+    suspend fun invalidate(tags: Set<String>) = backend.invalidate(tags)
+}
@@ -0,0 +1,100 @@
+package se.callistaenterprise.scheduler.db
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.withContext
+import java.io.Closeable
+import java.sql.Connection
+import java.sql.SQLException
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A bounded pool of JDBC connections with a dedicated dispatcher.
+ *
+ * At most [size] connections are opened, lazily, and every database call runs on a dispatcher
+ * limited to the same parallelism, so blocking JDBC work can neither starve [Dispatchers.IO]
+ * nor wait for a connection while holding a thread. Each connection keeps its own prepared
+ * statement cache, see [PooledConnection].
+ *
+ * A borrower first takes one of [size] permits and then an idle connection, or opens a new one.
+ * Every release returns the permit, also when a broken connection is dropped instead of put back,
+ * so a waiting borrower always wakes up once there is room for a connection.
+ */
+class ConnectionPool(
+    val size: Int,
+    private val statementCacheSize: Int = DEFAULT_STATEMENT_CACHE_SIZE,
+    private val connectionFactory: () -> Connection,
+) : Closeable {
+    companion object {
+        const val DEFAULT_STATEMENT_CACHE_SIZE = 32
+    }
+
+    init {
+        require(size > 0) { "Pool size must be positive" }
+    }
+
+    val dispatcher: CoroutineDispatcher = Dispatchers.IO.limitedParallelism(size)
+
+    private val permits = Semaphore(size)
+    private val idle = Channel<PooledConnection>(capacity = size)
+    private val opened = AtomicInteger(0)
+
+    val openConnections: Int
+        get() = opened.get()
+
+    suspend fun <T> withConnection(block: (PooledConnection) -> T): T = withContext(dispatcher) { borrow { block(it) } }
+
+    /**
+     * Runs [block] with a connection on the caller's context. Only for callers that already run
+     * on [dispatcher], for example a flow upstream with `flowOn(pool.dispatcher)`.
+     */
+    suspend fun <T> borrow(block: suspend (PooledConnection) -> T): T {
+        val connection = acquire()
+        var healthy = true
+        try {
+            return block(connection)
+        } catch (e: SQLException) {
+            healthy = connection.isValid()
+            throw e
+        } finally {
+            release(connection, healthy)
+        }
+    }
+
+    override fun close() {
+        idle.close()
+        while (true) {
+            val connection = idle.tryReceive().getOrNull() ?: break
+            connection.close()
+        }
+    }
+
+    private suspend fun acquire(): PooledConnection {
+        permits.acquire()
+        // Holding a permit, either a connection is idle or fewer than size are open
+        idle.tryReceive().getOrNull()?.let { return it }
+        opened.incrementAndGet()
+        return runCatching { PooledConnection(connectionFactory(), statementCacheSize) }
+            .onFailure {
+                opened.decrementAndGet()
+                permits.release()
+            }.getOrThrow()
+    }
+
+    private fun release(
+        connection: PooledConnection,
+        healthy: Boolean,
+    ) {
+        try {
+            if (healthy && idle.trySend(connection).isSuccess) {
+                return
+            }
+            connection.close()
+            opened.decrementAndGet()
+        } finally {
+            permits.release()
+        }
+    }
+}
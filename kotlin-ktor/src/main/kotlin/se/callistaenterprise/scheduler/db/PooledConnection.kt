@@ -0,0 +1,72 @@
+package se.callistaenterprise.scheduler.db
+
+import java.io.Closeable
+import java.sql.Connection
+import java.sql.PreparedStatement
+
+/**
+ * A pooled connection that keeps its prepared statements open between calls.
+ *
+ * Statements are cached per SQL string in LRU order, so repeated queries skip the prepare step
+ * and drivers that support it (PostgreSQL) switch to server side prepared statements. Callers
+ * must not close the returned statements, only their result sets.
+ */
+class PooledConnection(
+    val connection: Connection,
+    private val statementCacheSize: Int,
+) : Closeable {
+    private val statements =
+        object : LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<StatementKey, PreparedStatement>): Boolean =
+                (size > statementCacheSize).also { evict -> if (evict) eldest.value.close() }
+        }
+
+    fun prepare(
+        sql: String,
+        returnGeneratedKeys: Boolean = false,
+        fetchSize: Int = 0,
+    ): PreparedStatement {
+        val statement =
+            statements.getOrPut(StatementKey(sql, returnGeneratedKeys)) {
+                if (returnGeneratedKeys) {
+                    connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)
+                } else {
+                    connection.prepareStatement(sql)
+                }
+            }
+        statement.clearParameters()
+        statement.fetchSize = fetchSize
+        return statement
+    }
+
+    /**
+     * Runs [block] in a read only transaction that is always rolled back, which drivers like
+     * PostgreSQL require for cursor based fetching with a fetch size. The connection is returned
+     * to the pool writable again.
+     */
+    suspend fun <T> inReadOnlyTransaction(block: suspend () -> T): T {
+        connection.autoCommit = false
+        connection.isReadOnly = true
+        try {
+            return block()
+        } finally {
+            runCatching { connection.rollback() }
+            connection.isReadOnly = false
+            connection.autoCommit = true
+        }
+    }
+
+    fun isValid(): Boolean = runCatching { connection.isValid(VALIDATION_TIMEOUT_SECONDS) }.getOrDefault(false)
+
+    override fun close() {
+        statements.values.forEach { runCatching { it.close() } }
+        statements.clear()
+        runCatching { connection.close() }
+    }
+
+    private data class StatementKey(val sql: String, val returnGeneratedKeys: Boolean)
+
+    private companion object {
+        const val VALIDATION_TIMEOUT_SECONDS = 2
+    }
+}
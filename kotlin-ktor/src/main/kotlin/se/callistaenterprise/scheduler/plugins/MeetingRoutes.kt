@@ -1,14 +1,19 @@
 package se.callistaenterprise.scheduler.plugins
 
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.databind.SerializationFeature
 import io.ktor.http.HttpStatusCode
 import io.ktor.server.application.Application
 import io.ktor.server.application.ApplicationCall
 import io.ktor.server.application.install
+import io.ktor.server.application.log
 import io.ktor.server.plugins.requestvalidation.RequestValidation
 import io.ktor.server.plugins.requestvalidation.ValidationResult.Invalid
 import io.ktor.server.plugins.requestvalidation.ValidationResult.Valid
 import io.ktor.server.request.receive
 import io.ktor.server.response.respond
+import io.ktor.server.response.respondBytes
+import io.ktor.server.response.respondOutputStream
 import io.ktor.server.routing.RoutingContext
 import io.ktor.server.routing.delete
 import io.ktor.server.routing.get
@@ -16,21 +21,32 @@ import io.ktor.server.routing.post
 import io.ktor.server.routing.put
 import io.ktor.server.routing.route
 import io.ktor.server.routing.routing
+import kotlinx.coroutines.flow.Flow
+import se.callistaenterprise.scheduler.cache.InMemoryCacheBackend
+import se.callistaenterprise.scheduler.cache.ResponseCache
+import se.callistaenterprise.scheduler.cache.ResponseCache.Tags
 import se.callistaenterprise.scheduler.model.Meeting
 import se.callistaenterprise.scheduler.service.MeetingRepository
 import se.callistaenterprise.scheduler.service.MeetingService
-import java.sql.Connection
+import se.callistaenterprise.scheduler.util.Representation
+import se.callistaenterprise.scheduler.util.representation
+import java.io.ByteArrayOutputStream
+import java.io.OutputStream
+import java.time.Duration
 import java.time.LocalDate
 import java.time.format.DateTimeParseException
 
-fun Application.configureRouting(dbConnection: Connection) {
+fun Application.configureRouting(
+    repository: MeetingRepository,
+    responseCache: ResponseCache = ResponseCache(InMemoryCacheBackend(maxEntries = 10_000), Duration.ofSeconds(60)),
+) {
     install(RequestValidation) {
         validate<Meeting> { meeting ->
             if (meeting.title.isBlank()) Invalid("Title cannot be blank") else Valid
         }
     }
 
-    val meetingService = MeetingService(MeetingRepository(dbConnection))
+    val meetingService = MeetingService(repository)
 
     routing {
         // Health check endpoint
@@ -39,24 +55,31 @@ fun Application.configureRouting(dbConnection: Connection) {
         route("/api/scheduler/meetings") {
             get {
                 handleRequest {
-                    val meetings = meetingService.all()
-                    call.respond(HttpStatusCode.OK, meetings)
+                    call.respondCachedArray(responseCache, "all", setOf(Tags.ALL), meetingService.stream())
                 }
             }
 
             get("/{id}") {
                 handleRequest {
                     val id = call.extractId()
-                    val meeting = meetingService.findById(id)
-                    call.respondWith(meeting, HttpStatusCode.OK, HttpStatusCode.NotFound)
+                    val representation = call.representation()
+                    val meeting =
+                        responseCache.getOrPut(representation.key("id:$id"), setOf(Tags.id(id))) {
+                            meetingService.findById(id)?.let(representation.mapper::writeValueAsBytes)
+                        }
+                    call.respondEncodedBytes(meeting, representation, HttpStatusCode.OK, HttpStatusCode.NotFound)
                 }
             }
 
             get("/find") {
                 handleRequest {
                     val (date, duration) = call.extractDateParams()
-                    val meetings = meetingService.findIntervals(date, duration)
-                    call.respondWith(meetings, HttpStatusCode.OK, HttpStatusCode.NotFound)
+                    val representation = call.representation()
+                    val meetings =
+                        responseCache.getOrPut(representation.key("find:$date:$duration"), setOf(Tags.date(date))) {
+                            representation.mapper.writeValueAsBytes(meetingService.findIntervals(date, duration))
+                        }
+                    call.respondEncodedBytes(meetings, representation, HttpStatusCode.OK, HttpStatusCode.NotFound)
                 }
             }
 
@@ -64,6 +87,7 @@ fun Application.configureRouting(dbConnection: Connection) {
                 handleRequest {
                     val meeting = call.receive<Meeting>()
                     val createdMeeting = meetingService.add(meeting)
+                    createdMeeting?.let { responseCache.invalidate(setOf(Tags.ALL, Tags.date(it.date))) }
                     call.respondWith(createdMeeting, HttpStatusCode.Created, HttpStatusCode.InternalServerError)
                 }
             }
@@ -72,7 +96,11 @@ fun Application.configureRouting(dbConnection: Connection) {
                 handleRequest {
                     val id = call.extractId()
                     val meeting = call.receive<Meeting>()
+                    val previous = meetingService.findById(id)
                     meetingService.update(id, meeting)
+                    responseCache.invalidate(
+                        setOfNotNull(Tags.ALL, Tags.id(id), Tags.date(meeting.date), previous?.let { Tags.date(it.date) }),
+                    )
                     call.response.status(HttpStatusCode.OK)
                 }
             }
@@ -80,7 +108,9 @@ fun Application.configureRouting(dbConnection: Connection) {
             delete("/{id}") {
                 handleRequest {
                     val id = call.extractId()
+                    val previous = meetingService.findById(id)
                     meetingService.delete(id)
+                    responseCache.invalidate(setOfNotNull(Tags.ALL, Tags.id(id), previous?.let { Tags.date(it.date) }))
                     call.response.status(HttpStatusCode.OK)
                 }
             }
@@ -106,6 +136,103 @@ private suspend inline fun <reified T> ApplicationCall.respondWith(
     result?.let { respond(onSuccessStatus, it) } ?: response.status(onFailureStatus)
 }
 
+// Number of elements written between flushes when streaming an array
+private const val STREAM_FLUSH_INTERVAL = 100
+
+// Streamed responses larger than this are sent but not cached
+private const val MAX_CACHED_STREAM_BYTES = 4 * 1024 * 1024
+
+private val streamingWriters =
+    Representation.entries.associateWith { it.mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE) }
+
+// Every representation is cached under its own key, the tags are shared so one write
+// invalidates them all
+private fun Representation.key(key: String): String = if (this == Representation.JSON) key else "${name.lowercase()}:$key"
+
+private suspend fun ApplicationCall.respondEncodedBytes(
+    body: ByteArray?,
+    representation: Representation,
+    onSuccessStatus: HttpStatusCode,
+    onFailureStatus: HttpStatusCode,
+) {
+    body?.let { respondBytes(it, representation.contentType, onSuccessStatus) } ?: response.status(onFailureStatus)
+}
+
+// Responds with the cached array if there is one. Otherwise the flow is streamed to the client
+// and, if the whole response fits within MAX_CACHED_STREAM_BYTES, cached on the way.
+private suspend fun <T> ApplicationCall.respondCachedArray(
+    cache: ResponseCache,
+    key: String,
+    tags: Set<String>,
+    elements: Flow<T>,
+) {
+    val representation = representation()
+    val representationKey = representation.key(key)
+    cache.get(representationKey)?.let { return respondBytes(it, representation.contentType, HttpStatusCode.OK) }
+
+    val generation = cache.generation()
+    respondOutputStream(representation.contentType, HttpStatusCode.OK) {
+        val output = CapturingOutputStream(this, MAX_CACHED_STREAM_BYTES)
+        try {
+            writeArray(output, representation, elements)
+        } catch (e: Exception) {
+            // The status is already sent, rethrowing makes the engine abort the connection so the
+            // client sees a broken response instead of a well formed but truncated array
+            application.log.error("Streaming ${request.local.uri} failed, aborting the response", e)
+            throw e
+        }
+        output.captured()?.let { cache.put(representationKey, it, tags, generation) }
+    }
+}
+
+// Writes the elements of the flow as an array while they are produced, flushing every
+// STREAM_FLUSH_INTERVAL elements so the client gets the first bytes before the query is done.
+// The array is only closed when the flow completes, a failing flow leaves it open.
+private suspend fun <T> writeArray(
+    output: OutputStream,
+    representation: Representation,
+    elements: Flow<T>,
+) {
+    val writer = streamingWriters.getValue(representation)
+    representation.mapper.createGenerator(output).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT).use { generator ->
+        var count = 0
+        generator.writeStartArray()
+        elements.collect { element ->
+            writer.writeValue(generator, element)
+            if (++count % STREAM_FLUSH_INTERVAL == 0) {
+                generator.flush()
+            }
+        }
+        generator.writeEndArray()
+    }
+}
+
+// Passes everything through and keeps a copy, until more than 'limit' bytes have been written
+private class CapturingOutputStream(
+    private val output: OutputStream,
+    private val limit: Int,
+) : OutputStream() {
+    private var copy: ByteArrayOutputStream? = ByteArrayOutputStream()
+
+    override fun write(b: Int) = write(byteArrayOf(b.toByte()), 0, 1)
+
+    override fun write(
+        b: ByteArray,
+        off: Int,
+        len: Int,
+    ) {
+        output.write(b, off, len)
+        copy = copy?.takeIf { it.size() + len <= limit }?.apply { write(b, off, len) }
+    }
+
+    override fun flush() = output.flush()
+
+    // The generator closes its target when done, the response stream is closed by Ktor
+    override fun close() = output.flush()
+
+    fun captured(): ByteArray? = copy?.toByteArray()
+}
+
 private fun ApplicationCall.extractId(): Long = parameters["id"]?.toLong() ?: throw IllegalArgumentException("Invalid meeting ID")
 
 private fun ApplicationCall.extractDateParams(): Pair<LocalDate, Long> {
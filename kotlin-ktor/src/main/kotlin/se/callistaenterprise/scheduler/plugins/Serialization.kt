@@ -5,10 +5,12 @@ import io.ktor.serialization.jackson.JacksonConverter
 import io.ktor.server.application.Application
 import io.ktor.server.application.install
 import io.ktor.server.plugins.contentnegotiation.ContentNegotiation
-import se.callistaenterprise.scheduler.util.JsonMapper.defaultMapper
+import se.callistaenterprise.scheduler.util.CborMapper
+import se.callistaenterprise.scheduler.util.JsonMapper
 
 fun Application.configureSerialization() {
     install(ContentNegotiation) {
-        register(ContentType.Application.Json, JacksonConverter(defaultMapper))
+        register(ContentType.Application.Json, JacksonConverter(JsonMapper.defaultMapper))
+        register(ContentType.Application.Cbor, JacksonConverter(CborMapper.defaultMapper))
     }
 }
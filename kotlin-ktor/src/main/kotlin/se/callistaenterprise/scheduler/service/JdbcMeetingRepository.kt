@@ -0,0 +1,210 @@
+package se.callistaenterprise.scheduler.service
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import se.callistaenterprise.scheduler.db.ConnectionPool
+import se.callistaenterprise.scheduler.db.PooledConnection
+import se.callistaenterprise.scheduler.exceptions.DbElementInsertException
+import se.callistaenterprise.scheduler.exceptions.DbElementNotFoundException
+import se.callistaenterprise.scheduler.model.Meeting
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import java.time.LocalDate
+
+object MeetingQueries {
+    const val SELECT_ALL_MEETINGS = "SELECT * FROM meetings ORDER BY date, start"
+    const val SELECT_MEETING_BY_ID = "SELECT * FROM meetings WHERE id = ?"
+    const val SELECT_MEETING_BY_DATE = "SELECT * FROM meetings WHERE date = ?"
+    const val INSERT_MEETING = "INSERT INTO meetings (title, date, start, \"end\") VALUES (?, ?, ?, ?)"
+
+    // Serializes bookings per day with a transaction scoped advisory lock keyed on the epoch day,
+    // then inserts only if no meeting on that day overlaps [start, end], endpoints included.
+    // Both statements are sent in one round-trip and run in the same implicit transaction, and
+    // the insert takes a fresh snapshot after the lock is granted, so concurrent bookings for
+    // the same day cannot both pass the check. The overlap check uses the (date, start) index.
+    const val INSERT_MEETING_IF_AVAILABLE =
+        """
+        SELECT pg_advisory_xact_lock(?);
+        INSERT INTO meetings (title, date, start, "end")
+        SELECT ?, ?, ?, ?
+        WHERE NOT EXISTS (SELECT 1 FROM meetings WHERE date = ? AND start <= ? AND "end" >= ?)
+        RETURNING id, title, date, start, "end"
+        """
+    const val UPDATE_MEETING = "UPDATE meetings SET title = ?, date = ?, start = ?, \"end\" = ? WHERE id = ?"
+    const val DELETE_MEETING = "DELETE FROM meetings WHERE id = ?"
+}
+
+class JdbcMeetingRepository(private val pool: ConnectionPool) : MeetingRepository {
+    companion object {
+        const val STREAM_FETCH_SIZE = 500
+    }
+
+    // Create new Meeting
+    override suspend fun create(meeting: Meeting): Long =
+        pool.withConnection { connection ->
+            connection.useUpdate(
+                MeetingQueries.INSERT_MEETING,
+                listOf(
+                    meeting.title,
+                    toSqlDate(meeting.date),
+                    toSqlTime(meeting.start),
+                    toSqlTime(meeting.end),
+                ),
+            ) { statement ->
+                statement.generatedKeys.use { generatedKeys ->
+                    if (generatedKeys.next()) {
+                        generatedKeys.getLong(1)
+                    } else {
+                        throw DbElementInsertException("Unable to retrieve the id of the newly inserted Meeting")
+                    }
+                }
+            }
+        }
+
+    // Create a new Meeting unless it overlaps an existing one, returns null on conflict
+    override suspend fun createIfAvailable(meeting: Meeting): Meeting? =
+        pool.withConnection { connection ->
+            val statement = connection.prepare(MeetingQueries.INSERT_MEETING_IF_AVAILABLE)
+            setParameters(
+                statement,
+                listOf(
+                    meeting.date.toEpochDay(),
+                    meeting.title,
+                    toSqlDate(meeting.date),
+                    toSqlTime(meeting.start),
+                    toSqlTime(meeting.end),
+                    toSqlDate(meeting.date),
+                    toSqlTime(meeting.end),
+                    toSqlTime(meeting.start),
+                ),
+            )
+            statement.execute() // first result is the advisory lock
+            if (!statement.getMoreResults()) {
+                throw DbElementInsertException("Conflict checked insert returned no result")
+            }
+            statement.resultSet.use { resultSet ->
+                if (resultSet.next()) resultSetToMeeting(resultSet) else null
+            }
+        }
+
+    // Generalized Read: All Meetings or by Date
+    suspend fun read(
+        query: String,
+        parameter: Any? = null,
+    ): List<Meeting> =
+        pool.withConnection { connection ->
+            connection.useQuery(query, listOfNotNull(parameter)) { resultSet ->
+                generateSequence {
+                    if (resultSet.next()) resultSetToMeeting(resultSet) else null
+                }.toList()
+            }
+        }
+
+    override suspend fun readAll(): List<Meeting> = read(MeetingQueries.SELECT_ALL_MEETINGS)
+
+    // Stream all Meetings, fetching STREAM_FETCH_SIZE rows per round-trip through a cursor.
+    // The connection is held until the flow completes or its collector is cancelled.
+    override fun streamAll(): Flow<Meeting> =
+        flow {
+            pool.borrow { connection ->
+                connection.inReadOnlyTransaction {
+                    val statement = connection.prepare(MeetingQueries.SELECT_ALL_MEETINGS, fetchSize = STREAM_FETCH_SIZE)
+                    statement.executeQuery().use { resultSet ->
+                        while (resultSet.next()) {
+                            emit(resultSetToMeeting(resultSet))
+                        }
+                    }
+                }
+            }
+        }.flowOn(pool.dispatcher)
+
+    override suspend fun read(date: LocalDate): List<Meeting> = read(MeetingQueries.SELECT_MEETING_BY_DATE, toSqlDate(date))
+
+    // Read a single Meeting by Id
+    override suspend fun read(id: Long): Meeting =
+        pool.withConnection { connection ->
+            connection.useQuery(MeetingQueries.SELECT_MEETING_BY_ID, listOf(id)) { resultSet ->
+                if (resultSet.next()) {
+                    resultSetToMeeting(resultSet)
+                } else {
+                    throw DbElementNotFoundException("Record not found for ID: $id")
+                }
+            }
+        }
+
+    // Update a Meeting
+    override suspend fun update(
+        id: Long,
+        meeting: Meeting,
+    ) = pool.withConnection { connection ->
+        connection.useUpdate(
+            MeetingQueries.UPDATE_MEETING,
+            listOf(
+                meeting.title,
+                toSqlDate(meeting.date),
+                toSqlTime(meeting.start),
+                toSqlTime(meeting.end),
+                id,
+            ),
+        ) {}
+    }
+
+    // Delete a Meeting
+    override suspend fun delete(id: Long) =
+        pool.withConnection { connection ->
+            connection.useUpdate(MeetingQueries.DELETE_MEETING, listOf(id)) {}
+        }
+
+    // Utility to Abstract Query Execution with Resource Management.
+    // Statements are cached by the pooled connection, so only the result set is closed here.
+    private fun <T> PooledConnection.useQuery(
+        query: String,
+        parameters: List<Any>,
+        block: (ResultSet) -> T,
+    ): T {
+        val statement = prepare(query)
+        setParameters(statement, parameters)
+        return statement.executeQuery().use(block)
+    }
+
+    // Utility to Abstract Update Execution with Resource Management
+    private fun <T> PooledConnection.useUpdate(
+        query: String,
+        parameters: List<Any>,
+        block: (PreparedStatement) -> T,
+    ): T {
+        val statement = prepare(query, returnGeneratedKeys = true)
+        setParameters(statement, parameters)
+        statement.executeUpdate()
+        return block(statement)
+    }
+
+    private fun setParameters(
+        statement: PreparedStatement,
+        parameters: List<Any>,
+    ) {
+        parameters.forEachIndexed { index, parameter ->
+            when (parameter) {
+                is String -> statement.setString(index + 1, parameter)
+                is java.sql.Date -> statement.setDate(index + 1, parameter)
+                is java.sql.Time -> statement.setTime(index + 1, parameter)
+                is Long -> statement.setLong(index + 1, parameter)
+            }
+        }
+    }
+
+    // Mapping ResultSet to Meeting
+    private fun resultSetToMeeting(resultSet: ResultSet): Meeting {
+        val id = resultSet.getLong("id")
+        val title = resultSet.getString("title")
+        val date = resultSet.getDate("date").toLocalDate()
+        val start = resultSet.getTime("start").toLocalTime()
+        val end = resultSet.getTime("end").toLocalTime()
+        return Meeting(id, title, date, start, end)
+    }
+
+    private fun toSqlDate(date: LocalDate): java.sql.Date = java.sql.Date.valueOf(date)
+
+    private fun toSqlTime(time: java.time.LocalTime): java.sql.Time = java.sql.Time.valueOf(time)
+}
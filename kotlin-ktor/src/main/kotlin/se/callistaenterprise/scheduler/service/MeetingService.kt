@@ -1,5 +1,6 @@
 package se.callistaenterprise.scheduler.service
 
+import kotlinx.coroutines.flow.Flow
 import se.callistaenterprise.scheduler.config.Days
 import se.callistaenterprise.scheduler.config.WorkingHours
 import se.callistaenterprise.scheduler.model.Meeting
@@ -14,9 +15,10 @@ class MeetingService(private val repository: MeetingRepository) {
 
     private val workingHours = WorkingHours("08:00", "17:00")
 
+    // The overlap check and the insert are done by the database in a single round-trip
     suspend fun add(meeting: Meeting): Meeting? {
-        return if (isTimeAvailable(meeting)) {
-            repository.create(meeting).let { repository.read(it) }
+        return if (isWorkingDay(meeting.date) && isWithinWorkingHours(meeting)) {
+            repository.createIfAvailable(meeting)
         } else {
             null
         }
@@ -24,6 +26,8 @@ class MeetingService(private val repository: MeetingRepository) {
 
     suspend fun all(): List<Meeting> = repository.readAll()
 
+    fun stream(): Flow<Meeting> = repository.streamAll()
+
     suspend fun findById(id: Long): Meeting? {
         return runCatching { repository.read(id) }.getOrNull()
     }
@@ -86,37 +90,10 @@ class MeetingService(private val repository: MeetingRepository) {
         }
     }
 
-    private suspend fun isTimeAvailable(meeting: Meeting): Boolean {
-        return isWorkingDay(meeting.date) &&
-            !hasConflictingMeetings(meeting) &&
-            isMeetingDurationValid(meeting)
-    }
-
-    private suspend fun hasConflictingMeetings(meeting: Meeting): Boolean {
-        val sameDayMeetings = repository.read(meeting.date)
-        return sameDayMeetings.any { isOverlapping(meeting, it) }
-    }
-
-    private fun isOverlapping(
-        meeting1: Meeting,
-        meeting2: Meeting,
-    ): Boolean {
-        return isTimeBetween(meeting1.start, meeting2.start, meeting2.end) ||
-            isTimeBetween(meeting1.end, meeting2.start, meeting2.end)
-    }
-
-    private suspend fun isMeetingDurationValid(meeting: Meeting): Boolean {
-        val allMeetingsWithBoundaries = addWorkingHourBoundaries(repository.read(meeting.date), meeting.date)
-        val meetingDuration = Duration.between(meeting.start, meeting.end).toMinutes()
-        return calculateMeetingGapDurations(allMeetingsWithBoundaries).any { it > meetingDuration }
-    }
-
-    private fun isTimeBetween(
-        time: LocalTime,
-        start: LocalTime,
-        end: LocalTime,
-    ): Boolean {
-        return !time.isBefore(start) && !time.isAfter(end)
+    private fun isWithinWorkingHours(meeting: Meeting): Boolean {
+        return meeting.start.isBefore(meeting.end) &&
+            !meeting.start.isBefore(workingHours.startOfDay) &&
+            !meeting.end.isAfter(workingHours.endOfDay)
     }
 
     private fun isWorkingDay(date: LocalDate): Boolean {
@@ -0,0 +1,168 @@
+package se.callistaenterprise.scheduler.service
+
+import io.r2dbc.spi.Connection
+import io.r2dbc.spi.ConnectionFactory
+import io.r2dbc.spi.Row
+import io.r2dbc.spi.Statement
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.firstOrNull
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.reactive.asFlow
+import kotlinx.coroutines.reactive.awaitFirstOrNull
+import kotlinx.coroutines.withContext
+import se.callistaenterprise.scheduler.exceptions.DbElementInsertException
+import se.callistaenterprise.scheduler.exceptions.DbElementNotFoundException
+import se.callistaenterprise.scheduler.model.Meeting
+import java.time.LocalDate
+import java.time.LocalTime
+
+object R2dbcMeetingQueries {
+    const val SELECT_ALL_MEETINGS = "SELECT * FROM meetings ORDER BY date, start"
+    const val SELECT_MEETING_BY_ID = "SELECT * FROM meetings WHERE id = $1"
+    const val SELECT_MEETING_BY_DATE = "SELECT * FROM meetings WHERE date = $1 ORDER BY start"
+    const val INSERT_MEETING = "INSERT INTO meetings (title, date, start, \"end\") VALUES ($1, $2, $3, $4)"
+
+    // The driver cannot send the lock and the insert as one prepared statement, so they run as
+    // two statements inside one transaction. The advisory lock is held until commit.
+    const val LOCK_DAY = "SELECT pg_advisory_xact_lock($1)"
+    const val INSERT_MEETING_IF_AVAILABLE =
+        """
+        INSERT INTO meetings (title, date, start, "end")
+        SELECT $1, $2, $3, $4
+        WHERE NOT EXISTS (SELECT 1 FROM meetings WHERE date = $2 AND start <= $4 AND "end" >= $3)
+        """
+    const val UPDATE_MEETING = "UPDATE meetings SET title = $1, date = $2, start = $3, \"end\" = $4 WHERE id = $5"
+    const val DELETE_MEETING = "DELETE FROM meetings WHERE id = $1"
+}
+
+// Repository on a non-blocking driver. No thread is held while a query is in flight, so the number
+// of concurrent requests is bounded by the connection factory's pool rather than by threads.
+class R2dbcMeetingRepository(private val connectionFactory: ConnectionFactory) : MeetingRepository {
+    override suspend fun create(meeting: Meeting): Long =
+        withConnection { connection ->
+            connection.insert(R2dbcMeetingQueries.INSERT_MEETING, meeting)
+                ?: throw DbElementInsertException("Unable to retrieve the id of the newly inserted Meeting")
+        }
+
+    override suspend fun createIfAvailable(meeting: Meeting): Meeting? =
+        withConnection { connection ->
+            connection.inTransaction {
+                connection.createStatement(R2dbcMeetingQueries.LOCK_DAY)
+                    .bind(0, meeting.date.toEpochDay())
+                    .query { }
+                    .toList()
+                connection.insert(R2dbcMeetingQueries.INSERT_MEETING_IF_AVAILABLE, meeting)?.let { id ->
+                    meeting.copy(id = id)
+                }
+            }
+        }
+
+    override suspend fun readAll(): List<Meeting> = streamAll().toList()
+
+    // Rows are requested from the driver as the collector consumes them
+    override fun streamAll(): Flow<Meeting> =
+        flow {
+            withConnection { connection ->
+                emitAll(connection.createStatement(R2dbcMeetingQueries.SELECT_ALL_MEETINGS).query(::rowToMeeting))
+            }
+        }
+
+    override suspend fun read(date: LocalDate): List<Meeting> =
+        withConnection { connection ->
+            connection.createStatement(R2dbcMeetingQueries.SELECT_MEETING_BY_DATE)
+                .bind(0, date)
+                .query(::rowToMeeting)
+                .toList()
+        }
+
+    override suspend fun read(id: Long): Meeting =
+        withConnection { connection ->
+            connection.createStatement(R2dbcMeetingQueries.SELECT_MEETING_BY_ID)
+                .bind(0, id)
+                .query(::rowToMeeting)
+                .firstOrNull() ?: throw DbElementNotFoundException("Record not found for ID: $id")
+        }
+
+    override suspend fun update(
+        id: Long,
+        meeting: Meeting,
+    ) {
+        withConnection { connection ->
+            connection.createStatement(R2dbcMeetingQueries.UPDATE_MEETING)
+                .bindMeeting(meeting)
+                .bind(4, id)
+                .update()
+        }
+    }
+
+    override suspend fun delete(id: Long) {
+        withConnection { connection ->
+            connection.createStatement(R2dbcMeetingQueries.DELETE_MEETING)
+                .bind(0, id)
+                .update()
+        }
+    }
+
+    // Acquires a connection without blocking and always closes it, also when the caller is cancelled
+    private suspend fun <T> withConnection(block: suspend (Connection) -> T): T {
+        val connection = connectionFactory.create().awaitFirstOrNull() ?: throw IllegalStateException("No connection")
+        try {
+            return block(connection)
+        } finally {
+            withContext(NonCancellable) { connection.close().awaitFirstOrNull() }
+        }
+    }
+
+    private suspend fun <T> Connection.inTransaction(block: suspend () -> T): T {
+        beginTransaction().awaitFirstOrNull()
+        val result =
+            try {
+                block()
+            } catch (e: Throwable) {
+                withContext(NonCancellable) { rollbackTransaction().awaitFirstOrNull() }
+                throw e
+            }
+        commitTransaction().awaitFirstOrNull()
+        return result
+    }
+
+    // Inserts a Meeting and returns its generated id, or null if no row was inserted
+    private suspend fun Connection.insert(
+        query: String,
+        meeting: Meeting,
+    ): Long? =
+        createStatement(query)
+            .bindMeeting(meeting)
+            .returnGeneratedValues("id")
+            .query { row -> (row.get("id") as Number).toLong() }
+            .firstOrNull()
+
+    private fun Statement.bindMeeting(meeting: Meeting): Statement =
+        bind(0, meeting.title)
+            .bind(1, meeting.date)
+            .bind(2, meeting.start)
+            .bind(3, meeting.end)
+
+    private fun <T : Any> Statement.query(mapper: (Row) -> T): Flow<T> =
+        flow {
+            execute().asFlow().collect { result ->
+                emitAll(result.map { row, _ -> mapper(row) }.asFlow())
+            }
+        }
+
+    private suspend fun Statement.update(): Long =
+        execute().asFlow().toList().sumOf { result -> result.rowsUpdated.awaitFirstOrNull() ?: 0L }
+
+    // Mapping Row to Meeting
+    private fun rowToMeeting(row: Row): Meeting {
+        val id = (row.get("id") as Number).toLong()
+        val title = row.get("title", String::class.java)!!
+        val date = row.get("date", LocalDate::class.java)!!
+        val start = row.get("start", LocalTime::class.java)!!
+        val end = row.get("end", LocalTime::class.java)!!
+        return Meeting(id, title, date, start, end)
+    }
+}
@@ -0,0 +1,15 @@
+package se.callistaenterprise.scheduler.util
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper
+import com.fasterxml.jackson.module.kotlin.kotlinModule
+
+object CborMapper {
+    // Dates and times as integers, see compactTimeModule
+    val defaultMapper: ObjectMapper =
+        CBORMapper
+            .builder()
+            .addModule(kotlinModule())
+            .addModule(compactTimeModule())
+            .build()
+}
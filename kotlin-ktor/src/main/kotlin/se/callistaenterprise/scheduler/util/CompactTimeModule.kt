@@ -0,0 +1,80 @@
+package se.callistaenterprise.scheduler.util
+
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.SerializerProvider
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer
+import com.fasterxml.jackson.databind.module.SimpleModule
+import com.fasterxml.jackson.databind.ser.std.StdSerializer
+import java.time.LocalDate
+import java.time.LocalTime
+
+// Writes dates as their epoch day and times as their minute of the day, both as plain integers,
+// so binary payloads carry no date strings to format or parse. Meeting times are whole minutes,
+// seconds are dropped. ISO strings are still accepted when reading.
+fun compactTimeModule(): SimpleModule =
+    SimpleModule("CompactTimeModule")
+        .addSerializer(LocalDate::class.java, EpochDaySerializer())
+        .addDeserializer(LocalDate::class.java, EpochDayDeserializer())
+        .addSerializer(LocalTime::class.java, MinuteOfDaySerializer())
+        .addDeserializer(LocalTime::class.java, MinuteOfDayDeserializer())
+
+private const val MINUTES_PER_HOUR = 60
+private const val MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR
+
+private class EpochDaySerializer : StdSerializer<LocalDate>(LocalDate::class.java) {
+    override fun serialize(
+        value: LocalDate,
+        generator: JsonGenerator,
+        provider: SerializerProvider,
+    ) = generator.writeNumber(value.toEpochDay())
+}
+
+private class EpochDayDeserializer : StdDeserializer<LocalDate>(LocalDate::class.java) {
+    override fun deserialize(
+        parser: JsonParser,
+        context: DeserializationContext,
+    ): LocalDate =
+        when (parser.currentToken) {
+            JsonToken.VALUE_NUMBER_INT -> LocalDate.ofEpochDay(parser.longValue)
+            JsonToken.VALUE_STRING -> LocalDate.parse(parser.text)
+            else -> context.handleUnexpectedToken(LocalDate::class.java, parser) as LocalDate
+        }
+}
+
+private class MinuteOfDaySerializer : StdSerializer<LocalTime>(LocalTime::class.java) {
+    override fun serialize(
+        value: LocalTime,
+        generator: JsonGenerator,
+        provider: SerializerProvider,
+    ) = generator.writeNumber(value.hour * MINUTES_PER_HOUR + value.minute)
+}
+
+private class MinuteOfDayDeserializer : StdDeserializer<LocalTime>(LocalTime::class.java) {
+    override fun deserialize(
+        parser: JsonParser,
+        context: DeserializationContext,
+    ): LocalTime =
+        when (parser.currentToken) {
+            JsonToken.VALUE_NUMBER_INT -> fromMinuteOfDay(parser.intValue, context)
+            JsonToken.VALUE_STRING -> LocalTime.parse(parser.text)
+            else -> context.handleUnexpectedToken(LocalTime::class.java, parser) as LocalTime
+        }
+
+    private fun fromMinuteOfDay(
+        minuteOfDay: Int,
+        context: DeserializationContext,
+    ): LocalTime =
+        if (minuteOfDay in 0 until MINUTES_PER_DAY) {
+            LocalTime.of(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR)
+        } else {
+            context.handleWeirdNumberValue(
+                LocalTime::class.java,
+                minuteOfDay,
+                "minute of the day must be between 0 and %d",
+                MINUTES_PER_DAY - 1,
+            ) as LocalTime
+        }
+}
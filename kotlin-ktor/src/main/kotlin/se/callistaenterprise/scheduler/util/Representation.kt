@@ -0,0 +1,29 @@
+package se.callistaenterprise.scheduler.util
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.ktor.http.ContentType
+import io.ktor.server.application.ApplicationCall
+import io.ktor.server.request.acceptItems
+
+// The representations meetings are sent in. JSON is the default, CBOR is chosen when the client
+// prefers application/cbor in its Accept header. Types accepted with q=0 are not acceptable.
+enum class Representation(
+    val contentType: ContentType,
+    val mapper: ObjectMapper,
+) {
+    JSON(ContentType.Application.Json, JsonMapper.defaultMapper),
+    CBOR(ContentType.Application.Cbor, CborMapper.defaultMapper),
+}
+
+fun ApplicationCall.representation(): Representation =
+    request
+        .acceptItems()
+        .filter { item -> item.quality > 0 }
+        .firstNotNullOfOrNull { item ->
+            val accepted = ContentType.parse(item.value)
+            when {
+                accepted.match(ContentType.Application.Cbor) -> Representation.CBOR
+                accepted.match(ContentType.Application.Json) -> Representation.JSON
+                else -> null
+            }
+        } ?: Representation.JSON
@@ -0,0 +1,105 @@
+package se.callistaenterprise.scheduler.cache
+
+import kotlinx.coroutines.runBlocking
+import java.time.Duration
+import java.time.LocalDate
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNull
+
+class ResponseCacheTest {
+    private var now = 0L
+    private val backend = InMemoryCacheBackend(maxEntries = 3) { now }
+    private val cache = ResponseCache(backend, Duration.ofSeconds(10))
+    private val date = LocalDate.of(2025, 3, 14)
+
+    @Test
+    fun testValueIsProducedOnceUntilInvalidated() =
+        runBlocking {
+            var produced = 0
+            val producer = suspend { "value ${++produced}".toByteArray() }
+
+            cache.getOrPut("find:$date:30", setOf(ResponseCache.Tags.date(date)), producer)
+            val cached = cache.getOrPut("find:$date:30", setOf(ResponseCache.Tags.date(date)), producer)
+            assertContentEquals("value 1".toByteArray(), cached)
+
+            cache.invalidate(setOf(ResponseCache.Tags.date(date)))
+            val refreshed = cache.getOrPut("find:$date:30", setOf(ResponseCache.Tags.date(date)), producer)
+            assertContentEquals("value 2".toByteArray(), refreshed)
+        }
+
+    @Test
+    fun testInvalidationOnlyRemovesTaggedEntries() =
+        runBlocking {
+            cache.getOrPut("id:1", setOf(ResponseCache.Tags.id(1))) { byteArrayOf(1) }
+            cache.getOrPut("id:2", setOf(ResponseCache.Tags.id(2))) { byteArrayOf(2) }
+
+            cache.invalidate(setOf(ResponseCache.Tags.id(1)))
+
+            assertNull(cache.get("id:1"))
+            assertContentEquals(byteArrayOf(2), cache.get("id:2"))
+        }
+
+    @Test
+    fun testValueProducedDuringInvalidationIsNotCached() =
+        runBlocking {
+            cache.getOrPut("all", setOf(ResponseCache.Tags.ALL)) {
+                cache.invalidate(setOf(ResponseCache.Tags.ALL))
+                byteArrayOf(1)
+            }
+
+            assertNull(cache.get("all"))
+        }
+
+    @Test
+    fun testValueProducedDuringInvalidationByAnotherInstanceIsNotCached() =
+        runBlocking {
+            val otherInstance = ResponseCache(backend, Duration.ofSeconds(10))
+
+            cache.getOrPut("all", setOf(ResponseCache.Tags.ALL)) {
+                otherInstance.invalidate(setOf(ResponseCache.Tags.ALL))
+                byteArrayOf(1)
+            }
+
+            assertNull(cache.get("all"))
+        }
+
+    @Test
+    fun testValueStoredWhileAnInvalidationStartsIsRemoved() =
+        runBlocking {
+            val racingBackend =
+                object : CacheBackend by backend {
+                    override suspend fun put(
+                        key: String,
+                        value: ByteArray,
+                        tags: Set<String>,
+                        ttl: Duration,
+                    ) {
+                        // The invalidation removes nothing yet, the stale value is stored after it
+                        backend.invalidate(tags)
+                        backend.put(key, value, tags, ttl)
+                    }
+                }
+
+            ResponseCache(racingBackend, Duration.ofSeconds(10)).getOrPut("all", setOf(ResponseCache.Tags.ALL)) { byteArrayOf(1) }
+
+            assertNull(cache.get("all"))
+        }
+
+    @Test
+    fun testTtlBelowOneMillisecondIsRejected() {
+        assertFailsWith<IllegalArgumentException> { ResponseCache(backend, Duration.ofNanos(500_000)) }
+    }
+
+    @Test
+    fun testEntriesExpireAndSizeIsBounded() =
+        runBlocking {
+            repeat(5) { id -> cache.getOrPut("id:$id", setOf(ResponseCache.Tags.id(id.toLong()))) { byteArrayOf(0) } }
+            assertEquals(3, backend.size)
+
+            now += Duration.ofSeconds(11).toNanos()
+            assertNull(cache.get("id:4"))
+        }
+}
@@ -0,0 +1,54 @@
+package se.callistaenterprise.scheduler.db
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import kotlinx.coroutines.yield
+import java.sql.DriverManager
+import java.sql.SQLException
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class ConnectionPoolTest {
+    companion object {
+        private const val JDBC_URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1"
+    }
+
+    private val pool = ConnectionPool(1) { DriverManager.getConnection(JDBC_URL) }
+
+    @AfterTest
+    fun tearDown() {
+        pool.close()
+    }
+
+    @Test
+    fun testWaiterGetsANewConnectionWhenABrokenOneIsDropped() =
+        runBlocking {
+            val borrowed = CompletableDeferred<Unit>()
+            val breaking = CompletableDeferred<Unit>()
+            val broken =
+                launch {
+                    runCatching {
+                        pool.borrow { connection ->
+                            borrowed.complete(Unit)
+                            breaking.await()
+                            connection.connection.close()
+                            throw SQLException("Connection lost")
+                        }
+                    }
+                }
+            borrowed.await()
+            val waiting = async { pool.borrow { connection -> connection.isValid() } }
+            yield()
+
+            breaking.complete(Unit)
+            broken.join()
+
+            assertTrue(withTimeout(5_000) { waiting.await() })
+            assertEquals(1, pool.openConnections)
+        }
+}
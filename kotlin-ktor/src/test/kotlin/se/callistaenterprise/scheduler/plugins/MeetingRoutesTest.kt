@@ -0,0 +1,162 @@
+package se.callistaenterprise.scheduler.plugins
+
+import io.ktor.client.request.accept
+import io.ktor.client.request.get
+import io.ktor.client.request.header
+import io.ktor.client.request.post
+import io.ktor.client.request.setBody
+import io.ktor.client.statement.bodyAsBytes
+import io.ktor.client.statement.bodyAsText
+import io.ktor.http.ContentType
+import io.ktor.http.HttpHeaders
+import io.ktor.http.HttpStatusCode
+import io.ktor.http.contentType
+import io.ktor.server.testing.ApplicationTestBuilder
+import io.ktor.server.testing.testApplication
+import io.r2dbc.h2.H2ConnectionFactory
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.onCompletion
+import se.callistaenterprise.scheduler.model.Meeting
+import se.callistaenterprise.scheduler.service.MeetingRepository
+import se.callistaenterprise.scheduler.service.R2dbcMeetingRepository
+import se.callistaenterprise.scheduler.util.CborMapper
+import java.sql.DriverManager
+import java.time.LocalDate
+import java.time.LocalTime
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class MeetingRoutesTest {
+    companion object {
+        private const val DATABASE = "routes;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+        private const val JDBC_URL = "jdbc:h2:mem:$DATABASE;DB_CLOSE_DELAY=-1"
+
+        // H2 has no advisory locks, a no-op stands in for pg_advisory_xact_lock
+        @JvmStatic
+        fun advisoryLock(key: Long) = Unit
+    }
+
+    private val date = LocalDate.of(2025, 3, 14)
+    private val keepAlive = DriverManager.getConnection(JDBC_URL, "sa", "")
+    private val repository = R2dbcMeetingRepository(H2ConnectionFactory.inMemory(DATABASE, "sa", ""))
+
+    @BeforeTest
+    fun setUp() {
+        keepAlive.createStatement().use { statement ->
+            statement.execute(
+                """
+                CREATE TABLE IF NOT EXISTS meetings (
+                    "id" SERIAL PRIMARY KEY,
+                    "title" VARCHAR(255) NOT NULL,
+                    "date" DATE NOT NULL,
+                    "start" TIME NOT NULL,
+                    "end" TIME NOT NULL
+                )
+                """.trimIndent(),
+            )
+            statement.execute(
+                "CREATE ALIAS IF NOT EXISTS pg_advisory_xact_lock FOR \"${MeetingRoutesTest::class.java.name}.advisoryLock\"",
+            )
+            statement.execute(
+                "INSERT INTO meetings (title, date, start, \"end\") VALUES ('Standup', DATE '2025-03-14', TIME '09:00', TIME '09:15')",
+            )
+        }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        keepAlive.createStatement().use { it.execute("DROP TABLE meetings") }
+        keepAlive.close()
+    }
+
+    @Test
+    fun testMeetingsAreJsonByDefault() =
+        testScheduler {
+            val response = client.get("/api/scheduler/meetings")
+
+            assertEquals(ContentType.Application.Json, response.contentType()?.withoutParameters())
+            assertTrue(response.bodyAsText().contains("\"date\" : \"2025-03-14\""))
+        }
+
+    @Test
+    fun testMeetingsAreCborWhenAccepted() =
+        testScheduler {
+            val response = client.get("/api/scheduler/meetings") { accept(ContentType.Application.Cbor) }
+
+            assertEquals(ContentType.Application.Cbor, response.contentType()?.withoutParameters())
+            val meeting = CborMapper.defaultMapper.readTree(response.bodyAsBytes()).first()
+            assertEquals(date.toEpochDay(), meeting["date"].longValue())
+            assertEquals(9 * 60, meeting["start"].intValue())
+            assertEquals(9 * 60 + 15, meeting["end"].intValue())
+        }
+
+    @Test
+    fun testMeetingIsCreatedFromCbor() =
+        testScheduler {
+            val meeting = Meeting(null, "Review", date, LocalTime.of(13, 0), LocalTime.of(14, 0))
+
+            val response =
+                client.post("/api/scheduler/meetings") {
+                    contentType(ContentType.Application.Cbor)
+                    accept(ContentType.Application.Cbor)
+                    setBody(CborMapper.defaultMapper.writeValueAsBytes(meeting))
+                }
+
+            assertEquals(HttpStatusCode.Created, response.status)
+            val created = CborMapper.defaultMapper.readValue(response.bodyAsBytes(), Meeting::class.java)
+            assertEquals(meeting.copy(id = created.id), created)
+        }
+
+    @Test
+    fun testCborIsNotSentWhenAcceptedWithQualityZero() =
+        testScheduler {
+            val response = client.get("/api/scheduler/meetings") { header(HttpHeaders.Accept, "application/cbor;q=0, */*") }
+
+            assertEquals(ContentType.Application.Json, response.contentType()?.withoutParameters())
+        }
+
+    @Test
+    fun testMinuteOfDayOutOfRangeIsRejected() =
+        testScheduler {
+            val response =
+                client.post("/api/scheduler/meetings") {
+                    contentType(ContentType.Application.Cbor)
+                    setBody(
+                        CborMapper.defaultMapper.writeValueAsBytes(
+                            mapOf("title" to "Review", "date" to date.toEpochDay(), "start" to 600, "end" to 1440),
+                        ),
+                    )
+                }
+
+            assertEquals(HttpStatusCode.BadRequest, response.status)
+        }
+
+    @Test
+    fun testFailingStreamDoesNotEndTheArray() {
+        val failing =
+            object : MeetingRepository by repository {
+                override fun streamAll(): Flow<Meeting> =
+                    repository.streamAll().onCompletion { throw IllegalStateException("Connection lost") }
+            }
+
+        testScheduler(failing) {
+            val body = runCatching { client.get("/api/scheduler/meetings").bodyAsText() }
+
+            assertTrue(body.isFailure || !body.getOrThrow().trimEnd().endsWith("]"), "Truncated array: $body")
+        }
+    }
+
+    private fun testScheduler(
+        meetingRepository: MeetingRepository = repository,
+        block: suspend ApplicationTestBuilder.() -> Unit,
+    ) = testApplication {
+        application {
+            configureSerialization()
+            configureRouting(meetingRepository)
+        }
+        block()
+    }
+}
@@ -0,0 +1,106 @@
+package se.callistaenterprise.scheduler.service
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.junit.Assume
+import org.testcontainers.DockerClientFactory
+import org.testcontainers.containers.PostgreSQLContainer
+import se.callistaenterprise.scheduler.db.ConnectionPool
+import se.callistaenterprise.scheduler.model.Meeting
+import java.sql.DriverManager
+import java.time.LocalDate
+import java.time.LocalTime
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+// H2 cannot parse INSERT ... RETURNING, so the conflict checked insert runs against a real Postgres
+class JdbcMeetingRepositoryPostgresTest {
+    companion object {
+        private const val CONCURRENT_BOOKINGS = 50
+
+        private val postgres by lazy {
+            PostgreSQLContainer<Nothing>("postgres:16-alpine").apply { start() }
+        }
+    }
+
+    private val date = LocalDate.of(2025, 3, 14)
+    private lateinit var pool: ConnectionPool
+    private lateinit var repository: JdbcMeetingRepository
+
+    @BeforeTest
+    fun setUp() {
+        Assume.assumeTrue("Docker is not available", DockerClientFactory.instance().isDockerAvailable)
+        pool = ConnectionPool(8) { DriverManager.getConnection(postgres.jdbcUrl, postgres.username, postgres.password) }
+        repository = JdbcMeetingRepository(pool)
+        DriverManager.getConnection(postgres.jdbcUrl, postgres.username, postgres.password).use { connection ->
+            connection.createStatement().use { statement ->
+                statement.execute(
+                    """
+                    CREATE TABLE meetings (
+                        "id" SERIAL PRIMARY KEY,
+                        "title" VARCHAR(255) NOT NULL,
+                        "date" DATE NOT NULL,
+                        "start" TIME NOT NULL,
+                        "end" TIME NOT NULL
+                    )
+                    """.trimIndent(),
+                )
+            }
+        }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        if (!::pool.isInitialized) return
+        pool.close()
+        DriverManager.getConnection(postgres.jdbcUrl, postgres.username, postgres.password).use { connection ->
+            connection.createStatement().use { it.execute("DROP TABLE meetings") }
+        }
+    }
+
+    @Test
+    fun testCreateIfAvailableReturnsTheStoredMeeting() =
+        runBlocking {
+            val created = repository.createIfAvailable(meeting("Planning", 9, 10))
+
+            assertNotNull(created)
+            assertNotNull(created.id)
+            assertEquals(listOf(created), repository.read(date))
+        }
+
+    @Test
+    fun testCreateIfAvailableRejectsOverlappingAndTouchingMeetings() =
+        runBlocking {
+            assertNotNull(repository.createIfAvailable(meeting("Planning", 9, 10)))
+
+            assertNull(repository.createIfAvailable(meeting("Overlapping", 9, 11)))
+            assertNull(repository.createIfAvailable(meeting("Touching", 10, 11)))
+            assertNotNull(repository.createIfAvailable(meeting("Later", 11, 12)))
+            assertEquals(2, repository.read(date).size)
+        }
+
+    @Test
+    fun testConcurrentBookingsOfTheSameSlotInsertExactlyOneRow() =
+        runBlocking {
+            val results =
+                (1..CONCURRENT_BOOKINGS)
+                    .map { index ->
+                        async(Dispatchers.IO) { repository.createIfAvailable(meeting("Booking $index", 9, 10)) }
+                    }.awaitAll()
+
+            assertEquals(1, results.count { it != null })
+            assertEquals(1, repository.read(date).size)
+        }
+
+    private fun meeting(
+        title: String,
+        startHour: Int,
+        endHour: Int,
+    ) = Meeting(null, title, date, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0))
+}
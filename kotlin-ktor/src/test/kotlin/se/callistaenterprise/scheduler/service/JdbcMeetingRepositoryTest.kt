@@ -0,0 +1,76 @@
+package se.callistaenterprise.scheduler.service
+
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import se.callistaenterprise.scheduler.db.ConnectionPool
+import se.callistaenterprise.scheduler.model.Meeting
+import java.sql.DriverManager
+import java.time.LocalDate
+import java.time.LocalTime
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class JdbcMeetingRepositoryTest {
+    companion object {
+        private const val JDBC_URL = "jdbc:h2:mem:repository;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+        private const val MEETINGS = 1_200
+    }
+
+    private val date = LocalDate.of(2025, 3, 14)
+    private val keepAlive = DriverManager.getConnection(JDBC_URL)
+    private val pool = ConnectionPool(1) { DriverManager.getConnection(JDBC_URL) }
+    private val repository = JdbcMeetingRepository(pool)
+
+    @BeforeTest
+    fun setUp() {
+        keepAlive.createStatement().use { statement ->
+            statement.execute(
+                """
+                CREATE TABLE IF NOT EXISTS meetings (
+                    "id" SERIAL PRIMARY KEY,
+                    "title" VARCHAR(255) NOT NULL,
+                    "date" DATE NOT NULL,
+                    "start" TIME NOT NULL,
+                    "end" TIME NOT NULL
+                )
+                """.trimIndent(),
+            )
+        }
+        runBlocking {
+            repeat(MEETINGS) { index ->
+                val start = LocalTime.of(8, 0).plusSeconds(index.toLong())
+                repository.create(Meeting(null, "Meeting $index", date, start, start.plusMinutes(15)))
+            }
+        }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        pool.close()
+        keepAlive.createStatement().use { it.execute("DROP TABLE meetings") }
+        keepAlive.close()
+    }
+
+    @Test
+    fun testStreamAllReturnsEveryMeetingInOrder() =
+        runBlocking {
+            val streamed = repository.streamAll().toList()
+
+            assertEquals(MEETINGS, streamed.size)
+            assertEquals(repository.readAll(), streamed)
+        }
+
+    @Test
+    fun testCancelledStreamReleasesItsConnection() =
+        runBlocking {
+            val firstThree = repository.streamAll().take(3).toList()
+
+            assertEquals(listOf("Meeting 0", "Meeting 1", "Meeting 2"), firstThree.map { it.title })
+            // The pool has a single connection, so this only completes if the stream released it
+            assertEquals(MEETINGS, repository.readAll().size)
+            assertEquals(1, pool.openConnections)
+        }
+}
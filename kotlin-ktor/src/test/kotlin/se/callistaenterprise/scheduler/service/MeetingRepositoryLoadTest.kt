@@ -0,0 +1,144 @@
+package se.callistaenterprise.scheduler.service
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.runBlocking
+import se.callistaenterprise.scheduler.db.ConnectionPool
+import se.callistaenterprise.scheduler.model.Meeting
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.DriverManager
+import java.sql.PreparedStatement
+import java.time.LocalDate
+import java.time.LocalTime
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.system.measureNanoTime
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+/**
+ * Runs the same concurrent read workload through a single connection pool and a larger one,
+ * against an in-memory H2 database in PostgreSQL mode. Every query is delayed by a fixed time,
+ * standing in for the round-trip to a database server, so the larger pool has to overlap the
+ * waits to be faster.
+ */
+class MeetingRepositoryLoadTest {
+    companion object {
+        private const val JDBC_URL = "jdbc:h2:mem:scheduler;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+        private const val DAYS = 20
+        private const val MEETINGS_PER_DAY = 8
+        private const val CONCURRENT_REQUESTS = 64
+        private const val REQUESTS_PER_CLIENT = 10
+        private const val QUERY_LATENCY_MILLIS = 2L
+        private const val MIN_SPEEDUP = 3.0
+    }
+
+    private val firstDay = LocalDate.of(2025, 3, 3)
+    private val keepAlive = DriverManager.getConnection(JDBC_URL)
+
+    @BeforeTest
+    fun setUp() {
+        keepAlive.createStatement().use { statement ->
+            statement.execute(
+                """
+                CREATE TABLE IF NOT EXISTS meetings (
+                    "id" SERIAL PRIMARY KEY,
+                    "title" VARCHAR(255) NOT NULL,
+                    "date" DATE NOT NULL,
+                    "start" TIME NOT NULL,
+                    "end" TIME NOT NULL
+                )
+                """.trimIndent(),
+            )
+        }
+        ConnectionPool(1) { DriverManager.getConnection(JDBC_URL) }.use { pool ->
+            val repository = JdbcMeetingRepository(pool)
+            runBlocking {
+                for (day in 0 until DAYS) {
+                    for (slot in 0 until MEETINGS_PER_DAY) {
+                        val start = LocalTime.of(8, 0).plusMinutes(slot * 60L)
+                        repository.create(
+                            Meeting(null, "Meeting $day-$slot", firstDay.plusDays(day.toLong()), start, start.plusMinutes(30)),
+                        )
+                    }
+                }
+            }
+        }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        keepAlive.createStatement().use { it.execute("DROP TABLE meetings") }
+        keepAlive.close()
+    }
+
+    @Test
+    fun testPoolIsBoundedAndServesConcurrentRequests() {
+        val single = runWorkload(poolSize = 1)
+        val pooled = runWorkload(poolSize = 8)
+
+        assertTrue(
+            pooled > single * MIN_SPEEDUP,
+            "Pool size 8 served %.0f requests/s, pool size 1 %.0f".format(pooled, single),
+        )
+    }
+
+    private fun runWorkload(poolSize: Int): Double {
+        val opened = AtomicInteger(0)
+        ConnectionPool(poolSize) {
+            opened.incrementAndGet()
+            withLatency(DriverManager.getConnection(JDBC_URL))
+        }.use { pool ->
+            val repository = JdbcMeetingRepository(pool)
+            val elapsed =
+                measureNanoTime {
+                    runBlocking {
+                        coroutineScope {
+                            (0 until CONCURRENT_REQUESTS).map { client ->
+                                async {
+                                    repeat(REQUESTS_PER_CLIENT) { request ->
+                                        val date = firstDay.plusDays(((client + request) % DAYS).toLong())
+                                        assertEquals(MEETINGS_PER_DAY, repository.read(date).size)
+                                    }
+                                }
+                            }.awaitAll()
+                        }
+                    }
+                }
+            assertTrue(opened.get() <= poolSize, "Opened ${opened.get()} connections for a pool of $poolSize")
+            return CONCURRENT_REQUESTS * REQUESTS_PER_CLIENT / (elapsed / 1_000_000_000.0)
+        }
+    }
+
+    private fun withLatency(connection: Connection): Connection =
+        proxy(connection) { method, result ->
+            if (method.name == "prepareStatement") {
+                proxy(result as PreparedStatement) { _, statementResult -> statementResult }
+            } else {
+                result
+            }
+        }
+
+    private inline fun <reified T : Any> proxy(
+        target: T,
+        crossinline after: (Method, Any?) -> Any?,
+    ): T =
+        Proxy.newProxyInstance(T::class.java.classLoader, arrayOf(T::class.java)) { _, method, arguments ->
+            if (method.name == "executeQuery") {
+                Thread.sleep(QUERY_LATENCY_MILLIS)
+            }
+            val result =
+                try {
+                    method.invoke(target, *(arguments ?: emptyArray()))
+                } catch (e: InvocationTargetException) {
+                    throw e.targetException
+                }
+            after(method, result)
+        } as T
+}
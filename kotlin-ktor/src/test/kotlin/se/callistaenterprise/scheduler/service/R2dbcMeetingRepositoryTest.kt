@@ -0,0 +1,105 @@
+package se.callistaenterprise.scheduler.service
+
+import io.r2dbc.h2.H2ConnectionFactory
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import se.callistaenterprise.scheduler.exceptions.DbElementNotFoundException
+import se.callistaenterprise.scheduler.model.Meeting
+import java.sql.DriverManager
+import java.time.LocalDate
+import java.time.LocalTime
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+class R2dbcMeetingRepositoryTest {
+    companion object {
+        private const val DATABASE = "r2dbc;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+        private const val JDBC_URL = "jdbc:h2:mem:$DATABASE;DB_CLOSE_DELAY=-1"
+
+        // H2 has no advisory locks, a no-op stands in for pg_advisory_xact_lock
+        @JvmStatic
+        fun advisoryLock(key: Long) = Unit
+    }
+
+    private val date = LocalDate.of(2025, 3, 14)
+    private val keepAlive = DriverManager.getConnection(JDBC_URL, "sa", "")
+    private val repository = R2dbcMeetingRepository(H2ConnectionFactory.inMemory(DATABASE, "sa", ""))
+
+    @BeforeTest
+    fun setUp() {
+        keepAlive.createStatement().use { statement ->
+            statement.execute(
+                """
+                CREATE TABLE IF NOT EXISTS meetings (
+                    "id" SERIAL PRIMARY KEY,
+                    "title" VARCHAR(255) NOT NULL,
+                    "date" DATE NOT NULL,
+                    "start" TIME NOT NULL,
+                    "end" TIME NOT NULL
+                )
+                """.trimIndent(),
+            )
+            statement.execute(
+                "CREATE ALIAS IF NOT EXISTS pg_advisory_xact_lock FOR \"${R2dbcMeetingRepositoryTest::class.java.name}.advisoryLock\"",
+            )
+        }
+    }
+
+    @AfterTest
+    fun tearDown() {
+        keepAlive.createStatement().use { it.execute("DROP TABLE meetings") }
+        keepAlive.close()
+    }
+
+    @Test
+    fun testCreateReadUpdateAndDelete() =
+        runBlocking<Unit> {
+            val id = repository.create(meeting("Standup", 9, 0, 9, 15))
+
+            assertEquals("Standup", repository.read(id).title)
+
+            repository.update(id, meeting("Retro", 10, 0, 11, 0))
+            assertEquals(listOf(meeting("Retro", 10, 0, 11, 0).copy(id = id)), repository.read(date))
+
+            repository.delete(id)
+            assertFailsWith<DbElementNotFoundException> { repository.read(id) }
+        }
+
+    @Test
+    fun testCreateIfAvailableRejectsOverlap() =
+        runBlocking {
+            val created = repository.createIfAvailable(meeting("Planning", 13, 0, 14, 0))
+            assertNotNull(created?.id)
+
+            assertNull(repository.createIfAvailable(meeting("Overlapping", 13, 30, 14, 30)))
+            assertNotNull(repository.createIfAvailable(meeting("Later", 14, 15, 15, 0)))
+            assertEquals(listOf("Planning", "Later"), repository.readAll().map { it.title })
+        }
+
+    @Test
+    fun testManyConcurrentCallsShareOneThread() =
+        runBlocking {
+            val id = repository.create(meeting("Review", 15, 0, 15, 30))
+
+            // runBlocking is single threaded, so all calls are in flight as suspended coroutines
+            val titles = List(1_000) { async { repository.read(id).title } }.awaitAll()
+
+            assertEquals(1_000, titles.count { it == "Review" })
+            assertEquals(1, repository.streamAll().toList().size)
+        }
+
+    private fun meeting(
+        title: String,
+        startHour: Int,
+        startMinute: Int,
+        endHour: Int,
+        endMinute: Int,
+    ) = Meeting(null, title, date, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute))
+}
@@ -0,0 +1,25 @@
+package se.callistaenterprise.loadtest;
+
+import java.util.Random;
+
+/*
+ How requests arrive in the open model. The arrival times are fixed up front by the rate and
+ never wait for responses, so a slow server cannot slow the load down.
+*/
+public enum Arrival {
+  CONSTANT {
+    @Override
+    double nextIntervalNanos(Random random, double ratePerSecond) {
+      return 1e9 / ratePerSecond;
+    }
+  },
+  POISSON {
+    @Override
+    double nextIntervalNanos(Random random, double ratePerSecond) {
+      // Exponentially distributed gaps give a Poisson process with the given mean rate
+      return -Math.log(1.0 - random.nextDouble()) * 1e9 / ratePerSecond;
+    }
+  };
+
+  abstract double nextIntervalNanos(Random random, double ratePerSecond);
+}
@@ -0,0 +1,63 @@
+package se.callistaenterprise.loadtest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ A reproducible set of non-overlapping meetings on consecutive working days. The same seed,
+ size and days always give the same meetings, so both services are loaded with equal data.
+*/
+public record Dataset(List<LocalDate> days, List<Meeting> meetings) {
+
+  static final LocalTime START_OF_DAY = LocalTime.of(8, 0);
+  static final LocalTime END_OF_DAY = LocalTime.of(17, 0);
+
+  public record Meeting(String title, LocalDate date, LocalTime start, LocalTime end) {}
+
+  /*
+   Spreads up to 'size' meetings round robin over 'dayCount' working days from 'firstDay'.
+   Fewer meetings are generated if the days fill up.
+  */
+  public static Dataset generate(long seed, int size, LocalDate firstDay, int dayCount) {
+    Random random = new Random(seed);
+    List<LocalDate> days = workingDays(firstDay, dayCount);
+    LocalTime[] nextFree = new LocalTime[days.size()];
+    List<Meeting> meetings = new ArrayList<>(size);
+
+    int full = 0;
+    for (int i = 0; meetings.size() < size && full < days.size(); i++) {
+      int day = i % days.size();
+      if (nextFree[day] == null) {
+        nextFree[day] = START_OF_DAY;
+      } else if (nextFree[day].equals(END_OF_DAY)) {
+        continue;
+      }
+
+      LocalTime start = nextFree[day].plusMinutes(15L * random.nextInt(3));
+      LocalTime end = start.plusMinutes(15L * (1 + random.nextInt(3)));
+      if (end.isAfter(END_OF_DAY)) {
+        nextFree[day] = END_OF_DAY;
+        full++;
+        continue;
+      }
+      // Leave a minute between meetings since both services treat touching meetings as overlapping
+      nextFree[day] = end.plusMinutes(1);
+      meetings.add(new Meeting("Seeded meeting " + meetings.size(), days.get(day), start, end));
+    }
+    return new Dataset(List.copyOf(days), List.copyOf(meetings));
+  }
+
+  private static List<LocalDate> workingDays(LocalDate firstDay, int count) {
+    List<LocalDate> days = new ArrayList<>(count);
+    for (LocalDate date = firstDay; days.size() < count; date = date.plusDays(1)) {
+      if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+        days.add(date);
+      }
+    }
+    return days;
+  }
+}
@@ -0,0 +1,74 @@
+package se.callistaenterprise.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/*
+ Latency histograms and outcome counts per operation, safe to record from any thread.
+ Latencies are recorded in microseconds with three significant digits.
+*/
+public class LatencyRecorder {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+  public LatencyRecorder() {
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new Stats());
+    }
+  }
+
+  /*
+   Records a response, or a failure when 'status' is negative
+  */
+  public void record(Operation operation, long latencyNanos, int status) {
+    Stats operationStats = stats.get(operation);
+    long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+    operationStats.histogram.recordValue(Math.max(micros, 1L));
+    if (status < 0) {
+      operationStats.errors.increment();
+    } else {
+      operationStats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+  }
+
+  /*
+   Records a request that was due but not sent since too many were already in flight
+  */
+  public void recordDropped(Operation operation) {
+    stats.get(operation).dropped.increment();
+  }
+
+  public Histogram histogram(Operation operation) {
+    return stats.get(operation).histogram.copy();
+  }
+
+  public long errors(Operation operation) {
+    return stats.get(operation).errors.sum();
+  }
+
+  public long dropped(Operation operation) {
+    return stats.get(operation).dropped.sum();
+  }
+
+  public Map<Integer, Long> statuses(Operation operation) {
+    Map<Integer, Long> statuses = new TreeMap<>();
+    stats.get(operation).statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+    return statuses;
+  }
+
+  private static class Stats {
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+  }
+}
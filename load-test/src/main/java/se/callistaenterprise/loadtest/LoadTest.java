@@ -0,0 +1,133 @@
+package se.callistaenterprise.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ Runs a seeded, open-model load test against one of the scheduler services on localhost.
+
+ The dataset is booked first, then the workload runs for a warmup period that is discarded,
+ and then for the measured period. The summary is printed and the full report is written as
+ JSON. Run the same arguments against both services to compare them. With startup as the
+ first argument, the startup benchmark runs instead, see StartupBenchmark, and with jfr a
+ recording of the service is summarized, see RecordingSummary.
+*/
+public class LoadTest {
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("startup")) {
+      StartupBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("jfr")) {
+      RecordingSummary.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    LoadTestConfig config = LoadTestConfig.parse(args);
+    HttpClient http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(config.timeout())
+            .build();
+    SchedulerClient client = new SchedulerClient(http, config.baseUrl(), config.timeout());
+
+    Dataset dataset =
+        Dataset.generate(
+            config.seed(), config.datasetSize(), config.datasetStart(), config.datasetDays());
+    int accepted = client.seed(dataset);
+    System.out.printf(
+        "Seeded %d of %d meetings over %d days at %s%n",
+        accepted, dataset.meetings().size(), dataset.days().size(), config.baseUrl());
+
+    if (!config.warmup().isZero()) {
+      System.out.printf("Warming up for %ds%n", config.warmup().toSeconds());
+      runner(config, client, config.seed() + 1)
+          .run(config.warmup(), config.timeout(), new LatencyRecorder());
+    }
+
+    System.out.printf(
+        "Running %.0f req/s (%s) for %ds%n",
+        config.rate(), config.arrival().name().toLowerCase(), config.duration().toSeconds());
+    Instant startedAt = Instant.now();
+    LatencyRecorder recorder = new LatencyRecorder();
+    Optional<Duration> cpuBefore = serviceCpu(config);
+    runner(config, client, config.seed()).run(config.duration(), config.timeout(), recorder);
+    Optional<Duration> cpuAfter = serviceCpu(config);
+
+    Map<String, Report.Summary> summaries = Report.summarize(recorder, config.duration());
+    Map<String, Report.Summary> operations = new LinkedHashMap<>(summaries);
+    Report report =
+        new Report(
+            config.service(),
+            config.baseUrl().toString(),
+            startedAt.toString(),
+            new Report.Settings(
+                config.rate(),
+                config.arrival().name().toLowerCase(),
+                config.duration().toSeconds(),
+                config.warmup().toSeconds(),
+                config.seed(),
+                config.mix().toLabels(),
+                dataset.meetings().size(),
+                dataset.days().size()),
+            operations.remove("total"),
+            operations,
+            cpuBefore.isPresent() && cpuAfter.isPresent()
+                ? Report.ServiceCpu.of(
+                    cpuAfter.get().minus(cpuBefore.get()),
+                    summaries.get("total").completed(),
+                    config.duration())
+                : null);
+    report.write(config.report());
+
+    print(summaries);
+    if (report.serviceCpu() != null) {
+      System.out.printf(
+          "Service used %.0f ms CPU, %.1f us per request, %.2f cores%n",
+          report.serviceCpu().cpuMillis(),
+          report.serviceCpu().cpuMicrosPerRequest(),
+          report.serviceCpu().utilization());
+    }
+    System.out.printf("Report written to %s%n", config.report().toAbsolutePath());
+  }
+
+  /*
+   Total CPU time of the service process so far, if a pid was given and the OS reports it
+  */
+  private static Optional<Duration> serviceCpu(LoadTestConfig config) {
+    if (config.servicePid() <= 0) {
+      return Optional.empty();
+    }
+    return ProcessHandle.of(config.servicePid())
+        .flatMap(handle -> handle.info().totalCpuDuration());
+  }
+
+  private static OpenModelRunner runner(LoadTestConfig config, SchedulerClient client, long seed) {
+    return new OpenModelRunner(
+        client, config.mix(), config.arrival(), config.rate(), config.maxInFlight(), seed);
+  }
+
+  private static void print(Map<String, Report.Summary> summaries) {
+    System.out.printf(
+        "%-8s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+        "", "requests", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    summaries.forEach(
+        (name, summary) ->
+            System.out.printf(
+                "%-8s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                summary.requests(),
+                summary.errors(),
+                summary.dropped(),
+                summary.throughput(),
+                summary.latencyMillis().p50(),
+                summary.latencyMillis().p99(),
+                summary.latencyMillis().p999(),
+                summary.latencyMillis().max()));
+  }
+}
@@ -0,0 +1,82 @@
+package se.callistaenterprise.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public record LoadTestConfig(
+    String service,
+    URI baseUrl,
+    double rate,
+    Arrival arrival,
+    Duration duration,
+    Duration warmup,
+    OperationMix mix,
+    long seed,
+    int datasetSize,
+    LocalDate datasetStart,
+    int datasetDays,
+    Duration timeout,
+    int maxInFlight,
+    long servicePid,
+    Path report) {
+
+  private static final Set<String> KEYS =
+      Set.of(
+          "service",
+          "base-url",
+          "rate",
+          "arrival",
+          "duration",
+          "warmup",
+          "mix",
+          "seed",
+          "dataset-size",
+          "dataset-start",
+          "dataset-days",
+          "timeout",
+          "max-in-flight",
+          "service-pid",
+          "report");
+
+  /*
+   Parses arguments on the form --name=value, anything not given gets its default
+  */
+  public static LoadTestConfig parse(String... args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (!arg.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Arguments must be on the form --name=value: " + arg);
+      }
+      String key = arg.substring(2, equals);
+      if (!KEYS.contains(key)) {
+        throw new IllegalArgumentException("Unknown argument: --" + key);
+      }
+      values.put(key, arg.substring(equals + 1));
+    }
+
+    String service = values.getOrDefault("service", "spring");
+    return new LoadTestConfig(
+        service,
+        URI.create(values.getOrDefault("base-url", "http://localhost:8080/api/scheduler/meetings")),
+        Double.parseDouble(values.getOrDefault("rate", "200")),
+        Arrival.valueOf(values.getOrDefault("arrival", "poisson").toUpperCase(Locale.ROOT)),
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+        OperationMix.parse(values.getOrDefault("mix", "listing=10,lookup=50,find=30,booking=10")),
+        Long.parseLong(values.getOrDefault("seed", "42")),
+        Integer.parseInt(values.getOrDefault("dataset-size", "500")),
+        LocalDate.parse(values.getOrDefault("dataset-start", "2030-01-07")),
+        Integer.parseInt(values.getOrDefault("dataset-days", "60")),
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "10"))),
+        Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+        Long.parseLong(values.getOrDefault("service-pid", "0")),
+        Path.of(values.getOrDefault("report", "load-test-" + service + ".json")));
+  }
+}
@@ -0,0 +1,94 @@
+package se.callistaenterprise.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ Sends requests at the configured arrival rate without waiting for earlier responses.
+
+ Each request gets an intended start time from the arrival schedule before it is sent, and its
+ latency is measured from that time, not from when it was actually sent. If the server or the
+ generator stalls, the requests that should have gone out meanwhile are charged for the wait,
+ which corrects for coordinated omission.
+*/
+public class OpenModelRunner {
+
+  private final SchedulerClient client;
+  private final OperationMix mix;
+  private final Arrival arrival;
+  private final double rate;
+  private final int maxInFlight;
+  private final Random random;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  public OpenModelRunner(
+      SchedulerClient client,
+      OperationMix mix,
+      Arrival arrival,
+      double rate,
+      int maxInFlight,
+      long seed) {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("rate must be positive");
+    }
+    this.client = client;
+    this.mix = mix;
+    this.arrival = arrival;
+    this.rate = rate;
+    this.maxInFlight = maxInFlight;
+    this.random = new Random(seed);
+  }
+
+  /*
+   Runs the schedule for 'duration' and waits up to 'drainTimeout' for the last responses.
+   Returns the number of requests that were due.
+  */
+  public long run(Duration duration, Duration drainTimeout, LatencyRecorder recorder) {
+    long start = System.nanoTime();
+    long durationNanos = duration.toNanos();
+    double offset = 0;
+    long due = 0;
+
+    while (offset < durationNanos) {
+      long intended = start + (long) offset;
+      waitUntil(intended);
+      Operation operation = mix.choose(random);
+      HttpRequest request = client.request(operation, random);
+      due++;
+
+      if (inFlight.incrementAndGet() > maxInFlight) {
+        inFlight.decrementAndGet();
+        recorder.recordDropped(operation);
+      } else {
+        client
+            .http()
+            .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete(
+                (response, error) -> {
+                  long latency = System.nanoTime() - intended;
+                  recorder.record(operation, latency, error == null ? response.statusCode() : -1);
+                  inFlight.decrementAndGet();
+                });
+      }
+      offset += arrival.nextIntervalNanos(random, rate);
+    }
+
+    long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    return due;
+  }
+
+  private static void waitUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package se.callistaenterprise.loadtest;
+
+import java.util.Locale;
+
+/*
+ The kinds of request the load generator sends, named as in the mix argument. A conflict books
+ the slot of a seeded meeting again, so it is always rejected.
+*/
+public enum Operation {
+  LISTING,
+  LOOKUP,
+  FIND,
+  BOOKING,
+  CONFLICT;
+
+  public String label() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  public static Operation fromLabel(String label) {
+    return valueOf(label.trim().toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,53 @@
+package se.callistaenterprise.loadtest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/*
+ Relative weights of the operations, e.g. "listing=10,lookup=50,find=30,booking=10"
+*/
+public class OperationMix {
+
+  private final Map<Operation, Integer> weights;
+  private final int total;
+
+  public OperationMix(Map<Operation, Integer> weights) {
+    this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+    this.total = weights.values().stream().mapToInt(Integer::intValue).sum();
+    if (weights.values().stream().anyMatch(weight -> weight < 0) || total <= 0) {
+      throw new IllegalArgumentException("Mix weights must be non-negative and not all zero");
+    }
+  }
+
+  public static OperationMix parse(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String part : mix.split(",")) {
+      String[] pair = part.split("=");
+      if (pair.length != 2) {
+        throw new IllegalArgumentException("Invalid mix entry: " + part);
+      }
+      weights.put(Operation.fromLabel(pair[0]), Integer.parseInt(pair[1].trim()));
+    }
+    return new OperationMix(weights);
+  }
+
+  public Operation choose(Random random) {
+    int pick = random.nextInt(total);
+    for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Unreachable, weights sum to " + total);
+  }
+
+  public Map<String, Integer> toLabels() {
+    Map<String, Integer> labels = new LinkedHashMap<>();
+    weights.forEach((operation, weight) -> labels.put(operation.label(), weight));
+    return labels;
+  }
+}
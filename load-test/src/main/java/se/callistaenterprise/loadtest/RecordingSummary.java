@@ -0,0 +1,127 @@
+package se.callistaenterprise.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.HdrHistogram.Histogram;
+
+/*
+ Summarizes the scheduler events of a JDK Flight Recorder recording, see jfr/scheduler.jfc in
+ the spring-java service.
+
+ Events are grouped by type and operation, and the groups are listed by the total time spent in
+ them, so the first rows show where the time went. For storage locks the time spent waiting for
+ the monitor is summed too, which tells contention apart from slow work under the lock.
+*/
+public class RecordingSummary {
+
+  private static final String PREFIX = "scheduler.";
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+  private final Map<String, Group> groups = new LinkedHashMap<>();
+
+  public record Row(
+      String event,
+      String operation,
+      long count,
+      double totalMillis,
+      double p50Millis,
+      double p99Millis,
+      double maxMillis,
+      double lockWaitMillis) {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: jfr <recording.jfr>");
+    }
+    RecordingSummary summary = read(Path.of(args[0]));
+    System.out.printf(
+        "%-14s %-16s %8s %10s %9s %9s %9s %11s%n",
+        "event", "operation", "count", "total ms", "p50 ms", "p99 ms", "max ms", "lock wait ms");
+    for (Row row : summary.rows()) {
+      System.out.printf(
+          "%-14s %-16s %8d %10.1f %9.2f %9.2f %9.2f %11.1f%n",
+          row.event(),
+          row.operation(),
+          row.count(),
+          row.totalMillis(),
+          row.p50Millis(),
+          row.p99Millis(),
+          row.maxMillis(),
+          row.lockWaitMillis());
+    }
+  }
+
+  public static RecordingSummary read(Path recording) throws IOException {
+    RecordingSummary summary = new RecordingSummary();
+    try (RecordingFile file = new RecordingFile(recording)) {
+      while (file.hasMoreEvents()) {
+        RecordedEvent event = file.readEvent();
+        String name = event.getEventType().getName();
+        if (!name.startsWith(PREFIX)) {
+          continue;
+        }
+        summary.add(
+            name.substring(PREFIX.length()),
+            event.hasField("operation") ? event.getString("operation") : "",
+            event.getDuration(),
+            event.hasField("lockWait") ? event.getDuration("lockWait") : Duration.ZERO);
+      }
+    }
+    return summary;
+  }
+
+  public void add(String event, String operation, Duration duration, Duration lockWait) {
+    groups
+        .computeIfAbsent(event + '\0' + (operation != null ? operation : ""), key -> new Group())
+        .add(event, operation, duration, lockWait);
+  }
+
+  /*
+   One row per event type and operation, the most total time first
+  */
+  public List<Row> rows() {
+    List<Row> rows = new ArrayList<>(groups.size());
+    groups.values().forEach(group -> rows.add(group.toRow()));
+    rows.sort(Comparator.comparingDouble(Row::totalMillis).reversed());
+    return rows;
+  }
+
+  private static class Group {
+
+    private final Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private String event;
+    private String operation;
+    private long totalNanos;
+    private long lockWaitNanos;
+
+    void add(String event, String operation, Duration duration, Duration lockWait) {
+      this.event = event;
+      this.operation = operation != null ? operation : "";
+      totalNanos += duration.toNanos();
+      lockWaitNanos += lockWait.toNanos();
+      long micros = Math.min(duration.toNanos() / 1000, HIGHEST_TRACKABLE_MICROS);
+      histogram.recordValue(Math.max(micros, 1L));
+    }
+
+    Row toRow() {
+      return new Row(
+          event,
+          operation,
+          histogram.getTotalCount(),
+          totalNanos / 1_000_000.0,
+          histogram.getValueAtPercentile(50.0) / 1000.0,
+          histogram.getValueAtPercentile(99.0) / 1000.0,
+          histogram.getMaxValue() / 1000.0,
+          lockWaitNanos / 1_000_000.0);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package se.callistaenterprise.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+
+/*
+ The machine readable result of a run, written as JSON
+*/
+public record Report(
+    String service,
+    String baseUrl,
+    String startedAt,
+    Settings settings,
+    Summary total,
+    Map<String, Summary> operations,
+    ServiceCpu serviceCpu) {
+
+  public record Settings(
+      double rate,
+      String arrival,
+      long durationSeconds,
+      long warmupSeconds,
+      long seed,
+      Map<String, Integer> mix,
+      int datasetMeetings,
+      int datasetDays) {}
+
+  public record Summary(
+      long requests,
+      long completed,
+      long errors,
+      long dropped,
+      double throughput,
+      Latency latencyMillis,
+      Map<Integer, Long> statusCodes) {}
+
+  /*
+   CPU time the service process used during the measured period, only known when its pid is
+   given. Utilization is CPU time per wall clock time, so 2.0 means two cores were busy.
+  */
+  public record ServiceCpu(double cpuMillis, double cpuMicrosPerRequest, double utilization) {
+
+    static ServiceCpu of(Duration cpu, long completed, Duration duration) {
+      return new ServiceCpu(
+          cpu.toNanos() / 1_000_000.0,
+          completed > 0 ? cpu.toNanos() / 1000.0 / completed : 0,
+          (double) cpu.toNanos() / duration.toNanos());
+    }
+  }
+
+  public record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+
+    static Latency of(Histogram histogram) {
+      return new Latency(
+          millis(histogram.getValueAtPercentile(50.0)),
+          millis(histogram.getValueAtPercentile(90.0)),
+          millis(histogram.getValueAtPercentile(99.0)),
+          millis(histogram.getValueAtPercentile(99.9)),
+          millis(histogram.getMaxValue()),
+          histogram.getMean() / 1000.0);
+    }
+
+    private static double millis(long micros) {
+      return micros / 1000.0;
+    }
+  }
+
+  /*
+   Summarizes the recorder, throughput is completed responses per second of the run
+  */
+  public static Map<String, Summary> summarize(LatencyRecorder recorder, Duration duration) {
+    Map<String, Summary> summaries = new LinkedHashMap<>();
+    Histogram all = null;
+    long errors = 0;
+    long dropped = 0;
+    Map<Integer, Long> statuses = new TreeMap<>();
+
+    for (Operation operation : Operation.values()) {
+      Histogram histogram = recorder.histogram(operation);
+      Map<Integer, Long> operationStatuses = recorder.statuses(operation);
+      summaries.put(
+          operation.label(),
+          summary(
+              histogram,
+              recorder.errors(operation),
+              recorder.dropped(operation),
+              operationStatuses,
+              duration));
+
+      if (all == null) {
+        all = histogram.copy();
+      } else {
+        all.add(histogram);
+      }
+      errors += recorder.errors(operation);
+      dropped += recorder.dropped(operation);
+      operationStatuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+    }
+
+    Map<String, Summary> result = new LinkedHashMap<>();
+    result.put("total", summary(all, errors, dropped, statuses, duration));
+    result.putAll(summaries);
+    return result;
+  }
+
+  private static Summary summary(
+      Histogram histogram,
+      long errors,
+      long dropped,
+      Map<Integer, Long> statuses,
+      Duration duration) {
+    long completed = histogram.getTotalCount() - errors;
+    return new Summary(
+        histogram.getTotalCount() + dropped,
+        completed,
+        errors,
+        dropped,
+        completed / (duration.toMillis() / 1000.0),
+        Latency.of(histogram),
+        statuses);
+  }
+
+  public void write(Path path) throws IOException {
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+  }
+}
@@ -0,0 +1,138 @@
+package se.callistaenterprise.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ Builds the requests for each operation. Both services expose the same routes and JSON, so
+ the only difference between them is the base URL.
+*/
+public class SchedulerClient {
+
+  private static final int[] FIND_DURATIONS = {15, 30, 60};
+  private static final int BOOKING_MINUTES = 30;
+
+  private final HttpClient http;
+  private final URI baseUrl;
+  private final Duration timeout;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private Dataset dataset;
+  private List<Long> ids = List.of();
+  private long bookings;
+
+  public SchedulerClient(HttpClient http, URI baseUrl, Duration timeout) {
+    this.http = http;
+    this.baseUrl = baseUrl;
+    this.timeout = timeout;
+  }
+
+  /*
+   Books every meeting of the dataset and returns how many were accepted. Meetings left from
+   an earlier run are rejected as conflicts, which is fine since the ids are read back after.
+  */
+  public int seed(Dataset dataset) throws IOException, InterruptedException {
+    this.dataset = dataset;
+    int accepted = 0;
+    for (Dataset.Meeting meeting : dataset.meetings()) {
+      HttpResponse<Void> response =
+          http.send(
+              book(meeting.title(), meeting.date(), meeting.start(), meeting.end()), discarding());
+      if (response.statusCode() / 100 == 2) {
+        accepted++;
+      }
+    }
+
+    HttpResponse<byte[]> all = http.send(get(baseUrl), HttpResponse.BodyHandlers.ofByteArray());
+    List<Long> found = new ArrayList<>();
+    for (JsonNode meeting : mapper.readTree(all.body())) {
+      if (dataset.days().contains(LocalDate.parse(meeting.get("date").asText()))) {
+        found.add(meeting.get("id").asLong());
+      }
+    }
+    if (found.isEmpty()) {
+      throw new IllegalStateException("No seeded meetings found at " + baseUrl);
+    }
+    this.ids = List.copyOf(found);
+    return accepted;
+  }
+
+  public HttpClient http() {
+    return http;
+  }
+
+  /*
+   The request for the operation, with parameters drawn from the dataset
+  */
+  public HttpRequest request(Operation operation, Random random) {
+    return switch (operation) {
+      case LISTING -> get(baseUrl);
+      case LOOKUP -> get(resolve("/" + ids.get(random.nextInt(ids.size()))));
+      case FIND ->
+          get(
+              resolve(
+                  "/find?date="
+                      + randomDay(random)
+                      + "&duration="
+                      + FIND_DURATIONS[random.nextInt(FIND_DURATIONS.length)]));
+      case BOOKING -> {
+        LocalTime start = Dataset.START_OF_DAY.plusMinutes(15L * random.nextInt(34));
+        yield book(
+            "Load test booking " + bookings++,
+            randomDay(random),
+            start,
+            start.plusMinutes(BOOKING_MINUTES));
+      }
+      case CONFLICT -> {
+        Dataset.Meeting meeting = dataset.meetings().get(random.nextInt(dataset.meetings().size()));
+        yield book("Conflicting booking", meeting.date(), meeting.start(), meeting.end());
+      }
+    };
+  }
+
+  private HttpRequest book(String title, LocalDate date, LocalTime start, LocalTime end) {
+    ObjectNode body = mapper.createObjectNode();
+    body.putNull("id");
+    body.put("title", title);
+    body.put("date", date.toString());
+    body.put("start", start.toString());
+    body.put("end", end.toString());
+    return HttpRequest.newBuilder(baseUrl)
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .header("Accept", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+        .build();
+  }
+
+  private HttpRequest get(URI uri) {
+    return HttpRequest.newBuilder(uri)
+        .timeout(timeout)
+        .header("Accept", "application/json")
+        .build();
+  }
+
+  private URI resolve(String path) {
+    return URI.create(baseUrl.toString() + path);
+  }
+
+  private LocalDate randomDay(Random random) {
+    return dataset.days().get(random.nextInt(dataset.days().size()));
+  }
+
+  private static HttpResponse.BodyHandler<Void> discarding() {
+    return HttpResponse.BodyHandlers.discarding();
+  }
+}
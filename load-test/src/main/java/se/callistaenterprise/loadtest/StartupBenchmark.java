@@ -0,0 +1,108 @@
+package se.callistaenterprise.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ Measures time to first request: how long a service takes from the start of its process until
+ it answers a request successfully.
+
+ The command is started once per run and the URL is polled until it answers with a 2xx status,
+ then the process and its descendants are stopped. Nothing may answer at the URL before a run
+ starts, or the run would measure the wrong service. If a limit is given, the benchmark fails
+ when the median is above it, so it can guard startup time in a build.
+*/
+public class StartupBenchmark {
+
+  private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+  private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+  public static void main(String[] args) throws Exception {
+    StartupConfig config = StartupConfig.parse(args);
+    HttpClient http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    Instant startedAt = Instant.now();
+    List<Double> runsMillis = new ArrayList<>();
+    for (int run = 1; run <= config.runs(); run++) {
+      double millis = measure(config, http);
+      runsMillis.add(millis);
+      System.out.printf("Run %d: first request answered after %.0f ms%n", run, millis);
+    }
+
+    StartupReport report = StartupReport.of(config, startedAt.toString(), runsMillis);
+    report.write(config.report());
+    System.out.printf(
+        "min %.0f ms, median %.0f ms, max %.0f ms%n",
+        report.minMillis(), report.medianMillis(), report.maxMillis());
+    System.out.printf("Report written to %s%n", config.report().toAbsolutePath());
+
+    if (config.maxMillis() > 0 && report.medianMillis() > config.maxMillis()) {
+      System.out.printf(
+          "Median time to first request %.0f ms is above the limit of %d ms%n",
+          report.medianMillis(), config.maxMillis());
+      System.exit(1);
+    }
+  }
+
+  private static double measure(StartupConfig config, HttpClient http)
+      throws IOException, InterruptedException {
+    if (answers(http, config.url())) {
+      throw new IllegalStateException("Something already answers at " + config.url());
+    }
+
+    long started = System.nanoTime();
+    Process process =
+        new ProcessBuilder(config.command())
+            .directory(config.directory().toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    try {
+      long deadline = started + config.timeout().toNanos();
+      while (!answers(http, config.url())) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException(
+              "The service exited with " + process.exitValue() + " before answering");
+        }
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException(
+              "The service did not answer within " + config.timeout().toSeconds() + "s");
+        }
+        Thread.sleep(POLL_INTERVAL);
+      }
+      return (System.nanoTime() - started) / 1_000_000.0;
+    } finally {
+      stop(process);
+    }
+  }
+
+  private static boolean answers(HttpClient http, URI url) throws InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).GET().build();
+    try {
+      return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static void stop(Process process) throws InterruptedException {
+    process.descendants().forEach(ProcessHandle::destroy);
+    process.destroy();
+    if (!process.waitFor(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+      process.descendants().forEach(ProcessHandle::destroyForcibly);
+      process.destroyForcibly().waitFor();
+    }
+  }
+}
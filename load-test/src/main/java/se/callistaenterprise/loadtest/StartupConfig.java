@@ -0,0 +1,60 @@
+package se.callistaenterprise.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public record StartupConfig(
+    String service,
+    List<String> command,
+    Path directory,
+    URI url,
+    int runs,
+    Duration timeout,
+    long maxMillis,
+    Path report) {
+
+  private static final Set<String> KEYS =
+      Set.of("service", "command", "directory", "url", "runs", "timeout", "max-millis", "report");
+
+  /*
+   Parses arguments on the form --name=value, anything but the command gets its default. The
+   command is split on whitespace.
+  */
+  public static StartupConfig parse(String... args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (!arg.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Arguments must be on the form --name=value: " + arg);
+      }
+      String key = arg.substring(2, equals);
+      if (!KEYS.contains(key)) {
+        throw new IllegalArgumentException("Unknown argument: --" + key);
+      }
+      values.put(key, arg.substring(equals + 1));
+    }
+    if (values.getOrDefault("command", "").isBlank()) {
+      throw new IllegalArgumentException("--command is required");
+    }
+
+    String service = values.getOrDefault("service", "spring");
+    int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+    if (runs < 1) {
+      throw new IllegalArgumentException("--runs must be at least 1");
+    }
+    return new StartupConfig(
+        service,
+        List.of(values.get("command").trim().split("\\s+")),
+        Path.of(values.getOrDefault("directory", ".")),
+        URI.create(values.getOrDefault("url", "http://localhost:8080/api/scheduler/meetings")),
+        runs,
+        Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "60"))),
+        Long.parseLong(values.getOrDefault("max-millis", "0")),
+        Path.of(values.getOrDefault("report", "startup-" + service + ".json")));
+  }
+}
@@ -0,0 +1,44 @@
+package se.callistaenterprise.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/*
+ The machine readable result of a startup benchmark, written as JSON. Times are milliseconds
+ from starting the process until the first successful response.
+*/
+public record StartupReport(
+    String service,
+    List<String> command,
+    String url,
+    String startedAt,
+    List<Double> runsMillis,
+    double minMillis,
+    double medianMillis,
+    double maxMillis) {
+
+  public static StartupReport of(StartupConfig config, String startedAt, List<Double> runsMillis) {
+    List<Double> sorted = runsMillis.stream().sorted().toList();
+    int middle = sorted.size() / 2;
+    double median =
+        sorted.size() % 2 == 1
+            ? sorted.get(middle)
+            : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    return new StartupReport(
+        config.service(),
+        config.command(),
+        config.url().toString(),
+        startedAt,
+        List.copyOf(runsMillis),
+        sorted.getFirst(),
+        median,
+        sorted.getLast());
+  }
+
+  public void write(Path path) throws IOException {
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+  }
+}
@@ -0,0 +1,47 @@
+package se.callistaenterprise.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DatasetTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+  @Test
+  void testSameSeedGivesSameDataset() {
+    // Act
+    Dataset first = Dataset.generate(42L, 200, MONDAY, 20);
+    Dataset second = Dataset.generate(42L, 200, MONDAY, 20);
+
+    // Assert
+    assertThat(first).isEqualTo(second);
+    assertThat(first.meetings()).hasSize(200);
+  }
+
+  @Test
+  void testMeetingsAreOnWorkingDaysWithinWorkingHoursAndDoNotOverlap() {
+    // Act
+    Dataset dataset = Dataset.generate(7L, 10_000, MONDAY, 5);
+
+    // Assert
+    assertThat(dataset.days())
+        .extracting(LocalDate::getDayOfWeek)
+        .doesNotContain(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    assertThat(dataset.meetings()).isNotEmpty().hasSizeLessThan(10_000);
+    for (LocalDate day : dataset.days()) {
+      List<Dataset.Meeting> meetings =
+          dataset.meetings().stream().filter(meeting -> meeting.date().equals(day)).toList();
+      for (int i = 0; i < meetings.size(); i++) {
+        assertThat(meetings.get(i).start()).isAfterOrEqualTo(Dataset.START_OF_DAY);
+        assertThat(meetings.get(i).end()).isBeforeOrEqualTo(Dataset.END_OF_DAY);
+        if (i > 0) {
+          assertThat(meetings.get(i).start()).isAfter(meetings.get(i - 1).end());
+        }
+      }
+    }
+  }
+}
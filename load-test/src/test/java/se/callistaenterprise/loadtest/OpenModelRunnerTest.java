@@ -0,0 +1,103 @@
+package se.callistaenterprise.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OpenModelRunnerTest {
+
+  private static final String MEETINGS =
+      "[{\"id\":1,\"title\":\"Seeded\",\"date\":\"2030-01-07\",\"start\":\"08:00\",\"end\":\"08:30\"}]";
+
+  private final AtomicBoolean stall = new AtomicBoolean();
+  private HttpServer server;
+  private SchedulerClient client;
+
+  @BeforeEach
+  void beforeEach() throws IOException, InterruptedException {
+    // A server that handles one request at a time, like a saturated service
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newSingleThreadExecutor());
+    server.createContext(
+        "/api/scheduler/meetings",
+        exchange -> {
+          if (stall.getAndSet(false)) {
+            sleep(500);
+          }
+          byte[] body = MEETINGS.getBytes(StandardCharsets.UTF_8);
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+
+    URI baseUrl =
+        URI.create("http://localhost:" + server.getAddress().getPort() + "/api/scheduler/meetings");
+    client = new SchedulerClient(HttpClient.newHttpClient(), baseUrl, Duration.ofSeconds(5));
+    client.seed(Dataset.generate(1L, 1, LocalDate.of(2030, 1, 7), 1));
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.stop(0);
+  }
+
+  @Test
+  void testRequestsQueuedBehindAStallAreChargedForTheWait() {
+    // Arrange
+    OperationMix mix = new OperationMix(Map.of(Operation.LISTING, 1));
+    OpenModelRunner runner = new OpenModelRunner(client, mix, Arrival.CONSTANT, 100, 1_000, 1L);
+    LatencyRecorder recorder = new LatencyRecorder();
+    stall.set(true);
+
+    // Act
+    long due = runner.run(Duration.ofSeconds(1), Duration.ofSeconds(5), recorder);
+
+    // Assert
+    Report.Summary listing = Report.summarize(recorder, Duration.ofSeconds(1)).get("listing");
+    assertThat(due).isEqualTo(100);
+    assertThat(listing.completed()).isEqualTo(100);
+    assertThat(listing.statusCodes()).containsEntry(200, 100L);
+    // Half the requests were due while the server stalled, so the median includes waiting time
+    assertThat(listing.latencyMillis().max()).isGreaterThanOrEqualTo(450.0);
+    assertThat(listing.latencyMillis().p50()).isGreaterThan(20.0);
+  }
+
+  @Test
+  void testRequestsOverTheInFlightLimitAreDropped() {
+    // Arrange
+    OperationMix mix = new OperationMix(Map.of(Operation.LOOKUP, 1));
+    OpenModelRunner runner = new OpenModelRunner(client, mix, Arrival.POISSON, 200, 1, 1L);
+    LatencyRecorder recorder = new LatencyRecorder();
+    stall.set(true);
+
+    // Act
+    long due = runner.run(Duration.ofMillis(300), Duration.ofSeconds(5), recorder);
+
+    // Assert
+    Report.Summary lookup = Report.summarize(recorder, Duration.ofMillis(300)).get("lookup");
+    assertThat(lookup.dropped()).isPositive();
+    assertThat(lookup.requests()).isEqualTo(due);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
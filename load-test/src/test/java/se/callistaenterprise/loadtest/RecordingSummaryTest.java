@@ -0,0 +1,34 @@
+package se.callistaenterprise.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RecordingSummaryTest {
+
+  @Test
+  void testEventsAreGroupedByOperationAndSortedByTotalTime() {
+    // Arrange
+    RecordingSummary summary = new RecordingSummary();
+
+    // Act
+    summary.add("StorageLock", "addAll", Duration.ofMillis(4), Duration.ofMillis(3));
+    summary.add("StorageLock", "addAll", Duration.ofMillis(2), Duration.ofMillis(1));
+    summary.add("StorageLock", "sort", Duration.ofMillis(10), Duration.ZERO);
+    summary.add("SlotSearch", "find", Duration.ofMillis(1), Duration.ZERO);
+    List<RecordingSummary.Row> rows = summary.rows();
+
+    // Assert
+    assertThat(rows)
+        .extracting(RecordingSummary.Row::operation)
+        .containsExactly("sort", "addAll", "find");
+    RecordingSummary.Row addAll = rows.get(1);
+    assertThat(addAll.count()).isEqualTo(2);
+    assertThat(addAll.totalMillis()).isEqualTo(6.0);
+    assertThat(addAll.lockWaitMillis()).isEqualTo(4.0);
+    assertThat(addAll.maxMillis()).isCloseTo(4.0, within(0.01));
+  }
+}
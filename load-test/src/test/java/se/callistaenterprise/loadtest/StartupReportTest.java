@@ -0,0 +1,34 @@
+package se.callistaenterprise.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StartupReportTest {
+
+  private final StartupConfig config =
+      StartupConfig.parse("--service=native", "--command=  ./target/scheduler  --server.port=8080");
+
+  @Test
+  void testCommandIsSplitOnWhitespace() {
+    assertThat(config.command()).containsExactly("./target/scheduler", "--server.port=8080");
+    assertThat(config.report()).hasToString("startup-native.json");
+    assertThatIllegalArgumentException().isThrownBy(() -> StartupConfig.parse("--runs=3"));
+  }
+
+  @Test
+  void testSummaryIsTakenOverAllRuns() {
+    // Act
+    StartupReport odd = StartupReport.of(config, "now", List.of(300.0, 100.0, 200.0));
+    StartupReport even = StartupReport.of(config, "now", List.of(400.0, 100.0, 300.0, 200.0));
+
+    // Assert
+    assertThat(odd.runsMillis()).containsExactly(300.0, 100.0, 200.0);
+    assertThat(odd.minMillis()).isEqualTo(100.0);
+    assertThat(odd.medianMillis()).isEqualTo(200.0);
+    assertThat(odd.maxMillis()).isEqualTo(300.0);
+    assertThat(even.medianMillis()).isEqualTo(250.0);
+  }
+}
@@ -3,9 +3,12 @@ package se.callistaenterprise.scheduler;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import se.callistaenterprise.scheduler.config.SchedulerRuntimeHints;
 
 @SpringBootApplication
 @ConfigurationPropertiesScan
+@ImportRuntimeHints(SchedulerRuntimeHints.class)
 public class Application {
 
   public static void main(String[] args) {
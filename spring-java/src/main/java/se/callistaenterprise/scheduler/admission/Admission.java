@@ -0,0 +1,17 @@
+package se.callistaenterprise.scheduler.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ Puts a handler method under admission control, see AdmissionInterceptor. Handlers without it,
+ such as long-lived streams, are not limited.
+*/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+
+  EndpointClass value();
+}
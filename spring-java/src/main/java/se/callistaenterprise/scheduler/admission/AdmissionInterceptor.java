@@ -0,0 +1,82 @@
+package se.callistaenterprise.scheduler.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import se.callistaenterprise.scheduler.config.AdmissionProperties;
+import se.callistaenterprise.scheduler.exception.TooManyRequestsException;
+
+/*
+ Admission control for the handlers annotated with Admission.
+
+ Each endpoint class has its own GradientLimiter, so reads and finds are admitted no matter how
+ many writes are waiting, and writes can only pile up on the storage as far as the write limit
+ lets them. A request over the limit of its class is rejected at once with 429 and Retry-After
+ instead of queueing, which keeps the latency of the admitted requests bounded under overload.
+*/
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+  private final AdmissionProperties properties;
+  private final Map<EndpointClass, GradientLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+  public AdmissionInterceptor(AdmissionProperties properties) {
+    this.properties = properties;
+    int minLimit = properties.getMinLimit();
+    limiters.put(
+        EndpointClass.READ,
+        new GradientLimiter(minLimit, properties.getReadLimit(), System::nanoTime));
+    limiters.put(
+        EndpointClass.FIND,
+        new GradientLimiter(minLimit, properties.getFindLimit(), System::nanoTime));
+    limiters.put(
+        EndpointClass.WRITE,
+        new GradientLimiter(minLimit, properties.getWriteLimit(), System::nanoTime));
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod handlerMethod)) {
+      return true;
+    }
+    Admission admission = handlerMethod.getMethodAnnotation(Admission.class);
+    if (admission == null) {
+      return true;
+    }
+
+    GradientLimiter limiter = limiters.get(admission.value());
+    GradientLimiter.Permit permit =
+        limiter
+            .tryAcquire()
+            .orElseThrow(
+                () ->
+                    new TooManyRequestsException(
+                        "Too many "
+                            + admission.value().name().toLowerCase()
+                            + " requests, limit is "
+                            + limiter.getLimit(),
+                        properties.getRetryAfter()));
+    request.setAttribute(PERMIT_ATTRIBUTE, permit);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof GradientLimiter.Permit permit) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      permit.release();
+    }
+  }
+
+  GradientLimiter limiter(EndpointClass endpointClass) {
+    return limiters.get(endpointClass);
+  }
+}
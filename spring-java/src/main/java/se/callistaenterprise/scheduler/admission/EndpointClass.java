@@ -0,0 +1,10 @@
+package se.callistaenterprise.scheduler.admission;
+
+/*
+ Endpoints that are admitted against the same concurrency limit
+*/
+public enum EndpointClass {
+  READ,
+  FIND,
+  WRITE
+}
@@ -0,0 +1,123 @@
+package se.callistaenterprise.scheduler.admission;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/*
+ A concurrency limit that adapts to the measured latency.
+
+ Two moving averages of the latency are kept, a short one that follows the current load and a
+ long one that stands for the latency without queueing. While they agree, the limit grows by the
+ square root of itself, as long as the requests in flight use at least half of it. When requests
+ start to queue, the short average rises above the long one and the limit is multiplied by the
+ ratio between them, but never by less than a half. The long average slowly follows a short
+ average that stays far below it, so the limit recovers once the load drops.
+*/
+public class GradientLimiter {
+
+  private static final double TOLERANCE = 1.5;
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double SHORT_WEIGHT = 0.1;
+  private static final double LONG_WEIGHT = 2.0 / 601;
+  private static final double LONG_DECAY = 0.95;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final LongSupplier nanoClock;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+
+  private double estimatedLimit;
+  private double shortLatency;
+  private double longLatency;
+
+  public GradientLimiter(int minLimit, int maxLimit, LongSupplier nanoClock) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= max, was " + minLimit + " and " + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.nanoClock = nanoClock;
+    this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, Math.sqrt(maxLimit) * 2));
+    this.limit = (int) estimatedLimit;
+  }
+
+  /*
+   Returns a permit if there is room for one more request, the permit must be released when the
+   request is done
+  */
+  public Optional<Permit> tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= limit) {
+        return Optional.empty();
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return Optional.of(new Permit(nanoClock.getAsLong(), current + 1));
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void release(Permit permit) {
+    inFlight.decrementAndGet();
+    update(nanoClock.getAsLong() - permit.startedAt, permit.inFlight);
+  }
+
+  private synchronized void update(long latency, int inFlightAtStart) {
+    if (shortLatency == 0) {
+      shortLatency = latency;
+      longLatency = latency;
+    } else {
+      shortLatency += (latency - shortLatency) * SHORT_WEIGHT;
+      longLatency += (latency - longLatency) * LONG_WEIGHT;
+    }
+    if (longLatency > 2 * shortLatency) {
+      longLatency *= LONG_DECAY;
+    }
+
+    // A limit that is not used says nothing about how much load the service takes
+    if (inFlightAtStart < estimatedLimit / 2) {
+      return;
+    }
+
+    double gradient =
+        Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longLatency / Math.max(1, shortLatency)));
+    double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    estimatedLimit =
+        Math.max(
+            minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    limit = (int) estimatedLimit;
+  }
+
+  public final class Permit {
+
+    private final long startedAt;
+    private final int inFlight;
+    private boolean released;
+
+    private Permit(long startedAt, int inFlight) {
+      this.startedAt = startedAt;
+      this.inFlight = inFlight;
+    }
+
+    /*
+     Releases the permit and records the latency of the request, only the first call counts
+    */
+    public void release() {
+      if (!released) {
+        released = true;
+        GradientLimiter.this.release(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.admission")
+public class AdmissionProperties {
+
+  private final boolean enabled;
+  private final int minLimit;
+  private final int readLimit;
+  private final int findLimit;
+  private final int writeLimit;
+  private final Duration retryAfter;
+
+  @ConstructorBinding
+  public AdmissionProperties(
+      @DefaultValue("true") boolean enabled,
+      @DefaultValue("4") int minLimit,
+      @DefaultValue("400") int readLimit,
+      @DefaultValue("200") int findLimit,
+      @DefaultValue("100") int writeLimit,
+      @DefaultValue("1s") Duration retryAfter) {
+    this.enabled = enabled;
+    this.minLimit = minLimit;
+    this.readLimit = readLimit;
+    this.findLimit = findLimit;
+    this.writeLimit = writeLimit;
+    this.retryAfter = retryAfter;
+  }
+}
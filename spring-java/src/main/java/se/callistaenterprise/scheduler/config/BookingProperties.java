@@ -0,0 +1,32 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.booking")
+public class BookingProperties {
+
+  private final boolean pipelineEnabled;
+  private final int threads;
+  private final int batchSize;
+  private final int maxStatuses;
+  private final Duration statusTtl;
+
+  @ConstructorBinding
+  public BookingProperties(
+      @DefaultValue("false") boolean pipelineEnabled,
+      @DefaultValue("0") int threads,
+      @DefaultValue("64") int batchSize,
+      @DefaultValue("100000") int maxStatuses,
+      @DefaultValue("10m") Duration statusTtl) {
+    this.pipelineEnabled = pipelineEnabled;
+    this.threads = threads;
+    this.batchSize = batchSize;
+    this.maxStatuses = maxStatuses;
+    this.statusTtl = statusTtl;
+  }
+}
@@ -0,0 +1,35 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.events")
+public class EventProperties {
+
+  private final int bufferSize;
+  private final int batchSize;
+  private final int dispatcherThreads;
+  private final int maxSubscribers;
+  private final Duration subscriberTimeout;
+  private final Duration retryAfter;
+
+  @ConstructorBinding
+  public EventProperties(
+      @DefaultValue("4096") int bufferSize,
+      @DefaultValue("256") int batchSize,
+      @DefaultValue("4") int dispatcherThreads,
+      @DefaultValue("1000") int maxSubscribers,
+      @DefaultValue("30m") Duration subscriberTimeout,
+      @DefaultValue("5s") Duration retryAfter) {
+    this.bufferSize = bufferSize;
+    this.batchSize = batchSize;
+    this.dispatcherThreads = dispatcherThreads;
+    this.maxSubscribers = maxSubscribers;
+    this.subscriberTimeout = subscriberTimeout;
+    this.retryAfter = retryAfter;
+  }
+}
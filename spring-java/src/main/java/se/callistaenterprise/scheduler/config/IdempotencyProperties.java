@@ -0,0 +1,22 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.idempotency")
+public class IdempotencyProperties {
+
+  private final int maxKeys;
+  private final Duration ttl;
+
+  @ConstructorBinding
+  public IdempotencyProperties(
+      @DefaultValue("100000") int maxKeys, @DefaultValue("24h") Duration ttl) {
+    this.maxKeys = maxKeys;
+    this.ttl = ttl;
+  }
+}
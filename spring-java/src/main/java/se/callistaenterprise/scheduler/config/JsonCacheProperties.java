@@ -0,0 +1,18 @@
+package se.callistaenterprise.scheduler.config;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.json-cache")
+public class JsonCacheProperties {
+
+  private final int maxMeetings;
+
+  @ConstructorBinding
+  public JsonCacheProperties(@DefaultValue("100000") int maxMeetings) {
+    this.maxMeetings = maxMeetings;
+  }
+}
@@ -0,0 +1,29 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.retention")
+public class RetentionProperties {
+
+  private final boolean enabled;
+  private final int days;
+  private final Duration interval;
+  private final int batchSize;
+
+  @ConstructorBinding
+  public RetentionProperties(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("365") int days,
+      @DefaultValue("1h") Duration interval,
+      @DefaultValue("1000") int batchSize) {
+    this.enabled = enabled;
+    this.days = days;
+    this.interval = interval;
+    this.batchSize = batchSize;
+  }
+}
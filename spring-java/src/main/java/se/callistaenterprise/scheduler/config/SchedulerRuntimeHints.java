@@ -0,0 +1,37 @@
+package se.callistaenterprise.scheduler.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import se.callistaenterprise.scheduler.dto.BookingDto;
+import se.callistaenterprise.scheduler.dto.ImportResultDto;
+import se.callistaenterprise.scheduler.dto.MeetingChangesDto;
+import se.callistaenterprise.scheduler.dto.MeetingDto;
+import se.callistaenterprise.scheduler.dto.PlacementRequestDto;
+import se.callistaenterprise.scheduler.model.ErrorResponse;
+
+/*
+ Reflection hints for a native image.
+
+ Spring infers hints for the types controller methods declare, but meetings are also serialized
+ where no declared type says so: by the JSON cache, by the event stream and by the handlers that
+ pick JSON or CBOR at runtime, and rejected bookings are answered with an error response the
+ method does not declare. Jackson needs the constructors and accessors of those types.
+*/
+public class SchedulerRuntimeHints implements RuntimeHintsRegistrar {
+
+  private final BindingReflectionHintsRegistrar bindingRegistrar =
+      new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    bindingRegistrar.registerReflectionHints(
+        hints.reflection(),
+        MeetingDto.class,
+        MeetingChangesDto.class,
+        ImportResultDto.class,
+        BookingDto.class,
+        PlacementRequestDto.class,
+        ErrorResponse.class);
+  }
+}
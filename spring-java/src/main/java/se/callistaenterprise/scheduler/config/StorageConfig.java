@@ -1,20 +1,58 @@
 package se.callistaenterprise.scheduler.config;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcDataSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.datasource.JdbcMeetingStorage;
 import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.datasource.TieredMeetingStorage;
 import se.callistaenterprise.scheduler.entity.Meeting;
 
 @Slf4j
 @Configuration
 public class StorageConfig {
 
+  /*
+   Listeners are first told about the meetings already stored, such as meetings in an existing
+   database, so indexes built from the changes start out complete
+  */
   @Bean
-  public MeetingStorage meetingStorage() {
-    return setupMeetingStorage(new MeetingStorage());
+  public MeetingStorage meetingStorage(
+      StorageProperties storageProperties, List<MeetingStorageListener> listeners) {
+    MeetingStorage storage = createMeetingStorage(storageProperties);
+    List<Meeting> stored = storage.getAll();
+    for (MeetingStorageListener listener : listeners) {
+      listener.meetingsStored(stored);
+      storage.addListener(listener);
+    }
+    return setupMeetingStorage(storage);
+  }
+
+  private MeetingStorage createMeetingStorage(StorageProperties storageProperties) {
+    int journalCapacity = storageProperties.getJournalCapacity();
+    return switch (storageProperties.getType()) {
+      case MEMORY -> new InMemoryMeetingStorage(journalCapacity);
+      case JDBC -> {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(storageProperties.getJdbcUrl());
+        yield new JdbcMeetingStorage(dataSource, journalCapacity);
+      }
+      case TIERED -> {
+        String directory = storageProperties.getArchiveDirectory();
+        yield new TieredMeetingStorage(
+            journalCapacity,
+            storageProperties.getHotDays(),
+            Path.of(directory.isEmpty() ? System.getProperty("java.io.tmpdir") : directory),
+            storageProperties.getCompactionInterval());
+      }
+    };
   }
 
   private MeetingStorage setupMeetingStorage(final MeetingStorage storage) {
@@ -40,9 +78,10 @@ public class StorageConfig {
             .end(LocalTime.parse("15:30"))
             .build();
 
-    log.info("Insert meeting #1: {}", storage.add(m1));
-    log.info("Insert meeting #2: {}", storage.add(m2));
-    log.info("Insert meeting #3: {}", storage.add(m3));
+    List<Meeting> inserted = storage.addAll(List.of(m1, m2, m3));
+    for (int i = 0; i < inserted.size(); i++) {
+      log.info("Insert meeting #{}: {}", i + 1, inserted.get(i));
+    }
 
     return storage;
   }
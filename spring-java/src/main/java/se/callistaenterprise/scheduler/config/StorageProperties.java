@@ -0,0 +1,41 @@
+package se.callistaenterprise.scheduler.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.storage")
+public class StorageProperties {
+
+  public enum Type {
+    MEMORY,
+    JDBC,
+    TIERED
+  }
+
+  private final Type type;
+  private final int journalCapacity;
+  private final String jdbcUrl;
+  private final int hotDays;
+  private final String archiveDirectory;
+  private final Duration compactionInterval;
+
+  @ConstructorBinding
+  public StorageProperties(
+      @DefaultValue("memory") Type type,
+      @DefaultValue("10000") int journalCapacity,
+      @DefaultValue("jdbc:h2:mem:scheduler;DB_CLOSE_DELAY=-1") String jdbcUrl,
+      @DefaultValue("7") int hotDays,
+      @DefaultValue("") String archiveDirectory,
+      @DefaultValue("1h") Duration compactionInterval) {
+    this.type = type;
+    this.journalCapacity = journalCapacity;
+    this.jdbcUrl = jdbcUrl;
+    this.hotDays = hotDays;
+    this.archiveDirectory = archiveDirectory;
+    this.compactionInterval = compactionInterval;
+  }
+}
@@ -0,0 +1,25 @@
+package se.callistaenterprise.scheduler.config;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@Getter
+@ConfigurationProperties(prefix = "scheduler.transfer")
+public class TransferProperties {
+
+  private final int chunkSize;
+  private final int parallelism; // 0 uses one thread per processor
+  private final int maxReportedErrors;
+
+  @ConstructorBinding
+  public TransferProperties(
+      @DefaultValue("10000") int chunkSize,
+      @DefaultValue("0") int parallelism,
+      @DefaultValue("100") int maxReportedErrors) {
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+}
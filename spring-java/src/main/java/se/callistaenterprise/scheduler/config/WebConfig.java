@@ -0,0 +1,60 @@
+package se.callistaenterprise.scheduler.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import se.callistaenterprise.scheduler.admission.AdmissionInterceptor;
+import se.callistaenterprise.scheduler.mapping.CompactTimeModule;
+
+/*
+ Registers admission control, see AdmissionInterceptor, and adds application/cbor next to JSON.
+ Clients that accept CBOR get meetings with dates and times as integers, see CompactTimeModule,
+ everyone else keeps getting JSON.
+*/
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  private final AdmissionProperties admissionProperties;
+  private final AdmissionInterceptor admissionInterceptor;
+
+  public WebConfig(
+      AdmissionProperties admissionProperties, AdmissionInterceptor admissionInterceptor) {
+    this.admissionProperties = admissionProperties;
+    this.admissionInterceptor = admissionInterceptor;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    if (admissionProperties.isEnabled()) {
+      registry.addInterceptor(admissionInterceptor);
+    }
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    ObjectMapper cborMapper =
+        CBORMapper.builder()
+            .addModule(new ParameterNamesModule())
+            .addModule(new CompactTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    MappingJackson2CborHttpMessageConverter cborConverter =
+        new MappingJackson2CborHttpMessageConverter(cborMapper);
+
+    // Spring registers a CBOR converter with ISO dates of its own when CBOR is on the class path
+    for (int i = 0; i < converters.size(); i++) {
+      if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter) {
+        converters.set(i, cborConverter);
+        return;
+      }
+    }
+    converters.add(cborConverter);
+  }
+}
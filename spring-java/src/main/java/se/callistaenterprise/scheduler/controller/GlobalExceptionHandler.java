@@ -1,7 +1,11 @@
 package se.callistaenterprise.scheduler.controller;
 
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,6 +14,9 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import se.callistaenterprise.scheduler.exception.BadRequestException;
 import se.callistaenterprise.scheduler.exception.NotFoundException;
+import se.callistaenterprise.scheduler.exception.ServiceUnavailableException;
+import se.callistaenterprise.scheduler.exception.TooManyRequestsException;
+import se.callistaenterprise.scheduler.exception.UnprocessableEntityException;
 import se.callistaenterprise.scheduler.model.ErrorResponse;
 import se.callistaenterprise.scheduler.validation.ValidationException;
 
@@ -18,6 +25,8 @@ import se.callistaenterprise.scheduler.validation.ValidationException;
 public class GlobalExceptionHandler {
 
   private static final String NOT_FOUND_MESSAGE = "The resource you looked for couldn't be found!";
+  private static final String TOO_MANY_REQUESTS_MESSAGE =
+      "The service is busy, please try again later!";
   private static final String GENERIC_SERVER_ERROR_MESSAGE =
       "Something went wrong and we are trying to fix it!";
 
@@ -30,13 +39,39 @@ public class GlobalExceptionHandler {
   @ExceptionHandler({
     BadRequestException.class,
     ValidationException.class,
-    MissingServletRequestParameterException.class
+    MissingServletRequestParameterException.class,
+    HttpMessageNotReadableException.class
   })
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public @ResponseBody ErrorResponse handleBadRequestExceptions(RuntimeException ex) {
     return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
   }
 
+  @ExceptionHandler(UnprocessableEntityException.class)
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+  public @ResponseBody ErrorResponse handleUnprocessableEntityException(
+      UnprocessableEntityException ex) {
+    return buildErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+  }
+
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, toRetryAfterSeconds(ex.getRetryAfter()))
+        .body(new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), TOO_MANY_REQUESTS_MESSAGE));
+  }
+
+  /*
+   Without a body, since it may answer a request that only accepts an event stream
+  */
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<Void> handleServiceUnavailableException(ServiceUnavailableException ex) {
+    log.debug(ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, toRetryAfterSeconds(ex.getRetryAfter()))
+        .build();
+  }
+
   @ExceptionHandler(Exception.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public @ResponseBody ErrorResponse handleGenericException(Exception ex) {
@@ -44,13 +79,21 @@ public class GlobalExceptionHandler {
         HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), GENERIC_SERVER_ERROR_MESSAGE);
   }
 
+  private static String toRetryAfterSeconds(Duration retryAfter) {
+    return Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+  }
+
   private ErrorResponse buildErrorResponse(HttpStatus status, String errorMessage) {
     return buildErrorResponse(status, errorMessage, null);
   }
 
   private ErrorResponse buildErrorResponse(
       HttpStatus status, String errorMessage, String friendlyMessage) {
-    log.error(errorMessage);
+    if (status.is5xxServerError()) {
+      log.error(errorMessage);
+    } else {
+      log.debug(errorMessage);
+    }
     return StringUtils.hasText(friendlyMessage)
         ? new ErrorResponse(status.value(), friendlyMessage)
         : new ErrorResponse(status.value(), errorMessage);
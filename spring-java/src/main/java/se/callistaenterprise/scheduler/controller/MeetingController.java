@@ -1,44 +1,109 @@
 package se.callistaenterprise.scheduler.controller;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import se.callistaenterprise.scheduler.admission.Admission;
+import se.callistaenterprise.scheduler.admission.EndpointClass;
+import se.callistaenterprise.scheduler.dto.BookingDto;
+import se.callistaenterprise.scheduler.dto.ImportResultDto;
+import se.callistaenterprise.scheduler.dto.MeetingChangesDto;
 import se.callistaenterprise.scheduler.dto.MeetingDto;
+import se.callistaenterprise.scheduler.dto.PlacementRequestDto;
 import se.callistaenterprise.scheduler.entity.Meeting;
 import se.callistaenterprise.scheduler.exception.BadRequestException;
 import se.callistaenterprise.scheduler.exception.NotFoundException;
+import se.callistaenterprise.scheduler.idempotency.IdempotencyStore;
+import se.callistaenterprise.scheduler.mapping.MeetingJsonCache;
 import se.callistaenterprise.scheduler.mapping.MeetingMapper;
+import se.callistaenterprise.scheduler.model.Booking;
 import se.callistaenterprise.scheduler.model.Either;
+import se.callistaenterprise.scheduler.model.ErrorResponse;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+import se.callistaenterprise.scheduler.model.SuggestionStrategy;
 import se.callistaenterprise.scheduler.service.MeetingService;
+import se.callistaenterprise.scheduler.transfer.MeetingFormat;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/scheduler")
 public class MeetingController {
 
+  private static final int MAX_SUGGESTION_DAYS = 366;
+  private static final int MAX_SUGGESTIONS = 100;
+  private static final int MAX_SEARCH_RESULTS = 1000;
+  private static final int MAX_PLACEMENTS = 10_000;
+  private static final long MAX_PLAN_BUDGET_MILLIS = 10_000;
+  private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final String PREFER = "Prefer";
+  private static final String RESPOND_ASYNC = "respond-async";
+
   private final MeetingService meetingService;
   private final MeetingMapper meetingMapper;
+  private final MeetingJsonCache meetingJsonCache;
+  private final IdempotencyStore idempotencyStore;
 
-  public MeetingController(MeetingService meetingService, MeetingMapper meetingMapper) {
+  public MeetingController(
+      MeetingService meetingService,
+      MeetingMapper meetingMapper,
+      MeetingJsonCache meetingJsonCache,
+      IdempotencyStore idempotencyStore) {
     this.meetingService = meetingService;
     this.meetingMapper = meetingMapper;
+    this.meetingJsonCache = meetingJsonCache;
+    this.idempotencyStore = idempotencyStore;
   }
 
+  /*
+   JSON is served from the bytes the cache encoded when the meetings were added. Clients that
+   prefer CBOR get the meetings mapped and serialized as usual.
+  */
   @GetMapping("/meetings")
-  public List<MeetingDto> getMeetings() {
-    return meetingService.getMeetings().stream().map(meetingMapper::mapToMeetingDto).toList();
+  @Admission(EndpointClass.READ)
+  public ResponseEntity<?> getMeetings(
+      @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+    List<Meeting> meetings = meetingService.getMeetings();
+    if (prefersCbor(accept)) {
+      return ResponseEntity.ok(meetings.stream().map(meetingMapper::mapToMeetingDto).toList());
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(meetingJsonCache.toJsonArray(meetings));
   }
 
   @GetMapping("/meetings/{id}")
+  @Admission(EndpointClass.READ)
   public ResponseEntity<MeetingDto> getMeeting(@PathVariable Long id) {
     Either<Meeting, Errors> response = meetingService.getMeeting(id);
     if (response.hasErrors()) {
@@ -47,7 +112,18 @@ public class MeetingController {
     return ResponseEntity.ok(meetingMapper.mapToMeetingDto(response.getLeft()));
   }
 
+  @GetMapping("/meetings/changes")
+  @Admission(EndpointClass.READ)
+  public ResponseEntity<MeetingChangesDto> getMeetingChanges(@RequestParam Long since) {
+    if (since < 0) {
+      throw new BadRequestException("since must be a non-negative version, was " + since);
+    }
+    MeetingChanges changes = meetingService.getMeetingChanges(since);
+    return ResponseEntity.ok(meetingMapper.mapToMeetingChangesDto(changes));
+  }
+
   @GetMapping("/meetings/find")
+  @Admission(EndpointClass.FIND)
   public ResponseEntity<List<MeetingDto>> getAvailableMeetingsByDuration(
       @RequestParam LocalDate date, @RequestParam(name = "duration") Long meetingTimeInMinutes) {
     List<MeetingDto> response =
@@ -57,13 +133,258 @@ public class MeetingController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("/meetings/suggestions")
+  @Admission(EndpointClass.FIND)
+  public ResponseEntity<List<MeetingDto>> getSuggestedMeetings(
+      @RequestParam(name = "duration") Long meetingTimeInMinutes,
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(defaultValue = "28") int days,
+      @RequestParam(defaultValue = "5") int count,
+      @RequestParam(defaultValue = "earliest") String strategy,
+      @RequestParam(required = false) LocalTime preferred) {
+    if (meetingTimeInMinutes <= 0) {
+      throw new BadRequestException("duration must be positive, was " + meetingTimeInMinutes);
+    }
+    if (days < 1 || days > MAX_SUGGESTION_DAYS) {
+      throw new BadRequestException("days must be between 1 and " + MAX_SUGGESTION_DAYS);
+    }
+    if (count < 1 || count > MAX_SUGGESTIONS) {
+      throw new BadRequestException("count must be between 1 and " + MAX_SUGGESTIONS);
+    }
+    SuggestionStrategy suggestionStrategy =
+        SuggestionStrategy.fromValue(strategy)
+            .orElseThrow(() -> new BadRequestException("Unknown strategy: " + strategy));
+    if (suggestionStrategy == SuggestionStrategy.PREFERRED && preferred == null) {
+      throw new BadRequestException("preferred is required for the preferred strategy");
+    }
+
+    List<MeetingDto> response =
+        meetingService
+            .suggestMeetings(
+                from != null ? from : LocalDate.now(),
+                days,
+                meetingTimeInMinutes,
+                count,
+                suggestionStrategy,
+                preferred)
+            .stream()
+            .map(meetingMapper::mapToMeetingDto)
+            .toList();
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("/meetings/free-days")
+  @Admission(EndpointClass.FIND)
+  public ResponseEntity<List<LocalDate>> getDaysWithFreeTime(
+      @RequestParam(name = "duration") Long meetingTimeInMinutes,
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(defaultValue = "90") int days,
+      @RequestParam(defaultValue = "10") int count) {
+    if (meetingTimeInMinutes <= 0) {
+      throw new BadRequestException("duration must be positive, was " + meetingTimeInMinutes);
+    }
+    if (days < 1 || days > MAX_SUGGESTION_DAYS) {
+      throw new BadRequestException("days must be between 1 and " + MAX_SUGGESTION_DAYS);
+    }
+    if (count < 1 || count > MAX_SUGGESTIONS) {
+      throw new BadRequestException("count must be between 1 and " + MAX_SUGGESTIONS);
+    }
+    return ResponseEntity.ok(
+        meetingService.findDaysWithGap(
+            from != null ? from : LocalDate.now(), days, meetingTimeInMinutes, count));
+  }
+
+  @GetMapping("/meetings/search")
+  @Admission(EndpointClass.READ)
+  public ResponseEntity<List<MeetingDto>> searchMeetings(
+      @RequestParam(name = "q") String query,
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(required = false) LocalDate to,
+      @RequestParam(defaultValue = "50") int limit) {
+    if (query.isBlank()) {
+      throw new BadRequestException("q must not be blank");
+    }
+    if (from != null && to != null && from.isAfter(to)) {
+      throw new BadRequestException("from must not be after to");
+    }
+    if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+      throw new BadRequestException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+    }
+    List<MeetingDto> response =
+        meetingService.searchMeetings(query, from, to, limit).stream()
+            .map(meetingMapper::mapToMeetingDto)
+            .toList();
+    return ResponseEntity.ok(response);
+  }
+
+  /*
+   A retry with the same Idempotency-Key gets the response of the first request, see
+   IdempotencyStore. A rejected booking is answered with its errors without throwing, and is not
+   kept, so a retry is booked again. With the booking pipeline enabled, clients that send
+   Prefer: respond-async get 202 and the booking, to be followed at its Location, instead of
+   waiting for it.
+  */
   @PostMapping("/meetings")
-  public ResponseEntity<MeetingDto> addMeeting(@RequestBody MeetingDto meetingDto) {
-    Either<Meeting, Errors> response =
-        meetingService.addMeeting(meetingMapper.mapToMeeting(meetingDto));
+  @Admission(EndpointClass.WRITE)
+  public ResponseEntity<?> addMeeting(
+      @RequestBody MeetingDto meetingDto,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+      @RequestHeader(name = PREFER, required = false) String prefer) {
+    boolean async = prefer != null && prefer.contains(RESPOND_ASYNC);
+    Supplier<ResponseEntity<?>> booking =
+        () -> async ? submitMeeting(meetingDto) : bookMeeting(meetingDto);
+    if (idempotencyKey == null) {
+      return booking.get();
+    }
+    return idempotencyStore.execute(
+        idempotencyKey, meetingDto, booking, response -> response.getStatusCode().isError());
+  }
+
+  /*
+   Places all requested meetings in free working time within their dates and books them, or
+   books none of them and answers with the requests that could not be placed. 'budget' is the
+   time in milliseconds the planner may spend improving the placements. The meetings are
+   returned in the order of the requests.
+  */
+  @PostMapping("/meetings/plan")
+  @Admission(EndpointClass.WRITE)
+  public ResponseEntity<?> planMeetings(
+      @RequestBody List<PlacementRequestDto> placementRequestDtos,
+      @RequestParam(defaultValue = "1000") long budget) {
+    if (placementRequestDtos.isEmpty() || placementRequestDtos.size() > MAX_PLACEMENTS) {
+      throw new BadRequestException("Between 1 and " + MAX_PLACEMENTS + " meetings can be planned");
+    }
+    if (placementRequestDtos.contains(null)) {
+      throw new BadRequestException("Meetings to plan cannot be null");
+    }
+    if (budget < 0 || budget > MAX_PLAN_BUDGET_MILLIS) {
+      throw new BadRequestException("budget must be between 0 and " + MAX_PLAN_BUDGET_MILLIS);
+    }
+    Either<List<Meeting>, Errors> response =
+        meetingService.placeMeetings(
+            placementRequestDtos.stream().map(meetingMapper::mapToPlacementRequest).toList(),
+            budget);
+    if (response.hasErrors()) {
+      return ResponseEntity.badRequest()
+          .body(ErrorResponse.of(HttpStatus.BAD_REQUEST.value(), response.getRight()));
+    }
+    return ResponseEntity.ok(
+        response.getLeft().stream().map(meetingMapper::mapToMeetingDto).toList());
+  }
+
+  @GetMapping("/bookings/{id}")
+  @Admission(EndpointClass.READ)
+  public ResponseEntity<BookingDto> getBooking(@PathVariable String id) {
+    UUID bookingId;
+    try {
+      bookingId = UUID.fromString(id);
+    } catch (IllegalArgumentException e) {
+      throw new NotFoundException("Booking not found, id = " + id);
+    }
+    Either<Booking, Errors> response = meetingService.getBooking(bookingId);
+    if (response.hasErrors()) {
+      throw new NotFoundException("Booking not found, id = " + id);
+    }
+    return ResponseEntity.ok(meetingMapper.mapToBookingDto(response.getLeft()));
+  }
+
+  private ResponseEntity<?> bookMeeting(MeetingDto meetingDto) {
+    return toResponse(meetingService.addMeeting(meetingMapper.mapToMeeting(meetingDto)));
+  }
+
+  private ResponseEntity<?> submitMeeting(MeetingDto meetingDto) {
+    Booking booking = meetingService.submitMeeting(meetingMapper.mapToMeeting(meetingDto));
+    if (booking.getId() == null) {
+      // Rejected at once, or booked at once when the pipeline is off
+      return toResponse(booking.getResult().join());
+    }
+    URI location =
+        ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/scheduler/bookings/{id}")
+            .buildAndExpand(booking.getId())
+            .toUri();
+    return ResponseEntity.accepted()
+        .location(location)
+        .body(meetingMapper.mapToBookingDto(booking));
+  }
+
+  /*
+   Rejections are a normal outcome of booking, so they are answered from their errors here
+   rather than thrown and logged by the exception handler
+  */
+  private ResponseEntity<?> toResponse(Either<Meeting, Errors> response) {
     if (response.hasErrors()) {
-      throw new BadRequestException(response.getAllErrors().toString());
+      return ResponseEntity.badRequest()
+          .body(ErrorResponse.of(HttpStatus.BAD_REQUEST.value(), response.getRight()));
     }
     return ResponseEntity.ok(meetingMapper.mapToMeetingDto(response.getLeft()));
   }
+
+  @PostMapping("/meetings/import")
+  @Admission(EndpointClass.WRITE)
+  public ResponseEntity<ImportResultDto> importMeetings(
+      @RequestParam(defaultValue = "csv") String format, InputStream body) throws IOException {
+    MeetingFormat meetingFormat = toMeetingFormat(format);
+    BufferedReader input =
+        new BufferedReader(
+            new InputStreamReader(body, StandardCharsets.UTF_8), TRANSFER_BUFFER_SIZE);
+    return ResponseEntity.ok(
+        meetingMapper.mapToImportResultDto(meetingService.importMeetings(input, meetingFormat)));
+  }
+
+  @GetMapping("/meetings/export")
+  public ResponseEntity<StreamingResponseBody> exportMeetings(
+      @RequestParam(defaultValue = "csv") String format) {
+    MeetingFormat meetingFormat = toMeetingFormat(format);
+    StreamingResponseBody body =
+        outputStream -> {
+          Writer output =
+              new BufferedWriter(
+                  new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                  TRANSFER_BUFFER_SIZE);
+          meetingService.exportMeetings(output, meetingFormat);
+        };
+    return ResponseEntity.ok()
+        .contentType(
+            new MediaType(
+                MediaType.parseMediaType(meetingFormat.getMediaType()), StandardCharsets.UTF_8))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"meetings." + meetingFormat.getValue() + "\"")
+        .body(body);
+  }
+
+  private static MeetingFormat toMeetingFormat(String format) {
+    return MeetingFormat.fromValue(format)
+        .orElseThrow(() -> new BadRequestException("Unknown format: " + format));
+  }
+
+  /*
+   True if CBOR is accepted ahead of JSON, taking quality values and specificity into account.
+   A missing or wildcard Accept header means JSON.
+  */
+  private static boolean prefersCbor(String accept) {
+    if (accept == null) {
+      return false;
+    }
+    List<MediaType> mediaTypes;
+    try {
+      mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+    MimeTypeUtils.sortBySpecificity(mediaTypes);
+    for (MediaType mediaType : mediaTypes) {
+      if (mediaType.getQualityValue() == 0) {
+        continue;
+      }
+      if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+        return false;
+      }
+      if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,30 @@
+package se.callistaenterprise.scheduler.controller;
+
+import java.time.LocalDate;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.callistaenterprise.scheduler.event.MeetingEventBroadcaster;
+
+@RestController
+@RequestMapping("/api/scheduler")
+public class MeetingEventController {
+
+  private final MeetingEventBroadcaster meetingEventBroadcaster;
+
+  public MeetingEventController(MeetingEventBroadcaster meetingEventBroadcaster) {
+    this.meetingEventBroadcaster = meetingEventBroadcaster;
+  }
+
+  @GetMapping(path = "/meetings/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamMeetingEvents(
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(required = false) LocalDate to,
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+    return meetingEventBroadcaster.subscribe(from, to, lastEventId);
+  }
+}
@@ -0,0 +1,326 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+import se.callistaenterprise.scheduler.monitoring.StorageLockEvent;
+
+/*
+ Base for storages that records every change in a journal and notifies the listeners.
+ Subclasses only store and remove meetings; changes are applied and recorded holding the monitor
+ of the storage, so the journal sees them in the order they were applied. Subclasses that guard
+ their reads with the same monitor take it through locked(), so waiting for it shows up in
+ recordings.
+
+ Adding meetings first takes the locks of the days they take place on, in date order, and checks
+ for conflicts holding only those, so writes to different days check in parallel and only take
+ turns on the monitor to store what they accepted. Two meetings can only overlap if they share a
+ day, so writes that could conflict always share a day lock. Days are mapped onto DAY_LOCKS locks
+ by their epoch day, so consecutive days never share one, and a meeting spanning more days than
+ that takes them all.
+*/
+public abstract class AbstractMeetingStorage implements MeetingStorage {
+
+  protected static final int DEFAULT_JOURNAL_CAPACITY = 10_000;
+
+  static final int DAY_LOCKS = 64;
+
+  private static final Comparator<Meeting> BY_START = Comparator.comparing(Meeting::startDateTime);
+
+  private final List<MeetingStorageListener> listeners = new CopyOnWriteArrayList<>();
+  private final ChangeJournal journal;
+  private final ReentrantLock[] dayLocks = new ReentrantLock[DAY_LOCKS];
+  // Meetings stored, changed under the monitor so lock events never have to count
+  private volatile int storedCount;
+
+  protected AbstractMeetingStorage(int journalCapacity) {
+    this.journal = new ChangeJournal(journalCapacity);
+    Arrays.setAll(dayLocks, i -> new ReentrantLock());
+  }
+
+  /*
+   For storages that open with meetings already stored, sets the count the lock events start from
+  */
+  protected final synchronized void initStoredCount(int count) {
+    storedCount = count;
+  }
+
+  /*
+   Stores the meetings and assigns their ids
+  */
+  protected abstract void insert(List<Meeting> meetings);
+
+  /*
+   Removes the meeting with the given id, returns the removed meeting or null
+  */
+  protected abstract Meeting delete(Long id);
+
+  /*
+   Removes up to 'limit' of the meetings ending at or before the cutoff, returns them
+  */
+  protected abstract List<Meeting> deleteEndedBy(LocalDateTime cutoff, int limit);
+
+  @Override
+  public void addListener(MeetingStorageListener listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public Meeting add(Meeting meeting) {
+    if (meeting == null) {
+      return null;
+    }
+    return addAll(List.of(meeting)).getFirst();
+  }
+
+  @Override
+  public List<Meeting> addAll(List<Meeting> meetings) {
+    return dayLocked("addAll", meetings, () -> locked("insert", () -> insertAndRecord(meetings)));
+  }
+
+  /*
+   The stored meetings in the window the batch covers are read with one query and merged into
+   disjoint busy intervals, keyed by start. A meeting is free if it overlaps neither the busy
+   interval starting at or before it nor the next one, and is then added to them, so a batch
+   costs one query and O(n log n) however many meetings it has.
+  */
+  @Override
+  public List<Meeting> addAllIfFree(List<Meeting> meetings) {
+    List<Meeting> candidates = meetings.stream().filter(Objects::nonNull).toList();
+    if (candidates.isEmpty()) {
+      return List.of();
+    }
+    LocalDateTime from =
+        candidates.stream().map(Meeting::startDateTime).min(Comparator.naturalOrder()).get();
+    LocalDateTime to =
+        candidates.stream().map(Meeting::endDateTime).max(Comparator.naturalOrder()).get();
+    return dayLocked(
+        "addAllIfFree",
+        candidates,
+        () -> {
+          NavigableMap<LocalDateTime, LocalDateTime> busy = busy(getOverlapping(from, to));
+          List<Meeting> free = new ArrayList<>(candidates.size());
+          for (Meeting meeting : candidates) {
+            if (isFree(busy, meeting)) {
+              busy.put(meeting.startDateTime(), meeting.endDateTime());
+              free.add(meeting);
+            }
+          }
+          return locked("insert", () -> insertAndRecord(free));
+        });
+  }
+
+  @Override
+  public boolean addAllIfAllFree(List<Meeting> meetings) {
+    List<Meeting> sorted = meetings.stream().filter(Objects::nonNull).sorted(BY_START).toList();
+    for (int i = 1; i < sorted.size(); i++) {
+      if (overlaps(sorted.get(i - 1), sorted.get(i))) {
+        return false;
+      }
+    }
+    return dayLocked(
+        "addAllIfAllFree",
+        sorted,
+        () -> {
+          for (Meeting meeting : sorted) {
+            if (!getOverlapping(meeting.startDateTime(), meeting.endDateTime()).isEmpty()) {
+              return false;
+            }
+          }
+          locked("insert", () -> insertAndRecord(meetings));
+          return true;
+        });
+  }
+
+  @Override
+  public boolean remove(Long id) {
+    return locked(
+        "remove",
+        () -> {
+          Meeting removed = delete(id);
+          if (removed == null) {
+            return false;
+          }
+          record(List.of(removed));
+          return true;
+        });
+  }
+
+  @Override
+  public List<Meeting> removeEndedBy(LocalDateTime cutoff, int limit) {
+    return locked(
+        "removeEndedBy",
+        () -> {
+          List<Meeting> removed = deleteEndedBy(cutoff, limit);
+          record(removed);
+          return removed;
+        });
+  }
+
+  @Override
+  public long getVersion() {
+    return locked("getVersion", journal::getVersion);
+  }
+
+  @Override
+  public MeetingChanges getChangesSince(long version) {
+    return locked("getChangesSince", () -> journal.since(version));
+  }
+
+  /*
+   Runs the action holding the monitor of the storage. While a recording has StorageLockEvent
+   enabled, the time spent waiting for and holding the monitor is recorded, otherwise nothing
+   but the monitor is added. Calls nested in a locked action are part of its event. The store
+   size is the count kept by the writes, read before the monitor is released.
+  */
+  protected final <T> T locked(String operation, Supplier<T> action) {
+    StorageLockEvent event = new StorageLockEvent();
+    if (!event.isEnabled() || Thread.holdsLock(this)) {
+      synchronized (this) {
+        return action.get();
+      }
+    }
+
+    event.begin();
+    long requested = System.nanoTime();
+    T result;
+    synchronized (this) {
+      event.lockWait = System.nanoTime() - requested;
+      result = action.get();
+      event.storeSize = storedCount;
+    }
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.commit();
+    }
+    return result;
+  }
+
+  /*
+   Runs the action holding the locks of every day the meetings take place on, taken in the order
+   of the locks so writes over several days cannot deadlock. Recorded like locked(), lockWait is
+   the time spent waiting for the day locks. The monitor is only taken inside the day locks,
+   never the other way around.
+  */
+  private <T> T dayLocked(String operation, List<Meeting> meetings, Supplier<T> action) {
+    BitSet days = new BitSet(DAY_LOCKS);
+    for (Meeting meeting : meetings) {
+      if (meeting == null) {
+        continue;
+      }
+      long first = meeting.getDate().toEpochDay();
+      long last = Math.min(meeting.lastDate().toEpochDay(), first + DAY_LOCKS - 1);
+      for (long day = first; day <= last; day++) {
+        days.set((int) Math.floorMod(day, (long) DAY_LOCKS));
+      }
+    }
+
+    StorageLockEvent event = new StorageLockEvent();
+    event.begin();
+    long requested = System.nanoTime();
+    for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+      dayLocks[i].lock();
+    }
+    try {
+      event.lockWait = System.nanoTime() - requested;
+      return action.get();
+    } finally {
+      for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+        dayLocks[i].unlock();
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.operation = operation;
+        event.storeSize = storedCount;
+        event.commit();
+      }
+    }
+  }
+
+  /*
+   Tells the listeners that the days before the date are archived, to be called holding the
+   monitor like every other notification
+  */
+  protected final void notifyDaysArchived(LocalDate before) {
+    listeners.forEach(listener -> listener.daysArchived(before));
+  }
+
+  private List<Meeting> insertAndRecord(List<Meeting> meetings) {
+    List<Meeting> added = meetings.stream().filter(Objects::nonNull).toList();
+    for (Meeting meeting : added) {
+      if (meeting.getId() != null) {
+        throw new RuntimeException("Meeting.id must be null");
+      }
+    }
+    if (added.isEmpty()) {
+      return added;
+    }
+
+    insert(added);
+    storedCount += added.size();
+    added.forEach(
+        meeting -> {
+          journal.recordAdded(meeting);
+          listeners.forEach(listener -> listener.meetingAdded(meeting));
+        });
+    return added;
+  }
+
+  private void record(List<Meeting> removed) {
+    storedCount -= removed.size();
+    removed.forEach(
+        meeting -> {
+          journal.recordRemoved(meeting);
+          listeners.forEach(listener -> listener.meetingRemoved(meeting));
+        });
+  }
+
+  private static NavigableMap<LocalDateTime, LocalDateTime> busy(List<Meeting> stored) {
+    NavigableMap<LocalDateTime, LocalDateTime> busy = new TreeMap<>();
+    LocalDateTime start = null;
+    LocalDateTime end = null;
+    for (Meeting meeting : stored.stream().sorted(BY_START).toList()) {
+      if (start != null && !meeting.startDateTime().isAfter(end)) {
+        if (meeting.endDateTime().isAfter(end)) {
+          end = meeting.endDateTime();
+        }
+        continue;
+      }
+      if (start != null) {
+        busy.put(start, end);
+      }
+      start = meeting.startDateTime();
+      end = meeting.endDateTime();
+    }
+    if (start != null) {
+      busy.put(start, end);
+    }
+    return busy;
+  }
+
+  private static boolean isFree(NavigableMap<LocalDateTime, LocalDateTime> busy, Meeting meeting) {
+    Map.Entry<LocalDateTime, LocalDateTime> before = busy.floorEntry(meeting.startDateTime());
+    Map.Entry<LocalDateTime, LocalDateTime> after = busy.higherEntry(meeting.startDateTime());
+    return (before == null || !before.getValue().isAfter(meeting.startDateTime()))
+        && (after == null || !after.getKey().isBefore(meeting.endDateTime()));
+  }
+
+  private static boolean overlaps(Meeting first, Meeting second) {
+    return first.startDateTime().isBefore(second.endDateTime())
+        && second.startDateTime().isBefore(first.endDateTime());
+  }
+}
@@ -0,0 +1,247 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.StorageException;
+
+/*
+ An immutable file of archived days, memory-mapped for reading.
+
+ The file starts with a directory of its days, each with the offset and length of its block,
+ followed by one compressed block per day. A block holds the meetings of the day sorted by
+ start: the id as the difference to the previous id, the start as the seconds since the start
+ of the previous meeting, and the length in seconds, all as variable-length integers, then the
+ title. Meetings on one day have close ids and starts, so most of them take a few bytes before
+ the title, and the titles, which tend to repeat, are left to the compression.
+
+ Only the directory is read into the heap, a day is decoded from the mapped file when it is
+ read. Reads do not change the state of the segment, so they need no lock.
+*/
+class ArchiveSegment {
+
+  private static final int DIRECTORY_ENTRY = Long.BYTES + 3 * Integer.BYTES;
+
+  private final Path file;
+  private final MappedByteBuffer buffer;
+  private final long[] days;
+  private final int[] offsets;
+  private final int[] lengths;
+  private final int[] rawLengths;
+
+  private ArchiveSegment(Path file, MappedByteBuffer buffer) {
+    this.file = file;
+    this.buffer = buffer;
+    int count = buffer.getInt(0);
+    this.days = new long[count];
+    this.offsets = new int[count];
+    this.lengths = new int[count];
+    this.rawLengths = new int[count];
+    for (int i = 0, position = Integer.BYTES; i < count; i++, position += DIRECTORY_ENTRY) {
+      days[i] = buffer.getLong(position);
+      offsets[i] = buffer.getInt(position + Long.BYTES);
+      lengths[i] = buffer.getInt(position + Long.BYTES + Integer.BYTES);
+      rawLengths[i] = buffer.getInt(position + Long.BYTES + 2 * Integer.BYTES);
+    }
+  }
+
+  /*
+   Writes the days, each with its meetings sorted by start and id, to a new file and maps it
+  */
+  static ArchiveSegment write(Path file, SortedMap<LocalDate, List<Meeting>> meetingsByDay) {
+    int count = meetingsByDay.size();
+    ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+    ByteBuffer directory = ByteBuffer.allocate(Integer.BYTES + count * DIRECTORY_ENTRY);
+    directory.putInt(count);
+    int headerLength = directory.capacity();
+
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      for (Map.Entry<LocalDate, List<Meeting>> day : meetingsByDay.entrySet()) {
+        byte[] raw = encode(day.getValue());
+        byte[] compressed = compress(deflater, raw);
+        directory.putLong(day.getKey().toEpochDay());
+        directory.putInt(headerLength + blocks.size());
+        directory.putInt(compressed.length);
+        directory.putInt(raw.length);
+        blocks.writeBytes(compressed);
+      }
+    } finally {
+      deflater.end();
+    }
+
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      channel.write(directory.flip());
+      channel.write(ByteBuffer.wrap(blocks.toByteArray()));
+      return new ArchiveSegment(
+          file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException e) {
+      throw new StorageException("Cannot write archive segment " + file, e);
+    }
+  }
+
+  /*
+   Returns the days in the segment in date order
+  */
+  List<LocalDate> days() {
+    return Arrays.stream(days).mapToObj(LocalDate::ofEpochDay).toList();
+  }
+
+  /*
+   Passes the meetings archived on the day, sorted by start and id, to the action. Nothing is
+   passed for a day that is not in the segment.
+  */
+  void read(LocalDate day, Consumer<Meeting> action) {
+    int index = Arrays.binarySearch(days, day.toEpochDay());
+    if (index < 0) {
+      return;
+    }
+    ByteBuffer raw = ByteBuffer.wrap(decompress(index));
+    int count = readVarInt(raw);
+    long id = 0;
+    LocalDateTime start = day.atStartOfDay();
+    for (int i = 0; i < count; i++) {
+      id += zigZagDecode(readVarLong(raw));
+      start = start.plusSeconds(readVarLong(raw)).withNano(readVarInt(raw));
+      LocalDateTime end = start.plusSeconds(readVarLong(raw)).withNano(readVarInt(raw));
+      int titleLength = readVarInt(raw);
+      String title = null;
+      if (titleLength > 0) {
+        title = new String(raw.array(), raw.position(), titleLength - 1, StandardCharsets.UTF_8);
+        raw.position(raw.position() + titleLength - 1);
+      }
+      action.accept(
+          new Meeting(
+              id,
+              title,
+              start.toLocalDate(),
+              start.toLocalTime(),
+              end.toLocalTime(),
+              end.toLocalDate()));
+    }
+  }
+
+  long fileSize() {
+    return buffer.capacity();
+  }
+
+  /*
+   Deletes the file. The mapping stays valid until the segment is garbage collected, so reads
+   that are still running are not affected.
+  */
+  void delete() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new StorageException("Cannot delete archive segment " + file, e);
+    }
+  }
+
+  private byte[] decompress(int index) {
+    byte[] compressed = new byte[lengths[index]];
+    buffer.get(offsets[index], compressed);
+    byte[] raw = new byte[rawLengths[index]];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      inflater.inflate(raw);
+      return raw;
+    } catch (DataFormatException e) {
+      throw new StorageException("Archive segment " + file + " is corrupt", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static byte[] encode(List<Meeting> meetings) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(16 * meetings.size());
+    writeVarLong(out, meetings.size());
+    long previousId = 0;
+    LocalDateTime previousStart = meetings.getFirst().getDate().atStartOfDay();
+    for (Meeting meeting : meetings) {
+      LocalDateTime start = meeting.startDateTime();
+      LocalDateTime end = meeting.endDateTime();
+      writeVarLong(out, zigZagEncode(meeting.getId() - previousId));
+      writeVarLong(out, Duration.between(previousStart.withNano(0), start.withNano(0)).toSeconds());
+      writeVarLong(out, start.getNano());
+      writeVarLong(out, Duration.between(start.withNano(0), end.withNano(0)).toSeconds());
+      writeVarLong(out, end.getNano());
+      if (meeting.getTitle() == null) {
+        writeVarLong(out, 0);
+      } else {
+        byte[] title = meeting.getTitle().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, title.length + 1L);
+        out.writeBytes(title);
+      }
+      previousId = meeting.getId();
+      previousStart = start;
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] compress(Deflater deflater, byte[] raw) {
+    deflater.reset();
+    deflater.setInput(raw);
+    deflater.finish();
+    byte[] chunk = new byte[Math.max(64, raw.length)];
+    ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+    while (!deflater.finished()) {
+      out.write(chunk, 0, deflater.deflate(chunk));
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeVarLong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte next = in.get();
+      value |= (long) (next & 0x7F) << shift;
+      if (next >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static int readVarInt(ByteBuffer in) {
+    return (int) readVarLong(in);
+  }
+
+  private static long zigZagEncode(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long zigZagDecode(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,87 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+
+/*
+ A bounded, sequence numbered log of the most recent storage changes.
+
+ Every change increments the version by one, so the entry for a version is found directly in
+ the ring and reading the changes since a version costs O(changes), not O(storage). Once more
+ than 'capacity' changes have been recorded the oldest are dropped, and readers asking for
+ anything before that point are told to resynchronize. So are readers asking for a version not
+ reached yet, which they were given before a restart. Not thread safe, the owning storage
+ guards it with its own lock.
+*/
+class ChangeJournal {
+
+  private final Entry[] entries;
+
+  private long version = 0L;
+
+  ChangeJournal(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.entries = new Entry[capacity];
+  }
+
+  void recordAdded(Meeting meeting) {
+    record(new Entry(true, meeting));
+  }
+
+  void recordRemoved(Meeting meeting) {
+    record(new Entry(false, meeting));
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  MeetingChanges since(long since) {
+    long oldest = Math.max(1L, version - entries.length + 1);
+    // A version after the current one was handed out before a restart
+    if (since < oldest - 1 || since > version) {
+      return MeetingChanges.resync(version);
+    }
+
+    Map<Long, Meeting> added = new LinkedHashMap<>();
+    Set<Long> removed = new LinkedHashSet<>();
+    for (long v = since + 1; v <= version; v++) {
+      Entry entry = entries[slot(v)];
+      Long id = entry.meeting.getId();
+      if (entry.added) {
+        added.put(id, entry.meeting);
+      } else if (added.remove(id) == null) {
+        removed.add(id);
+      }
+    }
+    return new MeetingChanges(
+        version, false, new ArrayList<>(added.values()), new ArrayList<>(removed));
+  }
+
+  private void record(Entry entry) {
+    version++;
+    entries[slot(version)] = entry;
+  }
+
+  private int slot(long v) {
+    return (int) (v % entries.length);
+  }
+
+  private static class Entry {
+
+    private final boolean added;
+    private final Meeting meeting;
+
+    Entry(boolean added, Meeting meeting) {
+      this.added = added;
+      this.meeting = meeting;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ Meetings kept in the heap, by id in insertion order and in an interval tree for reading them
+ by time, so neither removing a meeting nor purging old ones scans the whole storage.
+
+ Reads do not take the monitor of the storage, which writes hold while they check for conflicts,
+ record the changes and notify the listeners. They take the read side of a lock that writes only
+ hold while they change the map and the tree, so a long bulk write delays them for the time its
+ meetings are inserted, not for the whole write.
+*/
+public class InMemoryMeetingStorage extends AbstractMeetingStorage {
+
+  private final Map<Long, Meeting> meetings = new LinkedHashMap<>();
+  private final MeetingIntervalTree index = new MeetingIntervalTree();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private long nextId = 1L;
+
+  public InMemoryMeetingStorage() {
+    this(DEFAULT_JOURNAL_CAPACITY);
+  }
+
+  public InMemoryMeetingStorage(int journalCapacity) {
+    super(journalCapacity);
+  }
+
+  @Override
+  protected void insert(List<Meeting> added) {
+    lock.writeLock().lock();
+    try {
+      for (Meeting meeting : added) {
+        meeting.setId(nextId++);
+        meetings.put(meeting.getId(), meeting);
+      }
+      index.insertAll(added);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  protected Meeting delete(Long id) {
+    lock.writeLock().lock();
+    try {
+      Meeting removed = meetings.remove(id);
+      if (removed != null) {
+        index.remove(removed);
+      }
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  protected List<Meeting> deleteEndedBy(LocalDateTime cutoff, int limit) {
+    lock.writeLock().lock();
+    try {
+      List<Meeting> removed = index.endedBy(cutoff, limit);
+      for (Meeting meeting : removed) {
+        meetings.remove(meeting.getId());
+        index.remove(meeting);
+      }
+      return removed;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /*
+  Returns all meetings unsorted
+  */
+  @Override
+  public List<Meeting> getAll() {
+    return read(() -> List.copyOf(meetings.values()));
+  }
+
+  @Override
+  public Meeting getById(Long id) {
+    return read(() -> meetings.get(id));
+  }
+
+  @Override
+  public List<Meeting> getOverlapping(LocalDateTime from, LocalDateTime to) {
+    return read(() -> index.overlapping(from, to));
+  }
+
+  @Override
+  public int size() {
+    return read(meetings::size);
+  }
+
+  /*
+   Returns all meetings sorted by date and start time
+  */
+  @Override
+  public List<Meeting> sort() {
+    return read(index::all);
+  }
+
+  private <T> T read(Supplier<T> action) {
+    lock.readLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,303 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.StorageException;
+
+/*
+ Meeting storage in a relational database, written for H2.
+
+ Meetings are stored with their absolute start and end times, indexed on both. Reading a day or
+ checking a window for conflicts is a single set based query with half-open overlap semantics,
+ the same as the in-memory interval tree, and addAll writes its meetings as one JDBC batch in
+ one transaction. Exports stream the table through a cursor. The change journal is kept in
+ memory and starts empty for every instance.
+
+ A meeting overlapping [from, to) starts before 'to' and no earlier than 'from' minus the
+ longest meeting stored, so the overlap query only scans that range of the start index. Tables
+ from before meetings could span days, with a date and two times per meeting, are migrated when
+ the storage opens.
+*/
+public class JdbcMeetingStorage extends AbstractMeetingStorage {
+
+  private static final String CREATE_TABLE =
+      """
+      CREATE TABLE IF NOT EXISTS meeting (
+        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+        title VARCHAR(255),
+        start_at TIMESTAMP NOT NULL,
+        end_at TIMESTAMP NOT NULL
+      )""";
+  private static final String CREATE_START_INDEX =
+      "CREATE INDEX IF NOT EXISTS meeting_start_idx ON meeting (start_at)";
+  private static final String CREATE_END_INDEX =
+      "CREATE INDEX IF NOT EXISTS meeting_end_idx ON meeting (end_at)";
+  private static final String COLUMNS = "id, title, start_at, end_at";
+  private static final String INSERT =
+      "INSERT INTO meeting (title, start_at, end_at) VALUES (?, ?, ?)";
+  private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM meeting";
+  private static final String SELECT_SORTED = SELECT_ALL + " ORDER BY start_at, id";
+  private static final String SELECT_BY_ID = SELECT_ALL + " WHERE id = ?";
+  private static final String SELECT_OVERLAPPING =
+      SELECT_ALL + " WHERE start_at < ? AND start_at >= ? AND end_at > ? ORDER BY start_at, id";
+  private static final String SELECT_LONGEST =
+      "SELECT COALESCE(MAX(DATEDIFF(SECOND, start_at, end_at)), 0) FROM meeting";
+  private static final String SELECT_ENDED =
+      SELECT_ALL + " WHERE end_at <= ? ORDER BY start_at, id LIMIT ?";
+  private static final int EXPORT_FETCH_SIZE = 1_000;
+  private static final String DELETE = "DELETE FROM meeting WHERE id = ?";
+  private static final String COUNT = "SELECT COUNT(*) FROM meeting";
+  private static final String HAS_DAY_COLUMNS =
+      """
+      SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS
+      WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = 'MEETING'
+        AND COLUMN_NAME = 'MEETING_DATE'""";
+  private static final List<String> MIGRATE_DAY_COLUMNS =
+      List.of(
+          "ALTER TABLE meeting ADD COLUMN IF NOT EXISTS start_at TIMESTAMP",
+          "ALTER TABLE meeting ADD COLUMN IF NOT EXISTS end_at TIMESTAMP",
+          """
+          UPDATE meeting SET
+            start_at = CAST(meeting_date AS TIMESTAMP) + start_time,
+            end_at = CAST(meeting_date AS TIMESTAMP) + end_time""",
+          "ALTER TABLE meeting ALTER COLUMN start_at SET NOT NULL",
+          "ALTER TABLE meeting ALTER COLUMN end_at SET NOT NULL",
+          "DROP INDEX IF EXISTS meeting_date_start_idx",
+          "ALTER TABLE meeting DROP COLUMN meeting_date, start_time, end_time");
+
+  private final DataSource dataSource;
+  // Never shrinks, a longer bound than needed only widens the scanned range
+  private volatile long longestMeetingSeconds;
+
+  public JdbcMeetingStorage(DataSource dataSource) {
+    this(dataSource, DEFAULT_JOURNAL_CAPACITY);
+  }
+
+  public JdbcMeetingStorage(DataSource dataSource, int journalCapacity) {
+    super(journalCapacity);
+    this.dataSource = dataSource;
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_TABLE);
+      migrateDayColumns(connection);
+      statement.execute(CREATE_START_INDEX);
+      statement.execute(CREATE_END_INDEX);
+      try (ResultSet resultSet = statement.executeQuery(SELECT_LONGEST)) {
+        resultSet.next();
+        longestMeetingSeconds = resultSet.getLong(1);
+      }
+    } catch (SQLException e) {
+      throw new StorageException("Cannot create the meeting table", e);
+    }
+    initStoredCount(size());
+  }
+
+  @Override
+  protected void insert(List<Meeting> meetings) {
+    // Raised before the meetings are visible, so no read can miss them
+    for (Meeting meeting : meetings) {
+      long seconds = Duration.between(meeting.startDateTime(), meeting.endDateTime()).toSeconds();
+      longestMeetingSeconds = Math.max(longestMeetingSeconds, seconds);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement =
+          connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        for (Meeting meeting : meetings) {
+          statement.setString(1, meeting.getTitle());
+          statement.setObject(2, meeting.startDateTime());
+          statement.setObject(3, meeting.endDateTime());
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        List<Long> ids = new ArrayList<>(meetings.size());
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+          while (keys.next()) {
+            ids.add(keys.getLong(1));
+          }
+        }
+        if (ids.size() != meetings.size()) {
+          throw new SQLException("Expected " + meetings.size() + " ids, got " + ids.size());
+        }
+        connection.commit();
+        for (int i = 0; i < meetings.size(); i++) {
+          meetings.get(i).setId(ids.get(i));
+        }
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new StorageException("Cannot insert meetings", e);
+    }
+  }
+
+  @Override
+  protected Meeting delete(Long id) {
+    Meeting meeting = getById(id);
+    if (meeting == null) {
+      return null;
+    }
+    return update(DELETE, id) > 0 ? meeting : null;
+  }
+
+  /*
+   Reads the meetings to remove through the end time index and deletes them as one batch in
+   one transaction. Writes are serialized on the storage, so none can be added in between.
+  */
+  @Override
+  protected List<Meeting> deleteEndedBy(LocalDateTime cutoff, int limit) {
+    List<Meeting> meetings = query(SELECT_ENDED, cutoff, limit);
+    if (meetings.isEmpty()) {
+      return meetings;
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+        for (Meeting meeting : meetings) {
+          statement.setLong(1, meeting.getId());
+          statement.addBatch();
+        }
+        statement.executeBatch();
+        connection.commit();
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new StorageException("Cannot delete meetings", e);
+    }
+    return meetings;
+  }
+
+  @Override
+  public List<Meeting> getAll() {
+    return query(SELECT_ALL);
+  }
+
+  @Override
+  public Meeting getById(Long id) {
+    return id == null ? null : query(SELECT_BY_ID, id).stream().findFirst().orElse(null);
+  }
+
+  @Override
+  public List<Meeting> getOverlapping(LocalDateTime from, LocalDateTime to) {
+    return query(SELECT_OVERLAPPING, to, from.minusSeconds(longestMeetingSeconds), from);
+  }
+
+  @Override
+  public int size() {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(COUNT)) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    } catch (SQLException e) {
+      throw new StorageException("Cannot count meetings", e);
+    }
+  }
+
+  /*
+   Returns all meetings sorted by start, read in index order
+  */
+  @Override
+  public List<Meeting> sort() {
+    return query(SELECT_SORTED);
+  }
+
+  /*
+   Streams all meetings sorted by start from one read only transaction, fetching them in pages
+   instead of reading the whole table into memory
+  */
+  @Override
+  public void forEachSorted(Consumer<Meeting> action) {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setReadOnly(true);
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(SELECT_SORTED)) {
+        statement.setFetchSize(EXPORT_FETCH_SIZE);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            action.accept(toMeeting(resultSet));
+          }
+        }
+      } finally {
+        connection.rollback();
+      }
+    } catch (SQLException e) {
+      throw new StorageException("Cannot read meetings", e);
+    }
+  }
+
+  /*
+   Moves a table with a date, start and end time per meeting to start and end timestamps. H2
+   commits every schema change on its own, so the steps can be run again if one fails, and the
+   old columns are dropped last.
+  */
+  private static void migrateDayColumns(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      try (ResultSet resultSet = statement.executeQuery(HAS_DAY_COLUMNS)) {
+        resultSet.next();
+        if (resultSet.getInt(1) == 0) {
+          return;
+        }
+      }
+      for (String sql : MIGRATE_DAY_COLUMNS) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  private List<Meeting> query(String sql, Object... parameters) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      List<Meeting> meetings = new ArrayList<>();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          meetings.add(toMeeting(resultSet));
+        }
+      }
+      return meetings;
+    } catch (SQLException e) {
+      throw new StorageException("Cannot read meetings", e);
+    }
+  }
+
+  private int update(String sql, Object... parameters) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      return statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new StorageException("Cannot update meetings", e);
+    }
+  }
+
+  private Meeting toMeeting(ResultSet resultSet) throws SQLException {
+    LocalDateTime start = resultSet.getObject("start_at", LocalDateTime.class);
+    LocalDateTime end = resultSet.getObject("end_at", LocalDateTime.class);
+    return Meeting.builder()
+        .id(resultSet.getLong("id"))
+        .title(resultSet.getString("title"))
+        .date(start.toLocalDate())
+        .start(start.toLocalTime())
+        .end(end.toLocalTime())
+        .endDate(end.toLocalDate())
+        .build();
+  }
+}
@@ -0,0 +1,276 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ An interval tree of meetings on their absolute start and end times.
+
+ It is an AVL tree ordered by start time, then id, where every node also holds the latest end
+ time in its subtree. A subtree whose latest end is not after the window start cannot overlap
+ the window, and nodes right of a start at or after the window end cannot either, so finding
+ the k meetings overlapping a window costs O(log n + k). Intervals are half-open: a meeting
+ overlaps [from, to) if it starts before 'to' and ends after 'from', which covers partial
+ overlap as well as meetings enclosing or enclosed by the window. Meetings that only touch
+ the window do not overlap it.
+
+ Not thread safe, the owning storage guards it with its own lock.
+*/
+class MeetingIntervalTree {
+
+  private static final Comparator<Node> ORDER =
+      Comparator.<Node>comparingLong(node -> node.start).thenComparingLong(node -> node.id);
+
+  private Node root;
+  private int size;
+
+  void insert(Meeting meeting) {
+    root = insert(root, new Node(meeting));
+    size++;
+  }
+
+  /*
+   Adds all meetings. A batch at least as large as the tree is sorted, merged with the meetings
+   already in the tree and the tree is rebuilt perfectly balanced in one pass, smaller batches
+   are inserted one at a time. Adding n meetings in batches of any size costs O(n log n).
+  */
+  void insertAll(List<Meeting> meetings) {
+    if (meetings.size() < size) {
+      meetings.forEach(this::insert);
+      return;
+    }
+
+    Node[] added = meetings.stream().map(Node::new).toArray(Node[]::new);
+    Arrays.parallelSort(added, ORDER);
+    List<Node> existing = new ArrayList<>(size);
+    collectNodes(root, existing);
+
+    Node[] merged = new Node[existing.size() + added.length];
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < merged.length; k++) {
+      boolean takeExisting =
+          j == added.length
+              || (i < existing.size() && ORDER.compare(existing.get(i), added[j]) <= 0);
+      merged[k] = takeExisting ? existing.get(i++) : added[j++];
+    }
+    root = build(merged, 0, merged.length);
+    size = merged.length;
+  }
+
+  boolean remove(Meeting meeting) {
+    int before = size;
+    root = remove(root, seconds(meeting.startDateTime()), meeting.getId());
+    return size < before;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /*
+   Returns the meetings overlapping [from, to) ordered by start time
+  */
+  List<Meeting> overlapping(LocalDateTime from, LocalDateTime to) {
+    List<Meeting> result = new ArrayList<>();
+    collect(root, seconds(from), seconds(to), result);
+    return result;
+  }
+
+  /*
+   Returns all meetings ordered by start time
+  */
+  List<Meeting> all() {
+    List<Meeting> result = new ArrayList<>(size);
+    collect(root, Long.MIN_VALUE, Long.MAX_VALUE, result);
+    return result;
+  }
+
+  /*
+   Returns up to 'limit' of the meetings that end at or before 'cutoff', ordered by start time.
+   Only meetings starting before the cutoff are visited, so the cost is O(log n + k) plus the
+   meetings that start before the cutoff but end after it.
+  */
+  List<Meeting> endedBy(LocalDateTime cutoff, int limit) {
+    List<Meeting> result = new ArrayList<>(Math.min(limit, size));
+    collectEnded(root, seconds(cutoff), limit, result);
+    return result;
+  }
+
+  private static void collect(Node node, long from, long to, List<Meeting> result) {
+    if (node == null || node.maxEnd <= from) {
+      return;
+    }
+    collect(node.left, from, to, result);
+    if (node.start >= to) {
+      return; // everything to the right starts even later
+    }
+    if (node.end > from) {
+      result.add(node.meeting);
+    }
+    collect(node.right, from, to, result);
+  }
+
+  private static void collectEnded(Node node, long cutoff, int limit, List<Meeting> result) {
+    if (node == null || result.size() >= limit) {
+      return;
+    }
+    collectEnded(node.left, cutoff, limit, result);
+    if (node.start >= cutoff || result.size() >= limit) {
+      return;
+    }
+    if (node.end <= cutoff) {
+      result.add(node.meeting);
+    }
+    collectEnded(node.right, cutoff, limit, result);
+  }
+
+  private static void collectNodes(Node node, List<Node> result) {
+    if (node == null) {
+      return;
+    }
+    collectNodes(node.left, result);
+    result.add(node);
+    collectNodes(node.right, result);
+  }
+
+  private static Node build(Node[] nodes, int from, int to) {
+    if (from >= to) {
+      return null;
+    }
+    int middle = (from + to) >>> 1;
+    Node node = nodes[middle];
+    node.left = build(nodes, from, middle);
+    node.right = build(nodes, middle + 1, to);
+    update(node);
+    return node;
+  }
+
+  private static Node insert(Node node, Node added) {
+    if (node == null) {
+      return added;
+    }
+    if (compare(added.start, added.id, node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return balance(node);
+  }
+
+  private Node remove(Node node, long start, long id) {
+    if (node == null) {
+      return null;
+    }
+    int comparison = compare(start, id, node);
+    if (comparison < 0) {
+      node.left = remove(node.left, start, id);
+    } else if (comparison > 0) {
+      node.right = remove(node.right, start, id);
+    } else {
+      size--;
+      if (node.left == null || node.right == null) {
+        return node.left != null ? node.left : node.right;
+      }
+      Node successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = removeMin(node.right);
+      successor.left = node.left;
+      node = successor;
+    }
+    return balance(node);
+  }
+
+  private static Node removeMin(Node node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeMin(node.left);
+    return balance(node);
+  }
+
+  private static int compare(long start, long id, Node node) {
+    int comparison = Long.compare(start, node.start);
+    return comparison != 0 ? comparison : Long.compare(id, node.id);
+  }
+
+  private static Node balance(Node node) {
+    update(node);
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static Node rotateRight(Node node) {
+    Node left = node.left;
+    node.left = left.right;
+    left.right = node;
+    update(node);
+    update(left);
+    return left;
+  }
+
+  private static Node rotateLeft(Node node) {
+    Node right = node.right;
+    node.right = right.left;
+    right.left = node;
+    update(node);
+    update(right);
+    return right;
+  }
+
+  private static void update(Node node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    node.maxEnd = Math.max(node.end, Math.max(maxEnd(node.left), maxEnd(node.right)));
+  }
+
+  private static int height(Node node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private static long maxEnd(Node node) {
+    return node == null ? Long.MIN_VALUE : node.maxEnd;
+  }
+
+  private static long seconds(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static class Node {
+
+    private final Meeting meeting;
+    private final long start;
+    private final long end;
+    private final long id;
+    private long maxEnd;
+    private int height = 1;
+    private Node left;
+    private Node right;
+
+    Node(Meeting meeting) {
+      this.meeting = meeting;
+      this.start = seconds(meeting.startDateTime());
+      this.end = seconds(meeting.endDateTime());
+      this.id = meeting.getId();
+      this.maxEnd = end;
+    }
+  }
+}
@@ -1,109 +1,118 @@
 package se.callistaenterprise.scheduler.datasource;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
 
-public class MeetingStorage {
+/*
+ Storage of meetings. Implementations keep all state per instance, so several storages can
+ live side by side in one JVM.
+*/
+public interface MeetingStorage {
 
-  public static final Comparator<Meeting> dateComparator =
-      (o1, o2) -> o1.getDate().compareTo(o2.getDate());
-  public static final Comparator<Meeting> timeComparator =
-      (o1, o2) -> o1.getStart().compareTo(o2.getStart());
-  private static final AtomicLong id = new AtomicLong(1L);
+  Comparator<Meeting> dateComparator = Comparator.comparing(Meeting::getDate);
+  Comparator<Meeting> timeComparator = Comparator.comparing(Meeting::getStart);
 
-  private static MeetingList meetings;
+  void addListener(MeetingStorageListener listener);
 
-  public MeetingStorage() {
-    meetings = new MeetingList();
-  }
+  /*
+   Adds a meeting and assigns its id. Returns null if the meeting is null.
+  */
+  Meeting add(Meeting meeting);
 
-  public synchronized Meeting add(Meeting meeting) {
-    if (!meetings.add(meeting)) {
-      return null;
-    }
-    return meetings.getLast();
-  }
+  /*
+   Adds all meetings in one batch and assigns their ids. Listeners and the change journal see
+   the meetings in the order they were given.
+  */
+  List<Meeting> addAll(List<Meeting> meetings);
 
   /*
-  Returns all meetings unsorted
+   Adds, in one batch, the meetings that overlap neither a stored meeting nor a meeting added
+   before them in the list, and returns them. Checking and adding is atomic, no meeting can be
+   added in between. Rejected meetings keep a null id.
   */
-  public synchronized List<Meeting> getAll() {
-    return meetings.stream().toList();
-  }
+  List<Meeting> addAllIfFree(List<Meeting> meetings);
 
-  public synchronized Meeting getById(Long id) {
-    return meetings.stream().filter(meeting -> meeting.getId().equals(id)).findFirst().orElse(null);
-  }
+  /*
+   Adds all meetings in one batch if none of them overlaps a stored meeting or another meeting
+   in the list, otherwise adds none. Returns whether they were added. Checking and adding is
+   atomic, no meeting can be added in between.
+  */
+  boolean addAllIfAllFree(List<Meeting> meetings);
 
-  public synchronized boolean remove(Long id) {
-    return meetings.removeIf(meeting -> meeting.getId().equals(id));
-  }
+  /*
+   Returns all meetings unsorted
+  */
+  List<Meeting> getAll();
 
-  public int size() {
-    return meetings.size();
-  }
+  Meeting getById(Long id);
 
   /*
-   Returns all meetings sorted by date and start time
+   Returns the meetings taking place on the given date, including meetings that started on an
+   earlier date or end on a later one, sorted by start
   */
-  public synchronized List<Meeting> sort() {
-    return sort(List.of(dateComparator, timeComparator));
+  default List<Meeting> getByDate(LocalDate date) {
+    return getOverlapping(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
   }
 
   /*
-   Returns all meetings sorted by the comparators given as arguments.
-   The comparators are applied in the order they appear in the list.
+   Returns the meetings overlapping [from, to) sorted by start. A meeting ending at 'from' or
+   starting at 'to' does not overlap.
   */
-  public synchronized List<Meeting> sort(List<Comparator<Meeting>> comparators) {
-    if (comparators == null) {
-      return getAll(); // return unsorted list
-    }
-
-    Comparator<Meeting> comparator = comparators.getFirst();
-    for (int i = 1; i < comparators.size(); i++) {
-      comparator = comparator.thenComparing(comparators.get(i));
-    }
+  List<Meeting> getOverlapping(LocalDateTime from, LocalDateTime to);
 
-    return meetings.stream().sorted(comparator).toList();
-  }
+  boolean remove(Long id);
 
   /*
-   The actual storage of all meetings.
+   Removes up to 'limit' of the meetings that end at or before 'cutoff' and returns them.
+   Listeners and the change journal see every removed meeting.
   */
-  private static class MeetingList extends ArrayList<Meeting> {
+  List<Meeting> removeEndedBy(LocalDateTime cutoff, int limit);
 
-    @Override
-    public boolean add(Meeting meeting) {
-      if (meeting == null) {
-        return false;
-      }
+  /*
+   Returns the version of the latest change, 0 if nothing has been changed yet
+  */
+  long getVersion();
 
-      if (meeting.getId() != null) {
-        throw new RuntimeException("Meeting.id must be null");
-      }
+  /*
+   Returns the net changes made after the given version. If the journal no longer reaches
+   back that far, the result is flagged as requiring a full resync.
+  */
+  MeetingChanges getChangesSince(long version);
 
-      meeting.setId(id.getAndIncrement());
-      return super.add(meeting);
-    }
+  int size();
 
-    @Override
-    public boolean contains(Object o) {
-      if (!(o instanceof Meeting meeting)) {
-        return false;
-      }
+  /*
+   Returns all meetings sorted by date and start time
+  */
+  List<Meeting> sort();
 
-      if (meeting.getId() == null) {
-        throw new RuntimeException("Meeting.id cannot be null");
-      }
+  /*
+   Passes every meeting, sorted by date and start time, to the action. The meetings come from
+   one snapshot of the storage, changes made while the action runs are not seen.
+  */
+  default void forEachSorted(Consumer<Meeting> action) {
+    sort().forEach(action);
+  }
 
-      return contains(meeting.getId());
+  /*
+   Returns all meetings sorted by the comparators given as arguments.
+   The comparators are applied in the order they appear in the list.
+  */
+  default List<Meeting> sort(List<Comparator<Meeting>> comparators) {
+    if (comparators == null) {
+      return getAll(); // return unsorted list
     }
 
-    public boolean contains(Long id) {
-      return this.stream().anyMatch(meeting -> meeting.getId().equals(id));
+    Comparator<Meeting> comparator = comparators.getFirst();
+    for (int i = 1; i < comparators.size(); i++) {
+      comparator = comparator.thenComparing(comparators.get(i));
     }
+
+    return getAll().stream().sorted(comparator).toList();
   }
 }
@@ -0,0 +1,32 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.time.LocalDate;
+import java.util.List;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ Callback for changes made to a MeetingStorage. Listeners are invoked while the storage
+ holds its lock, in the order the changes were applied, so implementations must be cheap
+ and must not call back into the storage.
+*/
+public interface MeetingStorageListener {
+
+  void meetingAdded(Meeting meeting);
+
+  void meetingRemoved(Meeting meeting);
+
+  /*
+   Called once with the meetings already stored when the listener is registered. They are added
+   one by one by default, listeners that only cache can skip them.
+  */
+  default void meetingsStored(List<Meeting> meetings) {
+    meetings.forEach(this::meetingAdded);
+  }
+
+  /*
+   Called when the days before the date have left the hot window of a storage that archives
+   them out of the heap, so listeners can drop what they keep for those days too. The meetings
+   are still stored.
+  */
+  default void daysArchived(LocalDate before) {}
+}
@@ -0,0 +1,493 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.StorageException;
+
+/*
+ In-memory storage that moves past days out of the heap.
+
+ Meetings that end within the last 'hotDays' days or later are hot: they are kept in an interval
+ tree and a map by id, like in the in-memory storage, so bookings and reads of current days only
+ cost as much as the number of hot meetings. Older days are archived to immutable compressed
+ segments on disk, which are memory-mapped and decoded a day at a time when read. Only the day
+ and id of every archived meeting stay in the heap, to find the segment holding it. Listeners
+ are told which days were archived, so the indexes kept beside the storage can drop them too.
+
+ Days are archived in the background, by a compaction that runs every 'compactionInterval'. It
+ writes the meetings that have aged out to a new segment without holding the storage lock, then
+ moves them from the hot tier to the segment in one short locked step. Meetings booked on an
+ archived day are hot until the next compaction, which rewrites the day together with its
+ archived meetings. Removing an archived meeting only forgets its id, its bytes are dropped when
+ the segments are merged into one, once there are too many of them or too many removed meetings.
+
+ Reads do not take the monitor of the storage, like in the in-memory storage they take the read
+ side of a lock that writes, compaction and purges only hold while they change the tiers, so a
+ bulk write or the locked steps of a compaction delay them for the time the tiers are changed.
+ Writes hold the monitor while they check for conflicts, and can read the tiers without the
+ read lock, since every change is made under the monitor.
+
+ The journal, listeners and results are the same as for the in-memory storage, the tiers are
+ not visible to callers.
+*/
+@Slf4j
+public class TieredMeetingStorage extends AbstractMeetingStorage implements AutoCloseable {
+
+  static final int MAX_SEGMENTS = 16;
+
+  private static final Comparator<Meeting> BY_START_AND_ID =
+      Comparator.comparing(Meeting::startDateTime).thenComparing(Meeting::getId);
+
+  private final int hotDays;
+  private final Path directory;
+  private final Supplier<LocalDate> today;
+  private final ScheduledExecutorService compactor;
+  private final Object compactionLock = new Object();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, Meeting> hot = new HashMap<>();
+  private final MeetingIntervalTree index = new MeetingIntervalTree();
+  private final NavigableMap<LocalDate, ArchiveSegment> coldDays = new TreeMap<>();
+  private final Map<Long, LocalDate> coldIds = new HashMap<>();
+  private final List<ArchiveSegment> segments = new ArrayList<>();
+  private long longestColdMeetingDays;
+  private long coldRemoved;
+  private long nextId = 1L;
+  private long nextSegment = 1L;
+
+  public TieredMeetingStorage(
+      int journalCapacity, int hotDays, Path directory, Duration compactionInterval) {
+    this(journalCapacity, hotDays, directory, LocalDate::now);
+    long interval = compactionInterval.toMillis();
+    compactor.scheduleWithFixedDelay(
+        this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  TieredMeetingStorage(
+      int journalCapacity, int hotDays, Path directory, Supplier<LocalDate> today) {
+    super(journalCapacity);
+    this.hotDays = hotDays;
+    this.today = today;
+    try {
+      Files.createDirectories(directory);
+      this.directory = Files.createTempDirectory(directory, "archive-");
+    } catch (IOException e) {
+      throw new StorageException("Cannot create archive directory in " + directory, e);
+    }
+    this.compactor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("meeting-archiver").daemon().unstarted(runnable));
+  }
+
+  @Override
+  protected void insert(List<Meeting> added) {
+    write(
+        () -> {
+          for (Meeting meeting : added) {
+            meeting.setId(nextId++);
+            hot.put(meeting.getId(), meeting);
+          }
+          index.insertAll(added);
+        });
+  }
+
+  @Override
+  protected Meeting delete(Long id) {
+    Meeting hotMeeting = hot.get(id);
+    if (hotMeeting != null) {
+      write(
+          () -> {
+            hot.remove(id);
+            index.remove(hotMeeting);
+          });
+      return hotMeeting;
+    }
+    Meeting removed = getArchived(id);
+    if (removed != null) {
+      write(
+          () -> {
+            coldIds.remove(id);
+            coldRemoved++;
+          });
+    }
+    return removed;
+  }
+
+  /*
+   Archived days are older than the hot meetings and are purged first. A day is dropped as a
+   whole once none of its meetings are left, and a segment once none of its days are. The
+   meetings are found before the write lock is taken, so reads only wait while they are removed.
+  */
+  @Override
+  protected List<Meeting> deleteEndedBy(LocalDateTime cutoff, int limit) {
+    List<Meeting> cold = new ArrayList<>();
+    List<LocalDate> emptied = new ArrayList<>();
+    long purged = 0;
+    for (LocalDate day : coldDays.keySet()) {
+      if (cold.size() >= limit || !day.atStartOfDay().isBefore(cutoff)) {
+        break;
+      }
+      List<Meeting> meetings = new ArrayList<>();
+      readArchived(day, meetings);
+      int kept = 0;
+      int removedFromDay = 0;
+      for (Meeting meeting : meetings) {
+        if (cold.size() < limit && !meeting.endDateTime().isAfter(cutoff)) {
+          cold.add(meeting);
+          removedFromDay++;
+        } else {
+          kept++;
+        }
+      }
+      if (kept == 0) {
+        emptied.add(day);
+      } else {
+        // The segment still holds the day, with the purged meetings as dead records
+        purged += removedFromDay;
+      }
+    }
+    List<Meeting> ended = index.endedBy(cutoff, limit - cold.size());
+
+    long dead = purged;
+    write(
+        () -> {
+          cold.forEach(meeting -> coldIds.remove(meeting.getId()));
+          emptied.forEach(coldDays::remove);
+          coldRemoved += dead;
+          dropUnusedSegments();
+          for (Meeting meeting : ended) {
+            hot.remove(meeting.getId());
+            index.remove(meeting);
+          }
+        });
+    List<Meeting> removed = new ArrayList<>(cold.size() + ended.size());
+    removed.addAll(cold);
+    removed.addAll(ended);
+    return removed;
+  }
+
+  /*
+   Returns all meetings unsorted
+  */
+  @Override
+  public List<Meeting> getAll() {
+    return read(
+        () -> {
+          List<Meeting> all = new ArrayList<>(hot.size() + coldIds.size());
+          all.addAll(hot.values());
+          coldDays.keySet().forEach(day -> readArchived(day, all));
+          return all;
+        });
+  }
+
+  @Override
+  public Meeting getById(Long id) {
+    return read(
+        () -> {
+          Meeting meeting = hot.get(id);
+          return meeting != null ? meeting : getArchived(id);
+        });
+  }
+
+  @Override
+  public List<Meeting> getOverlapping(LocalDateTime from, LocalDateTime to) {
+    return read(
+        () -> {
+          List<Meeting> hotMeetings = index.overlapping(from, to);
+          // Archived meetings are kept on the day they start, which may be before 'from'
+          LocalDate first = from.toLocalDate().minusDays(longestColdMeetingDays);
+          if (coldDays.isEmpty() || first.isAfter(coldDays.lastKey())) {
+            return hotMeetings;
+          }
+
+          List<Meeting> archived = new ArrayList<>();
+          for (LocalDate day : coldDays.subMap(first, true, to.toLocalDate(), true).keySet()) {
+            readArchived(
+                day,
+                meeting -> {
+                  if (meeting.startDateTime().isBefore(to) && meeting.endDateTime().isAfter(from)) {
+                    archived.add(meeting);
+                  }
+                });
+          }
+          return mergeSorted(archived, hotMeetings);
+        });
+  }
+
+  @Override
+  public int size() {
+    return read(() -> hot.size() + coldIds.size());
+  }
+
+  /*
+   Returns all meetings sorted by date and start time
+  */
+  @Override
+  public List<Meeting> sort() {
+    return read(
+        () -> {
+          List<Meeting> archived = new ArrayList<>(coldIds.size());
+          coldDays.keySet().forEach(day -> readArchived(day, archived));
+          return mergeSorted(archived, index.all());
+        });
+  }
+
+  /*
+   Archives the meetings that have aged out of the hot window, then merges the segments if
+   there are too many of them or too many of their meetings have been removed
+  */
+  void compact() {
+    synchronized (compactionLock) {
+      archive();
+      if (locked("compact", () -> segments.size() > MAX_SEGMENTS || coldRemoved > coldIds.size())) {
+        merge();
+      }
+    }
+  }
+
+  /*
+   Returns the number of meetings in the hot tier
+  */
+  int hotSize() {
+    return read(hot::size);
+  }
+
+  /*
+   Returns the number of segment files in the cold tier
+  */
+  int segmentCount() {
+    return read(segments::size);
+  }
+
+  /*
+   Stops the compaction and deletes the archive, the storage cannot be used afterwards
+  */
+  @Override
+  public void close() {
+    compactor.shutdownNow();
+    synchronized (compactionLock) {
+      locked(
+          "close",
+          () -> {
+            write(
+                () -> {
+                  segments.forEach(ArchiveSegment::delete);
+                  segments.clear();
+                  coldDays.clear();
+                  coldIds.clear();
+                });
+            try {
+              Files.deleteIfExists(directory);
+            } catch (IOException e) {
+              log.warn("Cannot delete archive directory {}", directory, e);
+            }
+            return null;
+          });
+    }
+  }
+
+  private void archive() {
+    LocalDate hotFrom = today.get().minusDays(hotDays);
+    SortedMap<LocalDate, List<Meeting>> aged = new TreeMap<>();
+    Set<Meeting> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+    locked(
+        "archive",
+        () -> {
+          for (Meeting meeting : hot.values()) {
+            if (meeting.lastDate().isBefore(hotFrom)) {
+              aged.computeIfAbsent(meeting.getDate(), day -> new ArrayList<>()).add(meeting);
+              moved.add(meeting);
+            }
+          }
+          // An archived day is written again as a whole, with the meetings booked on it since
+          for (Map.Entry<LocalDate, List<Meeting>> day : aged.entrySet()) {
+            readArchived(day.getKey(), day.getValue());
+          }
+          notifyDaysArchived(hotFrom);
+          return null;
+        });
+    if (aged.isEmpty()) {
+      return;
+    }
+
+    aged.values().forEach(meetings -> meetings.sort(BY_START_AND_ID));
+    ArchiveSegment segment = ArchiveSegment.write(nextSegmentFile(), aged);
+
+    locked(
+        "archive",
+        () -> {
+          write(
+              () -> {
+                segments.add(segment);
+                for (Map.Entry<LocalDate, List<Meeting>> day : aged.entrySet()) {
+                  coldDays.put(day.getKey(), segment);
+                  for (Meeting meeting : day.getValue()) {
+                    // Meetings removed while the segment was written are not moved
+                    if (moved.contains(meeting) && hot.remove(meeting.getId(), meeting)) {
+                      index.remove(meeting);
+                      coldIds.put(meeting.getId(), day.getKey());
+                      longestColdMeetingDays =
+                          Math.max(
+                              longestColdMeetingDays,
+                              ChronoUnit.DAYS.between(meeting.getDate(), meeting.lastDate()));
+                    }
+                  }
+                }
+                dropUnusedSegments();
+              });
+          return null;
+        });
+    log.debug("Archived {} days before {}", aged.size(), hotFrom);
+  }
+
+  /*
+   Writes the meetings that are still stored in all segments to one new segment
+  */
+  private void merge() {
+    SortedMap<LocalDate, List<Meeting>> days = new TreeMap<>();
+    locked(
+        "merge",
+        () -> {
+          for (LocalDate day : coldDays.keySet()) {
+            readArchived(day, days.computeIfAbsent(day, key -> new ArrayList<>()));
+          }
+          days.values().removeIf(List::isEmpty);
+          coldRemoved = 0;
+          return null;
+        });
+
+    ArchiveSegment merged = days.isEmpty() ? null : ArchiveSegment.write(nextSegmentFile(), days);
+
+    locked(
+        "merge",
+        () -> {
+          write(
+              () -> {
+                // Days emptied by removals are dropped, meetings removed meanwhile stay forgotten
+                coldDays.keySet().removeIf(day -> !days.containsKey(day));
+                days.keySet().forEach(day -> coldDays.put(day, merged));
+                if (merged != null) {
+                  segments.add(merged);
+                }
+                dropUnusedSegments();
+              });
+          return null;
+        });
+  }
+
+  private <T> T read(Supplier<T> action) {
+    lock.readLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void write(Runnable action) {
+    lock.writeLock().lock();
+    try {
+      action.run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void dropUnusedSegments() {
+    Set<ArchiveSegment> used = Collections.newSetFromMap(new IdentityHashMap<>());
+    used.addAll(coldDays.values());
+    segments.removeIf(
+        segment -> {
+          if (used.contains(segment)) {
+            return false;
+          }
+          segment.delete();
+          return true;
+        });
+  }
+
+  private Meeting getArchived(Long id) {
+    LocalDate day = coldIds.get(id);
+    if (day == null) {
+      return null;
+    }
+    List<Meeting> meetings = new ArrayList<>();
+    readArchived(day, meetings);
+    return meetings.stream().filter(meeting -> meeting.getId().equals(id)).findFirst().orElse(null);
+  }
+
+  /*
+   Adds the archived meetings of the day that have not been removed
+  */
+  private void readArchived(LocalDate day, List<Meeting> result) {
+    readArchived(day, (Consumer<Meeting>) result::add);
+  }
+
+  private void readArchived(LocalDate day, Consumer<Meeting> action) {
+    ArchiveSegment segment = coldDays.get(day);
+    if (segment != null) {
+      segment.read(
+          day,
+          meeting -> {
+            if (coldIds.containsKey(meeting.getId())) {
+              action.accept(meeting);
+            }
+          });
+    }
+  }
+
+  private Path nextSegmentFile() {
+    return directory.resolve("segment-" + nextSegment++ + ".bin");
+  }
+
+  private void compactQuietly() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      log.error("Cannot archive meetings", e);
+    }
+  }
+
+  private static List<Meeting> mergeSorted(List<Meeting> first, List<Meeting> second) {
+    if (first.isEmpty()) {
+      return second;
+    }
+    List<Meeting> merged = new ArrayList<>(first.size() + second.size());
+    int i = 0;
+    int j = 0;
+    while (i < first.size() && j < second.size()) {
+      merged.add(
+          BY_START_AND_ID.compare(first.get(i), second.get(j)) <= 0
+              ? first.get(i++)
+              : second.get(j++));
+    }
+    merged.addAll(first.subList(i, first.size()));
+    merged.addAll(second.subList(j, second.size()));
+    return merged;
+  }
+}
@@ -0,0 +1,22 @@
+package se.callistaenterprise.scheduler.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookingDto {
+  private String id;
+  private String status;
+  private MeetingDto meeting;
+
+  private List<String> errors;
+
+  public BookingDto(String id, String status, MeetingDto meeting, List<String> errors) {
+    this.id = id;
+    this.status = status;
+    this.meeting = meeting;
+    this.errors = errors;
+  }
+}
@@ -0,0 +1,20 @@
+package se.callistaenterprise.scheduler.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportResultDto {
+  private long imported;
+  private long rejected;
+
+  private List<String> errors;
+
+  public ImportResultDto(long imported, long rejected, List<String> errors) {
+    this.imported = imported;
+    this.rejected = rejected;
+    this.errors = errors;
+  }
+}
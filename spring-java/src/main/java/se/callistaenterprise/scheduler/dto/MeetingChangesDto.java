@@ -0,0 +1,23 @@
+package se.callistaenterprise.scheduler.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class MeetingChangesDto {
+  private long version;
+  private boolean fullResyncRequired;
+
+  private List<MeetingDto> added;
+  private List<Long> removed;
+
+  public MeetingChangesDto(
+      long version, boolean fullResyncRequired, List<MeetingDto> added, List<Long> removed) {
+    this.version = version;
+    this.fullResyncRequired = fullResyncRequired;
+    this.added = added;
+    this.removed = removed;
+  }
+}
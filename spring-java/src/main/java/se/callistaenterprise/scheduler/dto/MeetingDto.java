@@ -1,5 +1,6 @@
 package se.callistaenterprise.scheduler.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import lombok.Builder;
@@ -15,12 +16,20 @@ public class MeetingDto {
   private LocalDate date;
   private LocalTime start;
   private LocalTime end;
+  private LocalDate endDate;
 
   public MeetingDto(Long id, String title, LocalDate date, LocalTime start, LocalTime end) {
+    this(id, title, date, start, end, null);
+  }
+
+  @JsonCreator
+  public MeetingDto(
+      Long id, String title, LocalDate date, LocalTime start, LocalTime end, LocalDate endDate) {
     this.id = id;
     this.title = title;
     this.date = date;
     this.start = start;
     this.end = end;
+    this.endDate = endDate;
   }
 }
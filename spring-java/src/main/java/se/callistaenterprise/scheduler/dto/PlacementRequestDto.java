@@ -0,0 +1,24 @@
+package se.callistaenterprise.scheduler.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PlacementRequestDto {
+  private String title;
+  private Long duration;
+
+  private LocalDate earliest;
+  private LocalDate latest;
+
+  @JsonCreator
+  public PlacementRequestDto(String title, Long duration, LocalDate earliest, LocalDate latest) {
+    this.title = title;
+    this.duration = duration;
+    this.earliest = earliest;
+    this.latest = latest;
+  }
+}
@@ -1,10 +1,15 @@
 package se.callistaenterprise.scheduler.entity;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import lombok.Builder;
 import lombok.Data;
 
+/*
+ A meeting from 'date' 'start' up to, but not including, 'endDate' 'end'. 'endDate' is null
+ for meetings that end on the day they start.
+*/
 @Data
 @Builder
 public class Meeting {
@@ -13,12 +18,45 @@ public class Meeting {
   private LocalDate date;
   private LocalTime start;
   private LocalTime end;
+  private LocalDate endDate;
 
   public Meeting(Long id, String title, LocalDate date, LocalTime start, LocalTime end) {
+    this(id, title, date, start, end, null);
+  }
+
+  public Meeting(
+      Long id, String title, LocalDate date, LocalTime start, LocalTime end, LocalDate endDate) {
     this.id = id;
     this.title = title;
     this.date = date;
     this.start = start;
     this.end = end;
+    this.endDate = endDate != null && endDate.equals(date) ? null : endDate;
+  }
+
+  public LocalDate lastDate() {
+    return endDate != null ? endDate : date;
+  }
+
+  public LocalDateTime startDateTime() {
+    return date.atTime(start);
+  }
+
+  public LocalDateTime endDateTime() {
+    return lastDate().atTime(end);
+  }
+
+  /*
+   When the meeting starts on the given day, midnight if it started on an earlier day
+  */
+  public LocalTime startOn(LocalDate day) {
+    return day.isAfter(date) ? LocalTime.MIN : start;
+  }
+
+  /*
+   When the meeting ends on the given day, the end of the day if it continues on the next day
+  */
+  public LocalTime endOn(LocalDate day) {
+    return day.isBefore(lastDate()) ? LocalTime.MAX : end;
   }
 }
@@ -0,0 +1,34 @@
+package se.callistaenterprise.scheduler.event;
+
+import lombok.Getter;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+@Getter
+public class MeetingEvent {
+
+  private final long sequence;
+  private final Type type;
+  private final Meeting meeting;
+
+  public MeetingEvent(long sequence, Type type, Meeting meeting) {
+    this.sequence = sequence;
+    this.type = type;
+    this.meeting = meeting;
+  }
+
+  public enum Type {
+    ADDED("added"),
+    REMOVED("removed"),
+    ;
+
+    private final String eventName;
+
+    Type(String eventName) {
+      this.eventName = eventName;
+    }
+
+    public String eventName() {
+      return this.eventName;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package se.callistaenterprise.scheduler.event;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import se.callistaenterprise.scheduler.config.EventProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.ServiceUnavailableException;
+import se.callistaenterprise.scheduler.mapping.MeetingMapper;
+
+/*
+ Pushes meeting changes to server-sent event subscribers.
+
+ Every change is published once into a shared ring buffer. Each subscriber reads the buffer
+ from its own position on a dispatcher pool, with at most one drain running per subscriber.
+ Sending blocks while the connection of the client is full, so the pool keeps
+ 'dispatcherThreads' threads and starts another one whenever all of them are busy, instead of
+ queueing the drain. A slow client therefore only holds back itself: it blocks the one thread
+ draining it, falls behind in the buffer, and once it falls a full buffer length behind it
+ receives a resync event and is closed. There is at most one thread per subscriber, and threads
+ started for blocked clients stop after a minute without work.
+*/
+@Slf4j
+@Component
+public class MeetingEventBroadcaster implements MeetingStorageListener {
+
+  static final String RESYNC_EVENT = "resync";
+
+  private final EventProperties eventProperties;
+  private final MeetingMapper meetingMapper;
+  private final MeetingEventRingBuffer buffer;
+  private final ExecutorService dispatcher;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  public MeetingEventBroadcaster(EventProperties eventProperties, MeetingMapper meetingMapper) {
+    this.eventProperties = eventProperties;
+    this.meetingMapper = meetingMapper;
+    this.buffer = new MeetingEventRingBuffer(eventProperties.getBufferSize());
+    this.dispatcher =
+        new ThreadPoolExecutor(
+            eventProperties.getDispatcherThreads(),
+            Integer.MAX_VALUE,
+            1,
+            TimeUnit.MINUTES,
+            new SynchronousQueue<>(),
+            new DispatcherThreadFactory());
+  }
+
+  @Override
+  public void meetingAdded(Meeting meeting) {
+    publish(MeetingEvent.Type.ADDED, meeting);
+  }
+
+  @Override
+  public void meetingRemoved(Meeting meeting) {
+    publish(MeetingEvent.Type.REMOVED, meeting);
+  }
+
+  /*
+   Registers a new subscriber for meetings dated within [from, to], both optional.
+   If lastEventId is given, every buffered event after it is replayed first. An id the buffer
+   has not reached yet was handed out before a restart, and the subscriber is sent a resync
+   instead, as is one whose events have been overwritten.
+  */
+  public SseEmitter subscribe(LocalDate from, LocalDate to, Long lastEventId) {
+    if (subscribers.size() >= eventProperties.getMaxSubscribers()) {
+      throw new ServiceUnavailableException(
+          "Too many event subscribers", eventProperties.getRetryAfter());
+    }
+
+    long position = buffer.getNextSequence();
+    if (lastEventId != null) {
+      // Sequence 0 is never readable, which makes the first drain send the resync
+      position = lastEventId < position ? lastEventId + 1 : 0L;
+    }
+    SseEmitter emitter = new SseEmitter(eventProperties.getSubscriberTimeout().toMillis());
+    Subscriber subscriber = new Subscriber(emitter, from, to, position);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+
+    subscribers.add(subscriber);
+    subscriber.signal();
+    return emitter;
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  long getNextSequence() {
+    return buffer.getNextSequence();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  private void publish(MeetingEvent.Type type, Meeting meeting) {
+    buffer.publish(type, meeting);
+    subscribers.forEach(Subscriber::signal);
+  }
+
+  private class Subscriber {
+
+    private final SseEmitter emitter;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private long position; // only touched by the thread holding 'draining'
+
+    Subscriber(SseEmitter emitter, LocalDate from, LocalDate to, long position) {
+      this.emitter = emitter;
+      this.from = from;
+      this.to = to;
+      this.position = position;
+    }
+
+    void signal() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          dispatcher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+          // Shutting down
+          subscribers.remove(this);
+        }
+      }
+    }
+
+    private void drain() {
+      try {
+        do {
+          List<MeetingEvent> events = buffer.read(position, eventProperties.getBatchSize());
+          while (events != null && !events.isEmpty()) {
+            for (MeetingEvent event : events) {
+              if (matches(event.getMeeting())) {
+                send(event);
+              }
+              position = event.getSequence() + 1;
+            }
+            events = buffer.read(position, eventProperties.getBatchSize());
+          }
+          if (events == null) {
+            resync();
+            return;
+          }
+          draining.set(false);
+          // Re-check, a publish may have happened after the last read but before the release
+        } while (position < buffer.getNextSequence() && draining.compareAndSet(false, true));
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Dropping event subscriber: {}", e.getMessage());
+        subscribers.remove(this);
+        emitter.completeWithError(e);
+      }
+    }
+
+    private boolean matches(Meeting meeting) {
+      return (from == null || !meeting.lastDate().isBefore(from))
+          && (to == null || !meeting.getDate().isAfter(to));
+    }
+
+    private void send(MeetingEvent event) throws IOException {
+      emitter.send(
+          SseEmitter.event()
+              .id(Long.toString(event.getSequence()))
+              .name(event.getType().eventName())
+              .data(meetingMapper.mapToMeetingDto(event.getMeeting())));
+    }
+
+    private void resync() throws IOException {
+      subscribers.remove(this);
+      emitter.send(
+          SseEmitter.event().name(RESYNC_EVENT).data(Long.toString(buffer.getNextSequence())));
+      emitter.complete();
+    }
+  }
+
+  private static class DispatcherThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "meeting-events-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package se.callistaenterprise.scheduler.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ A fixed size ring of the most recent meeting events, shared by all subscribers.
+
+ Events are numbered with a strictly increasing sequence starting at 1. Each subscriber keeps
+ its own read position, so publishing is O(1) regardless of the number of subscribers and no
+ event is ever copied per subscriber. A subscriber that falls more than one buffer length
+ behind has lost events and must resynchronize.
+*/
+public class MeetingEventRingBuffer {
+
+  private final MeetingEvent[] slots;
+  private final int mask;
+
+  private volatile long nextSequence = 1L;
+
+  public MeetingEventRingBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new MeetingEvent[size];
+    this.mask = size - 1;
+  }
+
+  public synchronized MeetingEvent publish(MeetingEvent.Type type, Meeting meeting) {
+    long sequence = nextSequence;
+    MeetingEvent event = new MeetingEvent(sequence, type, meeting);
+    slots[(int) (sequence & mask)] = event;
+    nextSequence = sequence + 1;
+    return event;
+  }
+
+  public int capacity() {
+    return slots.length;
+  }
+
+  /*
+   The sequence the next published event will get
+  */
+  public long getNextSequence() {
+    return nextSequence;
+  }
+
+  /*
+   The oldest sequence that can still be read
+  */
+  public long getOldestSequence() {
+    return Math.max(1L, nextSequence - slots.length);
+  }
+
+  /*
+   Returns up to maxEvents events starting at fromSequence, or null if events from
+   fromSequence onwards have already been overwritten.
+  */
+  public List<MeetingEvent> read(long fromSequence, int maxEvents) {
+    long end = Math.min(nextSequence, fromSequence + maxEvents);
+    if (fromSequence < getOldestSequence()) {
+      return null;
+    }
+
+    List<MeetingEvent> events = new ArrayList<>((int) Math.max(0L, end - fromSequence));
+    for (long sequence = fromSequence; sequence < end; sequence++) {
+      MeetingEvent event = slots[(int) (sequence & mask)];
+      if (event == null || event.getSequence() != sequence) {
+        return null; // overwritten by the publisher while we were reading
+      }
+      events.add(event);
+    }
+    return events;
+  }
+}
@@ -0,0 +1,7 @@
+package se.callistaenterprise.scheduler.exception;
+
+public class StorageException extends RuntimeException {
+  public StorageException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,18 @@
+package se.callistaenterprise.scheduler.exception;
+
+import java.time.Duration;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public TooManyRequestsException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+}
@@ -0,0 +1,11 @@
+package se.callistaenterprise.scheduler.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class UnprocessableEntityException extends RuntimeException {
+  public UnprocessableEntityException(String message) {
+    super(message);
+  }
+}
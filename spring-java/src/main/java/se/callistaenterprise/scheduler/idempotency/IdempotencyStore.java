@@ -0,0 +1,138 @@
+package se.callistaenterprise.scheduler.idempotency;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import se.callistaenterprise.scheduler.config.IdempotencyProperties;
+import se.callistaenterprise.scheduler.exception.BadRequestException;
+import se.callistaenterprise.scheduler.exception.UnprocessableEntityException;
+
+/*
+ Recent results of requests sent with an Idempotency-Key header.
+
+ The first request with a key runs and its result is kept for the configured time to live, so a
+ retry with the same key and request gets the same result without running again. Requests that
+ arrive while the first one is still running wait for its result instead of running too. A
+ request that fails is forgotten, the failure is passed on to the requests waiting for it but a
+ later retry runs again. The same goes for a result the caller marks as retryable, such as a
+ rejection that is returned rather than thrown. Reusing a key for a different request is
+ rejected.
+
+ Keys are kept in insertion order. Since every key lives equally long, that is also the order
+ they expire in, so both expiry and the limit on the number of keys only ever remove the oldest
+ keys, in constant time per key.
+*/
+@Component
+public class IdempotencyStore {
+
+  public static final int MAX_KEY_LENGTH = 255;
+
+  private final int maxKeys;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  @Autowired
+  public IdempotencyStore(IdempotencyProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  IdempotencyStore(IdempotencyProperties properties, LongSupplier nanoClock) {
+    this.maxKeys = properties.getMaxKeys();
+    this.ttlNanos = properties.getTtl().toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  /*
+   Returns the result of the first request with the key, running the action if there was none
+  */
+  public <T> T execute(String key, Object request, Supplier<T> action) {
+    return execute(key, request, action, result -> false);
+  }
+
+  /*
+   As above, but a result the predicate holds for is forgotten like a failure
+  */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(
+      String key, Object request, Supplier<T> action, Predicate<? super T> retryable) {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new BadRequestException(
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+    }
+
+    Entry entry = new Entry(request, new CompletableFuture<>(), nanoClock.getAsLong() + ttlNanos);
+    Entry existing;
+    synchronized (entries) {
+      evictExpired();
+      existing = entries.putIfAbsent(key, entry);
+      if (existing == null && entries.size() > maxKeys) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        oldest.next();
+        oldest.remove();
+      }
+    }
+
+    if (existing != null) {
+      if (!existing.request().equals(request)) {
+        throw new UnprocessableEntityException(
+            "Idempotency-Key " + key + " was already used for a different request");
+      }
+      return (T) await(existing.result());
+    }
+
+    try {
+      T result = action.get();
+      if (retryable.test(result)) {
+        forget(key, entry);
+      }
+      entry.result().complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      forget(key, entry);
+      entry.result().completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  int size() {
+    synchronized (entries) {
+      evictExpired();
+      return entries.size();
+    }
+  }
+
+  private void forget(String key, Entry entry) {
+    synchronized (entries) {
+      entries.remove(key, entry);
+    }
+  }
+
+  private void evictExpired() {
+    long now = nanoClock.getAsLong();
+    Iterator<Entry> oldest = entries.values().iterator();
+    while (oldest.hasNext() && oldest.next().expiresAt() - now <= 0) {
+      oldest.remove();
+    }
+  }
+
+  private static Object await(CompletableFuture<Object> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Entry(Object request, CompletableFuture<Object> result, long expiresAt) {}
+}
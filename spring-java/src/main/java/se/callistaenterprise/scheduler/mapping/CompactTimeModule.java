@@ -0,0 +1,105 @@
+package se.callistaenterprise.scheduler.mapping;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/*
+ Writes dates as their epoch day and times as their minute of the day, both as plain integers,
+ so binary payloads carry no date strings to format or parse. Meeting times are whole minutes,
+ seconds are dropped. ISO strings are still accepted when reading.
+*/
+public class CompactTimeModule extends SimpleModule {
+
+  private static final int MINUTES_PER_HOUR = 60;
+  private static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+
+  public CompactTimeModule() {
+    super("CompactTimeModule");
+    addSerializer(LocalDate.class, new EpochDaySerializer());
+    addDeserializer(LocalDate.class, new EpochDayDeserializer());
+    addSerializer(LocalTime.class, new MinuteOfDaySerializer());
+    addDeserializer(LocalTime.class, new MinuteOfDayDeserializer());
+  }
+
+  private static class EpochDaySerializer extends StdSerializer<LocalDate> {
+
+    EpochDaySerializer() {
+      super(LocalDate.class);
+    }
+
+    @Override
+    public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeNumber(value.toEpochDay());
+    }
+  }
+
+  private static class EpochDayDeserializer extends StdDeserializer<LocalDate> {
+
+    EpochDayDeserializer() {
+      super(LocalDate.class);
+    }
+
+    @Override
+    public LocalDate deserialize(JsonParser parser, DeserializationContext context)
+        throws IOException {
+      if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+        return LocalDate.ofEpochDay(parser.getLongValue());
+      }
+      if (parser.currentToken() == JsonToken.VALUE_STRING) {
+        return LocalDate.parse(parser.getText());
+      }
+      return (LocalDate) context.handleUnexpectedToken(LocalDate.class, parser);
+    }
+  }
+
+  private static class MinuteOfDaySerializer extends StdSerializer<LocalTime> {
+
+    MinuteOfDaySerializer() {
+      super(LocalTime.class);
+    }
+
+    @Override
+    public void serialize(LocalTime value, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeNumber(value.getHour() * MINUTES_PER_HOUR + value.getMinute());
+    }
+  }
+
+  private static class MinuteOfDayDeserializer extends StdDeserializer<LocalTime> {
+
+    MinuteOfDayDeserializer() {
+      super(LocalTime.class);
+    }
+
+    @Override
+    public LocalTime deserialize(JsonParser parser, DeserializationContext context)
+        throws IOException {
+      if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+        int minuteOfDay = parser.getIntValue();
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+          return (LocalTime)
+              context.handleWeirdNumberValue(
+                  LocalTime.class,
+                  minuteOfDay,
+                  "minute of the day must be between 0 and %d",
+                  MINUTES_PER_DAY - 1);
+        }
+        return LocalTime.of(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR);
+      }
+      if (parser.currentToken() == JsonToken.VALUE_STRING) {
+        return LocalTime.parse(parser.getText());
+      }
+      return (LocalTime) context.handleUnexpectedToken(LocalTime.class, parser);
+    }
+  }
+}
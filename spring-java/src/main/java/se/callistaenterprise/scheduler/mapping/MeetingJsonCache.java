@@ -0,0 +1,147 @@
+package se.callistaenterprise.scheduler.mapping;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import se.callistaenterprise.scheduler.config.JsonCacheProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.StorageException;
+import se.callistaenterprise.scheduler.monitoring.SerializationEvent;
+
+/*
+ The JSON of the most recently used meetings, encoded once when the meeting is added.
+
+ Meetings never change once stored, so the UTF-8 bytes of their MeetingDto can be kept for as
+ long as the meeting exists. A JSON array of meetings is then assembled by copying the cached
+ bytes into one buffer, without mapping or serializing anything on the read. At most
+ 'maxMeetings' meetings are kept, the least recently used are dropped first, so a storage that
+ keeps its meetings out of the heap does not get them all back in here. Meetings on days the
+ storage has archived are dropped as well. Meetings the cache has
+ not seen, such as meetings stored before it was registered, which it does not load, are encoded
+ on the read but not cached, so a read racing a removal cannot bring a removed meeting back.
+*/
+@Component
+public class MeetingJsonCache implements MeetingStorageListener {
+
+  private final ObjectMapper objectMapper;
+  private final MeetingMapper meetingMapper;
+  private final Map<Long, Entry> encoded;
+
+  public MeetingJsonCache(
+      ObjectMapper objectMapper, MeetingMapper meetingMapper, JsonCacheProperties properties) {
+    this.objectMapper = objectMapper;
+    this.meetingMapper = meetingMapper;
+    int maxMeetings = properties.getMaxMeetings();
+    this.encoded =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxMeetings;
+          }
+        };
+  }
+
+  @Override
+  public void meetingAdded(Meeting meeting) {
+    byte[] json = encode(meeting);
+    synchronized (encoded) {
+      encoded.put(meeting.getId(), new Entry(meeting.lastDate(), json));
+    }
+  }
+
+  @Override
+  public void meetingRemoved(Meeting meeting) {
+    synchronized (encoded) {
+      encoded.remove(meeting.getId());
+    }
+  }
+
+  /*
+   The meetings stored before are encoded when they are read instead
+  */
+  @Override
+  public void meetingsStored(List<Meeting> meetings) {}
+
+  @Override
+  public void daysArchived(LocalDate before) {
+    synchronized (encoded) {
+      encoded.values().removeIf(entry -> entry.lastDate().isBefore(before));
+    }
+  }
+
+  /*
+   Returns the meetings as a JSON array, in the order given
+  */
+  public byte[] toJsonArray(List<Meeting> meetings) {
+    SerializationEvent event = new SerializationEvent();
+    event.begin();
+    byte[][] elements = new byte[meetings.size()][];
+    int length = 2 + Math.max(0, meetings.size() - 1);
+    synchronized (encoded) {
+      for (int i = 0; i < elements.length; i++) {
+        Long id = meetings.get(i).getId();
+        Entry entry = id != null ? encoded.get(id) : null;
+        elements[i] = entry != null ? entry.json() : null;
+      }
+    }
+    int misses = 0;
+    for (int i = 0; i < elements.length; i++) {
+      byte[] element = elements[i];
+      if (element == null) {
+        element = encode(meetings.get(i));
+        misses++;
+      }
+      elements[i] = element;
+      length += element.length;
+    }
+
+    byte[] array = new byte[length];
+    int position = 0;
+    array[position++] = '[';
+    for (int i = 0; i < elements.length; i++) {
+      if (i > 0) {
+        array[position++] = ',';
+      }
+      System.arraycopy(elements[i], 0, array, position, elements[i].length);
+      position += elements[i].length;
+    }
+    array[position] = ']';
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.format = "json";
+      event.meetings = meetings.size();
+      event.cacheMisses = misses;
+      event.size = array.length;
+      event.commit();
+    }
+    return array;
+  }
+
+  boolean isCached(Meeting meeting) {
+    synchronized (encoded) {
+      return encoded.containsKey(meeting.getId());
+    }
+  }
+
+  int size() {
+    synchronized (encoded) {
+      return encoded.size();
+    }
+  }
+
+  private byte[] encode(Meeting meeting) {
+    try {
+      return objectMapper.writeValueAsBytes(meetingMapper.mapToMeetingDto(meeting));
+    } catch (JsonProcessingException e) {
+      throw new StorageException("Cannot encode meeting " + meeting.getId(), e);
+    }
+  }
+
+  private record Entry(LocalDate lastDate, byte[] json) {}
+}
@@ -2,8 +2,16 @@ package se.callistaenterprise.scheduler.mapping;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
+import se.callistaenterprise.scheduler.dto.BookingDto;
+import se.callistaenterprise.scheduler.dto.ImportResultDto;
+import se.callistaenterprise.scheduler.dto.MeetingChangesDto;
 import se.callistaenterprise.scheduler.dto.MeetingDto;
+import se.callistaenterprise.scheduler.dto.PlacementRequestDto;
 import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.Booking;
+import se.callistaenterprise.scheduler.model.ImportResult;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+import se.callistaenterprise.scheduler.model.PlacementRequest;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface MeetingMapper {
@@ -11,4 +19,12 @@ public interface MeetingMapper {
   MeetingDto mapToMeetingDto(Meeting meeting);
 
   Meeting mapToMeeting(MeetingDto meetingDto);
+
+  MeetingChangesDto mapToMeetingChangesDto(MeetingChanges meetingChanges);
+
+  ImportResultDto mapToImportResultDto(ImportResult importResult);
+
+  BookingDto mapToBookingDto(Booking booking);
+
+  PlacementRequest mapToPlacementRequest(PlacementRequestDto placementRequestDto);
 }
@@ -0,0 +1,52 @@
+package se.callistaenterprise.scheduler.model;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.validation.Errors;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ A meeting handed to the booking pipeline. 'result' completes with the booked meeting, or with
+ the reasons it was rejected, once the actor owning its date has applied it.
+*/
+@Getter
+public class Booking {
+
+  public enum Status {
+    PENDING,
+    BOOKED,
+    REJECTED,
+    FAILED
+  }
+
+  private final UUID id;
+  private final Meeting meeting;
+  private final CompletableFuture<Either<Meeting, Errors>> result = new CompletableFuture<>();
+
+  public Booking(UUID id, Meeting meeting) {
+    this.id = id;
+    this.meeting = meeting;
+  }
+
+  public Status getStatus() {
+    if (!result.isDone()) {
+      return Status.PENDING;
+    }
+    if (result.isCompletedExceptionally()) {
+      return Status.FAILED;
+    }
+    return result.join().hasErrors() ? Status.REJECTED : Status.BOOKED;
+  }
+
+  public List<String> getErrors() {
+    if (getStatus() != Status.REJECTED) {
+      return List.of();
+    }
+    return result.join().getRight().getAllErrors().stream()
+        .map(MessageSourceResolvable::getDefaultMessage)
+        .toList();
+  }
+}
@@ -1,10 +1,12 @@
 package se.callistaenterprise.scheduler.model;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import org.springframework.validation.Errors;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 
 @Getter
 public class Either<V, E extends Errors> {
@@ -28,19 +30,24 @@ public class Either<V, E extends Errors> {
     return right != null && right.hasErrors();
   }
 
+  /*
+   The message of every error by field. Global errors, like a time that is not available, are
+   keyed by the name of the rejected object, and errors without a message by their code.
+  */
   public Map<String, String> getAllErrors() {
-    Map<String, String> errorMap = new HashMap<>();
-    right
-        .getAllErrors()
-        .forEach(
-            error -> {
-              Map.Entry<String, String> fieldError = extractFieldError((FieldError) error);
-              errorMap.put(fieldError.getKey(), fieldError.getValue());
-            });
+    List<ObjectError> errors = right.getAllErrors();
+    Map<String, String> errorMap = LinkedHashMap.newLinkedHashMap(errors.size());
+    for (ObjectError error : errors) {
+      errorMap.put(keyOf(error), messageOf(error));
+    }
     return errorMap;
   }
 
-  private Map.Entry<String, String> extractFieldError(FieldError error) {
-    return Map.entry(error.getField(), error.getDefaultMessage());
+  private static String keyOf(ObjectError error) {
+    return error instanceof FieldError fieldError ? fieldError.getField() : error.getObjectName();
+  }
+
+  private static String messageOf(ObjectError error) {
+    return error.getDefaultMessage() != null ? error.getDefaultMessage() : error.getCode();
   }
 }
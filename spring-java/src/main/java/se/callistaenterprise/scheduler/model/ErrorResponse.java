@@ -1,6 +1,12 @@
 package se.callistaenterprise.scheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.Getter;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 
 @Getter
 public class ErrorResponse {
@@ -8,9 +14,49 @@ public class ErrorResponse {
   private int httpStatusCode;
   private String message;
 
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  private List<Error> errors;
+
   public ErrorResponse(int httpStatusCode, String message) {
+    this(httpStatusCode, message, List.of());
+  }
+
+  public ErrorResponse(int httpStatusCode, String message, List<Error> errors) {
     super();
     this.httpStatusCode = httpStatusCode;
     this.message = message;
+    this.errors = errors;
+  }
+
+  /*
+   Builds the response for a rejected request directly from its errors, one entry per error
+   and their messages joined as the message. Global errors have no field.
+  */
+  public static ErrorResponse of(int httpStatusCode, Errors errors) {
+    List<Error> details = errors.getAllErrors().stream().map(Error::of).toList();
+    String message = details.stream().map(Error::getMessage).collect(Collectors.joining(", "));
+    return new ErrorResponse(httpStatusCode, message, details);
+  }
+
+  @Getter
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class Error {
+
+    private final String field;
+    private final String code;
+    private final String message;
+
+    public Error(String field, String code, String message) {
+      this.field = field;
+      this.code = code;
+      this.message = message;
+    }
+
+    static Error of(ObjectError error) {
+      String field = error instanceof FieldError fieldError ? fieldError.getField() : null;
+      String message =
+          error.getDefaultMessage() != null ? error.getDefaultMessage() : error.getCode();
+      return new Error(field, error.getCode(), message);
+    }
   }
 }
@@ -0,0 +1,22 @@
+package se.callistaenterprise.scheduler.model;
+
+import java.util.List;
+import lombok.Getter;
+
+/*
+ The outcome of an import. 'errors' holds the reasons for the first rejected meetings, by the
+ line they start on.
+*/
+@Getter
+public class ImportResult {
+
+  private final long imported;
+  private final long rejected;
+  private final List<String> errors;
+
+  public ImportResult(long imported, long rejected, List<String> errors) {
+    this.imported = imported;
+    this.rejected = rejected;
+    this.errors = errors;
+  }
+}
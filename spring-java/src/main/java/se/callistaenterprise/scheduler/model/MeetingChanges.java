@@ -0,0 +1,30 @@
+package se.callistaenterprise.scheduler.model;
+
+import java.util.List;
+import lombok.Getter;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ The net changes to the meeting storage between two versions. Meetings that were both added
+ and removed within the range appear in neither list.
+*/
+@Getter
+public class MeetingChanges {
+
+  private final long version;
+  private final boolean fullResyncRequired;
+  private final List<Meeting> added;
+  private final List<Long> removed;
+
+  public MeetingChanges(
+      long version, boolean fullResyncRequired, List<Meeting> added, List<Long> removed) {
+    this.version = version;
+    this.fullResyncRequired = fullResyncRequired;
+    this.added = added;
+    this.removed = removed;
+  }
+
+  public static MeetingChanges resync(long version) {
+    return new MeetingChanges(version, true, List.of(), List.of());
+  }
+}
@@ -0,0 +1,24 @@
+package se.callistaenterprise.scheduler.model;
+
+import java.time.LocalDate;
+import lombok.Getter;
+
+/*
+ A meeting to be placed by the planner: 'duration' minutes on some working day from 'earliest'
+ to 'latest', both included, at whatever time is free
+*/
+@Getter
+public class PlacementRequest {
+
+  private final String title;
+  private final Long duration;
+  private final LocalDate earliest;
+  private final LocalDate latest;
+
+  public PlacementRequest(String title, Long duration, LocalDate earliest, LocalDate latest) {
+    this.title = title;
+    this.duration = duration;
+    this.earliest = earliest;
+    this.latest = latest;
+  }
+}
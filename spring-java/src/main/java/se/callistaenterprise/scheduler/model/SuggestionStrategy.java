@@ -0,0 +1,30 @@
+package se.callistaenterprise.scheduler.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/*
+ How suggested slots are ranked
+*/
+public enum SuggestionStrategy {
+  /* The earliest slots first */
+  EARLIEST("earliest"),
+  /* The slots in the smallest gaps that fit the meeting first, keeping large gaps free */
+  BEST_FIT("best-fit"),
+  /* The slots closest to a preferred time of day first */
+  PREFERRED("preferred");
+
+  private final String value;
+
+  SuggestionStrategy(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public static Optional<SuggestionStrategy> fromValue(String value) {
+    return Arrays.stream(values()).filter(strategy -> strategy.value.equals(value)).findFirst();
+  }
+}
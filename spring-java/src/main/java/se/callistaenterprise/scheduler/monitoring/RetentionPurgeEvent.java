@@ -0,0 +1,34 @@
+package se.callistaenterprise.scheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ One run of the retention purge, from the first batch of expired meetings to the last. The
+ reclaimed size is an estimate of the heap the removed meetings took in the in-memory storage.
+*/
+@Name("scheduler.RetentionPurge")
+@Label("Retention Purge")
+@Category({"Scheduler", "Storage"})
+@Description("Meetings removed for having ended before the retention period")
+@Enabled(false)
+public class RetentionPurgeEvent extends Event {
+
+  @Label("Cutoff")
+  public String cutoff;
+
+  @Label("Meetings")
+  public int meetings;
+
+  @Label("Batches")
+  public int batches;
+
+  @Label("Reclaimed")
+  @DataAmount(DataAmount.BYTES)
+  public long reclaimed;
+}
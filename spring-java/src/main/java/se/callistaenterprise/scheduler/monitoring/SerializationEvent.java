@@ -0,0 +1,34 @@
+package se.callistaenterprise.scheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ Encoding a list of meetings for a response. Meetings missing from the cache are encoded on the
+ spot, which is what makes a serialization slow.
+*/
+@Name("scheduler.Serialization")
+@Label("Serialization")
+@Category({"Scheduler", "Web"})
+@Description("A list of meetings encoded for a response")
+@Enabled(false)
+public class SerializationEvent extends Event {
+
+  @Label("Format")
+  public String format;
+
+  @Label("Meetings")
+  public int meetings;
+
+  @Label("Cache Misses")
+  public int cacheMisses;
+
+  @Label("Size")
+  @DataAmount(DataAmount.BYTES)
+  public long size;
+}
@@ -0,0 +1,39 @@
+package se.callistaenterprise.scheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ A search for free slots, either the gaps of one day or suggestions over a range of days.
+ 'days' is how many days were read, 'meetings' how many meetings were read on them.
+*/
+@Name("scheduler.SlotSearch")
+@Label("Slot Search")
+@Category({"Scheduler", "Service"})
+@Description("Free slots computed from the meetings of one or more days")
+@Enabled(false)
+public class SlotSearchEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Date")
+  @Description("The day searched, or the first day of the range")
+  public String date;
+
+  @Label("Duration Minutes")
+  public long durationMinutes;
+
+  @Label("Days Read")
+  public int days;
+
+  @Label("Meetings Read")
+  public int meetings;
+
+  @Label("Slots")
+  public int slots;
+}
@@ -0,0 +1,33 @@
+package se.callistaenterprise.scheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/*
+ A call that held the monitor of an in-memory or journaling storage, or the locks of the days it
+ adds meetings to. The event lasts from asking for the lock until releasing it, lockWait is the
+ part spent waiting for it.
+*/
+@Name("scheduler.StorageLock")
+@Label("Storage Lock")
+@Category({"Scheduler", "Storage"})
+@Description("A storage operation holding the storage monitor or day locks")
+@Enabled(false)
+public class StorageLockEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+
+  @Label("Lock Wait")
+  @Timespan(Timespan.NANOSECONDS)
+  public long lockWait;
+
+  @Label("Store Size")
+  @Description("Meetings stored after the operation")
+  public int storeSize;
+}
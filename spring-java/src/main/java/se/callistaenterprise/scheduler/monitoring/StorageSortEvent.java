@@ -0,0 +1,22 @@
+package se.callistaenterprise.scheduler.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ Reading all meetings sorted by date and start time
+*/
+@Name("scheduler.StorageSort")
+@Label("Storage Sort")
+@Category({"Scheduler", "Storage"})
+@Description("All meetings read sorted by date and start time")
+@Enabled(false)
+public class StorageSortEvent extends Event {
+
+  @Label("Meetings")
+  public int meetings;
+}
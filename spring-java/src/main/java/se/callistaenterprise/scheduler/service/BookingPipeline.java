@@ -0,0 +1,218 @@
+package se.callistaenterprise.scheduler.service;
+
+import static se.callistaenterprise.scheduler.model.Either.left;
+import static se.callistaenterprise.scheduler.model.Either.right;
+import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCode.TIME_NOT_AVAILABLE;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import se.callistaenterprise.scheduler.config.BookingProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.Booking;
+import se.callistaenterprise.scheduler.validation.SchedulerErrors;
+
+/*
+ Books meetings through one single-writer actor per date.
+
+ A booking is put on the mailbox of the actor owning the date the meeting starts on, and the
+ actor is scheduled on the pool unless it already is. An actor runs on one thread at a time and
+ takes up to a batch of bookings per turn, so bookings for a busy day are checked and applied one
+ after the other, in batches, instead of one request at a time. Each batch is applied with one
+ addAllIfFree, which checks it holding only the locks of the days it books, so batches of
+ different days are checked in parallel and only take turns on the storage monitor to store the
+ meetings they accepted. A meeting spanning several days takes the locks of all its days, which
+ is what keeps it from overlapping the bookings of the other actors. After a batch the actor yields the thread to let other days have their turn,
+ and an actor with an empty mailbox is dropped, so the map only holds the days being booked.
+
+ The bookings of the last 'statusTtl' are kept so their status can be looked up by id. Bookings
+ still queued when the pipeline shuts down fail with a RejectedExecutionException.
+*/
+class BookingPipeline {
+
+  private final MeetingStorage meetingStorage;
+  private final int batchSize;
+  private final int maxStatuses;
+  private final long statusTtlNanos;
+  private final ExecutorService executor;
+  private final Map<LocalDate, DayActor> actors = new ConcurrentHashMap<>();
+  private final Map<UUID, Status> statuses = new LinkedHashMap<>();
+  private volatile boolean shutdown;
+
+  BookingPipeline(MeetingStorage meetingStorage, BookingProperties properties) {
+    this.meetingStorage = meetingStorage;
+    this.batchSize = properties.getBatchSize();
+    this.maxStatuses = properties.getMaxStatuses();
+    this.statusTtlNanos = properties.getStatusTtl().toNanos();
+    int threads =
+        properties.getThreads() > 0
+            ? properties.getThreads()
+            : Runtime.getRuntime().availableProcessors();
+    this.executor = Executors.newFixedThreadPool(threads, new ActorThreadFactory());
+  }
+
+  /*
+   Queues a valid meeting for booking and returns at once, the booking completes later
+  */
+  Booking submit(Meeting meeting) {
+    Booking booking = new Booking(UUID.randomUUID(), meeting);
+    remember(booking);
+    // Queued under the lock of the map entry, so an idle actor cannot drop itself in between
+    DayActor actor =
+        actors.compute(
+            meeting.getDate(),
+            (date, current) -> {
+              DayActor owner = current != null ? current : new DayActor(date);
+              owner.mailbox.add(booking);
+              return owner;
+            });
+    actor.schedule();
+    if (shutdown) {
+      actor.reject();
+    }
+    return booking;
+  }
+
+  int actorCount() {
+    return actors.size();
+  }
+
+  Booking getBooking(UUID id) {
+    synchronized (statuses) {
+      evictExpired();
+      Status status = statuses.get(id);
+      return status != null ? status.booking() : null;
+    }
+  }
+
+  void shutdown() {
+    shutdown = true;
+    executor.shutdownNow();
+    actors.values().forEach(DayActor::reject);
+  }
+
+  private void remember(Booking booking) {
+    synchronized (statuses) {
+      evictExpired();
+      statuses.put(booking.getId(), new Status(booking, System.nanoTime() + statusTtlNanos));
+      if (statuses.size() > maxStatuses) {
+        Iterator<Status> oldest = statuses.values().iterator();
+        oldest.next();
+        oldest.remove();
+      }
+    }
+  }
+
+  private void evictExpired() {
+    long now = System.nanoTime();
+    Iterator<Status> oldest = statuses.values().iterator();
+    while (oldest.hasNext() && oldest.next().expiresAt() - now <= 0) {
+      oldest.remove();
+    }
+  }
+
+  private void apply(List<Booking> batch) {
+    try {
+      meetingStorage.addAllIfFree(batch.stream().map(Booking::getMeeting).toList());
+    } catch (RuntimeException e) {
+      batch.forEach(booking -> booking.getResult().completeExceptionally(e));
+      return;
+    }
+
+    // The storage assigns ids to the meetings it added
+    for (Booking booking : batch) {
+      Meeting meeting = booking.getMeeting();
+      if (meeting.getId() != null) {
+        booking.getResult().complete(left(meeting));
+      } else {
+        booking
+            .getResult()
+            .complete(
+                right(
+                    SchedulerErrors.createErrors(
+                        meeting, null, TIME_NOT_AVAILABLE, "Meeting overlaps another meeting")));
+      }
+    }
+  }
+
+  private record Status(Booking booking, long expiresAt) {}
+
+  private class DayActor implements Runnable {
+
+    private final LocalDate date;
+    private final Queue<Booking> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    DayActor(LocalDate date) {
+      this.date = date;
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          reject();
+        }
+      }
+    }
+
+    private void reject() {
+      Booking booking;
+      while ((booking = mailbox.poll()) != null) {
+        booking
+            .getResult()
+            .completeExceptionally(
+                new RejectedExecutionException("The booking pipeline is shut down"));
+      }
+    }
+
+    @Override
+    public void run() {
+      List<Booking> batch = new ArrayList<>(batchSize);
+      Booking booking;
+      while (batch.size() < batchSize && (booking = mailbox.poll()) != null) {
+        batch.add(booking);
+      }
+      try {
+        if (!batch.isEmpty()) {
+          apply(batch);
+        }
+      } finally {
+        // Dropped while still scheduled, so no other turn of this actor can be running
+        actors.computeIfPresent(
+            date, (day, actor) -> actor == this && mailbox.isEmpty() ? null : actor);
+        scheduled.set(false);
+        if (!mailbox.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
+
+  private static class ActorThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "booking-actor-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
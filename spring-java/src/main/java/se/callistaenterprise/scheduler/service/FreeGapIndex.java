@@ -0,0 +1,229 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import se.callistaenterprise.scheduler.config.SchedulerProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ The free gaps within working hours of every day, kept up to date as meetings are added and
+ removed.
+
+ Only days with meetings are stored, with their meetings cut at the day boundaries and their
+ gaps sorted by length, so the gaps of at least some length are found with a binary search.
+ A change recomputes the gaps of the days the meeting takes place on. The longest gap of every
+ working day is kept in a MaxGapTree as well, which finds the first day in a range with a gap
+ of at least some length in logarithmic time. Weekends have gaps like any other day, but are
+ never found by a search over a range, since no meeting can be booked on them.
+
+ Days a tiered storage has archived are dropped and skipped from then on, so the index only
+ grows with the days in the hot window. They are past days, and are reported as having no gaps.
+*/
+@Component
+public class FreeGapIndex implements MeetingStorageListener {
+
+  private static final Comparator<Span> BY_LENGTH =
+      Comparator.comparing(Span::length).thenComparing(Span::start);
+
+  private final SchedulerProperties schedulerProperties;
+  private final Map<LocalDate, Day> days = new HashMap<>();
+  private final MaxGapTree tree = new MaxGapTree();
+  private LocalDate archivedBefore = LocalDate.MIN;
+
+  public FreeGapIndex(SchedulerProperties schedulerProperties) {
+    this.schedulerProperties = schedulerProperties;
+  }
+
+  @Override
+  public synchronized void meetingAdded(Meeting meeting) {
+    for (LocalDate date = max(meeting.getDate(), archivedBefore);
+        !date.isAfter(meeting.lastDate());
+        date = date.plusDays(1)) {
+      Day day = days.computeIfAbsent(date, key -> new Day());
+      day.busy.put(meeting.getId(), new Span(meeting.startOn(date), meeting.endOn(date)));
+      refresh(date, day);
+    }
+  }
+
+  @Override
+  public synchronized void meetingRemoved(Meeting meeting) {
+    for (LocalDate date = max(meeting.getDate(), archivedBefore);
+        !date.isAfter(meeting.lastDate());
+        date = date.plusDays(1)) {
+      Day day = days.get(date);
+      if (day == null || day.busy.remove(meeting.getId()) == null) {
+        continue;
+      }
+      if (day.busy.isEmpty()) {
+        days.remove(date);
+      }
+      refresh(date, day);
+    }
+  }
+
+  @Override
+  public synchronized void daysArchived(LocalDate before) {
+    if (!before.isAfter(archivedBefore)) {
+      return;
+    }
+    LocalDate previous = archivedBefore;
+    archivedBefore = before;
+    days.keySet().removeIf(date -> date.isBefore(before));
+    for (LocalDate date = before.minusDays(1);
+        !date.isBefore(previous) && tree.covers(date);
+        date = date.minusDays(1)) {
+      tree.set(date, 0);
+    }
+  }
+
+  /*
+   Returns the gaps on the date that are at least 'length' long, sorted by start
+  */
+  public synchronized List<Meeting> getGaps(LocalDate date, Duration length) {
+    if (date.isBefore(archivedBefore)) {
+      return List.of();
+    }
+    Day day = days.get(date);
+    List<Span> byLength = day != null ? day.byLength : fullDay();
+    int low = 0;
+    int high = byLength.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (byLength.get(middle).length().compareTo(length) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    List<Span> gaps = new ArrayList<>(byLength.subList(low, byLength.size()));
+    gaps.sort(Comparator.comparing(Span::start));
+    return gaps.stream()
+        .map(gap -> Meeting.builder().date(date).start(gap.start()).end(gap.end()).build())
+        .toList();
+  }
+
+  /*
+   Returns up to 'count' working days in [from, to), in date order, that have a gap at least
+   'length' long
+  */
+  public synchronized List<LocalDate> getDaysWithGap(
+      LocalDate from, LocalDate to, Duration length, int count) {
+    List<LocalDate> found = new ArrayList<>(Math.min(count, 64));
+    if (!from.isBefore(to)) {
+      return found;
+    }
+    int seconds = (int) Math.min(length.toSeconds(), Integer.MAX_VALUE);
+    LocalDate last = to.minusDays(1);
+    int fullDay = fullDaySeconds();
+    if (tree.cover(from, last, date -> longestBookableGap(date, fullDay))) {
+      LocalDate next = from;
+      while (found.size() < count && !next.isAfter(last)) {
+        LocalDate day = tree.first(next, last, seconds);
+        if (day == null) {
+          break;
+        }
+        found.add(day);
+        next = day.plusDays(1);
+      }
+      return found;
+    }
+
+    // Too far apart for the tree, only for ranges over centuries
+    for (LocalDate day = from; found.size() < count && day.isBefore(to); day = day.plusDays(1)) {
+      if (longestBookableGap(day, fullDay) >= seconds) {
+        found.add(day);
+      }
+    }
+    return found;
+  }
+
+  synchronized int dayCount() {
+    return days.size();
+  }
+
+  private void refresh(LocalDate date, Day day) {
+    LocalTime startOfDay = schedulerProperties.getWorkingHours().getStart();
+    LocalTime endOfDay = schedulerProperties.getWorkingHours().getEnd();
+    List<Span> busy = new ArrayList<>(day.busy.values());
+    busy.sort(Comparator.comparing(Span::start));
+
+    List<Span> gaps = new ArrayList<>(busy.size() + 1);
+    LocalTime gapStart = startOfDay;
+    for (Span meeting : busy) {
+      LocalTime gapEnd = meeting.start().isBefore(endOfDay) ? meeting.start() : endOfDay;
+      if (gapEnd.isAfter(gapStart)) {
+        gaps.add(new Span(gapStart, gapEnd));
+      }
+      if (meeting.end().isAfter(gapStart)) {
+        gapStart = meeting.end();
+      }
+    }
+    if (endOfDay.isAfter(gapStart)) {
+      gaps.add(new Span(gapStart, endOfDay));
+    }
+    gaps.sort(BY_LENGTH);
+    day.byLength = gaps;
+
+    int fullDay = fullDaySeconds();
+    if (tree.cover(date, date, other -> longestBookableGap(other, fullDay))) {
+      tree.set(date, longestBookableGap(date, fullDay));
+    }
+  }
+
+  private int longestBookableGap(LocalDate date, int fullDay) {
+    if (!isWorkingDay(date) || date.isBefore(archivedBefore)) {
+      return 0;
+    }
+    Day day = days.get(date);
+    if (day == null) {
+      return fullDay;
+    }
+    return day.byLength.isEmpty() ? 0 : (int) day.byLength.getLast().length().toSeconds();
+  }
+
+  private List<Span> fullDay() {
+    return List.of(
+        new Span(
+            schedulerProperties.getWorkingHours().getStart(),
+            schedulerProperties.getWorkingHours().getEnd()));
+  }
+
+  private int fullDaySeconds() {
+    return (int) fullDay().getFirst().length().toSeconds();
+  }
+
+  private boolean isWorkingDay(LocalDate date) {
+    DayOfWeek dayOfWeek = date.getDayOfWeek();
+    return !schedulerProperties.getWeekends().contains(dayOfWeek.name());
+  }
+
+  private static LocalDate max(LocalDate first, LocalDate second) {
+    return first.isAfter(second) ? first : second;
+  }
+
+  private static class Day {
+
+    private final Map<Long, Span> busy = new HashMap<>();
+    private List<Span> byLength = List.of();
+  }
+
+  /*
+   A time span within one day, a free gap or a meeting cut at the day boundaries
+  */
+  private record Span(LocalTime start, LocalTime end) {
+
+    Duration length() {
+      return Duration.between(start, end);
+    }
+  }
+}
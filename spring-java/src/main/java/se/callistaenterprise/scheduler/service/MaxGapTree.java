@@ -0,0 +1,112 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.time.LocalDate;
+import java.util.function.ToIntFunction;
+
+/*
+ The longest free gap of every day in a window of consecutive days, for finding the first day
+ with a gap of at least some length.
+
+ A segment tree stored as an implicit binary heap: every leaf holds the value of one day and
+ every inner node the maximum of its two children. Changing a day and finding the first day at
+ or above a value in a range both take O(log n), since the search only descends into subtrees
+ whose maximum is large enough. The window starts at the first day used and at least doubles
+ when a day outside it is used, taking the values of all days from the given function. It never
+ grows beyond MAX_CAPACITY days, days that would need more are not covered.
+*/
+class MaxGapTree {
+
+  static final int MAX_CAPACITY = 1 << 18;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private long origin;
+  private int capacity;
+  private int[] tree;
+
+  /*
+   Grows the window to cover [from, to] if needed. Returns false if that would make it larger
+   than MAX_CAPACITY days, the window is then left as it was.
+  */
+  boolean cover(LocalDate from, LocalDate to, ToIntFunction<LocalDate> valueOf) {
+    long low = from.toEpochDay();
+    long high = to.toEpochDay();
+    if (tree != null && low >= origin && high < origin + capacity) {
+      return true;
+    }
+
+    long newLow = tree == null ? low : Math.min(origin, low);
+    long newHigh = tree == null ? high : Math.max(origin + capacity - 1, high);
+    long needed = newHigh - newLow + 1;
+    if (needed > MAX_CAPACITY) {
+      return false;
+    }
+    int newCapacity = INITIAL_CAPACITY;
+    while (newCapacity < needed || (tree != null && newCapacity < 2 * capacity)) {
+      newCapacity <<= 1;
+    }
+    if (newCapacity > MAX_CAPACITY) {
+      newCapacity = MAX_CAPACITY;
+    }
+    // Room to grow is left on the side the window grew towards
+    long newOrigin = tree != null && low < origin ? newHigh - newCapacity + 1 : newLow;
+
+    int[] newTree = new int[2 * newCapacity];
+    for (int i = 0; i < newCapacity; i++) {
+      newTree[newCapacity + i] = valueOf.applyAsInt(LocalDate.ofEpochDay(newOrigin + i));
+    }
+    for (int node = newCapacity - 1; node > 0; node--) {
+      newTree[node] = Math.max(newTree[2 * node], newTree[2 * node + 1]);
+    }
+    origin = newOrigin;
+    capacity = newCapacity;
+    tree = newTree;
+    return true;
+  }
+
+  boolean covers(LocalDate day) {
+    long epochDay = day.toEpochDay();
+    return tree != null && epochDay >= origin && epochDay < origin + capacity;
+  }
+
+  /*
+   Sets the value of a covered day, a day outside the window is ignored
+  */
+  void set(LocalDate day, int value) {
+    if (!covers(day)) {
+      return;
+    }
+    int node = capacity + (int) (day.toEpochDay() - origin);
+    tree[node] = value;
+    for (node >>= 1; node > 0; node >>= 1) {
+      tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+    }
+  }
+
+  /*
+   Returns the first day in [from, to] with a value of at least 'value', or null. Both days
+   must be covered.
+  */
+  LocalDate first(LocalDate from, LocalDate to, int value) {
+    int index =
+        first(
+            1,
+            0,
+            capacity - 1,
+            (int) (from.toEpochDay() - origin),
+            (int) (to.toEpochDay() - origin),
+            value);
+    return index < 0 ? null : LocalDate.ofEpochDay(origin + index);
+  }
+
+  private int first(int node, int nodeLow, int nodeHigh, int low, int high, int value) {
+    if (nodeHigh < low || nodeLow > high || tree[node] < value) {
+      return -1;
+    }
+    if (nodeLow == nodeHigh) {
+      return nodeLow;
+    }
+    int middle = (nodeLow + nodeHigh) >>> 1;
+    int left = first(2 * node, nodeLow, middle, low, high, value);
+    return left >= 0 ? left : first(2 * node + 1, middle + 1, nodeHigh, low, high, value);
+  }
+}
@@ -0,0 +1,195 @@
+package se.callistaenterprise.scheduler.service;
+
+import static se.callistaenterprise.scheduler.validation.Validator.validate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import se.callistaenterprise.scheduler.config.TransferProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.ImportResult;
+import se.callistaenterprise.scheduler.transfer.MeetingFormat;
+import se.callistaenterprise.scheduler.transfer.MeetingReader;
+import se.callistaenterprise.scheduler.transfer.MeetingRecord;
+
+/*
+ Imports meetings from a CSV or iCalendar stream.
+
+ The calling thread only cuts the input into chunks of raw records. Chunks are parsed and
+ validated in parallel, with at most two chunks per thread in flight, so memory use depends on
+ the chunk size and not on the size of the input. Parsed chunks are written in input order with
+ one addAllIfFree per chunk, which checks for conflicts and stores the meetings atomically and
+ lets the storage build its indexes in bulk instead of meeting by meeting.
+
+ A meeting is rejected if it cannot be parsed, is invalid, is not on working days or overlaps a
+ meeting that is already stored or imported. The import is not atomic, chunks written before an
+ error in the input stay in the storage.
+*/
+class MeetingImporter {
+
+  private final MeetingStorage meetingStorage;
+  private final Validator validator;
+  private final Predicate<LocalDate> isWorkingDay;
+  private final TransferProperties transferProperties;
+
+  MeetingImporter(
+      MeetingStorage meetingStorage,
+      Validator validator,
+      Predicate<LocalDate> isWorkingDay,
+      TransferProperties transferProperties) {
+    this.meetingStorage = meetingStorage;
+    this.validator = validator;
+    this.isWorkingDay = isWorkingDay;
+    this.transferProperties = transferProperties;
+  }
+
+  ImportResult importMeetings(BufferedReader input, MeetingFormat format) throws IOException {
+    MeetingReader reader = format.reader(input);
+    int parallelism =
+        transferProperties.getParallelism() > 0
+            ? transferProperties.getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+    Tally tally = new Tally(transferProperties.getMaxReportedErrors());
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+      Deque<Future<List<Parsed>>> inFlight = new ArrayDeque<>();
+      List<MeetingRecord> chunk;
+      while (!(chunk = readChunk(reader)).isEmpty()) {
+        List<MeetingRecord> records = chunk;
+        inFlight.add(executor.submit(() -> parse(reader, records)));
+        if (inFlight.size() >= 2 * parallelism) {
+          store(await(inFlight.poll()), tally);
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        store(await(inFlight.poll()), tally);
+      }
+    }
+    return tally.result();
+  }
+
+  private List<MeetingRecord> readChunk(MeetingReader reader) throws IOException {
+    List<MeetingRecord> chunk = new ArrayList<>(transferProperties.getChunkSize());
+    MeetingRecord record;
+    while (chunk.size() < transferProperties.getChunkSize() && (record = reader.next()) != null) {
+      chunk.add(record);
+    }
+    return chunk;
+  }
+
+  private List<Parsed> parse(MeetingReader reader, List<MeetingRecord> records) {
+    List<Parsed> parsed = new ArrayList<>(records.size());
+    for (MeetingRecord record : records) {
+      Meeting meeting;
+      try {
+        meeting = reader.parse(record);
+      } catch (DateTimeException | IllegalArgumentException e) {
+        parsed.add(Parsed.rejected(record.line(), e.getMessage()));
+        continue;
+      }
+
+      Errors errors = validate(meeting, validator);
+      if (errors.hasErrors()) {
+        String message =
+            errors.getAllErrors().stream()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.joining(", "));
+        parsed.add(Parsed.rejected(record.line(), message));
+      } else if (!meeting
+          .getDate()
+          .datesUntil(meeting.lastDate().plusDays(1))
+          .allMatch(isWorkingDay)) {
+        parsed.add(Parsed.rejected(record.line(), "Meeting is not on a working day"));
+      } else {
+        parsed.add(new Parsed(record.line(), meeting, null));
+      }
+    }
+    return parsed;
+  }
+
+  /*
+   Writes the meetings of a chunk that overlap neither a stored meeting nor each other. They are
+   offered in start order, so of two overlapping meetings in the chunk the earlier one is kept.
+  */
+  private void store(List<Parsed> chunk, Tally tally) {
+    List<Parsed> rejected = new ArrayList<>();
+    List<Parsed> candidates = new ArrayList<>();
+    for (Parsed parsed : chunk) {
+      (parsed.meeting() == null ? rejected : candidates).add(parsed);
+    }
+    candidates.sort(Comparator.comparing(parsed -> parsed.meeting().startDateTime()));
+
+    List<Meeting> accepted =
+        meetingStorage.addAllIfFree(candidates.stream().map(Parsed::meeting).toList());
+    for (Parsed parsed : candidates) {
+      // Meetings that were not added keep a null id
+      if (parsed.meeting().getId() == null) {
+        rejected.add(Parsed.rejected(parsed.line(), "Meeting overlaps another meeting"));
+      }
+    }
+
+    rejected.sort(Comparator.comparingLong(Parsed::line));
+    tally.add(accepted.size(), rejected);
+  }
+
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Cannot parse meetings", e.getCause());
+    }
+  }
+
+  private record Parsed(long line, Meeting meeting, String error) {
+
+    static Parsed rejected(long line, String error) {
+      return new Parsed(line, null, error);
+    }
+  }
+
+  private static class Tally {
+
+    private final int maxReportedErrors;
+    private final List<String> errors = new ArrayList<>();
+    private long imported;
+    private long rejected;
+
+    Tally(int maxReportedErrors) {
+      this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void add(int accepted, List<Parsed> rejections) {
+      imported += accepted;
+      rejected += rejections.size();
+      for (Parsed rejection : rejections) {
+        if (errors.size() >= maxReportedErrors) {
+          break;
+        }
+        errors.add("line " + rejection.line() + ": " + rejection.error());
+      }
+    }
+
+    ImportResult result() {
+      return new ImportResult(imported, rejected, List.copyOf(errors));
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.PlacementRequest;
+
+/*
+ Places a set of meetings that only have a duration and a range of dates into the free time of
+ the working days.
+
+ The free gaps within working hours of every day in the range are read from the storage with one
+ query. The meetings are then placed one by one, the most constrained first: those with the
+ fewest working days to choose from, then the longest. Each goes at the start of the gap that
+ fits it most tightly, on any of its days, which leaves the large gaps for the meetings that
+ need them.
+
+ A meeting the greedy pass cannot place is retried in a repair pass, until every meeting is
+ placed, a pass places none, or the time budget runs out. The repair moves one meeting placed
+ earlier to another of its days or gaps if that makes room. Stored meetings are never moved.
+
+ The plan is not written, the caller commits it. Not thread safe, use one planner per plan.
+*/
+class MeetingPlanner {
+
+  private final MeetingStorage meetingStorage;
+  private final int startOfDay;
+  private final int endOfDay;
+  private final Predicate<LocalDate> isWorkingDay;
+  private final Map<LocalDate, TreeMap<Integer, Integer>> freeGaps = new HashMap<>();
+
+  MeetingPlanner(
+      MeetingStorage meetingStorage,
+      LocalTime startOfDay,
+      LocalTime endOfDay,
+      Predicate<LocalDate> isWorkingDay) {
+    this.meetingStorage = meetingStorage;
+    this.startOfDay = startOfDay.toSecondOfDay();
+    this.endOfDay = endOfDay.toSecondOfDay();
+    this.isWorkingDay = isWorkingDay;
+  }
+
+  /*
+   The placed meetings by the index of their request, null for the requests that could not be
+   placed
+  */
+  record Plan(List<Meeting> meetings) {
+
+    List<Integer> unplaced() {
+      List<Integer> unplaced = new ArrayList<>();
+      for (int i = 0; i < meetings.size(); i++) {
+        if (meetings.get(i) == null) {
+          unplaced.add(i);
+        }
+      }
+      return unplaced;
+    }
+  }
+
+  Plan plan(List<PlacementRequest> requests, long budgetNanos) {
+    long deadline = System.nanoTime() + budgetNanos;
+    readFreeGaps(requests);
+
+    Placement[] placements = new Placement[requests.size()];
+    int[] workingDays = new int[requests.size()];
+    Arrays.setAll(workingDays, i -> workingDays(requests.get(i)));
+    Integer[] order = new Integer[requests.size()];
+    Arrays.setAll(order, i -> i);
+    Arrays.sort(
+        order,
+        Comparator.<Integer>comparingInt(i -> workingDays[i])
+            .thenComparing(i -> -requests.get(i).getDuration())
+            .thenComparingInt(i -> i));
+
+    List<Integer> unplaced = new ArrayList<>();
+    for (int i : order) {
+      placements[i] = place(requests.get(i));
+      if (placements[i] == null) {
+        unplaced.add(i);
+      }
+    }
+
+    boolean progress = true;
+    while (!unplaced.isEmpty() && progress && System.nanoTime() < deadline) {
+      progress = unplaced.removeIf(i -> repair(requests, placements, i, deadline));
+    }
+
+    List<Meeting> meetings = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      meetings.add(placements[i] != null ? placements[i].toMeeting(requests.get(i)) : null);
+    }
+    return new Plan(meetings);
+  }
+
+  /*
+   Tries to make room for an unplaced request by moving one placed meeting on one of its days
+  */
+  private boolean repair(
+      List<PlacementRequest> requests, Placement[] placements, int unplaced, long deadline) {
+    PlacementRequest request = requests.get(unplaced);
+    for (int other = 0; other < placements.length; other++) {
+      Placement moved = placements[other];
+      if (moved == null
+          || moved.day().isBefore(request.getEarliest())
+          || moved.day().isAfter(request.getLatest())) {
+        continue;
+      }
+      if (System.nanoTime() >= deadline) {
+        return false;
+      }
+
+      release(moved);
+      Placement placement = place(request);
+      if (placement != null) {
+        Placement movedTo = place(requests.get(other));
+        if (movedTo != null) {
+          placements[unplaced] = placement;
+          placements[other] = movedTo;
+          return true;
+        }
+        release(placement);
+      }
+      occupy(moved);
+    }
+    return false;
+  }
+
+  /*
+   Places the request at the start of the tightest fitting gap on its days, earliest first on
+   ties, and takes the time from the gap
+  */
+  private Placement place(PlacementRequest request) {
+    int duration = Math.toIntExact(request.getDuration() * 60);
+    Placement best = null;
+    int bestSlack = Integer.MAX_VALUE;
+    for (LocalDate day = request.getEarliest();
+        !day.isAfter(request.getLatest());
+        day = day.plusDays(1)) {
+      TreeMap<Integer, Integer> gaps = freeGaps.get(day);
+      if (gaps == null) {
+        continue;
+      }
+      for (Map.Entry<Integer, Integer> gap : gaps.entrySet()) {
+        int slack = gap.getValue() - gap.getKey() - duration;
+        if (slack >= 0 && slack < bestSlack) {
+          best = new Placement(day, gap.getKey(), gap.getKey() + duration);
+          bestSlack = slack;
+        }
+      }
+      if (bestSlack == 0) {
+        break;
+      }
+    }
+    if (best != null) {
+      occupy(best);
+    }
+    return best;
+  }
+
+  private void occupy(Placement placement) {
+    TreeMap<Integer, Integer> gaps = freeGaps.get(placement.day());
+    Map.Entry<Integer, Integer> gap = gaps.floorEntry(placement.start());
+    gaps.remove(gap.getKey());
+    if (gap.getKey() < placement.start()) {
+      gaps.put(gap.getKey(), placement.start());
+    }
+    if (placement.end() < gap.getValue()) {
+      gaps.put(placement.end(), gap.getValue());
+    }
+  }
+
+  private void release(Placement placement) {
+    TreeMap<Integer, Integer> gaps = freeGaps.get(placement.day());
+    int start = placement.start();
+    int end = placement.end();
+    Map.Entry<Integer, Integer> before = gaps.lowerEntry(start);
+    if (before != null && before.getValue() == start) {
+      start = before.getKey();
+      gaps.remove(before.getKey());
+    }
+    Integer after = gaps.get(end);
+    if (after != null) {
+      gaps.remove(end);
+      end = after;
+    }
+    gaps.put(start, end);
+  }
+
+  private void readFreeGaps(List<PlacementRequest> requests) {
+    LocalDate first = LocalDate.MAX;
+    LocalDate last = LocalDate.MIN;
+    for (PlacementRequest request : requests) {
+      first = request.getEarliest().isBefore(first) ? request.getEarliest() : first;
+      last = request.getLatest().isAfter(last) ? request.getLatest() : last;
+    }
+    if (first.isAfter(last)) {
+      return;
+    }
+
+    for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+      if (isWorkingDay.test(day) && startOfDay < endOfDay) {
+        TreeMap<Integer, Integer> gaps = new TreeMap<>();
+        gaps.put(startOfDay, endOfDay);
+        freeGaps.put(day, gaps);
+      }
+    }
+    List<Meeting> stored =
+        meetingStorage.getOverlapping(first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+    for (Meeting meeting : stored) {
+      for (LocalDate day = meeting.getDate();
+          !day.isAfter(meeting.lastDate());
+          day = day.plusDays(1)) {
+        TreeMap<Integer, Integer> gaps = freeGaps.get(day);
+        if (gaps != null) {
+          subtract(gaps, meeting.startOn(day).toSecondOfDay(), busyUntil(meeting, day));
+        }
+      }
+    }
+  }
+
+  private static int busyUntil(Meeting meeting, LocalDate day) {
+    LocalTime end = meeting.endOn(day);
+    // A meeting ending a fraction into a second still takes that second
+    return end.getNano() > 0 ? end.toSecondOfDay() + 1 : end.toSecondOfDay();
+  }
+
+  private static void subtract(TreeMap<Integer, Integer> gaps, int busyStart, int busyEnd) {
+    Map.Entry<Integer, Integer> gap = gaps.lowerEntry(busyEnd);
+    while (gap != null && gap.getValue() > busyStart) {
+      gaps.remove(gap.getKey());
+      if (busyEnd < gap.getValue()) {
+        gaps.put(busyEnd, gap.getValue());
+      }
+      if (gap.getKey() < busyStart) {
+        gaps.put(gap.getKey(), busyStart);
+        break;
+      }
+      gap = gaps.lowerEntry(gap.getKey());
+    }
+  }
+
+  private int workingDays(PlacementRequest request) {
+    int days = 0;
+    for (LocalDate day = request.getEarliest();
+        !day.isAfter(request.getLatest());
+        day = day.plusDays(1)) {
+      if (freeGaps.containsKey(day)) {
+        days++;
+      }
+    }
+    return days;
+  }
+
+  private record Placement(LocalDate day, int start, int end) {
+
+    Meeting toMeeting(PlacementRequest request) {
+      return Meeting.builder()
+          .title(request.getTitle())
+          .date(day)
+          .start(LocalTime.ofSecondOfDay(start))
+          .end(LocalTime.ofSecondOfDay(end))
+          .build();
+    }
+  }
+}
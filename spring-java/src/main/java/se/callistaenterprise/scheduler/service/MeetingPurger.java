@@ -0,0 +1,120 @@
+package se.callistaenterprise.scheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import se.callistaenterprise.scheduler.config.RetentionProperties;
+import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.monitoring.RetentionPurgeEvent;
+
+/*
+ Removes meetings that ended more than 'days' days ago, every 'interval' when enabled.
+
+ The storage finds the expired meetings from its time index, so a purge costs about as much as
+ the meetings it removes. They are removed in batches of 'batchSize', each holding the storage
+ lock on its own, so bookings get their turn between batches instead of waiting for the whole
+ purge. Every removal reaches the change journal and the listeners like any other.
+
+ Each purge is logged and recorded as a RetentionPurgeEvent, with an estimate of the memory
+ reclaimed.
+*/
+@Slf4j
+@Component
+public class MeetingPurger {
+
+  // About what a meeting takes in the in-memory storage and its indexes, without the title
+  static final int MEETING_BYTES = 256;
+
+  private final MeetingStorage meetingStorage;
+  private final RetentionProperties retentionProperties;
+  private final Supplier<LocalDate> today;
+  private final ScheduledExecutorService executor;
+
+  @Autowired
+  public MeetingPurger(MeetingStorage meetingStorage, RetentionProperties retentionProperties) {
+    this(meetingStorage, retentionProperties, LocalDate::now);
+  }
+
+  MeetingPurger(
+      MeetingStorage meetingStorage,
+      RetentionProperties retentionProperties,
+      Supplier<LocalDate> today) {
+    this.meetingStorage = meetingStorage;
+    this.retentionProperties = retentionProperties;
+    this.today = today;
+    if (retentionProperties.isEnabled()) {
+      long interval = retentionProperties.getInterval().toMillis();
+      this.executor =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> Thread.ofPlatform().name("meeting-purger").daemon().unstarted(runnable));
+      executor.scheduleWithFixedDelay(this::purgeQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    } else {
+      this.executor = null;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   Removes the meetings that ended before the start of the first day kept, returns how many
+  */
+  int purge() {
+    LocalDateTime cutoff = today.get().minusDays(retentionProperties.getDays()).atStartOfDay();
+    RetentionPurgeEvent event = new RetentionPurgeEvent();
+    event.begin();
+    int removed = 0;
+    int batches = 0;
+    long reclaimed = 0;
+    List<Meeting> batch;
+    do {
+      batch = meetingStorage.removeEndedBy(cutoff, retentionProperties.getBatchSize());
+      for (Meeting meeting : batch) {
+        reclaimed += estimatedSize(meeting);
+      }
+      removed += batch.size();
+      batches++;
+    } while (batch.size() == retentionProperties.getBatchSize()
+        && !Thread.currentThread().isInterrupted());
+    event.end();
+
+    if (removed > 0) {
+      log.info(
+          "Purged {} meetings ending by {}, reclaimed about {} bytes", removed, cutoff, reclaimed);
+    }
+    if (event.shouldCommit()) {
+      event.cutoff = cutoff.toString();
+      event.meetings = removed;
+      event.batches = batches;
+      event.reclaimed = reclaimed;
+      event.commit();
+    }
+    return removed;
+  }
+
+  private void purgeQuietly() {
+    try {
+      purge();
+    } catch (RuntimeException e) {
+      log.error("Cannot purge expired meetings", e);
+    }
+  }
+
+  private static long estimatedSize(Meeting meeting) {
+    String title = meeting.getTitle();
+    return MEETING_BYTES + (title != null ? title.length() : 0);
+  }
+}
@@ -8,24 +8,38 @@ import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCo
 import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCode.TIME_NOT_AVAILABLE;
 import static se.callistaenterprise.scheduler.validation.Validator.validate;
 
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.Errors;
+import se.callistaenterprise.scheduler.config.BookingProperties;
 import se.callistaenterprise.scheduler.config.SchedulerProperties;
+import se.callistaenterprise.scheduler.config.TransferProperties;
 import se.callistaenterprise.scheduler.datasource.MeetingStorage;
 import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.Booking;
 import se.callistaenterprise.scheduler.model.Either;
+import se.callistaenterprise.scheduler.model.ImportResult;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+import se.callistaenterprise.scheduler.model.PlacementRequest;
+import se.callistaenterprise.scheduler.model.SuggestionStrategy;
+import se.callistaenterprise.scheduler.monitoring.SlotSearchEvent;
+import se.callistaenterprise.scheduler.monitoring.StorageSortEvent;
+import se.callistaenterprise.scheduler.transfer.MeetingFormat;
+import se.callistaenterprise.scheduler.transfer.MeetingWriter;
 import se.callistaenterprise.scheduler.validation.SchedulerErrors;
 import se.callistaenterprise.scheduler.validation.validators.MeetingValidator;
 
@@ -33,21 +47,56 @@ import se.callistaenterprise.scheduler.validation.validators.MeetingValidator;
 @Service
 public class MeetingService {
 
-  private static final long BOUNDARY_TIME_BUFFER = 15L; // Minutes
+  private static final String NOT_ON_WORKING_DAY = "Meeting is not on a working day";
+  private static final String OVERLAPS_ANOTHER_MEETING = "Meeting overlaps another meeting";
+  private static final int MAX_PLAN_DAYS = 366;
+  private static final int PLAN_ATTEMPTS = 3;
 
   private final SchedulerProperties schedulerProperties;
   private final MeetingStorage meetingStorage;
+  private final TransferProperties transferProperties;
+  private final BookingPipeline bookingPipeline;
+  private final FreeGapIndex freeGapIndex;
+  private final TitleIndex titleIndex;
 
-  public MeetingService(SchedulerProperties schedulerProperties, MeetingStorage meetingStorage) {
+  public MeetingService(
+      SchedulerProperties schedulerProperties,
+      MeetingStorage meetingStorage,
+      TransferProperties transferProperties,
+      BookingProperties bookingProperties,
+      FreeGapIndex freeGapIndex,
+      TitleIndex titleIndex) {
     this.schedulerProperties = schedulerProperties;
     this.meetingStorage = meetingStorage;
+    this.transferProperties = transferProperties;
+    this.freeGapIndex = freeGapIndex;
+    this.titleIndex = titleIndex;
+    this.bookingPipeline =
+        bookingProperties.isPipelineEnabled()
+            ? new BookingPipeline(meetingStorage, bookingProperties)
+            : null;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (bookingPipeline != null) {
+      bookingPipeline.shutdown();
+    }
   }
 
   /*
    Returns a list of all meetings sorted by date and start time
   */
   public List<Meeting> getMeetings() {
-    return meetingStorage.sort().stream().toList();
+    StorageSortEvent event = new StorageSortEvent();
+    event.begin();
+    List<Meeting> meetings = meetingStorage.sort().stream().toList();
+    event.end();
+    if (event.shouldCommit()) {
+      event.meetings = meetings.size();
+      event.commit();
+    }
+    return meetings;
   }
 
   public Either<Meeting, Errors> getMeeting(Long id) {
@@ -65,135 +114,259 @@ public class MeetingService {
                         id, "id", RESOURCE_NOT_FOUND, "Cannot find meeting with id = " + id)));
   }
 
+  /*
+   Returns the meetings added and removed after the given storage version
+  */
+  public MeetingChanges getMeetingChanges(long since) {
+    return meetingStorage.getChangesSince(since);
+  }
+
   public Either<Meeting, Errors> addMeeting(Meeting meeting) {
+    if (bookingPipeline != null) {
+      return submitMeeting(meeting).getResult().join();
+    }
+
     Errors errors = validate(meeting, new MeetingValidator(schedulerProperties));
     if (errors.hasErrors()) {
       return right(errors);
     }
 
-    if (isTimeAvailable(meeting)) {
-      Meeting savedMeeting = meetingStorage.add(meeting);
-      return savedMeeting != null
-          ? left(savedMeeting)
-          : right(SchedulerErrors.createErrors(meeting, null, INSERT_FAILED, "Cannot add meeting"));
+    if (!isOnWorkingDays(meeting)) {
+      errors.reject(TIME_NOT_AVAILABLE.name(), NOT_ON_WORKING_DAY);
+      return right(errors);
     }
 
-    errors.reject(TIME_NOT_AVAILABLE.name());
-    return right(errors);
+    // Checked and stored holding the storage lock, so no conflicting booking can come in between
+    List<Meeting> saved = meetingStorage.addAllIfFree(List.of(meeting));
+    if (saved.isEmpty()) {
+      errors.reject(TIME_NOT_AVAILABLE.name(), OVERLAPS_ANOTHER_MEETING);
+      return right(errors);
+    }
+    return left(saved.getFirst());
   }
 
-  public List<Meeting> addMeeting(LocalDate date, Long meetingTimeInMinutes) {
-    LocalTime startOfDay = getStartOfDay();
-    LocalTime endOfDay = getEndOfDay();
-
-    List<Meeting> boundaryList =
-        new ArrayList<>(
-            meetingStorage.sort().stream().filter(item -> item.getDate().equals(date)).toList());
-
-    // Add boundaries to list
-    boundaryList.addFirst(
-        createBoundaryMeeting(
-            "startBoundary", date, startOfDay.minusMinutes(BOUNDARY_TIME_BUFFER), startOfDay));
-    boundaryList.add(
-        createBoundaryMeeting(
-            "endBoundary", date, endOfDay, endOfDay.plusMinutes(BOUNDARY_TIME_BUFFER)));
-
-    return IntStream.range(0, boundaryList.size() - 1)
-        .mapToObj(
-            i -> {
-              Meeting m1 = boundaryList.get(i);
-              Meeting m2 = boundaryList.get(i + 1);
-              long differenceBetweenMeetings =
-                  Duration.between(m1.getEnd(), m2.getStart()).toMinutes();
-              return differenceBetweenMeetings > meetingTimeInMinutes
-                  ? Meeting.builder().date(date).start(m1.getEnd()).end(m2.getStart()).build()
-                  : null;
-            })
-        .filter(Objects::nonNull)
-        .toList();
+  /*
+   Hands the meeting to the booking pipeline and returns without waiting for it to be booked.
+   Without the pipeline, the meeting is booked before returning. A meeting that is invalid or
+   not on working days is rejected at once either way.
+  */
+  public Booking submitMeeting(Meeting meeting) {
+    if (bookingPipeline == null) {
+      Booking booking = new Booking(null, meeting);
+      booking.getResult().complete(addMeeting(meeting));
+      return booking;
+    }
+
+    Errors errors = validate(meeting, new MeetingValidator(schedulerProperties));
+    if (!errors.hasErrors() && !isOnWorkingDays(meeting)) {
+      errors.reject(TIME_NOT_AVAILABLE.name(), NOT_ON_WORKING_DAY);
+    }
+    if (errors.hasErrors()) {
+      Booking booking = new Booking(null, meeting);
+      booking.getResult().complete(right(errors));
+      return booking;
+    }
+    return bookingPipeline.submit(meeting);
   }
 
-  private Meeting createBoundaryMeeting(
-      String title, LocalDate date, LocalTime start, LocalTime end) {
-    return Meeting.builder().title(title).date(date).start(start).end(end).build();
+  public Either<Booking, Errors> getBooking(UUID id) {
+    Booking booking = bookingPipeline != null ? bookingPipeline.getBooking(id) : null;
+    return Optional.ofNullable(booking)
+        .map(Either::<Booking, Errors>left)
+        .orElseGet(
+            () ->
+                right(
+                    SchedulerErrors.createErrors(
+                        id, "id", RESOURCE_NOT_FOUND, "Cannot find booking with id = " + id)));
   }
 
-  private LocalTime getStartOfDay() {
-    return schedulerProperties.getWorkingHours().getStart();
+  /*
+   Returns the free gaps on the date within working hours that are longer than the given number
+   of minutes, read from the gap index
+  */
+  public List<Meeting> addMeeting(LocalDate date, Long meetingTimeInMinutes) {
+    SlotSearchEvent event = new SlotSearchEvent();
+    event.begin();
+    // Longer than n whole minutes is at least n + 1 minutes
+    List<Meeting> slots = freeGapIndex.getGaps(date, Duration.ofMinutes(meetingTimeInMinutes + 1));
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = "find";
+      event.date = date.toString();
+      event.durationMinutes = meetingTimeInMinutes;
+      event.days = 1;
+      event.slots = slots.size();
+      event.commit();
+    }
+    return slots;
   }
 
-  private LocalTime getEndOfDay() {
-    return schedulerProperties.getWorkingHours().getEnd();
+  /*
+   Returns up to 'count' working days within 'days' days from 'from' that still have a free gap
+   of at least the given number of minutes
+  */
+  public List<LocalDate> findDaysWithGap(
+      LocalDate from, int days, long meetingTimeInMinutes, int count) {
+    return freeGapIndex.getDaysWithGap(
+        from, from.plusDays(days), Duration.ofMinutes(meetingTimeInMinutes), count);
   }
 
-  private boolean isTimeAvailable(Meeting meeting) {
-    return isWorkingDay(meeting.getDate())
-        && !isTimeConflicting(meeting)
-        && isMeetingDurationValid(meeting);
+  /*
+   Returns up to 'limit' meetings whose titles match the query, starting within [from, to] where
+   given, sorted by start. The earliest matching days are returned first.
+  */
+  public List<Meeting> searchMeetings(String query, LocalDate from, LocalDate to, int limit) {
+    return titleIndex.search(query, from, to, limit).stream()
+        .map(meetingStorage::getById)
+        .filter(Objects::nonNull)
+        .sorted(Comparator.comparing(Meeting::startDateTime).thenComparing(Meeting::getId))
+        .toList();
   }
 
-  private boolean isTimeConflicting(Meeting meeting) {
-    // Narrow list to same day
-    List<Meeting> existingMeetings =
-        meetingStorage.sort().stream()
-            .filter(item -> item.getDate().equals(meeting.getDate()))
-            .toList();
+  /*
+   Returns up to 'count' free slots of the given length within 'days' days from 'from', ranked
+   by the strategy. Days are only read as far as needed to know the result.
+  */
+  public List<Meeting> suggestMeetings(
+      LocalDate from,
+      int days,
+      long meetingTimeInMinutes,
+      int count,
+      SuggestionStrategy strategy,
+      LocalTime preferred) {
+    return new SlotSuggester(meetingStorage, getStartOfDay(), getEndOfDay(), this::isWorkingDay)
+        .suggest(from, days, meetingTimeInMinutes, count, strategy, preferred);
+  }
 
-    if (existingMeetings.isEmpty()) {
-      return false;
+  /*
+   Places every request on a working day within its dates and adds them all, or none of them if
+   any cannot be placed. The planner searches for better placements for up to 'budgetMillis'
+   once the quick first pass leaves some requests unplaced. Meetings booked by others while
+   planning make the adding fail, and the plan is then made again from the new schedule.
+  */
+  public Either<List<Meeting>, Errors> placeMeetings(
+      List<PlacementRequest> requests, long budgetMillis) {
+    Errors errors = new SchedulerErrors(requests);
+    validatePlacementRequests(requests, errors);
+    if (errors.hasErrors()) {
+      return right(errors);
     }
 
-    return existingMeetings.stream()
-        .anyMatch(
-            item ->
-                isTimeBetween(meeting.getStart(), item.getStart(), item.getEnd())
-                    || isTimeBetween(meeting.getEnd(), item.getStart(), item.getEnd()));
+    MeetingPlanner planner =
+        new MeetingPlanner(meetingStorage, getStartOfDay(), getEndOfDay(), this::isWorkingDay);
+    for (int attempt = 0; attempt < PLAN_ATTEMPTS; attempt++) {
+      MeetingPlanner.Plan plan = planner.plan(requests, Duration.ofMillis(budgetMillis).toNanos());
+      List<Integer> unplaced = plan.unplaced();
+      if (!unplaced.isEmpty()) {
+        for (int i : unplaced) {
+          errors.reject(
+              TIME_NOT_AVAILABLE.name(),
+              "Meeting "
+                  + i
+                  + " '"
+                  + requests.get(i).getTitle()
+                  + "' does not fit between "
+                  + requests.get(i).getEarliest()
+                  + " and "
+                  + requests.get(i).getLatest());
+        }
+        return right(errors);
+      }
+      if (meetingStorage.addAllIfAllFree(plan.meetings())) {
+        return left(plan.meetings());
+      }
+      log.debug(
+          "Plan of {} meetings conflicted with new bookings, planning again", requests.size());
+      planner =
+          new MeetingPlanner(meetingStorage, getStartOfDay(), getEndOfDay(), this::isWorkingDay);
+    }
+    errors.reject(INSERT_FAILED.name(), "Meetings kept conflicting with new bookings");
+    return right(errors);
   }
 
-  private boolean isMeetingDurationValid(Meeting meeting) {
-    List<Meeting> existingMeetings =
-        meetingStorage.sort().stream()
-            .filter(item -> item.getDate().equals(meeting.getDate()))
-            .toList();
+  /*
+   Imports the meetings in the input, applying the same rules as adding them one by one
+  */
+  public ImportResult importMeetings(BufferedReader input, MeetingFormat format)
+      throws IOException {
+    return new MeetingImporter(
+            meetingStorage,
+            new MeetingValidator(schedulerProperties),
+            this::isWorkingDay,
+            transferProperties)
+        .importMeetings(input, format);
+  }
 
-    if (existingMeetings.isEmpty()) {
-      return true;
+  /*
+   Writes all meetings sorted by date and start time, from one snapshot of the storage
+  */
+  public void exportMeetings(Writer output, MeetingFormat format) throws IOException {
+    MeetingWriter writer = format.writer(output);
+    try {
+      meetingStorage.forEachSorted(
+          meeting -> {
+            try {
+              writer.write(meeting);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
+    writer.finish();
+  }
 
-    LocalTime startOfDay = getStartOfDay();
-    LocalTime endOfDay = getEndOfDay();
-    long meetingDuration = Duration.between(meeting.getStart(), meeting.getEnd()).toMinutes();
-
-    Meeting startBoundaryMeeting =
-        createBoundaryMeeting(
-            "startBoundary",
-            meeting.getDate(),
-            startOfDay.minusMinutes(BOUNDARY_TIME_BUFFER),
-            startOfDay);
-    Meeting endBoundaryMeeting =
-        createBoundaryMeeting(
-            "endBoundary", meeting.getDate(), endOfDay, endOfDay.plusMinutes(BOUNDARY_TIME_BUFFER));
+  private void validatePlacementRequests(List<PlacementRequest> requests, Errors errors) {
+    long workingMinutes = Duration.between(getStartOfDay(), getEndOfDay()).toMinutes();
+    LocalDate first = null;
+    LocalDate last = null;
+    for (int i = 0; i < requests.size(); i++) {
+      PlacementRequest request = requests.get(i);
+      String invalid = null;
+      if (request.getTitle() == null || request.getTitle().isBlank()) {
+        invalid = "must have a title";
+      } else if (request.getDuration() == null || request.getDuration() < 15) {
+        invalid = "must be 15 minutes or longer";
+      } else if (request.getDuration() > workingMinutes) {
+        invalid = "must fit within working hours";
+      } else if (request.getEarliest() == null || request.getLatest() == null) {
+        invalid = "must have an earliest and a latest date";
+      } else if (request.getEarliest().isAfter(request.getLatest())) {
+        invalid = "cannot have its earliest date after its latest date";
+      }
+      if (invalid != null) {
+        errors.reject(FIELD_INVALID.name(), "Meeting " + i + " " + invalid);
+        continue;
+      }
+      first =
+          first == null || request.getEarliest().isBefore(first) ? request.getEarliest() : first;
+      last = last == null || request.getLatest().isAfter(last) ? request.getLatest() : last;
+    }
+    if (first != null && first.plusDays(MAX_PLAN_DAYS).isBefore(last)) {
+      errors.reject(
+          FIELD_INVALID.name(), "Meetings must be placed within " + MAX_PLAN_DAYS + " days");
+    }
+  }
 
-    List<Meeting> allMeetings =
-        Stream.concat(
-                Stream.concat(Stream.of(startBoundaryMeeting), existingMeetings.stream()),
-                Stream.of(endBoundaryMeeting))
-            .toList();
+  private LocalTime getStartOfDay() {
+    return schedulerProperties.getWorkingHours().getStart();
+  }
 
-    return IntStream.range(0, allMeetings.size() - 1)
-        .mapToObj(index -> Map.entry(allMeetings.get(index), allMeetings.get(index + 1)))
-        .filter(
-            pair ->
-                isTimeBetween(
-                    meeting.getStart(), pair.getKey().getEnd(), pair.getValue().getStart()))
-        .map(
-            pair ->
-                Duration.between(pair.getKey().getEnd(), pair.getValue().getStart()).toMinutes())
-        .anyMatch(gapDuration -> gapDuration > meetingDuration);
+  private LocalTime getEndOfDay() {
+    return schedulerProperties.getWorkingHours().getEnd();
   }
 
-  private boolean isTimeBetween(LocalTime time, LocalTime start, LocalTime end) {
-    return !time.isBefore(start) && !time.isAfter(end);
+  /*
+   Every day the meeting covers must be a working day, a meeting over several days cannot run
+   through a weekend
+  */
+  private boolean isOnWorkingDays(Meeting meeting) {
+    return meeting
+        .getDate()
+        .datesUntil(meeting.lastDate().plusDays(1))
+        .allMatch(this::isWorkingDay);
   }
 
   private boolean isWorkingDay(LocalDate date) {
@@ -0,0 +1,129 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ The ids of the meetings with one title word, compressed.
+
+ Ids are kept sorted as the differences between neighbours, each written as a variable-length
+ integer, so ids that are close together take a byte or two instead of eight. New meetings get
+ higher ids than the ones before them, so adding is usually an append. Ids added out of order,
+ as when the stored meetings are replayed unsorted, and removed ids are held on the side and
+ folded into the compressed ids once there are enough of them to pay for rewriting the list.
+
+ Not thread safe, the owning index guards it.
+*/
+class PostingList {
+
+  private static final int MIN_PENDING = 64;
+
+  private byte[] data = new byte[8];
+  private int length;
+  private int count;
+  private long last;
+  private final TreeSet<Long> added = new TreeSet<>();
+  private final Set<Long> removed = new HashSet<>();
+
+  void add(long id) {
+    if (removed.remove(id)) {
+      return;
+    }
+    if (count == 0 || id > last) {
+      append(id);
+    } else {
+      added.add(id);
+      compactIfNeeded();
+    }
+  }
+
+  void remove(long id) {
+    if (!added.remove(id)) {
+      removed.add(id);
+      compactIfNeeded();
+    }
+  }
+
+  int size() {
+    return count + added.size() - removed.size();
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /*
+   Returns the ids in ascending order
+  */
+  long[] toArray() {
+    long[] ids = new long[size()];
+    Iterator<Long> extra = added.iterator();
+    long nextExtra = extra.hasNext() ? extra.next() : Long.MAX_VALUE;
+    int size = 0;
+    long id = 0;
+    int position = 0;
+    for (int i = 0; i < count; i++) {
+      long delta = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte next = data[position++];
+        delta |= (long) (next & 0x7F) << shift;
+        if (next >= 0) {
+          break;
+        }
+      }
+      id += delta;
+      while (nextExtra < id) {
+        ids[size++] = nextExtra;
+        nextExtra = extra.hasNext() ? extra.next() : Long.MAX_VALUE;
+      }
+      if (removed.isEmpty() || !removed.contains(id)) {
+        ids[size++] = id;
+      }
+    }
+    while (nextExtra != Long.MAX_VALUE) {
+      ids[size++] = nextExtra;
+      nextExtra = extra.hasNext() ? extra.next() : Long.MAX_VALUE;
+    }
+    return ids;
+  }
+
+  /*
+   Returns the size of the compressed ids in bytes
+  */
+  int compressedSize() {
+    return length;
+  }
+
+  private void compactIfNeeded() {
+    int pending = added.size() + removed.size();
+    if (pending < MIN_PENDING || pending * 8L < count) {
+      return;
+    }
+    long[] ids = toArray();
+    data = new byte[Math.max(8, length)];
+    length = 0;
+    count = 0;
+    added.clear();
+    removed.clear();
+    for (long id : ids) {
+      append(id);
+    }
+  }
+
+  private void append(long id) {
+    long delta = count == 0 ? id : id - last;
+    if (length + 10 > data.length) {
+      data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+    }
+    while ((delta & ~0x7FL) != 0) {
+      data[length++] = (byte) ((delta & 0x7F) | 0x80);
+      delta >>>= 7;
+    }
+    data[length++] = (byte) delta;
+    last = id;
+    count++;
+  }
+}
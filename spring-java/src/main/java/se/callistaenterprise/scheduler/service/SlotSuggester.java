@@ -0,0 +1,173 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import se.callistaenterprise.scheduler.datasource.MeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.SuggestionStrategy;
+import se.callistaenterprise.scheduler.monitoring.SlotSearchEvent;
+
+/*
+ Finds the best K free slots over a range of days without reading every day.
+
+ Every free gap that fits the meeting becomes one candidate slot in a priority queue ordered by
+ the strategy. Days are read one at a time, in date order, and only when the head of the queue
+ could still be beaten by a slot on the next unread day. For earliest-fit that means a day is
+ read only once the earlier days have run out of slots. For best-fit and preferred-time a slot
+ can only be returned early if it is a perfect match, so they read further ahead.
+
+ A slot may start where a meeting ends or end where the next one starts, since meetings that
+ only touch do not overlap. Meetings running over midnight take up the days they continue on.
+*/
+class SlotSuggester {
+
+  private final MeetingStorage meetingStorage;
+  private final LocalTime startOfDay;
+  private final LocalTime endOfDay;
+  private final Predicate<LocalDate> isWorkingDay;
+  private int daysRead;
+  private int meetingsRead;
+
+  SlotSuggester(
+      MeetingStorage meetingStorage,
+      LocalTime startOfDay,
+      LocalTime endOfDay,
+      Predicate<LocalDate> isWorkingDay) {
+    this.meetingStorage = meetingStorage;
+    this.startOfDay = startOfDay;
+    this.endOfDay = endOfDay;
+    this.isWorkingDay = isWorkingDay;
+  }
+
+  List<Meeting> suggest(
+      LocalDate from,
+      int days,
+      long durationMinutes,
+      int count,
+      SuggestionStrategy strategy,
+      LocalTime preferred) {
+    SlotSearchEvent event = new SlotSearchEvent();
+    event.begin();
+    Duration duration = Duration.ofMinutes(durationMinutes);
+    Comparator<Slot> order = order(strategy);
+    PriorityQueue<Slot> queue = new PriorityQueue<>(order);
+    List<Meeting> suggestions = new ArrayList<>(count);
+    LocalDate end = from.plusDays(days);
+    LocalDate next = nextWorkingDay(from, end);
+
+    while (suggestions.size() < count) {
+      boolean moreDays = next.isBefore(end);
+      if (!queue.isEmpty()
+          && (!moreDays || order.compare(queue.peek(), bestPossible(next, duration)) < 0)) {
+        suggestions.add(queue.poll().toMeeting());
+      } else if (moreDays) {
+        queue.addAll(slots(next, duration, strategy, preferred));
+        next = nextWorkingDay(next.plusDays(1), end);
+      } else {
+        break;
+      }
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = "suggest";
+      event.date = from.toString();
+      event.durationMinutes = durationMinutes;
+      event.days = daysRead;
+      event.meetings = meetingsRead;
+      event.slots = suggestions.size();
+      event.commit();
+    }
+    return suggestions;
+  }
+
+  /*
+   One slot per free gap of the day that fits the meeting
+  */
+  private List<Slot> slots(
+      LocalDate date, Duration duration, SuggestionStrategy strategy, LocalTime preferred) {
+    List<Slot> slots = new ArrayList<>();
+    LocalTime gapStart = startOfDay;
+    List<Meeting> meetings = meetingStorage.getByDate(date);
+    daysRead++;
+    meetingsRead += meetings.size();
+    for (Meeting meeting : meetings) {
+      LocalTime start = meeting.startOn(date);
+      LocalTime end = meeting.endOn(date);
+      if (start.isAfter(gapStart)) {
+        addSlot(slots, date, gapStart, min(start, endOfDay), duration, strategy, preferred);
+      }
+      if (end.isAfter(gapStart)) {
+        gapStart = end;
+      }
+    }
+    addSlot(slots, date, gapStart, endOfDay, duration, strategy, preferred);
+    return slots;
+  }
+
+  private void addSlot(
+      List<Slot> slots,
+      LocalDate date,
+      LocalTime gapStart,
+      LocalTime gapEnd,
+      Duration duration,
+      SuggestionStrategy strategy,
+      LocalTime preferred) {
+    if (gapStart.isAfter(gapEnd)) {
+      return;
+    }
+    long slack = Duration.between(gapStart, gapEnd).minus(duration).toMinutes();
+    if (slack < 0) {
+      return;
+    }
+
+    LocalTime start = gapStart;
+    if (strategy == SuggestionStrategy.PREFERRED) {
+      LocalTime latestStart = gapEnd.minus(duration);
+      start = preferred.isBefore(gapStart) ? gapStart : min(preferred, latestStart);
+    }
+    long distance =
+        preferred == null ? 0L : Math.abs(Duration.between(preferred, start).toMinutes());
+    slots.add(new Slot(date, start, start.plus(duration), slack, distance));
+  }
+
+  /*
+   The best slot any day on or after 'date' could produce
+  */
+  private Slot bestPossible(LocalDate date, Duration duration) {
+    return new Slot(date, startOfDay, startOfDay.plus(duration), 0L, 0L);
+  }
+
+  private LocalDate nextWorkingDay(LocalDate date, LocalDate end) {
+    while (date.isBefore(end) && !isWorkingDay.test(date)) {
+      date = date.plusDays(1);
+    }
+    return date;
+  }
+
+  private static Comparator<Slot> order(SuggestionStrategy strategy) {
+    Comparator<Slot> chronological = Comparator.comparing(Slot::date).thenComparing(Slot::start);
+    return switch (strategy) {
+      case EARLIEST -> chronological;
+      case BEST_FIT -> Comparator.comparingLong(Slot::slack).thenComparing(chronological);
+      case PREFERRED -> Comparator.comparingLong(Slot::distance).thenComparing(chronological);
+    };
+  }
+
+  private static LocalTime min(LocalTime a, LocalTime b) {
+    return a.isBefore(b) ? a : b;
+  }
+
+  private record Slot(LocalDate date, LocalTime start, LocalTime end, long slack, long distance) {
+
+    Meeting toMeeting() {
+      return Meeting.builder().date(date).start(start).end(end).build();
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package se.callistaenterprise.scheduler.service;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ An inverted index of the words in meeting titles, kept up to date as meetings are added and
+ removed.
+
+ Titles are cut into words at everything that is not a letter or a digit, and the words are
+ lower-cased with their accents removed, so "Kick-off Göteborg" is found by "kick off goteborg".
+ Every word maps to a PostingList with the ids of the meetings having it, and the words are
+ sorted, so the words starting with a prefix are a range of the map. Only the start date of
+ every meeting is kept besides the ids, for restricting a search to a date range, the meetings
+ themselves are read from the storage.
+
+ Searches share a read lock and only decode the posting lists of the words searched for, so
+ they do not depend on the number of meetings with other words.
+*/
+@Component
+public class TitleIndex implements MeetingStorageListener {
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+  private static final Comparator<Candidate> LATEST_FIRST =
+      Comparator.comparing(Candidate::date).thenComparingLong(Candidate::id).reversed();
+
+  private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+  private final Map<Long, LocalDate> dates = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  @Override
+  public void meetingAdded(Meeting meeting) {
+    lock.writeLock().lock();
+    try {
+      dates.put(meeting.getId(), meeting.getDate());
+      for (String word : words(meeting.getTitle())) {
+        postings.computeIfAbsent(word, key -> new PostingList()).add(meeting.getId());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void meetingRemoved(Meeting meeting) {
+    lock.writeLock().lock();
+    try {
+      if (dates.remove(meeting.getId()) == null) {
+        return;
+      }
+      for (String word : words(meeting.getTitle())) {
+        PostingList ids = postings.get(word);
+        if (ids != null) {
+          ids.remove(meeting.getId());
+          if (ids.isEmpty()) {
+            postings.remove(word);
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /*
+   Returns the ids of up to 'limit' meetings whose titles have every word of the query, the
+   last one as a prefix of a word, starting within [from, to] where given. The meetings are
+   ordered by date, then id.
+  */
+  public List<Long> search(String query, LocalDate from, LocalDate to, int limit) {
+    List<String> words = List.copyOf(words(query));
+    if (words.isEmpty()) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      List<long[]> lists = new ArrayList<>(words.size());
+      for (int i = 0; i < words.size() - 1; i++) {
+        PostingList ids = postings.get(words.get(i));
+        if (ids == null) {
+          return List.of();
+        }
+        lists.add(ids.toArray());
+      }
+      long[] prefixed = withPrefix(words.getLast());
+      if (prefixed.length == 0) {
+        return List.of();
+      }
+      lists.add(prefixed);
+
+      // Intersecting the shortest lists first keeps the intermediate results small
+      lists.sort(Comparator.comparingInt(ids -> ids.length));
+      long[] matches = lists.getFirst();
+      for (int i = 1; i < lists.size() && matches.length > 0; i++) {
+        matches = intersect(matches, lists.get(i));
+      }
+      return first(matches, from, to, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /*
+   Returns the distinct normalized words of a title
+  */
+  static Set<String> words(String text) {
+    if (text == null || text.isBlank()) {
+      return Set.of();
+    }
+    String plain = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    return Arrays.stream(SEPARATORS.split(plain.toLowerCase(Locale.ROOT)))
+        .filter(word -> !word.isEmpty())
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  private long[] withPrefix(String prefix) {
+    Map<String, PostingList> matching =
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    if (matching.size() == 1) {
+      return matching.values().iterator().next().toArray();
+    }
+    long[] ids = new long[matching.values().stream().mapToInt(PostingList::size).sum()];
+    int size = 0;
+    for (PostingList list : matching.values()) {
+      long[] listIds = list.toArray();
+      System.arraycopy(listIds, 0, ids, size, listIds.length);
+      size += listIds.length;
+    }
+    // A meeting has every word once, but may have several words with the prefix
+    Arrays.sort(ids);
+    int distinct = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if (i == 0 || ids[i] != ids[i - 1]) {
+        ids[distinct++] = ids[i];
+      }
+    }
+    return Arrays.copyOf(ids, distinct);
+  }
+
+  private List<Long> first(long[] ids, LocalDate from, LocalDate to, int limit) {
+    PriorityQueue<Candidate> kept = new PriorityQueue<>(LATEST_FIRST);
+    for (long id : ids) {
+      LocalDate date = dates.get(id);
+      if (date == null
+          || (from != null && date.isBefore(from))
+          || (to != null && date.isAfter(to))) {
+        continue;
+      }
+      Candidate candidate = new Candidate(id, date);
+      if (kept.size() < limit) {
+        kept.add(candidate);
+      } else if (LATEST_FIRST.compare(candidate, kept.peek()) > 0) {
+        kept.poll();
+        kept.add(candidate);
+      }
+    }
+
+    List<Long> result = new ArrayList<>(kept.size());
+    while (!kept.isEmpty()) {
+      result.add(kept.poll().id());
+    }
+    return result.reversed();
+  }
+
+  private static long[] intersect(long[] first, long[] second) {
+    long[] common = new long[Math.min(first.length, second.length)];
+    int size = 0;
+    int i = 0;
+    int j = 0;
+    while (i < first.length && j < second.length) {
+      if (first[i] < second[j]) {
+        i++;
+      } else if (first[i] > second[j]) {
+        j++;
+      } else {
+        common[size++] = first[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(common, size);
+  }
+
+  private record Candidate(long id, LocalDate date) {}
+}
@@ -0,0 +1,161 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.validation.ValidationException;
+
+/*
+ Reads meetings from CSV with a header row naming the columns title, date, start, end and,
+ optionally, end_date. Other columns, such as the id written by the export, are ignored. Quoted
+ values may contain commas, quotes and line breaks. A quote that is not closed within
+ MAX_RECORD_LENGTH characters only rejects the line it is on, reading goes on with the next line.
+*/
+class CsvMeetingReader implements MeetingReader {
+
+  static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+  private static final List<String> COLUMNS = List.of("title", "date", "start", "end", "end_date");
+
+  private final BufferedReader input;
+  private final int[] columns;
+  private long lineNumber;
+
+  CsvMeetingReader(BufferedReader input) throws IOException {
+    this.input = input;
+    MeetingRecord header = next();
+    this.columns = header != null ? columns(split(header.text())) : new int[COLUMNS.size()];
+  }
+
+  @Override
+  public MeetingRecord next() throws IOException {
+    String line;
+    do {
+      line = input.readLine();
+      lineNumber++;
+    } while (line != null && line.isBlank());
+    if (line == null) {
+      return null;
+    }
+
+    long start = lineNumber;
+    if (line.indexOf('"') < 0) {
+      return new MeetingRecord(start, line);
+    }
+    // A quoted value may span lines, read on until the quotes are balanced
+    String first = line;
+    StringBuilder text = new StringBuilder(line);
+    long quotes = countQuotes(line);
+    input.mark(2 * MAX_RECORD_LENGTH);
+    while (quotes % 2 != 0 && (line = input.readLine()) != null) {
+      lineNumber++;
+      text.append('\n').append(line);
+      quotes += countQuotes(line);
+      if (text.length() > MAX_RECORD_LENGTH) {
+        return unclosed(start, first);
+      }
+    }
+    return new MeetingRecord(start, text.toString());
+  }
+
+  @Override
+  public Meeting parse(MeetingRecord record) {
+    if (countQuotes(record.text()) % 2 != 0) {
+      throw new IllegalArgumentException(
+          "A quoted value is not closed within " + MAX_RECORD_LENGTH + " characters");
+    }
+    List<String> values = split(record.text());
+    return Meeting.builder()
+        .title(value(values, 0))
+        .date(parse(values, 1, LocalDate::parse))
+        .start(parse(values, 2, LocalTime::parse))
+        .end(parse(values, 3, LocalTime::parse))
+        .endDate(parse(values, 4, LocalDate::parse))
+        .build();
+  }
+
+  /*
+   Goes back to the line after the first one of a record whose quote is never closed, and
+   returns the first line on its own, which parse() rejects. If a single line was longer than the
+   mark can hold, reading goes on after it instead.
+  */
+  private MeetingRecord unclosed(long start, String first) {
+    try {
+      input.reset();
+      lineNumber = start;
+    } catch (IOException e) {
+      // The lines read are skipped, they are counted in lineNumber already
+    }
+    return new MeetingRecord(start, first);
+  }
+
+  private static long countQuotes(String text) {
+    return text.chars().filter(c -> c == '"').count();
+  }
+
+  private <T> T parse(List<String> values, int column, Function<String, T> parser) {
+    String value = value(values, column);
+    return value == null || value.isBlank() ? null : parser.apply(value.trim());
+  }
+
+  private String value(List<String> values, int column) {
+    int index = columns[column];
+    return index >= 0 && index < values.size() ? values.get(index) : null;
+  }
+
+  private static int[] columns(List<String> header) {
+    List<String> names =
+        header.stream()
+            .map(name -> name.trim().toLowerCase(Locale.ROOT).replace("enddate", "end_date"))
+            .toList();
+    int[] columns = new int[COLUMNS.size()];
+    List<String> missing = new ArrayList<>();
+    for (int i = 0; i < COLUMNS.size(); i++) {
+      columns[i] = names.indexOf(COLUMNS.get(i));
+      if (columns[i] < 0 && !COLUMNS.get(i).equals("end_date")) {
+        missing.add(COLUMNS.get(i));
+      }
+    }
+    if (!missing.isEmpty()) {
+      throw new ValidationException("The CSV header is missing the columns " + missing);
+    }
+    return columns;
+  }
+
+  /*
+   Splits a record into its values, removing the quotes around quoted values
+  */
+  static List<String> split(String text) {
+    List<String> values = new ArrayList<>();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          value.append(c);
+        } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else if (c != '\r') {
+        value.append(c);
+      }
+    }
+    values.add(value.toString());
+    return values;
+  }
+}
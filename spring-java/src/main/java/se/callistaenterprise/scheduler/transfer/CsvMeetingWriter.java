@@ -0,0 +1,55 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ Writes meetings as CSV that the CSV import reads back
+*/
+class CsvMeetingWriter implements MeetingWriter {
+
+  private static final String HEADER = "id,title,date,start,end,end_date\r\n";
+
+  private final Writer output;
+
+  CsvMeetingWriter(Writer output) throws IOException {
+    this.output = output;
+    output.write(HEADER);
+  }
+
+  @Override
+  public void write(Meeting meeting) throws IOException {
+    output.write(String.valueOf(meeting.getId()));
+    output.write(',');
+    output.write(quote(meeting.getTitle()));
+    output.write(',');
+    output.write(meeting.getDate().toString());
+    output.write(',');
+    output.write(meeting.getStart().toString());
+    output.write(',');
+    output.write(meeting.getEnd().toString());
+    output.write(',');
+    if (meeting.getEndDate() != null) {
+      output.write(meeting.getEndDate().toString());
+    }
+    output.write("\r\n");
+  }
+
+  @Override
+  public void finish() throws IOException {
+    output.flush();
+  }
+
+  private static String quote(String value) {
+    if (value == null) {
+      return "";
+    }
+    boolean needsQuotes =
+        value.indexOf(',') >= 0
+            || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0
+            || value.indexOf('\r') >= 0;
+    return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+  }
+}
@@ -0,0 +1,164 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.validation.ValidationException;
+
+/*
+ Reads meetings from the VEVENTs of an iCalendar stream, using SUMMARY as title and DTSTART with
+ DTEND or DURATION as the time. Folded lines are unfolded and components nested in an event,
+ such as alarms, are skipped. The scheduler has no time zones, so times are read as the local
+ times they are written as, whatever their TZID or UTC marker. All-day events are rejected.
+*/
+class ICalendarMeetingReader implements MeetingReader {
+
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss");
+
+  private final BufferedReader input;
+  private String lookahead;
+  private long lookaheadNumber;
+  private long physicalNumber;
+  private long lineNumber;
+
+  ICalendarMeetingReader(BufferedReader input) {
+    this.input = input;
+  }
+
+  @Override
+  public MeetingRecord next() throws IOException {
+    StringBuilder event = null;
+    long start = 0;
+    int nested = 0;
+    String line;
+    while ((line = nextLine()) != null) {
+      if (event == null) {
+        if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+          event = new StringBuilder();
+          start = lineNumber;
+        }
+      } else if (startsWith(line, "BEGIN:")) {
+        nested++;
+      } else if (startsWith(line, "END:")) {
+        if (nested == 0) {
+          return new MeetingRecord(start, event.toString());
+        }
+        nested--;
+      } else if (nested == 0) {
+        event.append(line).append('\n');
+      }
+    }
+    if (event != null) {
+      throw new ValidationException("The event starting on line " + start + " has no END:VEVENT");
+    }
+    return null;
+  }
+
+  @Override
+  public Meeting parse(MeetingRecord record) {
+    String summary = null;
+    LocalDateTime start = null;
+    LocalDateTime end = null;
+    Duration duration = null;
+    for (String line : record.text().split("\n")) {
+      int colon = line.indexOf(':');
+      if (colon < 0) {
+        continue;
+      }
+      String name = line.substring(0, colon).toUpperCase(Locale.ROOT);
+      String value = line.substring(colon + 1);
+      int semicolon = name.indexOf(';');
+      String parameters = semicolon < 0 ? "" : name.substring(semicolon + 1);
+      switch (semicolon < 0 ? name : name.substring(0, semicolon)) {
+        case "SUMMARY" -> summary = unescape(value);
+        case "DTSTART" -> start = dateTime(value, parameters);
+        case "DTEND" -> end = dateTime(value, parameters);
+        case "DURATION" -> duration = Duration.parse(value.trim());
+        default -> {}
+      }
+    }
+    if (start == null) {
+      throw new IllegalArgumentException("The event has no DTSTART");
+    }
+    if (end == null && duration != null) {
+      end = start.plus(duration);
+    }
+    if (end == null) {
+      throw new IllegalArgumentException("The event has neither DTEND nor DURATION");
+    }
+    return Meeting.builder()
+        .title(summary)
+        .date(start.toLocalDate())
+        .start(start.toLocalTime())
+        .endDate(end.toLocalDate())
+        .end(end.toLocalTime())
+        .build();
+  }
+
+  /*
+   Returns the next logical line, with the continuation lines folded into it unfolded
+  */
+  private String nextLine() throws IOException {
+    if (lookahead == null) {
+      lookahead = readLine();
+    }
+    String line = lookahead;
+    lineNumber = lookaheadNumber;
+    if (line == null) {
+      return null;
+    }
+    StringBuilder unfolded = null;
+    while ((lookahead = readLine()) != null
+        && !lookahead.isEmpty()
+        && (lookahead.charAt(0) == ' ' || lookahead.charAt(0) == '\t')) {
+      if (unfolded == null) {
+        unfolded = new StringBuilder(line);
+      }
+      unfolded.append(lookahead, 1, lookahead.length());
+    }
+    return unfolded != null ? unfolded.toString() : line;
+  }
+
+  private String readLine() throws IOException {
+    String line = input.readLine();
+    lookaheadNumber = ++physicalNumber;
+    return line;
+  }
+
+  private static boolean startsWith(String line, String prefix) {
+    return line.regionMatches(true, 0, prefix, 0, prefix.length());
+  }
+
+  private static LocalDateTime dateTime(String value, String parameters) {
+    if (parameters.contains("VALUE=DATE") && !parameters.contains("VALUE=DATE-TIME")) {
+      throw new IllegalArgumentException("All-day events are not supported");
+    }
+    String local = value.trim();
+    if (local.endsWith("Z")) {
+      local = local.substring(0, local.length() - 1);
+    }
+    return LocalDateTime.parse(local, DATE_TIME);
+  }
+
+  private static String unescape(String value) {
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    StringBuilder text = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char escaped = value.charAt(++i);
+        text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+      } else {
+        text.append(c);
+      }
+    }
+    return text.toString();
+  }
+}
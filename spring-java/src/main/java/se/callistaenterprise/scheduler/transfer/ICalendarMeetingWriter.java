@@ -0,0 +1,77 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ Writes meetings as an iCalendar stream with one VEVENT per meeting. Times are written as
+ floating local times, lines are folded at 75 characters.
+*/
+class ICalendarMeetingWriter implements MeetingWriter {
+
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss");
+  private static final int MAX_LINE_LENGTH = 75;
+  private static final String CRLF = "\r\n";
+
+  private final Writer output;
+  private final String timestamp;
+
+  ICalendarMeetingWriter(Writer output) throws IOException {
+    this.output = output;
+    this.timestamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME) + "Z";
+    line("BEGIN:VCALENDAR");
+    line("VERSION:2.0");
+    line("PRODID:-//Callista Enterprise//Scheduler//EN");
+  }
+
+  @Override
+  public void write(Meeting meeting) throws IOException {
+    line("BEGIN:VEVENT");
+    line("UID:" + meeting.getId() + "@scheduler");
+    line("DTSTAMP:" + timestamp);
+    line("DTSTART:" + meeting.startDateTime().format(DATE_TIME));
+    line("DTEND:" + meeting.endDateTime().format(DATE_TIME));
+    line("SUMMARY:" + escape(meeting.getTitle()));
+    line("END:VEVENT");
+  }
+
+  @Override
+  public void finish() throws IOException {
+    line("END:VCALENDAR");
+    output.flush();
+  }
+
+  private void line(String line) throws IOException {
+    int from = 0;
+    int length = MAX_LINE_LENGTH;
+    while (line.length() - from > length) {
+      int to = from + length;
+      if (Character.isHighSurrogate(line.charAt(to - 1))) {
+        to--;
+      }
+      output.write(line, from, to - from);
+      output.write(CRLF + " ");
+      from = to;
+      length = MAX_LINE_LENGTH - 1;
+    }
+    output.write(line, from, line.length() - from);
+    output.write(CRLF);
+  }
+
+  private static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+    return value
+        .replace("\\", "\\\\")
+        .replace(";", "\\;")
+        .replace(",", "\\,")
+        .replace("\r\n", "\\n")
+        .replace("\n", "\\n");
+  }
+}
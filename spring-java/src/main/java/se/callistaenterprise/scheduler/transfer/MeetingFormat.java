@@ -0,0 +1,61 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Optional;
+
+/*
+ The file formats meetings can be imported from and exported to
+*/
+public enum MeetingFormat {
+  /* RFC 4180 comma separated values with a header row */
+  CSV("csv", "text/csv") {
+    @Override
+    public MeetingReader reader(BufferedReader input) throws IOException {
+      return new CsvMeetingReader(input);
+    }
+
+    @Override
+    public MeetingWriter writer(Writer output) throws IOException {
+      return new CsvMeetingWriter(output);
+    }
+  },
+  /* RFC 5545 iCalendar, one VEVENT per meeting */
+  ICALENDAR("ics", "text/calendar") {
+    @Override
+    public MeetingReader reader(BufferedReader input) {
+      return new ICalendarMeetingReader(input);
+    }
+
+    @Override
+    public MeetingWriter writer(Writer output) throws IOException {
+      return new ICalendarMeetingWriter(output);
+    }
+  };
+
+  private final String value;
+  private final String mediaType;
+
+  MeetingFormat(String value, String mediaType) {
+    this.value = value;
+    this.mediaType = mediaType;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  public abstract MeetingReader reader(BufferedReader input) throws IOException;
+
+  public abstract MeetingWriter writer(Writer output) throws IOException;
+
+  public static Optional<MeetingFormat> fromValue(String value) {
+    return Arrays.stream(values()).filter(format -> format.value.equals(value)).findFirst();
+  }
+}
@@ -0,0 +1,23 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.IOException;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+/*
+ Reads meetings in two steps so that the expensive one can run in parallel. Cutting the input
+ into records has to be done in order, on one thread, and does as little work as possible.
+ Parsing a record does not depend on any other record and may be called from several threads.
+*/
+public interface MeetingReader {
+
+  /*
+   Returns the next record, null at the end of the input
+  */
+  MeetingRecord next() throws IOException;
+
+  /*
+   Parses a record into a meeting without an id. Throws IllegalArgumentException or a
+   DateTimeException if the record is malformed.
+  */
+  Meeting parse(MeetingRecord record);
+}
@@ -0,0 +1,7 @@
+package se.callistaenterprise.scheduler.transfer;
+
+/*
+ One meeting as it was read from the input, not yet parsed. 'line' is the line the record
+ starts on, for error messages.
+*/
+public record MeetingRecord(long line, String text) {}
@@ -0,0 +1,14 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import java.io.IOException;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+public interface MeetingWriter {
+
+  void write(Meeting meeting) throws IOException;
+
+  /*
+   Writes whatever the format needs after the last meeting and flushes the output
+  */
+  void finish() throws IOException;
+}
@@ -4,6 +4,7 @@ import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCo
 import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCode.FIELD_REQUIRED;
 
 import java.time.Duration;
+import java.time.LocalTime;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
 import org.springframework.validation.Validator;
@@ -42,8 +43,15 @@ public class MeetingValidator implements Validator {
 
     Meeting meeting = (Meeting) target;
 
-    // Check valid start and end times
-    long differenceInMinutes = Duration.between(meeting.getStart(), meeting.getEnd()).toMinutes();
+    if (meeting.getEndDate() != null && meeting.getEndDate().isBefore(meeting.getDate())) {
+      errors.rejectValue(
+          "endDate", FIELD_INVALID.name(), "Meeting end date cannot be before its date");
+      return;
+    }
+
+    // Check valid start and end times, the meeting may continue over several days
+    long differenceInMinutes =
+        Duration.between(meeting.startDateTime(), meeting.endDateTime()).toMinutes();
     if (differenceInMinutes == 0) {
       errors.rejectValue("end", FIELD_INVALID.name(), "Meeting start and end time cannot be equal");
     }
@@ -56,18 +64,28 @@ public class MeetingValidator implements Validator {
     }
 
     // Check meeting is within working hours
-    if (meeting.getStart().isBefore(schedulerProperties.getWorkingHours().getStart())) {
+    LocalTime workStart = schedulerProperties.getWorkingHours().getStart();
+    LocalTime workEnd = schedulerProperties.getWorkingHours().getEnd();
+    if (meeting.getStart().isBefore(workStart)) {
       errors.rejectValue(
-          "start",
-          FIELD_INVALID.name(),
-          "Meeting start time cannot be before "
-              + schedulerProperties.getWorkingHours().getStart());
+          "start", FIELD_INVALID.name(), "Meeting start time cannot be before " + workStart);
     }
-    if (meeting.getEnd().isAfter(schedulerProperties.getWorkingHours().getEnd())) {
+    if (meeting.getEnd().isAfter(workEnd)) {
       errors.rejectValue(
-          "end",
-          FIELD_INVALID.name(),
-          "Meeting end time cannot be after " + schedulerProperties.getWorkingHours().getEnd());
+          "end", FIELD_INVALID.name(), "Meeting end time cannot be after " + workEnd);
+    }
+
+    // A meeting over several days must also start and end within working hours on its first
+    // and last day, the days in between are checked to be working days by the service
+    if (meeting.lastDate().isAfter(meeting.getDate())) {
+      if (!meeting.getStart().isBefore(workEnd)) {
+        errors.rejectValue(
+            "start", FIELD_INVALID.name(), "Meeting start time must be before " + workEnd);
+      }
+      if (!meeting.getEnd().isAfter(workStart)) {
+        errors.rejectValue(
+            "end", FIELD_INVALID.name(), "Meeting end time must be after " + workStart);
+      }
     }
   }
 
@@ -0,0 +1,57 @@
+package se.callistaenterprise.scheduler.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import se.callistaenterprise.scheduler.config.AdmissionProperties;
+import se.callistaenterprise.scheduler.exception.TooManyRequestsException;
+
+class AdmissionInterceptorTest {
+
+  private final AdmissionInterceptor interceptor =
+      new AdmissionInterceptor(new AdmissionProperties(true, 1, 1, 1, 1, Duration.ofSeconds(2)));
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @Test
+  void testRequestOverTheLimitOfItsClassIsRejected() throws Exception {
+    // Arrange
+    MockHttpServletRequest firstWrite = new MockHttpServletRequest();
+    interceptor.preHandle(firstWrite, response, handler("write"));
+
+    // Act & Assert
+    assertThatThrownBy(
+            () -> interceptor.preHandle(new MockHttpServletRequest(), response, handler("write")))
+        .isInstanceOf(TooManyRequestsException.class)
+        .extracting("retryAfter")
+        .isEqualTo(Duration.ofSeconds(2));
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("read")))
+        .isTrue();
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("stream")))
+        .isTrue();
+
+    interceptor.afterCompletion(firstWrite, response, handler("write"), null);
+    assertThat(interceptor.limiter(EndpointClass.WRITE).getInFlight()).isZero();
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, handler("write")))
+        .isTrue();
+  }
+
+  private HandlerMethod handler(String name) throws NoSuchMethodException {
+    return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+  }
+
+  public static class Handlers {
+
+    @Admission(EndpointClass.READ)
+    public void read() {}
+
+    @Admission(EndpointClass.WRITE)
+    public void write() {}
+
+    public void stream() {}
+  }
+}
@@ -0,0 +1,73 @@
+package se.callistaenterprise.scheduler.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class GradientLimiterTest {
+
+  private static final long MILLISECOND = 1_000_000L;
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  void testRequestsOverTheLimitAreRejected() {
+    // Arrange
+    GradientLimiter limiter = new GradientLimiter(2, 2, now::get);
+
+    // Act
+    GradientLimiter.Permit first = limiter.tryAcquire().orElseThrow();
+    GradientLimiter.Permit second = limiter.tryAcquire().orElseThrow();
+    boolean thirdAdmitted = limiter.tryAcquire().isPresent();
+    first.release();
+    first.release();
+
+    // Assert
+    assertThat(thirdAdmitted).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(1);
+    assertThat(limiter.tryAcquire()).isPresent();
+    second.release();
+  }
+
+  @Test
+  void testLimitGrowsWhileLatencyIsStableAndShrinksWhenRequestsQueue() {
+    // Arrange
+    GradientLimiter limiter = new GradientLimiter(4, 100, now::get);
+    int initial = limiter.getLimit();
+
+    // Act
+    saturate(limiter, 50, MILLISECOND);
+    int grown = limiter.getLimit();
+    saturate(limiter, 20, 10 * MILLISECOND);
+    int shrunk = limiter.getLimit();
+
+    // Assert
+    assertThat(grown).isGreaterThan(initial).isLessThanOrEqualTo(100);
+    assertThat(shrunk).isLessThan(grown).isGreaterThanOrEqualTo(4);
+  }
+
+  @Test
+  void testLimitsMustBeOrdered() {
+    assertThatIllegalArgumentException().isThrownBy(() -> new GradientLimiter(0, 10, now::get));
+    assertThatIllegalArgumentException().isThrownBy(() -> new GradientLimiter(5, 4, now::get));
+  }
+
+  /*
+   Fills the limit and then releases every request after the given latency, rounds times
+  */
+  private void saturate(GradientLimiter limiter, int rounds, long latency) {
+    for (int round = 0; round < rounds; round++) {
+      List<GradientLimiter.Permit> permits = new ArrayList<>();
+      limiter.tryAcquire().ifPresent(permits::add);
+      while (permits.size() < limiter.getLimit()) {
+        permits.add(limiter.tryAcquire().orElseThrow());
+      }
+      now.addAndGet(latency);
+      permits.forEach(GradientLimiter.Permit::release);
+    }
+  }
+}
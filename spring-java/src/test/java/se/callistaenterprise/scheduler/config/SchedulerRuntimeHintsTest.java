@@ -0,0 +1,35 @@
+package se.callistaenterprise.scheduler.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import se.callistaenterprise.scheduler.dto.ImportResultDto;
+import se.callistaenterprise.scheduler.dto.MeetingChangesDto;
+import se.callistaenterprise.scheduler.dto.MeetingDto;
+
+class SchedulerRuntimeHintsTest {
+
+  @Test
+  void testDtosAreRegisteredForBinding() {
+    // Arrange
+    RuntimeHints hints = new RuntimeHints();
+
+    // Act
+    new SchedulerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+    // Assert
+    for (Class<?> type :
+        new Class<?>[] {MeetingDto.class, MeetingChangesDto.class, ImportResultDto.class}) {
+      assertThat(
+              RuntimeHintsPredicates.reflection()
+                  .onType(type)
+                  .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+          .accepts(hints);
+    }
+    assertThat(RuntimeHintsPredicates.reflection().onMethod(MeetingDto.class, "getTitle"))
+        .accepts(hints);
+  }
+}
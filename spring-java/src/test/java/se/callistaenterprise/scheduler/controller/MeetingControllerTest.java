@@ -1,31 +1,75 @@
 package se.callistaenterprise.scheduler.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static se.callistaenterprise.scheduler.model.Either.left;
 import static se.callistaenterprise.scheduler.model.Either.right;
+import static se.callistaenterprise.scheduler.validation.SchedulerErrors.ErrorCode.TIME_NOT_AVAILABLE;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.Writer;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.validation.Errors;
+import se.callistaenterprise.scheduler.config.AdmissionProperties;
+import se.callistaenterprise.scheduler.config.IdempotencyProperties;
+import se.callistaenterprise.scheduler.config.JsonCacheProperties;
+import se.callistaenterprise.scheduler.dto.BookingDto;
+import se.callistaenterprise.scheduler.dto.ImportResultDto;
+import se.callistaenterprise.scheduler.dto.MeetingChangesDto;
 import se.callistaenterprise.scheduler.dto.MeetingDto;
+import se.callistaenterprise.scheduler.dto.PlacementRequestDto;
 import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.exception.TooManyRequestsException;
+import se.callistaenterprise.scheduler.idempotency.IdempotencyStore;
+import se.callistaenterprise.scheduler.mapping.MeetingJsonCache;
 import se.callistaenterprise.scheduler.mapping.MeetingMapper;
+import se.callistaenterprise.scheduler.model.Booking;
 import se.callistaenterprise.scheduler.model.Either;
+import se.callistaenterprise.scheduler.model.ImportResult;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
+import se.callistaenterprise.scheduler.model.PlacementRequest;
+import se.callistaenterprise.scheduler.model.SuggestionStrategy;
 import se.callistaenterprise.scheduler.service.MeetingService;
+import se.callistaenterprise.scheduler.transfer.MeetingFormat;
+import se.callistaenterprise.scheduler.validation.SchedulerErrors;
 
 @WebMvcTest(MeetingController.class)
+@Import({MeetingJsonCache.class, IdempotencyStore.class})
+@EnableConfigurationProperties({
+  IdempotencyProperties.class,
+  AdmissionProperties.class,
+  JsonCacheProperties.class
+})
 class MeetingControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -68,6 +112,100 @@ class MeetingControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  void addMeeting_shouldBookOnce_whenRetriedWithSameIdempotencyKey() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    MeetingDto requestDto =
+        new MeetingDto(null, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+    Meeting meeting =
+        Meeting.builder()
+            .id(1L)
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 0))
+            .build();
+    when(meetingMapper.mapToMeeting(any(MeetingDto.class))).thenReturn(meeting);
+    when(meetingMapper.mapToMeetingDto(any(Meeting.class)))
+        .thenReturn(
+            new MeetingDto(1L, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+    when(meetingService.addMeeting(any(Meeting.class))).thenReturn(Either.left(meeting));
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              post("/api/scheduler/meetings")
+                  .header("Idempotency-Key", "retry-1")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(requestDto)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.id").value(1));
+    }
+    verify(meetingService, times(1)).addMeeting(any(Meeting.class));
+
+    requestDto.setTitle("Another meeting");
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  void addMeeting_shouldReturnTooManyRequests_whenWriteLimitIsReached() throws Exception {
+    when(meetingService.addMeeting(any()))
+        .thenThrow(new TooManyRequestsException("busy", Duration.ofMillis(1500)));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new MeetingDto(null, "Team Meeting", null, null, null))))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "2"))
+        .andExpect(jsonPath("$.httpStatusCode").value(429));
+  }
+
+  @Test
+  void addMeeting_shouldReturnAccepted_whenAsyncIsPreferred() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    MeetingDto requestDto =
+        new MeetingDto(null, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+    Meeting meeting =
+        Meeting.builder()
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 0))
+            .build();
+    UUID id = UUID.fromString("6f1c2a9e-3b4d-4e5f-8a7b-1c2d3e4f5a6b");
+    Booking booking = new Booking(id, meeting);
+    when(meetingMapper.mapToMeeting(any(MeetingDto.class))).thenReturn(meeting);
+    when(meetingService.submitMeeting(meeting)).thenReturn(booking);
+    when(meetingService.getBooking(id)).thenReturn(Either.left(booking));
+    when(meetingMapper.mapToBookingDto(booking))
+        .thenReturn(new BookingDto(id.toString(), "PENDING", null, List.of()));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDto)))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "http://localhost/api/scheduler/bookings/" + id))
+        .andExpect(jsonPath("$.status").value("PENDING"));
+    mockMvc
+        .perform(get("/api/scheduler/bookings/" + id))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(id.toString()));
+    mockMvc.perform(get("/api/scheduler/bookings/unknown")).andExpect(status().isNotFound());
+  }
+
   @Test
   void getMeeting_shouldReturnMeeting_whenMeetingExists() throws Exception {
     Meeting meeting =
@@ -117,6 +255,39 @@ class MeetingControllerTest {
         .andExpect(status().isBadRequest());
   }
 
+  @Test
+  void addMeeting_shouldReturnTheErrors_whenTimeIsNotAvailable() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    MeetingDto requestDto =
+        new MeetingDto(null, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+    Meeting meeting =
+        Meeting.builder()
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 0))
+            .build();
+    Errors errors = new SchedulerErrors(meeting);
+    errors.reject(TIME_NOT_AVAILABLE.name(), "Meeting overlaps another meeting");
+    when(meetingMapper.mapToMeeting(any(MeetingDto.class))).thenReturn(meeting);
+    when(meetingService.addMeeting(any(Meeting.class))).thenReturn(right(errors));
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              post("/api/scheduler/meetings")
+                  .header("Idempotency-Key", "rejected-1")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(requestDto)))
+          .andExpect(status().isBadRequest())
+          .andExpect(jsonPath("$.message").value("Meeting overlaps another meeting"))
+          .andExpect(jsonPath("$.errors[0].code").value("TIME_NOT_AVAILABLE"))
+          .andExpect(jsonPath("$.errors[0].field").doesNotExist());
+    }
+    // A rejection is not kept, so the retry is booked again
+    verify(meetingService, times(2)).addMeeting(any(Meeting.class));
+  }
+
   @Test
   void getMeetings_shouldReturnListOfMeetings() throws Exception {
     MeetingDto meeting1 =
@@ -149,7 +320,12 @@ class MeetingControllerTest {
 
     mockMvc
         .perform(get("/api/scheduler/meetings").contentType(MediaType.APPLICATION_JSON))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].title").value("Team Meeting"))
+        .andExpect(jsonPath("$[1].id").value(2))
+        .andExpect(jsonPath("$[1].start").value("12:00:00"));
   }
 
   @Test
@@ -158,7 +334,40 @@ class MeetingControllerTest {
 
     mockMvc
         .perform(get("/api/scheduler/meetings").contentType(MediaType.APPLICATION_JSON))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(content().json("[]"));
+  }
+
+  @Test
+  void getMeetings_shouldReturnCbor_whenCborIsPreferred() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    Meeting meeting =
+        Meeting.builder()
+            .id(1L)
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 0))
+            .build();
+    when(meetingService.getMeetings()).thenReturn(List.of(meeting));
+    when(meetingMapper.mapToMeetingDto(meeting))
+        .thenReturn(
+            new MeetingDto(1L, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+
+    byte[] body =
+        mockMvc
+            .perform(
+                get("/api/scheduler/meetings")
+                    .header("Accept", "application/json;q=0.5, application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    JsonNode dtos = new CBORMapper().readTree(body);
+    assertThat(dtos).hasSize(1);
+    assertThat(dtos.get(0).get("start").asInt()).isEqualTo(600);
   }
 
   @Test
@@ -212,4 +421,304 @@ class MeetingControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isBadRequest());
   }
+
+  @Test
+  void getMeetingChanges_shouldReturnChanges_whenVersionIsValid() throws Exception {
+    MeetingChanges changes = new MeetingChanges(7L, false, List.of(), List.of(3L));
+    when(meetingService.getMeetingChanges(5L)).thenReturn(changes);
+    when(meetingMapper.mapToMeetingChangesDto(changes))
+        .thenReturn(new MeetingChangesDto(7L, false, List.of(), List.of(3L)));
+
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/changes")
+                .param("since", "5")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(7))
+        .andExpect(jsonPath("$.fullResyncRequired").value(false))
+        .andExpect(jsonPath("$.removed[0]").value(3));
+  }
+
+  @Test
+  void getMeeting_shouldReturnCompactCbor_whenCborIsAccepted() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    Meeting meeting =
+        Meeting.builder()
+            .id(1L)
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 30))
+            .build();
+    when(meetingService.getMeeting(1L)).thenReturn(Either.left(meeting));
+    when(meetingMapper.mapToMeetingDto(meeting))
+        .thenReturn(
+            new MeetingDto(1L, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 30)));
+
+    byte[] body =
+        mockMvc
+            .perform(get("/api/scheduler/meetings/1").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    JsonNode dto = new CBORMapper().readTree(body);
+    assertThat(dto.get("title").asText()).isEqualTo("Team Meeting");
+    assertThat(dto.get("date").asLong()).isEqualTo(date.toEpochDay());
+    assertThat(dto.get("start").asInt()).isEqualTo(600);
+    assertThat(dto.get("end").asInt()).isEqualTo(690);
+  }
+
+  @Test
+  void addMeeting_shouldReadCbor_whenContentTypeIsCbor() throws Exception {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    Meeting meeting =
+        Meeting.builder()
+            .id(1L)
+            .title("Team Meeting")
+            .date(date)
+            .start(LocalTime.of(10, 0))
+            .end(LocalTime.of(11, 0))
+            .build();
+    MeetingDto responseDto =
+        new MeetingDto(1L, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0));
+    when(meetingMapper.mapToMeeting(
+            new MeetingDto(null, "Team Meeting", date, LocalTime.of(10, 0), LocalTime.of(11, 0))))
+        .thenReturn(meeting);
+    when(meetingService.addMeeting(meeting)).thenReturn(Either.left(meeting));
+    when(meetingMapper.mapToMeetingDto(meeting)).thenReturn(responseDto);
+
+    CBORMapper cborMapper = new CBORMapper();
+    byte[] request =
+        cborMapper.writeValueAsBytes(
+            Map.of("title", "Team Meeting", "date", date.toEpochDay(), "start", 600, "end", 660));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .content(request))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1));
+  }
+
+  @Test
+  void addMeeting_shouldReturnBadRequest_whenMinuteOfDayIsOutOfRange() throws Exception {
+    byte[] request =
+        new CBORMapper()
+            .writeValueAsBytes(
+                Map.of("title", "Team Meeting", "date", 20157, "start", 600, "end", 1440));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .content(request))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(meetingService);
+  }
+
+  @Test
+  void getMeetingChanges_shouldReturnBadRequest_whenVersionIsNegative() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/changes")
+                .param("since", "-1")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getSuggestedMeetings_shouldReturnSlots_whenParametersAreValid() throws Exception {
+    LocalDate from = LocalDate.of(2025, 3, 10);
+    Meeting slot =
+        Meeting.builder().date(from).start(LocalTime.of(10, 0)).end(LocalTime.of(10, 30)).build();
+    when(meetingService.suggestMeetings(
+            from, 28, 30L, 5, SuggestionStrategy.PREFERRED, LocalTime.of(10, 0)))
+        .thenReturn(List.of(slot));
+    when(meetingMapper.mapToMeetingDto(slot))
+        .thenReturn(new MeetingDto(null, null, from, LocalTime.of(10, 0), LocalTime.of(10, 30)));
+
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/suggestions")
+                .param("from", from.toString())
+                .param("duration", "30")
+                .param("strategy", "preferred")
+                .param("preferred", "10:00")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].date").value("2025-03-10"))
+        .andExpect(jsonPath("$[0].start").value("10:00:00"));
+  }
+
+  @Test
+  void getSuggestedMeetings_shouldReturnBadRequest_whenPreferredTimeIsMissing() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/suggestions")
+                .param("duration", "30")
+                .param("strategy", "preferred")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getSuggestedMeetings_shouldReturnBadRequest_whenStrategyIsUnknown() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/suggestions")
+                .param("duration", "30")
+                .param("strategy", "latest")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getDaysWithFreeTime_shouldReturnTheDays_whenParametersAreValid() throws Exception {
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    when(meetingService.findDaysWithGap(monday, 90, 120L, 2))
+        .thenReturn(List.of(monday.plusDays(2), monday.plusDays(7)));
+
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/free-days")
+                .param("duration", "120")
+                .param("from", "2025-03-10")
+                .param("count", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0]").value("2025-03-12"))
+        .andExpect(jsonPath("$[1]").value("2025-03-17"));
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/free-days").param("duration", "120").param("days", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void searchMeetings_shouldReturnTheMatches_whenParametersAreValid() throws Exception {
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    Meeting review =
+        new Meeting(7L, "Design review", monday, LocalTime.of(15, 0), LocalTime.of(15, 30));
+    when(meetingService.searchMeetings("design rev", monday, null, 50)).thenReturn(List.of(review));
+    when(meetingMapper.mapToMeetingDto(review))
+        .thenReturn(
+            new MeetingDto(7L, "Design review", monday, LocalTime.of(15, 0), LocalTime.of(15, 30)));
+
+    mockMvc
+        .perform(
+            get("/api/scheduler/meetings/search")
+                .param("q", "design rev")
+                .param("from", "2025-03-10"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(7))
+        .andExpect(jsonPath("$[0].title").value("Design review"));
+    mockMvc
+        .perform(get("/api/scheduler/meetings/search").param("q", " "))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void planMeetings_shouldReturnTheMeetings_whenAllArePlaced() throws Exception {
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    PlacementRequestDto requestDto = new PlacementRequestDto("Planning", 60L, monday, monday);
+    PlacementRequest request = new PlacementRequest("Planning", 60L, monday, monday);
+    Meeting planned = new Meeting(3L, "Planning", monday, LocalTime.of(8, 0), LocalTime.of(9, 0));
+    when(meetingMapper.mapToPlacementRequest(requestDto)).thenReturn(request);
+    when(meetingService.placeMeetings(List.of(request), 500L)).thenReturn(left(List.of(planned)));
+    when(meetingMapper.mapToMeetingDto(planned))
+        .thenReturn(new MeetingDto(3L, "Planning", monday, LocalTime.of(8, 0), LocalTime.of(9, 0)));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings/plan")
+                .param("budget", "500")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(requestDto))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(3))
+        .andExpect(jsonPath("$[0].start").value("08:00:00"));
+  }
+
+  @Test
+  void planMeetings_shouldReturnTheErrors_whenSomeDoNotFit() throws Exception {
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    PlacementRequestDto requestDto = new PlacementRequestDto("Offsite", 480L, monday, monday);
+    Errors errors = new SchedulerErrors(List.of(requestDto));
+    errors.reject(
+        TIME_NOT_AVAILABLE.name(),
+        "Meeting 0 'Offsite' does not fit between 2025-03-10 and 2025-03-10");
+    when(meetingMapper.mapToPlacementRequest(any(PlacementRequestDto.class)))
+        .thenReturn(new PlacementRequest("Offsite", 480L, monday, monday));
+    when(meetingService.placeMeetings(any(), eq(1000L))).thenReturn(right(errors));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(requestDto))))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors[0].code").value("TIME_NOT_AVAILABLE"));
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings/plan")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void importMeetings_shouldReturnTheResult_whenFormatIsKnown() throws Exception {
+    when(meetingService.importMeetings(any(), eq(MeetingFormat.ICALENDAR)))
+        .thenReturn(new ImportResult(2, 1, List.of("line 9: The event has no DTSTART")));
+    when(meetingMapper.mapToImportResultDto(any()))
+        .thenReturn(new ImportResultDto(2, 1, List.of("line 9: The event has no DTSTART")));
+
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings/import")
+                .param("format", "ics")
+                .contentType("text/calendar")
+                .content("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(1))
+        .andExpect(jsonPath("$.errors[0]").value("line 9: The event has no DTSTART"));
+  }
+
+  @Test
+  void importMeetings_shouldReturnBadRequest_whenFormatIsUnknown() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/scheduler/meetings/import")
+                .param("format", "xlsx")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[0]))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void exportMeetings_shouldStreamTheMeetings() throws Exception {
+    doAnswer(
+            invocation -> {
+              Writer output = invocation.getArgument(0);
+              output.write("id,title,date,start,end,end_date\r\n");
+              output.flush();
+              return null;
+            })
+        .when(meetingService)
+        .exportMeetings(any(), eq(MeetingFormat.CSV));
+
+    MvcResult result = mockMvc.perform(get("/api/scheduler/meetings/export")).andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andExpect(header().string("Content-Disposition", "attachment; filename=\"meetings.csv\""))
+        .andExpect(content().string("id,title,date,start,end,end_date\r\n"));
+  }
 }
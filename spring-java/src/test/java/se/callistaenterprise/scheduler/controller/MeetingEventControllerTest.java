@@ -0,0 +1,124 @@
+package se.callistaenterprise.scheduler.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import se.callistaenterprise.scheduler.config.AdmissionProperties;
+import se.callistaenterprise.scheduler.config.EventProperties;
+import se.callistaenterprise.scheduler.dto.MeetingDto;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.event.MeetingEventBroadcaster;
+import se.callistaenterprise.scheduler.mapping.MeetingMapper;
+
+@WebMvcTest(MeetingEventController.class)
+@Import(MeetingEventBroadcaster.class)
+@EnableConfigurationProperties({EventProperties.class, AdmissionProperties.class})
+@TestPropertySource(properties = "scheduler.events.max-subscribers=3")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MeetingEventControllerTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private MeetingEventBroadcaster meetingEventBroadcaster;
+
+  @MockitoBean private MeetingMapper meetingMapper;
+
+  @Test
+  void streamMeetingEvents_shouldReplayTheEventsAfterLastEventId() throws Exception {
+    when(meetingMapper.mapToMeetingDto(any(Meeting.class)))
+        .thenAnswer(
+            invocation -> {
+              Meeting meeting = invocation.getArgument(0);
+              return new MeetingDto(
+                  meeting.getId(),
+                  meeting.getTitle(),
+                  meeting.getDate(),
+                  meeting.getStart(),
+                  meeting.getEnd());
+            });
+    for (long id = 1; id <= 3; id++) {
+      meetingEventBroadcaster.meetingAdded(meeting(id));
+    }
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/api/scheduler/meetings/events")
+                    .header("Last-Event-ID", "1")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String content = awaitContent(result, "id:3");
+    assertThat(content).contains("id:2", "event:added").doesNotContain("id:1\n");
+    assertThat(meetingEventBroadcaster.getSubscriberCount()).isEqualTo(1);
+  }
+
+  @Test
+  void streamMeetingEvents_shouldResync_whenLastEventIdIsAheadOfTheBuffer() throws Exception {
+    meetingEventBroadcaster.meetingAdded(meeting(1));
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/api/scheduler/meetings/events")
+                    .header("Last-Event-ID", "41")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    assertThat(awaitContent(result, "event:resync")).contains("data:2");
+    assertThat(meetingEventBroadcaster.getSubscriberCount()).isZero();
+  }
+
+  @Test
+  void streamMeetingEvents_shouldReturnServiceUnavailable_whenThereAreTooManySubscribers()
+      throws Exception {
+    for (int i = 0; i < 3; i++) {
+      mockMvc
+          .perform(get("/api/scheduler/meetings/events").accept(MediaType.TEXT_EVENT_STREAM))
+          .andExpect(request().asyncStarted());
+    }
+
+    mockMvc
+        .perform(get("/api/scheduler/meetings/events").accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "5"));
+    assertThat(meetingEventBroadcaster.getSubscriberCount()).isEqualTo(3);
+  }
+
+  private static String awaitContent(MvcResult result, String expected) throws Exception {
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    String content = result.getResponse().getContentAsString();
+    while (!content.contains(expected) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      content = result.getResponse().getContentAsString();
+    }
+    assertThat(content).contains(expected);
+    return content;
+  }
+
+  private static Meeting meeting(long id) {
+    return new Meeting(id, "Meeting " + id, MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+  }
+}
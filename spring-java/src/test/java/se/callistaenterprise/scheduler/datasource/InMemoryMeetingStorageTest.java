@@ -0,0 +1,127 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class InMemoryMeetingStorageTest extends MeetingStorageTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+  private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+  @Override
+  MeetingStorage createStorage(int journalCapacity) {
+    return new InMemoryMeetingStorage(journalCapacity);
+  }
+
+  @Test
+  void testReadsCompleteWhileABulkWriteHoldsTheStorage() throws Exception {
+    // Arrange
+    InMemoryMeetingStorage storage = new InMemoryMeetingStorage();
+    Meeting stored = storage.add(meeting("Stored", 9));
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    storage.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {
+            writing.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {}
+        });
+    CompletableFuture<List<Meeting>> bulkWrite =
+        CompletableFuture.supplyAsync(
+            () -> storage.addAllIfFree(List.of(meeting("First", 10), meeting("Second", 11))));
+    assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // Act
+    CompletableFuture<List<Meeting>> overlapping =
+        CompletableFuture.supplyAsync(
+            () -> storage.getOverlapping(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+    CompletableFuture<Meeting> byId = CompletableFuture.supplyAsync(() -> storage.getById(1L));
+
+    // Assert
+    try {
+      assertThat(overlapping.get(5, TimeUnit.SECONDS)).containsExactly(stored);
+      assertThat(byId.get(5, TimeUnit.SECONDS)).isEqualTo(stored);
+      assertThat(bulkWrite).isNotDone();
+    } finally {
+      release.countDown();
+    }
+    assertThat(bulkWrite.get(5, TimeUnit.SECONDS)).hasSize(2);
+  }
+
+  @Test
+  void testOnlyBookingsOfTheSameDayWaitForEachOther() throws Exception {
+    // Arrange
+    CountDownLatch checking = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    InMemoryMeetingStorage storage =
+        new InMemoryMeetingStorage() {
+          @Override
+          public List<Meeting> getOverlapping(LocalDateTime from, LocalDateTime to) {
+            if (from.toLocalDate().equals(MONDAY) && checking.getCount() > 0) {
+              checking.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+            return super.getOverlapping(from, to);
+          }
+        };
+    CompletableFuture<List<Meeting>> first =
+        CompletableFuture.supplyAsync(() -> storage.addAllIfFree(List.of(meeting("First", 9))));
+    assertThat(checking.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // Act
+    CompletableFuture<List<Meeting>> otherDay =
+        CompletableFuture.supplyAsync(
+            () -> storage.addAllIfFree(List.of(meeting("Other day", TUESDAY, 9))));
+    CompletableFuture<List<Meeting>> sameDay =
+        CompletableFuture.supplyAsync(() -> storage.addAllIfFree(List.of(meeting("Second", 9))));
+
+    // Assert
+    try {
+      assertThat(otherDay.get(5, TimeUnit.SECONDS)).hasSize(1);
+      Thread.sleep(100);
+      assertThat(sameDay).isNotDone();
+    } finally {
+      release.countDown();
+    }
+    assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(1);
+    assertThat(sameDay.get(5, TimeUnit.SECONDS)).isEmpty();
+    assertThat(storage.getAll())
+        .extracting(Meeting::getTitle)
+        .containsExactlyInAnyOrder("First", "Other day");
+  }
+
+  private static Meeting meeting(String title, int hour) {
+    return meeting(title, MONDAY, hour);
+  }
+
+  private static Meeting meeting(String title, LocalDate date, int hour) {
+    return Meeting.builder()
+        .title(title)
+        .date(date)
+        .start(LocalTime.of(hour, 0))
+        .end(LocalTime.of(hour + 1, 0))
+        .build();
+  }
+}
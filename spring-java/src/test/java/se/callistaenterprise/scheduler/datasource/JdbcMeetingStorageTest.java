@@ -0,0 +1,102 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class JdbcMeetingStorageTest extends MeetingStorageTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  @Override
+  MeetingStorage createStorage(int journalCapacity) {
+    return new JdbcMeetingStorage(newDataSource(), journalCapacity);
+  }
+
+  @Test
+  void testTableWithDayColumnsIsMigrated() throws Exception {
+    // Arrange
+    JdbcDataSource dataSource = newDataSource();
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          """
+          CREATE TABLE meeting (
+            id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+            title VARCHAR(255),
+            meeting_date DATE NOT NULL,
+            start_time TIME NOT NULL,
+            end_time TIME NOT NULL
+          )""");
+      statement.execute(
+          "CREATE INDEX meeting_date_start_idx ON meeting (meeting_date, start_time)");
+      statement.execute(
+          """
+          INSERT INTO meeting (title, meeting_date, start_time, end_time)
+          VALUES ('Planning', DATE '2025-03-10', TIME '09:00', TIME '10:30')""");
+    }
+
+    // Act
+    JdbcMeetingStorage storage = new JdbcMeetingStorage(dataSource);
+    Meeting added =
+        storage.add(
+            Meeting.builder()
+                .title("Review")
+                .date(MONDAY)
+                .start(LocalTime.of(11, 0))
+                .end(LocalTime.of(12, 0))
+                .build());
+
+    // Assert
+    assertThat(storage.getOverlapping(MONDAY.atTime(10, 0), MONDAY.atTime(11, 30)))
+        .extracting(Meeting::getTitle, Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple("Planning", LocalTime.of(9, 0), LocalTime.of(10, 30)),
+            tuple("Review", LocalTime.of(11, 0), LocalTime.of(12, 0)));
+    assertThat(added.getId()).isEqualTo(2L);
+  }
+
+  @Test
+  void testLongMeetingIsFoundByAWindowLongAfterItsStart() {
+    // Arrange
+    JdbcDataSource dataSource = newDataSource();
+    MeetingStorage storage = new JdbcMeetingStorage(dataSource);
+    Meeting conference =
+        storage.add(
+            Meeting.builder()
+                .title("Conference")
+                .date(MONDAY)
+                .start(LocalTime.of(9, 0))
+                .endDate(MONDAY.plusDays(4))
+                .end(LocalTime.of(17, 0))
+                .build());
+
+    // Act
+    MeetingStorage reopened = new JdbcMeetingStorage(dataSource);
+
+    // Assert
+    assertThat(
+            storage.getOverlapping(
+                MONDAY.plusDays(3).atTime(9, 0), MONDAY.plusDays(3).atTime(10, 0)))
+        .containsExactly(conference);
+    assertThat(
+            reopened.getOverlapping(
+                MONDAY.plusDays(4).atTime(16, 0), MONDAY.plusDays(4).atTime(18, 0)))
+        .containsExactly(conference);
+  }
+
+  // A database of its own for every storage
+  private static JdbcDataSource newDataSource() {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    return dataSource;
+  }
+}
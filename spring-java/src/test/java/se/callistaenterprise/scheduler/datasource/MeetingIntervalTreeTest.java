@@ -0,0 +1,105 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class MeetingIntervalTreeTest {
+
+  private static final LocalDateTime EPOCH = LocalDate.of(2025, 3, 10).atStartOfDay();
+
+  @Test
+  void testOverlappingMatchesABruteForceScan() {
+    // Arrange
+    Random random = new Random(42L);
+    MeetingIntervalTree tree = new MeetingIntervalTree();
+    List<Meeting> meetings = new ArrayList<>();
+    for (long id = 1; id <= 2_000; id++) {
+      LocalDateTime start = EPOCH.plusMinutes(15L * random.nextInt(2_000));
+      Meeting meeting = meeting(id, start, start.plusMinutes(15L * (1 + random.nextInt(200))));
+      meetings.add(meeting);
+      tree.insert(meeting);
+    }
+    for (int i = 0; i < 500; i++) {
+      Meeting removed = meetings.remove(random.nextInt(meetings.size()));
+      assertThat(tree.remove(removed)).isTrue();
+    }
+
+    // Act & Assert
+    assertThat(tree.size()).isEqualTo(meetings.size());
+    assertThat(tree.all()).isSortedAccordingTo(Comparator.comparing(Meeting::startDateTime));
+    for (int i = 0; i < 200; i++) {
+      LocalDateTime from = EPOCH.plusMinutes(random.nextInt(40_000));
+      LocalDateTime to = from.plusMinutes(1 + random.nextInt(600));
+      List<Meeting> expected =
+          meetings.stream()
+              .filter(m -> m.startDateTime().isBefore(to) && m.endDateTime().isAfter(from))
+              .toList();
+      assertThat(tree.overlapping(from, to)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  @Test
+  void testInsertAllBuildsTheSameTreeAsInsertingOneByOne() {
+    // Arrange
+    Random random = new Random(7L);
+    MeetingIntervalTree bulk = new MeetingIntervalTree();
+    MeetingIntervalTree single = new MeetingIntervalTree();
+    long id = 1;
+
+    // Act, the first batch is built in one pass, the last merged with the tree
+    for (int batchSize : List.of(1_000, 10, 5_000)) {
+      List<Meeting> batch = new ArrayList<>();
+      for (int i = 0; i < batchSize; i++, id++) {
+        LocalDateTime start = EPOCH.plusMinutes(15L * random.nextInt(5_000));
+        batch.add(meeting(id, start, start.plusMinutes(15L * (1 + random.nextInt(20)))));
+      }
+      bulk.insertAll(batch);
+      batch.forEach(single::insert);
+    }
+
+    // Assert
+    assertThat(bulk.size()).isEqualTo(6_010);
+    assertThat(bulk.all()).containsExactlyElementsOf(single.all());
+    for (int i = 0; i < 100; i++) {
+      LocalDateTime from = EPOCH.plusMinutes(random.nextInt(75_000));
+      LocalDateTime to = from.plusMinutes(1 + random.nextInt(600));
+      assertThat(bulk.overlapping(from, to))
+          .containsExactlyElementsOf(single.overlapping(from, to));
+    }
+  }
+
+  @Test
+  void testOverlapIsHalfOpenAndIncludesEnclosure() {
+    // Arrange
+    MeetingIntervalTree tree = new MeetingIntervalTree();
+    Meeting overnight = meeting(1L, EPOCH.plusHours(22), EPOCH.plusDays(1).plusHours(6));
+    tree.insert(overnight);
+
+    // Act & Assert
+    assertThat(tree.overlapping(EPOCH.plusHours(20), EPOCH.plusHours(22))).isEmpty();
+    assertThat(tree.overlapping(EPOCH.plusDays(1).plusHours(6), EPOCH.plusDays(2))).isEmpty();
+    assertThat(tree.overlapping(EPOCH.plusHours(23), EPOCH.plusHours(23).plusMinutes(30)))
+        .containsExactly(overnight);
+    assertThat(tree.overlapping(EPOCH, EPOCH.plusDays(2))).containsExactly(overnight);
+    assertThat(tree.remove(meeting(2L, EPOCH.plusHours(22), EPOCH.plusHours(23)))).isFalse();
+  }
+
+  private static Meeting meeting(Long id, LocalDateTime start, LocalDateTime end) {
+    return Meeting.builder()
+        .id(id)
+        .title("Meeting " + id)
+        .date(start.toLocalDate())
+        .start(start.toLocalTime())
+        .endDate(end.toLocalDate())
+        .end(end.toLocalTime())
+        .build();
+  }
+}
@@ -3,19 +3,31 @@ package se.callistaenterprise.scheduler.datasource;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatRuntimeException;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.MeetingChanges;
 
-class MeetingStorageTest {
+abstract class MeetingStorageTest {
 
   MeetingStorage meetingStorage;
 
+  abstract MeetingStorage createStorage(int journalCapacity);
+
   @BeforeEach
   public void beforeEach() {
-    meetingStorage = new MeetingStorage();
+    meetingStorage = createStorage(10_000);
   }
 
   @Test
@@ -126,4 +138,330 @@ class MeetingStorageTest {
     assertThat(meetingStorage.size()).isEqualTo(2);
     assertThat(meetingStorage.getAll()).containsExactlyInAnyOrder(meeting1, meeting2);
   }
+
+  @Test
+  void testListenersAreNotifiedOfAddAndRemove() {
+    // Arrange
+    List<String> changes = new ArrayList<>();
+    meetingStorage.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {
+            changes.add("added " + meeting.getTitle());
+          }
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {
+            changes.add("removed " + meeting.getTitle());
+          }
+        });
+
+    Meeting meeting =
+        Meeting.builder()
+            .title("Sprint Planning")
+            .date(LocalDate.now())
+            .start(LocalTime.of(13, 0))
+            .end(LocalTime.of(14, 0))
+            .build();
+
+    // Act
+    Meeting inserted = meetingStorage.add(meeting);
+    boolean removed = meetingStorage.remove(inserted.getId());
+    boolean removedAgain = meetingStorage.remove(inserted.getId());
+
+    // Assert
+    assertThat(removed).isTrue();
+    assertThat(removedAgain).isFalse();
+    assertThat(changes).containsExactly("added Sprint Planning", "removed Sprint Planning");
+  }
+
+  @Test
+  void testChangesSinceVersionReturnsNetAddsAndRemoves() {
+    // Arrange
+    Meeting kept = meetingStorage.add(meeting("Kept", 9));
+    long version = meetingStorage.getVersion();
+    Meeting removedLater = meetingStorage.add(meeting("Removed later", 11));
+    Meeting addedLater = meetingStorage.add(meeting("Added later", 13));
+    meetingStorage.remove(removedLater.getId());
+    meetingStorage.remove(kept.getId());
+
+    // Act
+    MeetingChanges changes = meetingStorage.getChangesSince(version);
+
+    // Assert
+    assertThat(changes.isFullResyncRequired()).isFalse();
+    assertThat(changes.getVersion()).isEqualTo(version + 4);
+    assertThat(changes.getAdded()).containsExactly(addedLater);
+    assertThat(changes.getRemoved()).containsExactly(kept.getId());
+    assertThat(meetingStorage.getChangesSince(changes.getVersion()).getAdded()).isEmpty();
+  }
+
+  @Test
+  void testChangesSinceTruncatedVersionRequiresFullResync() {
+    // Arrange
+    meetingStorage = createStorage(2);
+    meetingStorage.add(meeting("First", 9));
+    meetingStorage.add(meeting("Second", 11));
+    meetingStorage.add(meeting("Third", 13));
+
+    // Act & Assert
+    assertThat(meetingStorage.getChangesSince(0L).isFullResyncRequired()).isTrue();
+    assertThat(meetingStorage.getChangesSince(0L).getVersion()).isEqualTo(3L);
+    assertThat(meetingStorage.getChangesSince(1L).isFullResyncRequired()).isFalse();
+    assertThat(meetingStorage.getChangesSince(1L).getAdded())
+        .extracting(Meeting::getTitle)
+        .containsExactly("Second", "Third");
+  }
+
+  @Test
+  void testChangesSinceVersionNotReachedRequiresFullResync() {
+    // Arrange
+    meetingStorage.add(meeting("First", 9));
+
+    // Act
+    MeetingChanges changes = meetingStorage.getChangesSince(5L);
+
+    // Assert
+    assertThat(changes.isFullResyncRequired()).isTrue();
+    assertThat(changes.getVersion()).isEqualTo(1L);
+    assertThat(meetingStorage.getChangesSince(1L).isFullResyncRequired()).isFalse();
+  }
+
+  @Test
+  void testAddAllAssignsIdsInOrder() {
+    // Arrange
+    List<Meeting> meetings =
+        List.of(meeting("First", 9), meeting("Second", 11), meeting("Third", 13));
+
+    // Act
+    List<Meeting> inserted = meetingStorage.addAll(meetings);
+
+    // Assert
+    assertThat(inserted).extracting(Meeting::getId).doesNotContainNull().isSorted();
+    assertThat(meetingStorage.getById(inserted.get(1).getId()).getTitle()).isEqualTo("Second");
+    assertThat(meetingStorage.getChangesSince(0L).getAdded())
+        .extracting(Meeting::getTitle)
+        .containsExactly("First", "Second", "Third");
+  }
+
+  @Test
+  void testAddAllIfFreeSkipsMeetingsOverlappingStoredOrEarlierOnes() {
+    // Arrange
+    meetingStorage.add(meeting("Stored", 9));
+    Meeting overlapsStored = meeting("Overlaps stored", 9);
+    Meeting free = meeting("Free", 11);
+    Meeting overlapsFree = meeting("Overlaps free", 11);
+    Meeting touches = meeting("Touches", 12);
+
+    // Act
+    List<Meeting> added =
+        meetingStorage.addAllIfFree(List.of(overlapsStored, free, overlapsFree, touches));
+
+    // Assert
+    assertThat(added).extracting(Meeting::getTitle).containsExactly("Free", "Touches");
+    assertThat(overlapsStored.getId()).isNull();
+    assertThat(overlapsFree.getId()).isNull();
+    assertThat(meetingStorage.size()).isEqualTo(3);
+  }
+
+  @Test
+  void testAddAllIfFreeChecksAgainstOverlappingStoredMeetingsAndLaterOnes() {
+    // Arrange
+    Meeting nine = meeting("Nine", 9);
+    Meeting longer = meeting("Longer", 9);
+    longer.setStart(LocalTime.of(9, 30));
+    longer.setEnd(LocalTime.of(11, 0));
+    meetingStorage.addAll(List.of(nine, longer, meeting("Fourteen", 14)));
+    Meeting enclosing = meeting("Enclosing", 13);
+    enclosing.setEnd(LocalTime.of(16, 30));
+
+    // Act
+    List<Meeting> added =
+        meetingStorage.addAllIfFree(
+            List.of(
+                meeting("Late", 16),
+                enclosing,
+                meeting("Ten", 10),
+                meeting("Eleven", 11),
+                meeting("Thirteen", 13)));
+
+    // Assert
+    assertThat(added).extracting(Meeting::getTitle).containsExactly("Late", "Eleven", "Thirteen");
+    assertThat(enclosing.getId()).isNull();
+    assertThat(meetingStorage.size()).isEqualTo(6);
+  }
+
+  @Test
+  void testAddAllIfAllFreeAddsAllOrNone() {
+    // Arrange
+    meetingStorage.add(meeting("Stored", 9));
+    Meeting free = meeting("Free", 11);
+    Meeting overlapsStored = meeting("Overlaps stored", 9);
+    Meeting overlapsFree = meeting("Overlaps free", 11);
+    Meeting touches = meeting("Touches", 12);
+
+    // Act
+    boolean conflicting = meetingStorage.addAllIfAllFree(List.of(free, overlapsStored));
+    boolean overlapping = meetingStorage.addAllIfAllFree(List.of(free, overlapsFree));
+    boolean added = meetingStorage.addAllIfAllFree(List.of(touches, free));
+
+    // Assert
+    assertThat(conflicting).isFalse();
+    assertThat(overlapping).isFalse();
+    assertThat(overlapsStored.getId()).isNull();
+    assertThat(overlapsFree.getId()).isNull();
+    assertThat(added).isTrue();
+    assertThat(touches.getId()).isNotNull();
+    assertThat(free.getId()).isNotNull();
+    assertThat(meetingStorage.size()).isEqualTo(3);
+  }
+
+  @Test
+  void testGetByDateAndOverlapping() {
+    // Arrange
+    meetingStorage.add(meeting("Late", 13));
+    meetingStorage.add(meeting("Early", 9));
+    Meeting tomorrow = meeting("Tomorrow", 9);
+    tomorrow.setDate(LocalDate.now().plusDays(1));
+    meetingStorage.add(tomorrow);
+    LocalDateTime today = LocalDate.now().atStartOfDay();
+
+    // Act
+    List<Meeting> byDate = meetingStorage.getByDate(LocalDate.now());
+    List<Meeting> overlapping =
+        meetingStorage.getOverlapping(
+            today.plusHours(9).plusMinutes(30), today.plusHours(13).plusMinutes(1));
+    List<Meeting> touching =
+        meetingStorage.getOverlapping(today.plusHours(10), today.plusHours(13));
+    List<Meeting> enclosed =
+        meetingStorage.getOverlapping(
+            today.plusHours(13).plusMinutes(15), today.plusHours(13).plusMinutes(45));
+
+    // Assert
+    assertThat(byDate).extracting(Meeting::getTitle).containsExactly("Early", "Late");
+    assertThat(overlapping).extracting(Meeting::getTitle).containsExactly("Early", "Late");
+    assertThat(touching).isEmpty();
+    assertThat(enclosed).extracting(Meeting::getTitle).containsExactly("Late");
+  }
+
+  @Test
+  void testMultiDayMeetingIsFoundOnEveryDayItCovers() {
+    // Arrange
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    Meeting offsite =
+        meetingStorage.add(
+            Meeting.builder()
+                .title("Offsite")
+                .date(monday)
+                .start(LocalTime.of(22, 0))
+                .endDate(monday.plusDays(2))
+                .end(LocalTime.of(2, 0))
+                .build());
+
+    // Act & Assert
+    assertThat(meetingStorage.getByDate(monday.plusDays(1))).containsExactly(offsite);
+    assertThat(meetingStorage.getByDate(monday.plusDays(2))).containsExactly(offsite);
+    assertThat(meetingStorage.getByDate(monday.plusDays(3))).isEmpty();
+    assertThat(meetingStorage.getById(offsite.getId()).getEndDate()).isEqualTo(monday.plusDays(2));
+  }
+
+  @Test
+  void testRemoveEndedByRemovesExpiredMeetingsInBatches() {
+    // Arrange
+    LocalDate monday = LocalDate.of(2025, 3, 10);
+    List<Meeting> expired = new ArrayList<>();
+    for (int day = 0; day < 3; day++) {
+      Meeting meeting = meeting("Expired", 9);
+      meeting.setDate(monday.plusDays(day));
+      expired.add(meetingStorage.add(meeting));
+    }
+    Meeting running = meeting("Running", 22);
+    running.setDate(monday.plusDays(2));
+    running.setEndDate(monday.plusDays(3));
+    running.setEnd(LocalTime.of(2, 0));
+    meetingStorage.add(running);
+    Meeting current = meetingStorage.add(meeting("Current", 9));
+    List<Meeting> removedMeetings = new ArrayList<>();
+    meetingStorage.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {}
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {
+            removedMeetings.add(meeting);
+          }
+        });
+    LocalDateTime cutoff = monday.plusDays(3).atStartOfDay();
+
+    // Act
+    List<Meeting> first = meetingStorage.removeEndedBy(cutoff, 2);
+    List<Meeting> second = meetingStorage.removeEndedBy(cutoff, 2);
+    List<Meeting> third = meetingStorage.removeEndedBy(cutoff, 2);
+
+    // Assert
+    assertThat(first).hasSize(2);
+    assertThat(second).hasSize(1);
+    assertThat(third).isEmpty();
+    assertThat(removedMeetings).containsExactlyInAnyOrderElementsOf(expired);
+    assertThat(meetingStorage.sort())
+        .extracting(Meeting::getTitle)
+        .containsExactly("Running", "Current");
+    assertThat(meetingStorage.getById(current.getId())).isNotNull();
+    assertThat(meetingStorage.size()).isEqualTo(2);
+  }
+
+  @Test
+  void testStoragesDoNotShareState() {
+    // Arrange
+    MeetingStorage other = createStorage(10);
+
+    // Act
+    Meeting inThis = meetingStorage.add(meeting("This", 9));
+    Meeting inOther = other.add(meeting("Other", 9));
+
+    // Assert
+    assertThat(inThis.getId()).isEqualTo(inOther.getId());
+    assertThat(meetingStorage.getAll()).extracting(Meeting::getTitle).containsExactly("This");
+    assertThat(other.getAll()).extracting(Meeting::getTitle).containsExactly("Other");
+  }
+
+  @Test
+  void testWaitingForTheStorageIsRecorded(@TempDir Path directory) throws Exception {
+    // Arrange
+    Path file = directory.resolve("storage.jfr");
+    Thread writer = new Thread(() -> meetingStorage.add(meeting("Waiting", 9)));
+
+    // Act
+    try (Recording recording = new Recording()) {
+      recording.enable("scheduler.StorageLock").withThreshold(Duration.ZERO);
+      recording.start();
+      synchronized (meetingStorage) {
+        writer.start();
+        Thread.sleep(100);
+      }
+      writer.join();
+      recording.stop();
+      recording.dump(file);
+    }
+
+    // Assert
+    RecordedEvent event =
+        RecordingFile.readAllEvents(file).stream()
+            .filter(recorded -> recorded.getString("operation").equals("insert"))
+            .findFirst()
+            .orElseThrow();
+    assertThat(event.getDuration("lockWait")).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+    assertThat(event.getDuration()).isGreaterThanOrEqualTo(event.getDuration("lockWait"));
+    assertThat(event.getInt("storeSize")).isEqualTo(1);
+  }
+
+  private Meeting meeting(String title, int hour) {
+    return Meeting.builder()
+        .title(title)
+        .date(LocalDate.now())
+        .start(LocalTime.of(hour, 0))
+        .end(LocalTime.of(hour + 1, 0))
+        .build();
+  }
 }
@@ -0,0 +1,240 @@
+package se.callistaenterprise.scheduler.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class TieredMeetingStorageTest extends MeetingStorageTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  @TempDir static Path directory;
+
+  private final AtomicReference<LocalDate> today = new AtomicReference<>(MONDAY);
+
+  @Override
+  MeetingStorage createStorage(int journalCapacity) {
+    return new TieredMeetingStorage(journalCapacity, 7, directory, LocalDate::now);
+  }
+
+  @Test
+  void testAgedDaysAreArchivedAndStillRead() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    Meeting old = storage.add(meeting("Old", MONDAY.minusDays(21), 9, null));
+    Meeting offsite =
+        storage.add(meeting("Offsite", MONDAY.minusDays(14), 22, MONDAY.minusDays(12)));
+    Meeting untitled = storage.add(meeting(null, MONDAY.minusDays(21), 13, null));
+    Meeting current = storage.add(meeting("Current", MONDAY, 9, null));
+
+    // Act
+    storage.compact();
+
+    // Assert
+    assertThat(storage.hotSize()).isEqualTo(1);
+    assertThat(storage.segmentCount()).isEqualTo(1);
+    assertThat(storage.size()).isEqualTo(4);
+    assertThat(storage.sort()).containsExactly(old, untitled, offsite, current);
+    assertThat(storage.getByDate(MONDAY.minusDays(13))).containsExactly(offsite);
+    assertThat(storage.getOverlapping(MONDAY.minusDays(12).atStartOfDay(), MONDAY.atTime(10, 0)))
+        .containsExactly(offsite, current);
+    assertThat(storage.getById(untitled.getId())).isEqualTo(untitled);
+    assertThat(storage.getAll()).containsExactlyInAnyOrder(old, untitled, offsite, current);
+    storage.close();
+  }
+
+  @Test
+  void testArchivedDaysCanBeChanged() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    LocalDate day = MONDAY.minusDays(21);
+    Meeting removed = storage.add(meeting("Removed", day, 9, null));
+    Meeting kept = storage.add(meeting("Kept", day, 11, null));
+    storage.compact();
+    long version = storage.getVersion();
+
+    // Act
+    boolean wasRemoved = storage.remove(removed.getId());
+    Meeting late = storage.add(meeting("Late", day, 14, null));
+    List<Meeting> beforeCompaction = storage.getByDate(day);
+    storage.compact();
+
+    // Assert
+    assertThat(wasRemoved).isTrue();
+    assertThat(storage.getById(removed.getId())).isNull();
+    assertThat(beforeCompaction).containsExactly(kept, late);
+    assertThat(storage.getByDate(day)).containsExactly(kept, late);
+    assertThat(storage.hotSize()).isZero();
+    assertThat(storage.size()).isEqualTo(2);
+    assertThat(storage.getChangesSince(version).getRemoved()).containsExactly(removed.getId());
+    storage.close();
+  }
+
+  @Test
+  void testSegmentsAreMergedWhenThereAreTooMany() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 0, directory, today::get);
+
+    // Act
+    for (int i = 0; i <= TieredMeetingStorage.MAX_SEGMENTS; i++) {
+      storage.add(meeting("Day " + i, today.get(), 9, null));
+      today.set(today.get().plusDays(1));
+      storage.compact();
+    }
+
+    // Assert
+    assertThat(storage.segmentCount()).isEqualTo(1);
+    assertThat(storage.hotSize()).isZero();
+    assertThat(storage.sort())
+        .extracting(Meeting::getTitle)
+        .hasSize(TieredMeetingStorage.MAX_SEGMENTS + 1)
+        .startsWith("Day 0", "Day 1")
+        .endsWith("Day " + TieredMeetingStorage.MAX_SEGMENTS);
+    storage.close();
+  }
+
+  @Test
+  void testPurgedArchivedDaysAreDropped() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    storage.add(meeting("First", MONDAY.minusDays(21), 9, null));
+    storage.compact();
+    Meeting second = storage.add(meeting("Second", MONDAY.minusDays(14), 9, null));
+    storage.compact();
+    Meeting current = storage.add(meeting("Current", MONDAY, 9, null));
+
+    // Act
+    List<Meeting> removed = storage.removeEndedBy(MONDAY.minusDays(20).atStartOfDay(), 10);
+
+    // Assert
+    assertThat(removed).extracting(Meeting::getTitle).containsExactly("First");
+    assertThat(storage.segmentCount()).isEqualTo(1);
+    assertThat(storage.sort()).containsExactly(second, current);
+    storage.close();
+  }
+
+  @Test
+  void testPartlyPurgedDaysCountTowardsMerging() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    LocalDate day = MONDAY.minusDays(21);
+    for (int hour : new int[] {9, 10, 11, 14}) {
+      storage.add(meeting("Meeting " + hour, day, hour, null));
+    }
+    storage.compact();
+    storage.add(meeting("Later", MONDAY.minusDays(14), 9, null));
+    storage.compact();
+    assertThat(storage.segmentCount()).isEqualTo(2);
+
+    // Act
+    List<Meeting> removed = storage.removeEndedBy(day.atTime(12, 0), 10);
+    storage.compact();
+
+    // Assert
+    assertThat(removed).hasSize(3);
+    assertThat(storage.segmentCount()).isEqualTo(1);
+    assertThat(storage.sort()).extracting(Meeting::getTitle).containsExactly("Meeting 14", "Later");
+    storage.close();
+  }
+
+  @Test
+  void testListenersAreToldWhichDaysAreArchived() {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    List<LocalDate> archived = new ArrayList<>();
+    storage.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {}
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {}
+
+          @Override
+          public void daysArchived(LocalDate before) {
+            archived.add(before);
+          }
+        });
+    storage.add(meeting("Old", MONDAY.minusDays(21), 9, null));
+
+    // Act
+    storage.compact();
+    today.set(MONDAY.plusDays(1));
+    storage.compact();
+
+    // Assert
+    assertThat(archived).containsExactly(MONDAY.minusDays(7), MONDAY.minusDays(6));
+    storage.close();
+  }
+
+  @Test
+  void testReadsCompleteWhileABulkWriteHoldsTheStorage() throws Exception {
+    // Arrange
+    TieredMeetingStorage storage = new TieredMeetingStorage(100, 7, directory, today::get);
+    Meeting archived = storage.add(meeting("Archived", MONDAY.minusDays(21), 9, null));
+    storage.compact();
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    storage.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {
+            writing.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {}
+        });
+    CompletableFuture<List<Meeting>> bulkWrite =
+        CompletableFuture.supplyAsync(
+            () ->
+                storage.addAllIfFree(
+                    List.of(
+                        meeting("First", MONDAY, 10, null), meeting("Second", MONDAY, 11, null))));
+    assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // Act
+    CompletableFuture<List<Meeting>> overlapping =
+        CompletableFuture.supplyAsync(
+            () -> storage.getOverlapping(MONDAY.minusDays(21).atStartOfDay(), MONDAY.atTime(9, 0)));
+    CompletableFuture<Meeting> byId =
+        CompletableFuture.supplyAsync(() -> storage.getById(archived.getId()));
+
+    // Assert
+    try {
+      assertThat(overlapping.get(5, TimeUnit.SECONDS)).containsExactly(archived);
+      assertThat(byId.get(5, TimeUnit.SECONDS)).isEqualTo(archived);
+      assertThat(bulkWrite).isNotDone();
+    } finally {
+      release.countDown();
+    }
+    assertThat(bulkWrite.get(5, TimeUnit.SECONDS)).hasSize(2);
+    storage.close();
+  }
+
+  private static Meeting meeting(String title, LocalDate date, int hour, LocalDate endDate) {
+    return Meeting.builder()
+        .title(title)
+        .date(date)
+        .start(LocalTime.of(hour, 0))
+        .endDate(endDate)
+        .end(LocalTime.of(endDate != null ? 2 : hour + 1, 0))
+        .build();
+  }
+}
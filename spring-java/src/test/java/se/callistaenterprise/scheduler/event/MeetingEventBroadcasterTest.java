@@ -0,0 +1,102 @@
+package se.callistaenterprise.scheduler.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"scheduler.events.dispatcher-threads=1", "server.shutdown=immediate"})
+@DirtiesContext
+class MeetingEventBroadcasterTest {
+
+  private static final String EVENTS = "/api/scheduler/meetings/events";
+  private static final int STALLED_CLIENTS = 5;
+  private static final int EVENTS_SENT = 300;
+
+  @LocalServerPort private int port;
+
+  @Autowired private MeetingEventBroadcaster meetingEventBroadcaster;
+
+  private final List<Socket> stalled = new ArrayList<>();
+
+  @AfterEach
+  void afterEach() throws Exception {
+    for (Socket socket : stalled) {
+      socket.close();
+    }
+  }
+
+  @Test
+  void testClientsThatStopReadingDoNotHoldBackTheOthers() throws Exception {
+    // Arrange
+    for (int i = 0; i < STALLED_CLIENTS; i++) {
+      Socket socket = new Socket();
+      socket.setReceiveBufferSize(1024);
+      socket.connect(new InetSocketAddress("localhost", port));
+      OutputStream request = socket.getOutputStream();
+      request.write(
+          ("GET " + EVENTS + " HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+              .getBytes(StandardCharsets.US_ASCII));
+      request.flush();
+      stalled.add(socket);
+    }
+    // The headers only arrive with the first event
+    CompletableFuture<HttpResponse<Stream<String>>> reading =
+        HttpClient.newHttpClient()
+            .sendAsync(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + EVENTS))
+                    .header("Accept", "text/event-stream")
+                    .build(),
+                HttpResponse.BodyHandlers.ofLines());
+    awaitSubscribers(STALLED_CLIENTS + 1);
+    String lastId = "id:" + (meetingEventBroadcaster.getNextSequence() + EVENTS_SENT - 1);
+    CompletableFuture<Boolean> received =
+        reading.thenApplyAsync(
+            response -> {
+              try (Stream<String> lines = response.body()) {
+                return lines.anyMatch(lastId::equals);
+              }
+            });
+
+    // Act
+    String title = "x".repeat(64 * 1024);
+    for (long id = 1; id <= EVENTS_SENT; id++) {
+      meetingEventBroadcaster.meetingAdded(
+          new Meeting(
+              id, title, LocalDate.of(2025, 3, 10), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+    }
+
+    // Assert
+    assertThat(received.get(20, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private void awaitSubscribers(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (meetingEventBroadcaster.getSubscriberCount() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(meetingEventBroadcaster.getSubscriberCount()).isEqualTo(count);
+  }
+}
@@ -0,0 +1,72 @@
+package se.callistaenterprise.scheduler.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class MeetingEventRingBufferTest {
+
+  @Test
+  void testCapacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new MeetingEventRingBuffer(5).capacity()).isEqualTo(8);
+    assertThat(new MeetingEventRingBuffer(8).capacity()).isEqualTo(8);
+    assertThatIllegalArgumentException().isThrownBy(() -> new MeetingEventRingBuffer(0));
+  }
+
+  @Test
+  void testReadReturnsEventsInPublishOrder() {
+    MeetingEventRingBuffer buffer = new MeetingEventRingBuffer(8);
+    buffer.publish(MeetingEvent.Type.ADDED, meeting(1L));
+    buffer.publish(MeetingEvent.Type.ADDED, meeting(2L));
+    buffer.publish(MeetingEvent.Type.REMOVED, meeting(1L));
+
+    List<MeetingEvent> events = buffer.read(1L, 10);
+
+    assertThat(events).extracting(MeetingEvent::getSequence).containsExactly(1L, 2L, 3L);
+    assertThat(events)
+        .extracting(MeetingEvent::getType)
+        .containsExactly(
+            MeetingEvent.Type.ADDED, MeetingEvent.Type.ADDED, MeetingEvent.Type.REMOVED);
+    assertThat(buffer.getNextSequence()).isEqualTo(4L);
+  }
+
+  @Test
+  void testReadIsLimitedByMaxEvents() {
+    MeetingEventRingBuffer buffer = new MeetingEventRingBuffer(8);
+    for (long i = 1; i <= 5; i++) {
+      buffer.publish(MeetingEvent.Type.ADDED, meeting(i));
+    }
+
+    assertThat(buffer.read(2L, 2)).extracting(MeetingEvent::getSequence).containsExactly(2L, 3L);
+    assertThat(buffer.read(6L, 2)).isEmpty();
+  }
+
+  @Test
+  void testReadReturnsNullWhenPositionHasBeenOverwritten() {
+    MeetingEventRingBuffer buffer = new MeetingEventRingBuffer(4);
+    for (long i = 1; i <= 6; i++) {
+      buffer.publish(MeetingEvent.Type.ADDED, meeting(i));
+    }
+
+    assertThat(buffer.getOldestSequence()).isEqualTo(3L);
+    assertThat(buffer.read(2L, 10)).isNull();
+    assertThat(buffer.read(3L, 10))
+        .extracting(MeetingEvent::getSequence)
+        .containsExactly(3L, 4L, 5L, 6L);
+  }
+
+  private Meeting meeting(Long id) {
+    return Meeting.builder()
+        .id(id)
+        .title("Meeting " + id)
+        .date(LocalDate.now())
+        .start(LocalTime.of(9, 0))
+        .end(LocalTime.of(10, 0))
+        .build();
+  }
+}
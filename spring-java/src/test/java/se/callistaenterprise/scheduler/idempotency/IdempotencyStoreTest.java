@@ -0,0 +1,143 @@
+package se.callistaenterprise.scheduler.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.config.IdempotencyProperties;
+import se.callistaenterprise.scheduler.exception.BadRequestException;
+import se.callistaenterprise.scheduler.exception.UnprocessableEntityException;
+
+class IdempotencyStoreTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final IdempotencyStore store =
+      new IdempotencyStore(new IdempotencyProperties(2, Duration.ofMinutes(1)), now::get);
+  private final AtomicInteger runs = new AtomicInteger();
+
+  @Test
+  void testRetryGetsFirstResultUntilKeyExpires() {
+    // Act
+    Integer first = store.execute("a", "request", runs::incrementAndGet);
+    Integer retry = store.execute("a", "request", runs::incrementAndGet);
+    now.addAndGet(Duration.ofMinutes(1).toNanos());
+    Integer afterExpiry = store.execute("a", "request", runs::incrementAndGet);
+
+    // Assert
+    assertThat(first).isEqualTo(1);
+    assertThat(retry).isEqualTo(1);
+    assertThat(afterExpiry).isEqualTo(2);
+  }
+
+  @Test
+  void testOldestKeyIsEvictedWhenFull() {
+    // Arrange
+    store.execute("a", "request", runs::incrementAndGet);
+    store.execute("b", "request", runs::incrementAndGet);
+
+    // Act
+    store.execute("c", "request", runs::incrementAndGet);
+
+    // Assert
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.execute("b", "request", runs::incrementAndGet)).isEqualTo(2);
+    assertThat(store.execute("a", "request", runs::incrementAndGet)).isEqualTo(4);
+  }
+
+  @Test
+  void testKeyCannotBeReusedForAnotherRequestOrBeInvalid() {
+    // Arrange
+    store.execute("a", "request", runs::incrementAndGet);
+
+    // Act & Assert
+    assertThatThrownBy(() -> store.execute("a", "other request", runs::incrementAndGet))
+        .isInstanceOf(UnprocessableEntityException.class);
+    assertThatThrownBy(() -> store.execute(" ", "request", runs::incrementAndGet))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> store.execute("k".repeat(256), "request", runs::incrementAndGet))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  void testFailedRequestIsNotKept() {
+    // Act
+    assertThatThrownBy(
+            () ->
+                store.execute(
+                    "a",
+                    "request",
+                    () -> {
+                      throw new BadRequestException("TIME_NOT_AVAILABLE");
+                    }))
+        .isInstanceOf(BadRequestException.class);
+    Integer retry = store.execute("a", "request", runs::incrementAndGet);
+
+    // Assert
+    assertThat(retry).isEqualTo(1);
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void testRetryableResultIsNotKept() {
+    // Act
+    Integer first = store.execute("a", "request", runs::incrementAndGet, result -> result == 1);
+    Integer retry = store.execute("a", "request", runs::incrementAndGet, result -> result == 1);
+    Integer replay = store.execute("a", "request", runs::incrementAndGet, result -> result == 1);
+
+    // Assert
+    assertThat(first).isEqualTo(1);
+    assertThat(retry).isEqualTo(2);
+    assertThat(replay).isEqualTo(2);
+  }
+
+  @Test
+  void testConcurrentDuplicatesWaitForFirstRequest() throws Exception {
+    // Arrange
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+      Future<Integer> first =
+          executor.submit(
+              () ->
+                  store.execute(
+                      "a",
+                      "request",
+                      () -> {
+                        started.countDown();
+                        await(release);
+                        return runs.incrementAndGet();
+                      }));
+      started.await(5, TimeUnit.SECONDS);
+
+      // Act
+      Future<Integer> second =
+          executor.submit(() -> store.execute("a", "request", runs::incrementAndGet));
+      Future<Integer> third =
+          executor.submit(() -> store.execute("a", "request", runs::incrementAndGet));
+      release.countDown();
+
+      // Assert
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(runs).hasValue(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
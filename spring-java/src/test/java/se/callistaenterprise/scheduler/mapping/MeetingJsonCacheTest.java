@@ -0,0 +1,107 @@
+package se.callistaenterprise.scheduler.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import se.callistaenterprise.scheduler.config.JsonCacheProperties;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class MeetingJsonCacheTest {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final MeetingMapper meetingMapper = new MeetingMapperImpl();
+  private final MeetingJsonCache cache =
+      new MeetingJsonCache(objectMapper, meetingMapper, new JsonCacheProperties(2));
+
+  @Test
+  void testJsonArrayEqualsSerializedDtos() throws Exception {
+    // Arrange
+    Meeting first = meeting(1L, 9, null);
+    Meeting second = meeting(2L, 13, LocalDate.of(2025, 3, 11));
+    cache.meetingAdded(first);
+    cache.meetingAdded(second);
+
+    // Act
+    byte[] json = cache.toJsonArray(List.of(first, second));
+
+    // Assert
+    assertThat(json)
+        .isEqualTo(
+            objectMapper.writeValueAsBytes(
+                List.of(
+                    meetingMapper.mapToMeetingDto(first), meetingMapper.mapToMeetingDto(second))));
+    assertThat(new String(cache.toJsonArray(List.of()))).isEqualTo("[]");
+  }
+
+  @Test
+  void testRemovedAndUnknownMeetingsAreNotCached() throws Exception {
+    // Arrange
+    Meeting stored = meeting(1L, 9, null);
+    Meeting unknown = meeting(2L, 13, null);
+    cache.meetingAdded(stored);
+    cache.meetingRemoved(stored);
+
+    // Act
+    byte[] json = cache.toJsonArray(List.of(unknown));
+
+    // Assert
+    assertThat(json)
+        .isEqualTo(objectMapper.writeValueAsBytes(List.of(meetingMapper.mapToMeetingDto(unknown))));
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void testKeepsOnlyTheMostRecentlyUsedMeetings() throws Exception {
+    // Arrange
+    Meeting first = meeting(1L, 9, null);
+    Meeting second = meeting(2L, 10, null);
+    Meeting third = meeting(3L, 11, null);
+    cache.meetingsStored(List.of(meeting(4L, 12, null)));
+    cache.meetingAdded(first);
+    cache.meetingAdded(second);
+    cache.toJsonArray(List.of(first));
+
+    // Act
+    cache.meetingAdded(third);
+
+    // Assert
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.isCached(first)).isTrue();
+    assertThat(cache.isCached(second)).isFalse();
+    assertThat(cache.isCached(third)).isTrue();
+    assertThat(cache.toJsonArray(List.of(second)))
+        .isEqualTo(objectMapper.writeValueAsBytes(List.of(meetingMapper.mapToMeetingDto(second))));
+  }
+
+  @Test
+  void testMeetingsOnArchivedDaysAreDropped() {
+    // Arrange
+    Meeting oneDay = meeting(1L, 9, null);
+    Meeting twoDays = meeting(2L, 13, LocalDate.of(2025, 3, 11));
+    cache.meetingAdded(oneDay);
+    cache.meetingAdded(twoDays);
+
+    // Act
+    cache.daysArchived(LocalDate.of(2025, 3, 11));
+
+    // Assert
+    assertThat(cache.isCached(oneDay)).isFalse();
+    assertThat(cache.isCached(twoDays)).isTrue();
+  }
+
+  private static Meeting meeting(Long id, int hour, LocalDate endDate) {
+    return Meeting.builder()
+        .id(id)
+        .title("Meeting " + id)
+        .date(LocalDate.of(2025, 3, 10))
+        .start(LocalTime.of(hour, 0))
+        .end(LocalTime.of(hour + 1, 0))
+        .endDate(endDate)
+        .build();
+  }
+}
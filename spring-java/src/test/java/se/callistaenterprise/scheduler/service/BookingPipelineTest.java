@@ -0,0 +1,173 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.config.BookingProperties;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.datasource.MeetingStorageListener;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.Booking;
+
+class BookingPipelineTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private final InMemoryMeetingStorage storage = new InMemoryMeetingStorage(10_000);
+  private final BookingPipeline pipeline =
+      new BookingPipeline(storage, new BookingProperties(true, 4, 8, 1000, Duration.ofMinutes(1)));
+
+  @AfterEach
+  void afterEach() {
+    pipeline.shutdown();
+  }
+
+  @Test
+  void testConcurrentBookingsNeverOverlap() throws Exception {
+    // Arrange
+    List<Meeting> requested = new ArrayList<>();
+    for (int day = 0; day < 3; day++) {
+      for (int minute = 0; minute < 8 * 60; minute += 10) {
+        LocalTime start = LocalTime.of(8, 0).plusMinutes(minute);
+        requested.add(meeting(MONDAY.plusDays(day), start, start.plusMinutes(30)));
+      }
+    }
+    LocalTime lateStart = LocalTime.of(23, 30);
+    requested.add(
+        new Meeting(null, "Night", MONDAY, lateStart, LocalTime.of(8, 20), MONDAY.plusDays(1)));
+
+    // Act
+    List<Booking> bookings = new ArrayList<>();
+    try (ExecutorService clients = Executors.newFixedThreadPool(8)) {
+      List<Future<Booking>> submitted = new ArrayList<>();
+      for (Meeting meeting : requested) {
+        submitted.add(clients.submit(() -> pipeline.submit(meeting)));
+      }
+      for (Future<Booking> future : submitted) {
+        bookings.add(future.get(5, TimeUnit.SECONDS));
+      }
+    }
+    CompletableFuture.allOf(
+            bookings.stream().map(Booking::getResult).toArray(CompletableFuture[]::new))
+        .get(5, TimeUnit.SECONDS);
+
+    // Assert
+    List<Meeting> stored =
+        storage.getAll().stream().sorted(Comparator.comparing(Meeting::startDateTime)).toList();
+    for (int i = 1; i < stored.size(); i++) {
+      LocalDateTime previousEnd = stored.get(i - 1).endDateTime();
+      assertThat(stored.get(i).startDateTime()).isAfterOrEqualTo(previousEnd);
+    }
+    assertThat(bookings)
+        .filteredOn(booking -> booking.getStatus() == Booking.Status.BOOKED)
+        .hasSize(stored.size());
+    assertThat(bookings)
+        .filteredOn(booking -> booking.getStatus() == Booking.Status.REJECTED)
+        .allSatisfy(booking -> assertThat(booking.getErrors()).isNotEmpty());
+    assertThat(bookings)
+        .extracting(Booking::getStatus)
+        .containsOnly(Booking.Status.BOOKED, Booking.Status.REJECTED);
+  }
+
+  @Test
+  void testBookingCanBeLookedUpById() throws Exception {
+    // Act
+    Booking booking = pipeline.submit(meeting(MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+    booking.getResult().get(5, TimeUnit.SECONDS);
+
+    // Assert
+    assertThat(pipeline.getBooking(booking.getId())).isSameAs(booking);
+    assertThat(booking.getStatus()).isEqualTo(Booking.Status.BOOKED);
+    assertThat(booking.getMeeting().getId()).isNotNull();
+  }
+
+  @Test
+  void testIdleActorsAreDropped() throws Exception {
+    // Arrange
+    List<Booking> bookings = new ArrayList<>();
+    for (int day = 0; day < 5; day++) {
+      bookings.add(
+          pipeline.submit(meeting(MONDAY.plusDays(day), LocalTime.of(9, 0), LocalTime.of(10, 0))));
+    }
+
+    // Act
+    for (Booking booking : bookings) {
+      booking.getResult().get(5, TimeUnit.SECONDS);
+    }
+
+    // Assert
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (pipeline.actorCount() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(pipeline.actorCount()).isZero();
+    assertThat(bookings).extracting(Booking::getStatus).containsOnly(Booking.Status.BOOKED);
+  }
+
+  @Test
+  void testShutdownFailsTheQueuedBookings() throws Exception {
+    // Arrange
+    InMemoryMeetingStorage blocking = new InMemoryMeetingStorage();
+    CountDownLatch applying = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    blocking.addListener(
+        new MeetingStorageListener() {
+          @Override
+          public void meetingAdded(Meeting meeting) {
+            applying.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+
+          @Override
+          public void meetingRemoved(Meeting meeting) {}
+        });
+    BookingPipeline single =
+        new BookingPipeline(
+            blocking, new BookingProperties(true, 1, 8, 1000, Duration.ofMinutes(1)));
+    single.submit(meeting(MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+    assertThat(applying.await(5, TimeUnit.SECONDS)).isTrue();
+    Booking sameDay = single.submit(meeting(MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0)));
+    Booking otherDay =
+        single.submit(meeting(MONDAY.plusDays(1), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+    // Act
+    try {
+      single.shutdown();
+    } finally {
+      release.countDown();
+    }
+    Booking afterShutdown =
+        single.submit(meeting(MONDAY.plusDays(2), LocalTime.of(9, 0), LocalTime.of(10, 0)));
+
+    // Assert
+    for (Booking booking : List.of(sameDay, otherDay, afterShutdown)) {
+      assertThatThrownBy(() -> booking.getResult().get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(RejectedExecutionException.class);
+      assertThat(booking.getStatus()).isEqualTo(Booking.Status.FAILED);
+    }
+  }
+
+  private static Meeting meeting(LocalDate date, LocalTime start, LocalTime end) {
+    return Meeting.builder().title("Meeting").date(date).start(start).end(end).build();
+  }
+}
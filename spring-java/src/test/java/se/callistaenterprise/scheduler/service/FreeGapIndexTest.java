@@ -0,0 +1,132 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.config.SchedulerProperties;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class FreeGapIndexTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private final FreeGapIndex index =
+      new FreeGapIndex(
+          new SchedulerProperties(
+              List.of("Saturday", "Sunday"),
+              new SchedulerProperties.WorkingHours("08:00", "17:00")));
+  private long nextId = 1;
+
+  @Test
+  void testGapsOfAtLeastALengthAreFoundAndMergedOnRemove() {
+    // Arrange
+    add(MONDAY, 9, 0, MONDAY, 10, 0);
+    Meeting lunch = add(MONDAY, 12, 0, MONDAY, 12, 15);
+
+    // Act
+    List<Meeting> longGaps = index.getGaps(MONDAY, Duration.ofMinutes(90));
+    List<Meeting> all = index.getGaps(MONDAY, Duration.ofMinutes(1));
+    index.meetingRemoved(lunch);
+    List<Meeting> afterRemove = index.getGaps(MONDAY, Duration.ofMinutes(90));
+
+    // Assert
+    assertThat(longGaps)
+        .extracting(Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple(LocalTime.of(10, 0), LocalTime.of(12, 0)),
+            tuple(LocalTime.of(12, 15), LocalTime.of(17, 0)));
+    assertThat(all).hasSize(3);
+    assertThat(afterRemove)
+        .extracting(Meeting::getStart, Meeting::getEnd)
+        .containsExactly(tuple(LocalTime.of(10, 0), LocalTime.of(17, 0)));
+    assertThat(index.getGaps(MONDAY.plusDays(1), Duration.ofHours(9)))
+        .extracting(Meeting::getStart, Meeting::getEnd)
+        .containsExactly(tuple(LocalTime.of(8, 0), LocalTime.of(17, 0)));
+  }
+
+  @Test
+  void testDaysWithGapSkipFullDaysAndWeekends() {
+    // Arrange
+    add(MONDAY, 8, 0, MONDAY, 17, 0);
+    add(MONDAY.plusDays(1), 9, 0, MONDAY.plusDays(1), 16, 0);
+    add(MONDAY.plusDays(3), 8, 0, MONDAY.plusDays(3), 14, 30);
+
+    // Act
+    List<LocalDate> threeHours =
+        index.getDaysWithGap(MONDAY, MONDAY.plusDays(14), Duration.ofHours(3), 3);
+    List<LocalDate> oneHour =
+        index.getDaysWithGap(MONDAY, MONDAY.plusDays(14), Duration.ofHours(1), 3);
+    List<LocalDate> nextWeek =
+        index.getDaysWithGap(MONDAY.plusDays(4), MONDAY.plusDays(14), Duration.ofHours(3), 2);
+
+    // Assert
+    assertThat(threeHours)
+        .containsExactly(MONDAY.plusDays(2), MONDAY.plusDays(4), MONDAY.plusDays(7));
+    assertThat(oneHour).containsExactly(MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(3));
+    assertThat(nextWeek).containsExactly(MONDAY.plusDays(4), MONDAY.plusDays(7));
+  }
+
+  @Test
+  void testMeetingOverSeveralDaysTakesUpTheDaysInBetween() {
+    // Arrange
+    Meeting offsite = add(MONDAY, 16, 0, MONDAY.plusDays(2), 9, 0);
+
+    // Act
+    List<LocalDate> days =
+        index.getDaysWithGap(MONDAY, MONDAY.plusDays(3), Duration.ofMinutes(30), 3);
+
+    // Assert
+    assertThat(days).containsExactly(MONDAY, MONDAY.plusDays(2));
+    assertThat(index.getGaps(MONDAY.plusDays(1), Duration.ofMinutes(1))).isEmpty();
+    index.meetingRemoved(offsite);
+    assertThat(index.getDaysWithGap(MONDAY, MONDAY.plusDays(3), Duration.ofHours(9), 3))
+        .containsExactly(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2));
+  }
+
+  @Test
+  void testArchivedDaysAreDroppedAndSkipped() {
+    // Arrange
+    LocalDate tuesday = MONDAY.plusDays(1);
+    add(MONDAY, 9, 0, MONDAY, 10, 0);
+    add(MONDAY, 16, 0, tuesday, 9, 0);
+    index.getDaysWithGap(MONDAY, MONDAY.plusDays(5), Duration.ofHours(1), 5);
+
+    // Act
+    index.daysArchived(tuesday);
+    add(MONDAY, 11, 0, MONDAY, 12, 0);
+
+    // Assert
+    assertThat(index.dayCount()).isEqualTo(1);
+    assertThat(index.getGaps(MONDAY, Duration.ofMinutes(1))).isEmpty();
+    assertThat(index.getGaps(tuesday, Duration.ofMinutes(1)))
+        .extracting(Meeting::getStart, Meeting::getEnd)
+        .containsExactly(tuple(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+    assertThat(index.getDaysWithGap(MONDAY, MONDAY.plusDays(5), Duration.ofHours(1), 5))
+        .containsExactly(tuesday, MONDAY.plusDays(2), MONDAY.plusDays(3), MONDAY.plusDays(4));
+  }
+
+  private Meeting add(
+      LocalDate date,
+      int startHour,
+      int startMinute,
+      LocalDate endDate,
+      int endHour,
+      int endMinute) {
+    Meeting meeting =
+        Meeting.builder()
+            .id(nextId++)
+            .title("Meeting")
+            .date(date)
+            .endDate(endDate)
+            .start(LocalTime.of(startHour, startMinute))
+            .end(LocalTime.of(endHour, endMinute))
+            .build();
+    index.meetingAdded(meeting);
+    return meeting;
+  }
+}
@@ -0,0 +1,47 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class MaxGapTreeTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+  private final MaxGapTree tree = new MaxGapTree();
+
+  @Test
+  void testFirstDayAtOrAboveValueInRange() {
+    // Arrange
+    tree.cover(DAY, DAY.plusDays(100), day -> 1);
+    tree.set(DAY.plusDays(40), 5);
+    tree.set(DAY.plusDays(70), 9);
+
+    // Act & Assert
+    assertThat(tree.first(DAY, DAY.plusDays(100), 5)).isEqualTo(DAY.plusDays(40));
+    assertThat(tree.first(DAY.plusDays(41), DAY.plusDays(100), 5)).isEqualTo(DAY.plusDays(70));
+    assertThat(tree.first(DAY, DAY.plusDays(69), 6)).isNull();
+    assertThat(tree.first(DAY, DAY.plusDays(100), 1)).isEqualTo(DAY);
+  }
+
+  @Test
+  void testWindowGrowsBothWaysKeepingValues() {
+    // Arrange
+    tree.cover(DAY, DAY, day -> 0);
+    tree.set(DAY, 7);
+
+    // Act
+    boolean earlier = tree.cover(DAY.minusYears(10), DAY, day -> day.equals(DAY) ? 7 : 0);
+    boolean later = tree.cover(DAY, DAY.plusYears(10), day -> day.equals(DAY) ? 7 : 0);
+    boolean tooWide =
+        tree.cover(DAY, DAY.plusDays(MaxGapTree.MAX_CAPACITY), day -> day.equals(DAY) ? 7 : 0);
+
+    // Assert
+    assertThat(earlier).isTrue();
+    assertThat(later).isTrue();
+    assertThat(tooWide).isFalse();
+    assertThat(tree.covers(DAY.minusYears(10))).isTrue();
+    assertThat(tree.first(DAY.minusYears(10), DAY.plusYears(10), 7)).isEqualTo(DAY);
+  }
+}
@@ -0,0 +1,113 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.config.SchedulerProperties;
+import se.callistaenterprise.scheduler.config.TransferProperties;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.ImportResult;
+import se.callistaenterprise.scheduler.transfer.MeetingFormat;
+import se.callistaenterprise.scheduler.validation.validators.MeetingValidator;
+
+class MeetingImporterTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private InMemoryMeetingStorage meetingStorage;
+
+  @BeforeEach
+  void beforeEach() {
+    meetingStorage = new InMemoryMeetingStorage();
+  }
+
+  @Test
+  void testImportsManyChunksInParallel() throws IOException {
+    // Arrange
+    StringBuilder csv = new StringBuilder("title,date,start,end\n");
+    for (int day = 0; day < 5_000; day++) {
+      LocalDate date = MONDAY.plusWeeks(day / 5).plusDays(day % 5);
+      for (int hour = 8; hour < 17; hour++) {
+        csv.append("Meeting ").append(day).append(',').append(date).append(',');
+        csv.append(LocalTime.of(hour, 0)).append(',').append(LocalTime.of(hour + 1, 0));
+        csv.append('\n');
+      }
+    }
+
+    // Act
+    ImportResult result = importer(1_000).importMeetings(reader(csv.toString()), MeetingFormat.CSV);
+
+    // Assert
+    assertThat(result.getImported()).isEqualTo(45_000);
+    assertThat(result.getRejected()).isZero();
+    assertThat(meetingStorage.size()).isEqualTo(45_000);
+    assertThat(meetingStorage.getByDate(MONDAY.plusDays(1))).hasSize(9);
+    assertThat(meetingStorage.sort())
+        .isSortedAccordingTo(Comparator.comparing(Meeting::startDateTime));
+  }
+
+  @Test
+  void testRejectsInvalidAndConflictingMeetingsByLine() throws IOException {
+    // Arrange
+    meetingStorage.add(
+        Meeting.builder()
+            .title("Stored")
+            .date(MONDAY)
+            .start(LocalTime.of(9, 0))
+            .end(LocalTime.of(10, 0))
+            .build());
+    String csv =
+        """
+        title,date,start,end
+        Overlaps stored,2025-03-10,09:30,10:30
+        Touches stored,2025-03-10,10:00,11:00
+        Overlaps import,2025-03-10,10:45,11:15
+        Saturday,2025-03-15,10:00,11:00
+        Too short,2025-03-11,10:00,10:05
+        Bad date,2025-13-01,10:00,11:00
+        Encloses nothing,2025-03-11,13:00,14:00
+        """;
+
+    // Act
+    ImportResult result = importer(3).importMeetings(reader(csv), MeetingFormat.CSV);
+
+    // Assert
+    assertThat(result.getImported()).isEqualTo(2);
+    assertThat(result.getRejected()).isEqualTo(5);
+    assertThat(result.getErrors())
+        .hasSize(5)
+        .allSatisfy(error -> assertThat(error).startsWith("line "))
+        .anySatisfy(error -> assertThat(error).startsWith("line 2: Meeting overlaps"))
+        .anySatisfy(error -> assertThat(error).startsWith("line 4: Meeting overlaps"))
+        .anySatisfy(error -> assertThat(error).startsWith("line 5: Meeting is not on a working"));
+    assertThat(meetingStorage.sort())
+        .extracting(Meeting::getTitle)
+        .containsExactly("Stored", "Touches stored", "Encloses nothing");
+  }
+
+  private MeetingImporter importer(int chunkSize) {
+    SchedulerProperties schedulerProperties =
+        new SchedulerProperties(
+            List.of("Saturday", "Sunday"), new SchedulerProperties.WorkingHours("08:00", "17:00"));
+    return new MeetingImporter(
+        meetingStorage,
+        new MeetingValidator(schedulerProperties),
+        date ->
+            date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY,
+        new TransferProperties(chunkSize, 4, 100));
+  }
+
+  private static BufferedReader reader(String text) {
+    return new BufferedReader(new StringReader(text));
+  }
+}
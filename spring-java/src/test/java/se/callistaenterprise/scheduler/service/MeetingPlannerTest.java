@@ -0,0 +1,163 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.PlacementRequest;
+
+class MeetingPlannerTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+  private static final long BUDGET = Duration.ofSeconds(1).toNanos();
+
+  private InMemoryMeetingStorage meetingStorage;
+  private MeetingPlanner meetingPlanner;
+
+  @BeforeEach
+  void beforeEach() {
+    meetingStorage = new InMemoryMeetingStorage();
+    meetingPlanner = newPlanner();
+  }
+
+  @Test
+  void testPlacesAroundStoredMeetingsAndSkipsWeekends() {
+    // Arrange
+    LocalDate friday = MONDAY.plusDays(4);
+    add(friday, 8, 0, 16, 0);
+    List<PlacementRequest> requests =
+        List.of(
+            new PlacementRequest("Long", 120L, friday, friday.plusDays(3)),
+            new PlacementRequest("Short", 60L, friday, friday.plusDays(3)));
+
+    // Act
+    MeetingPlanner.Plan plan = meetingPlanner.plan(requests, BUDGET);
+
+    // Assert
+    assertThat(plan.unplaced()).isEmpty();
+    assertThat(plan.meetings())
+        .extracting(Meeting::getTitle, Meeting::getDate, Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple("Long", friday.plusDays(3), LocalTime.of(8, 0), LocalTime.of(10, 0)),
+            tuple("Short", friday, LocalTime.of(16, 0), LocalTime.of(17, 0)));
+  }
+
+  @Test
+  void testPlacesTheMostConstrainedRequestsFirst() {
+    // Arrange
+    List<PlacementRequest> requests =
+        List.of(
+            new PlacementRequest("Either day", 240L, MONDAY, MONDAY.plusDays(1)),
+            new PlacementRequest("Monday only", 540L, MONDAY, MONDAY));
+
+    // Act
+    MeetingPlanner.Plan plan = meetingPlanner.plan(requests, 0);
+
+    // Assert
+    assertThat(plan.unplaced()).isEmpty();
+    assertThat(plan.meetings())
+        .extracting(Meeting::getDate, Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple(MONDAY.plusDays(1), LocalTime.of(8, 0), LocalTime.of(12, 0)),
+            tuple(MONDAY, LocalTime.of(8, 0), LocalTime.of(17, 0)));
+  }
+
+  @Test
+  void testRepairMovesAPlannedMeetingToMakeRoom() {
+    // Arrange
+    add(MONDAY, 10, 0, 17, 0);
+    add(MONDAY.plusDays(1), 9, 40, 17, 0);
+    add(MONDAY.plusDays(2), 8, 0, 17, 0);
+    List<PlacementRequest> requests =
+        List.of(
+            new PlacementRequest("Monday or Tuesday", 100L, MONDAY, MONDAY.plusDays(1)),
+            new PlacementRequest(
+                "Tuesday or Wednesday", 90L, MONDAY.plusDays(1), MONDAY.plusDays(2)));
+
+    // Act
+    MeetingPlanner.Plan withoutRepair = meetingPlanner.plan(requests, 0);
+    MeetingPlanner.Plan plan = newPlanner().plan(requests, BUDGET);
+
+    // Assert
+    assertThat(withoutRepair.unplaced()).containsExactly(1);
+    assertThat(plan.unplaced()).isEmpty();
+    assertThat(plan.meetings())
+        .extracting(Meeting::getDate, Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple(MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 40)),
+            tuple(MONDAY.plusDays(1), LocalTime.of(8, 0), LocalTime.of(9, 30)));
+  }
+
+  @Test
+  void testRequestsThatDoNotFitAreUnplaced() {
+    // Arrange
+    LocalDate saturday = MONDAY.plusDays(5);
+    add(MONDAY, 8, 0, 16, 30);
+    List<PlacementRequest> requests =
+        List.of(
+            new PlacementRequest("Weekend", 30L, saturday, saturday.plusDays(1)),
+            new PlacementRequest("Fits", 30L, MONDAY, MONDAY),
+            new PlacementRequest("Too long", 60L, MONDAY, MONDAY));
+
+    // Act
+    MeetingPlanner.Plan plan = meetingPlanner.plan(requests, BUDGET);
+
+    // Assert
+    assertThat(plan.unplaced()).containsExactly(0, 2);
+    assertThat(plan.meetings().get(1))
+        .extracting(Meeting::getStart, Meeting::getEnd)
+        .containsExactly(LocalTime.of(16, 30), LocalTime.of(17, 0));
+  }
+
+  @Test
+  void testPlacesManyMeetingsWithoutOverlaps() {
+    // Arrange
+    List<PlacementRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      LocalDate earliest = MONDAY.plusDays(i % 50);
+      requests.add(
+          new PlacementRequest("Meeting " + i, 15L + 15 * (i % 3), earliest, earliest.plusDays(7)));
+    }
+
+    // Act
+    MeetingPlanner.Plan plan = meetingPlanner.plan(requests, BUDGET);
+
+    // Assert
+    assertThat(plan.unplaced()).isEmpty();
+    List<Meeting> sorted =
+        plan.meetings().stream().sorted(Comparator.comparing(Meeting::startDateTime)).toList();
+    for (int i = 1; i < sorted.size(); i++) {
+      assertThat(sorted.get(i).startDateTime()).isAfterOrEqualTo(sorted.get(i - 1).endDateTime());
+    }
+    assertThat(meetingStorage.addAllIfAllFree(plan.meetings())).isTrue();
+  }
+
+  private MeetingPlanner newPlanner() {
+    return new MeetingPlanner(
+        meetingStorage,
+        LocalTime.of(8, 0),
+        LocalTime.of(17, 0),
+        date ->
+            date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY);
+  }
+
+  private void add(LocalDate date, int startHour, int startMinute, int endHour, int endMinute) {
+    meetingStorage.add(
+        Meeting.builder()
+            .title("Busy")
+            .date(date)
+            .start(LocalTime.of(startHour, startMinute))
+            .end(LocalTime.of(endHour, endMinute))
+            .build());
+  }
+}
@@ -0,0 +1,48 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.config.RetentionProperties;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class MeetingPurgerTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private final InMemoryMeetingStorage storage = new InMemoryMeetingStorage(10_000);
+
+  @Test
+  void testPurgeRemovesMeetingsOlderThanTheRetentionInBatches() {
+    // Arrange
+    MeetingPurger purger =
+        new MeetingPurger(
+            storage, new RetentionProperties(false, 30, Duration.ofHours(1), 4), () -> MONDAY);
+    for (int day = 31; day <= 40; day++) {
+      storage.add(meeting(MONDAY.minusDays(day)));
+    }
+    Meeting kept = storage.add(meeting(MONDAY.minusDays(30)));
+
+    // Act
+    int removed = purger.purge();
+    int removedAgain = purger.purge();
+
+    // Assert
+    assertThat(removed).isEqualTo(10);
+    assertThat(removedAgain).isZero();
+    assertThat(storage.getAll()).containsExactly(kept);
+  }
+
+  private static Meeting meeting(LocalDate date) {
+    return Meeting.builder()
+        .title("Meeting")
+        .date(date)
+        .start(LocalTime.of(9, 0))
+        .end(LocalTime.of(10, 0))
+        .build();
+  }
+}
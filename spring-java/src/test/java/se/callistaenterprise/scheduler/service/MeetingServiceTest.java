@@ -2,17 +2,22 @@ package se.callistaenterprise.scheduler.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
 import se.callistaenterprise.scheduler.config.SchedulerProperties;
 import se.callistaenterprise.scheduler.datasource.MeetingStorage;
 import se.callistaenterprise.scheduler.entity.Meeting;
@@ -29,15 +34,16 @@ class MeetingServiceTest {
 
   @Test
   void testAddMeeting_Success() {
-    when(meetingStorage.add(any(Meeting.class)))
+    when(meetingStorage.addAllIfFree(anyList()))
         .thenReturn(
-            Meeting.builder()
-                .id(1L)
-                .title("Team Meeting")
-                .date(LocalDate.of(2023, 12, 1))
-                .start(LocalTime.of(10, 0))
-                .end(LocalTime.of(11, 0))
-                .build());
+            List.of(
+                Meeting.builder()
+                    .id(1L)
+                    .title("Team Meeting")
+                    .date(LocalDate.of(2023, 12, 1))
+                    .start(LocalTime.of(10, 0))
+                    .end(LocalTime.of(11, 0))
+                    .build()));
 
     when(schedulerProperties.getWeekends()).thenReturn(Collections.emptyList());
     SchedulerProperties.WorkingHours workingHours =
@@ -62,16 +68,8 @@ class MeetingServiceTest {
 
   @Test
   void testAddMeeting_TimeConflict() {
-    Meeting conflictingMeeting =
-        Meeting.builder()
-            .id(1L)
-            .title("Existing Meeting")
-            .date(LocalDate.of(2023, 12, 1))
-            .start(LocalTime.of(10, 0))
-            .end(LocalTime.of(11, 0))
-            .build();
-
-    when(meetingStorage.sort()).thenReturn(Collections.singletonList(conflictingMeeting));
+    // The storage finds a conflict, so nothing is added
+    when(meetingStorage.addAllIfFree(anyList())).thenReturn(List.of());
 
     when(schedulerProperties.getWeekends()).thenReturn(Collections.emptyList());
     SchedulerProperties.WorkingHours workingHours =
@@ -92,6 +90,8 @@ class MeetingServiceTest {
     assertThat(result.hasErrors()).isTrue();
     assertThat(result.getLeft()).isNull();
     assertThat(result.getRight()).isNotNull();
+    assertThat(result.getAllErrors())
+        .containsExactly(Map.entry("Meeting", "Meeting overlaps another meeting"));
   }
 
   @Test
@@ -155,6 +155,57 @@ class MeetingServiceTest {
     assertThat(result.getRight()).isNotNull();
   }
 
+  @Test
+  void testAddMeeting_OverTheWeekend() {
+    when(schedulerProperties.getWeekends()).thenReturn(List.of("SATURDAY", "SUNDAY"));
+    SchedulerProperties.WorkingHours workingHours =
+        new SchedulerProperties.WorkingHours("08:00", "18:00");
+    when(schedulerProperties.getWorkingHours()).thenReturn(workingHours);
+
+    Meeting fridayToMonday =
+        Meeting.builder()
+            .id(null)
+            .title("Offsite")
+            .date(LocalDate.of(2023, 12, 1))
+            .start(LocalTime.of(9, 0))
+            .endDate(LocalDate.of(2023, 12, 4))
+            .end(LocalTime.of(17, 0))
+            .build();
+
+    Either<Meeting, Errors> result = meetingService.addMeeting(fridayToMonday);
+
+    assertThat(result.hasErrors()).isTrue();
+    assertThat(result.getAllErrors())
+        .containsExactly(Map.entry("Meeting", "Meeting is not on a working day"));
+    verify(meetingStorage, never()).addAllIfFree(anyList());
+  }
+
+  @Test
+  void testAddMeeting_OvernightOutsideWorkingHours() {
+    when(schedulerProperties.getWeekends()).thenReturn(Collections.emptyList());
+    SchedulerProperties.WorkingHours workingHours =
+        new SchedulerProperties.WorkingHours("08:00", "18:00");
+    when(schedulerProperties.getWorkingHours()).thenReturn(workingHours);
+
+    Meeting overnight =
+        Meeting.builder()
+            .id(null)
+            .title("Overnight")
+            .date(LocalDate.of(2023, 12, 4))
+            .start(LocalTime.of(20, 0))
+            .endDate(LocalDate.of(2023, 12, 5))
+            .end(LocalTime.of(7, 0))
+            .build();
+
+    Either<Meeting, Errors> result = meetingService.addMeeting(overnight);
+
+    assertThat(result.hasErrors()).isTrue();
+    assertThat(result.getRight().getFieldErrors())
+        .extracting(FieldError::getField)
+        .containsExactlyInAnyOrder("start", "end");
+    verify(meetingStorage, never()).addAllIfFree(anyList());
+  }
+
   @Test
   void testAddMeeting_NullMeeting() {
     assertThatExceptionOfType(IllegalArgumentException.class)
@@ -0,0 +1,38 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class PostingListTest {
+
+  @Test
+  void testIdsAddedInOrderAreCompressed() {
+    // Arrange
+    PostingList list = new PostingList();
+
+    // Act
+    LongStream.rangeClosed(1_000_000, 1_000_999).forEach(list::add);
+
+    // Assert
+    assertThat(list.size()).isEqualTo(1000);
+    assertThat(list.compressedSize()).isLessThan(1010);
+    assertThat(list.toArray()).startsWith(1_000_000, 1_000_001).endsWith(1_000_999);
+  }
+
+  @Test
+  void testIdsAddedOutOfOrderAndRemovedAreMerged() {
+    // Arrange
+    PostingList list = new PostingList();
+    LongStream.rangeClosed(1, 100).map(id -> 2 * id).forEach(list::add);
+
+    // Act
+    LongStream.rangeClosed(1, 100).map(id -> 2 * id - 1).forEach(list::add);
+    LongStream.rangeClosed(1, 50).forEach(list::remove);
+
+    // Assert
+    assertThat(list.size()).isEqualTo(150);
+    assertThat(list.toArray()).isEqualTo(LongStream.rangeClosed(51, 200).toArray());
+  }
+}
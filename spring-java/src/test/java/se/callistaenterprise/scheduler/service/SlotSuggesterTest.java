@@ -0,0 +1,176 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.datasource.InMemoryMeetingStorage;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.model.SuggestionStrategy;
+
+class SlotSuggesterTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private final List<LocalDate> daysRead = new ArrayList<>();
+  private InMemoryMeetingStorage meetingStorage;
+  private SlotSuggester slotSuggester;
+
+  @BeforeEach
+  void beforeEach() {
+    meetingStorage =
+        new InMemoryMeetingStorage() {
+          @Override
+          public synchronized List<Meeting> getByDate(LocalDate date) {
+            daysRead.add(date);
+            return super.getByDate(date);
+          }
+        };
+    slotSuggester =
+        new SlotSuggester(
+            meetingStorage,
+            LocalTime.of(8, 0),
+            LocalTime.of(17, 0),
+            date ->
+                date.getDayOfWeek() != DayOfWeek.SATURDAY
+                    && date.getDayOfWeek() != DayOfWeek.SUNDAY);
+  }
+
+  @Test
+  void testEarliestReadsOnlyTheDaysItNeeds() {
+    // Arrange
+    add(MONDAY, 8, 0, 12, 0);
+    add(MONDAY, 12, 20, 17, 0);
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(MONDAY, 28, 30, 2, SuggestionStrategy.EARLIEST, null);
+
+    // Assert
+    assertThat(slots)
+        .extracting(Meeting::getDate, Meeting::getStart, Meeting::getEnd)
+        .containsExactly(
+            tuple(MONDAY.plusDays(1), LocalTime.of(8, 0), LocalTime.of(8, 30)),
+            tuple(MONDAY.plusDays(2), LocalTime.of(8, 0), LocalTime.of(8, 30)));
+    assertThat(daysRead).containsExactly(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2));
+  }
+
+  @Test
+  void testEarliestSkipsWeekendsAndReturnsOneSlotPerGap() {
+    // Arrange
+    LocalDate friday = MONDAY.plusDays(4);
+    add(friday, 9, 0, 10, 0);
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(friday, 7, 45, 3, SuggestionStrategy.EARLIEST, null);
+
+    // Assert
+    assertThat(slots)
+        .extracting(Meeting::getDate, Meeting::getStart)
+        .containsExactly(
+            tuple(friday, LocalTime.of(8, 0)),
+            tuple(friday, LocalTime.of(10, 0)),
+            tuple(friday.plusDays(3), LocalTime.of(8, 0)));
+    assertThat(daysRead).doesNotContain(friday.plusDays(1), friday.plusDays(2));
+  }
+
+  @Test
+  void testBestFitPrefersTheSmallestAdequateGap() {
+    // Arrange
+    add(MONDAY, 8, 0, 9, 0);
+    add(MONDAY, 9, 30, 12, 0); // exactly 30 minutes free
+    add(MONDAY, 13, 0, 17, 0);
+    add(MONDAY.plusDays(1), 8, 0, 10, 0);
+    add(MONDAY.plusDays(1), 10, 40, 17, 0); // 40 minutes free
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(MONDAY, 2, 30, 3, SuggestionStrategy.BEST_FIT, null);
+
+    // Assert
+    assertThat(slots)
+        .extracting(Meeting::getDate, Meeting::getStart)
+        .containsExactly(
+            tuple(MONDAY, LocalTime.of(9, 0)),
+            tuple(MONDAY.plusDays(1), LocalTime.of(10, 0)),
+            tuple(MONDAY, LocalTime.of(12, 0)));
+  }
+
+  @Test
+  void testBestFitStopsReadingAfterPerfectFits() {
+    // Arrange
+    for (int day = 0; day < 2; day++) {
+      add(MONDAY.plusDays(day), 8, 0, 9, 0);
+      add(MONDAY.plusDays(day), 9, 30, 17, 0);
+    }
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(MONDAY, 28, 30, 2, SuggestionStrategy.BEST_FIT, null);
+
+    // Assert
+    assertThat(slots).extracting(Meeting::getStart).containsOnly(LocalTime.of(9, 0));
+    assertThat(daysRead).containsExactly(MONDAY, MONDAY.plusDays(1));
+  }
+
+  @Test
+  void testPreferredPlacesSlotsClosestToTheTimeOfDay() {
+    // Arrange
+    add(MONDAY, 9, 30, 11, 0);
+    add(MONDAY.plusDays(1), 13, 0, 14, 0);
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(MONDAY, 2, 60, 3, SuggestionStrategy.PREFERRED, LocalTime.of(10, 0));
+
+    // Assert
+    assertThat(slots)
+        .extracting(Meeting::getDate, Meeting::getStart)
+        .containsExactly(
+            tuple(MONDAY.plusDays(1), LocalTime.of(10, 0)),
+            tuple(MONDAY, LocalTime.of(11, 0)),
+            tuple(MONDAY, LocalTime.of(8, 30)));
+  }
+
+  @Test
+  void testMeetingsOverMidnightBlockTheDaysTheyContinueOn() {
+    // Arrange
+    meetingStorage.add(
+        Meeting.builder()
+            .title("Offsite")
+            .date(MONDAY)
+            .start(LocalTime.of(13, 0))
+            .endDate(MONDAY.plusDays(2))
+            .end(LocalTime.of(10, 0))
+            .build());
+
+    // Act
+    List<Meeting> slots =
+        slotSuggester.suggest(MONDAY, 7, 60, 3, SuggestionStrategy.EARLIEST, null);
+
+    // Assert
+    assertThat(slots)
+        .extracting(Meeting::getDate, Meeting::getStart)
+        .containsExactly(
+            tuple(MONDAY, LocalTime.of(8, 0)),
+            tuple(MONDAY.plusDays(2), LocalTime.of(10, 0)),
+            tuple(MONDAY.plusDays(3), LocalTime.of(8, 0)));
+  }
+
+  private void add(LocalDate date, int startHour, int startMinute, int endHour, int endMinute) {
+    meetingStorage.add(
+        Meeting.builder()
+            .title("Busy")
+            .date(date)
+            .start(LocalTime.of(startHour, startMinute))
+            .end(LocalTime.of(endHour, endMinute))
+            .build());
+  }
+}
@@ -0,0 +1,63 @@
+package se.callistaenterprise.scheduler.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+
+class TitleIndexTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  private final TitleIndex index = new TitleIndex();
+
+  @Test
+  void testWordsAreNormalized() {
+    // Act & Assert
+    assertThat(TitleIndex.words("Kick-off  i Göteborg, 2025!"))
+        .containsExactly("kick", "off", "i", "goteborg", "2025");
+    assertThat(TitleIndex.words(" ")).isEmpty();
+    assertThat(TitleIndex.words(null)).isEmpty();
+  }
+
+  @Test
+  void testSearchMatchesEveryWordAndTheLastAsPrefix() {
+    // Arrange
+    index.meetingAdded(meeting(1L, "Design review", MONDAY));
+    index.meetingAdded(meeting(2L, "Team standup", MONDAY));
+    index.meetingAdded(meeting(3L, "Design reviews, part 2", MONDAY.plusDays(1)));
+    index.meetingAdded(meeting(4L, "Designers' lunch", MONDAY.plusDays(2)));
+
+    // Act & Assert
+    assertThat(index.search("design rev", null, null, 10)).containsExactly(1L, 3L);
+    assertThat(index.search("DESIGN", null, null, 10)).containsExactly(1L, 3L, 4L);
+    assertThat(index.search("design rev", MONDAY.plusDays(1), null, 10)).containsExactly(3L);
+    assertThat(index.search("design", null, null, 2)).containsExactly(1L, 3L);
+    assertThat(index.search("team lunch", null, null, 10)).isEmpty();
+    assertThat(index.search("--", null, null, 10)).isEmpty();
+  }
+
+  @Test
+  void testRemovedMeetingsAreNotFound() {
+    // Arrange
+    for (long id = 200; id > 0; id--) {
+      index.meetingAdded(meeting(id, "Standup " + id, MONDAY.plusDays(id % 7)));
+    }
+
+    // Act
+    for (long id = 1; id <= 200; id += 2) {
+      index.meetingRemoved(meeting(id, "Standup " + id, MONDAY.plusDays(id % 7)));
+    }
+
+    // Assert
+    assertThat(index.search("standup", null, null, 1000)).hasSize(100).allMatch(id -> id % 2 == 0);
+    assertThat(index.search("standup 19", null, null, 10))
+        .containsExactly(196L, 190L, 198L, 192L, 194L);
+  }
+
+  private static Meeting meeting(long id, String title, LocalDate date) {
+    return new Meeting(id, title, date, LocalTime.of(9, 0), LocalTime.of(10, 0));
+  }
+}
@@ -0,0 +1,173 @@
+package se.callistaenterprise.scheduler.transfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.callistaenterprise.scheduler.entity.Meeting;
+import se.callistaenterprise.scheduler.validation.ValidationException;
+
+class MeetingFormatTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 10);
+
+  @Test
+  void testCsvReadsQuotedValuesAndColumnsInAnyOrder() throws IOException {
+    // Arrange
+    String csv =
+        """
+        date,start,end,title,end_date
+        2025-03-10,09:00,10:00,"Planning, ""Q2""\",
+        2025-03-10,13:00,09:00,"Offsite
+        day one",2025-03-11
+        """;
+
+    // Act
+    List<Meeting> meetings = read(MeetingFormat.CSV, csv);
+
+    // Assert
+    assertThat(meetings)
+        .extracting(Meeting::getTitle, Meeting::getStart, Meeting::lastDate)
+        .containsExactly(
+            tuple("Planning, \"Q2\"", LocalTime.of(9, 0), MONDAY),
+            tuple("Offsite\nday one", LocalTime.of(13, 0), MONDAY.plusDays(1)));
+  }
+
+  @Test
+  void testCsvRejectsAHeaderWithoutRequiredColumns() {
+    assertThatExceptionOfType(ValidationException.class)
+        .isThrownBy(() -> read(MeetingFormat.CSV, "title,date\nStandup,2025-03-10\n"))
+        .withMessageContaining("start")
+        .withMessageContaining("end");
+  }
+
+  @Test
+  void testCsvRejectsOnlyTheLineOfAQuoteThatIsNeverClosed() throws IOException {
+    // Arrange
+    StringBuilder csv =
+        new StringBuilder("title,date,start,end\n\"Broken,2025-03-10,08:00,09:00\n");
+    int lines = CsvMeetingReader.MAX_RECORD_LENGTH / 30 + 1;
+    for (int i = 0; i < lines; i++) {
+      csv.append("Meeting ").append(i).append(",2025-03-10,09:00,10:00\n");
+    }
+    MeetingReader reader =
+        MeetingFormat.CSV.reader(new BufferedReader(new StringReader(csv.toString())));
+
+    // Act
+    MeetingRecord broken = reader.next();
+    MeetingRecord next = reader.next();
+
+    // Assert
+    assertThat(broken.line()).isEqualTo(2);
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> reader.parse(broken))
+        .withMessageContaining("not closed");
+    assertThat(next.line()).isEqualTo(3);
+    assertThat(reader.parse(next).getTitle()).isEqualTo("Meeting 0");
+  }
+
+  @Test
+  void testICalendarUnfoldsLinesAndSkipsNestedComponents() throws IOException {
+    // Arrange
+    String ics =
+        String.join(
+            "\r\n",
+            "BEGIN:VCALENDAR",
+            "BEGIN:VEVENT",
+            "SUMMARY:Design review\\, round",
+            "  two",
+            "DTSTART;TZID=Europe/Stockholm:20250310T090000",
+            "DURATION:PT1H30M",
+            "BEGIN:VALARM",
+            "SUMMARY:Reminder",
+            "END:VALARM",
+            "END:VEVENT",
+            "END:VCALENDAR");
+
+    // Act
+    List<Meeting> meetings = read(MeetingFormat.ICALENDAR, ics);
+
+    // Assert
+    assertThat(meetings).hasSize(1);
+    assertThat(meetings.getFirst().getTitle()).isEqualTo("Design review, round two");
+    assertThat(meetings.getFirst().getStart()).isEqualTo(LocalTime.of(9, 0));
+    assertThat(meetings.getFirst().getEnd()).isEqualTo(LocalTime.of(10, 30));
+  }
+
+  @Test
+  void testICalendarRejectsAllDayEvents() throws IOException {
+    // Arrange
+    MeetingReader reader =
+        MeetingFormat.ICALENDAR.reader(
+            new BufferedReader(
+                new StringReader(
+                    "BEGIN:VEVENT\nDTSTART;VALUE=DATE:20250310\nDTEND;VALUE=DATE:20250311\n"
+                        + "END:VEVENT\n")));
+
+    // Act
+    MeetingRecord record = reader.next();
+
+    // Assert
+    assertThat(record.line()).isEqualTo(1);
+    assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> reader.parse(record))
+        .withMessage("All-day events are not supported");
+  }
+
+  @Test
+  void testExportedMeetingsReadBackUnchanged() throws IOException {
+    // Arrange
+    List<Meeting> meetings =
+        List.of(
+            meeting(1L, "Standup; daily, short", MONDAY, 9, MONDAY, 10),
+            meeting(2L, "A".repeat(200), MONDAY, 13, MONDAY.plusDays(2), 11));
+
+    for (MeetingFormat format : MeetingFormat.values()) {
+      // Act
+      StringWriter output = new StringWriter();
+      MeetingWriter writer = format.writer(output);
+      for (Meeting meeting : meetings) {
+        writer.write(meeting);
+      }
+      writer.finish();
+      List<Meeting> readBack = read(format, output.toString());
+
+      // Assert
+      assertThat(readBack)
+          .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id")
+          .as(format.getValue())
+          .containsExactlyElementsOf(meetings);
+    }
+  }
+
+  private static List<Meeting> read(MeetingFormat format, String text) throws IOException {
+    MeetingReader reader = format.reader(new BufferedReader(new StringReader(text)));
+    List<Meeting> meetings = new ArrayList<>();
+    MeetingRecord record;
+    while ((record = reader.next()) != null) {
+      meetings.add(reader.parse(record));
+    }
+    return meetings;
+  }
+
+  private static Meeting meeting(
+      Long id, String title, LocalDate date, int startHour, LocalDate endDate, int endHour) {
+    return Meeting.builder()
+        .id(id)
+        .title(title)
+        .date(date)
+        .start(LocalTime.of(startHour, 0))
+        .endDate(endDate)
+        .end(LocalTime.of(endHour, 0))
+        .build();
+  }
+}
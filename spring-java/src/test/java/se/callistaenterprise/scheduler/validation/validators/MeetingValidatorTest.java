@@ -169,6 +169,44 @@ class MeetingValidatorTest {
     verifyErrors("end", FIELD_INVALID, "Meeting end time cannot be after " + workingHours.getEnd());
   }
 
+  @Test
+  void validate_MultiDayMeetingOutsideWorkingHours_ShouldRejectStartAndEndTime() {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    Meeting meeting =
+        Meeting.builder()
+            .title("Overnight")
+            .date(date)
+            .start(LocalTime.of(20, 0))
+            .endDate(date.plusDays(1))
+            .end(LocalTime.of(7, 0))
+            .build();
+
+    errors = new SimpleErrors(meeting);
+    validator.validate(meeting, errors);
+
+    verifyErrors(
+        "start", FIELD_INVALID, "Meeting start time must be before " + workingHours.getEnd());
+    verifyErrors("end", FIELD_INVALID, "Meeting end time must be after " + workingHours.getStart());
+  }
+
+  @Test
+  void validate_MultiDayMeetingWithinWorkingHours_ShouldPass() {
+    LocalDate date = LocalDate.of(2025, 3, 10);
+    Meeting meeting =
+        Meeting.builder()
+            .title("Workshop")
+            .date(date)
+            .start(LocalTime.of(13, 0))
+            .endDate(date.plusDays(1))
+            .end(LocalTime.of(12, 0))
+            .build();
+
+    errors = new SimpleErrors(meeting);
+    validator.validate(meeting, errors);
+
+    assertThat(errors.hasErrors()).isFalse();
+  }
+
   private void verifyErrors(String field, SchedulerErrors.ErrorCode errorCode, String message) {
     verifyErrors(field, errorCode.name(), message);
   }